@@ -0,0 +1,365 @@
+package communicators;
+
+import interfaces.Communicator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * Communicator over byte channels, for scripted and replayed sessions.  Input and output are UTF-8 through buffers of
+ * their own; lines and integers are parsed straight from the input buffer, so reading a line makes no garbage besides
+ * the String returned, and reading an integer makes none.
+ * <br><br>
+ * Behaves as <code>ConsoleCommunicator</code> does: a line ends at "\n", "\r\n" or "\r"; <code>nextInt</code> skips
+ * white space (line ends included), leaves the rest of its line to be read by <code>nextLine</code>, and leaves a
+ * token that is not an integer in place; and <code>send</code> writes the string and a line end.  Output is only
+ * written when the buffer fills, on <code>flush</code>, and on <code>close</code>.
+ * <br>
+ * Not thread-safe.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+public class ChannelCommunicator implements Communicator, Closeable
+{
+    public static final int DEFAULT_BUFFER = 1 << 16;
+
+    private static final char REPLACEMENT = '\uFFFD'; // malformed UTF-8
+
+    private final ReadableByteChannel in;
+    private final WritableByteChannel out;
+    private ByteBuffer input; // grows only to look ahead at an integer longer than the buffer
+    private final ByteBuffer output;
+    private char[] line = new char[256]; // grows to the longest line read
+    private boolean endOfInput;
+    private boolean afterCR; // a "\n" straight after a "\r" is part of the same line end
+
+    /**
+     * Constructor.
+     * @param in channel to read from.
+     * @param out channel to write to.
+     */
+    public ChannelCommunicator(ReadableByteChannel in, WritableByteChannel out)
+    {
+        this(in, out, DEFAULT_BUFFER);
+    }
+
+    /**
+     * Constructor.
+     * @param in channel to read from.
+     * @param out channel to write to.
+     * @param bufferSize bytes in each of the input and output buffers.
+     * @throws IllegalArgumentException if bufferSize is less than 4 (the longest UTF-8 character).
+     */
+    public ChannelCommunicator(ReadableByteChannel in, WritableByteChannel out, int bufferSize)
+    {
+        if (bufferSize < 4)
+            throw new IllegalArgumentException("Buffer must hold at least 4 bytes.");
+        this.in = in;
+        this.out = out;
+        input = ByteBuffer.allocateDirect(bufferSize);
+        input.flip(); // empty
+        output = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Gets next line of input.
+     * @return String, without the line end.
+     * @throws NoSuchElementException if the input has ended.
+     * @throws UncheckedIOException if the channel cannot be read.
+     */
+    @Override
+    public String nextLine()
+    {
+        int length = 0;
+        int c;
+        while ((c = read()) != -1)
+        {
+            if (afterCR)
+            {
+                afterCR = false;
+                if (c == '\n')
+                    continue;
+            }
+            if (c == '\n')
+                return new String(line, 0, length);
+            if (c == '\r')
+            {
+                afterCR = true;
+                return new String(line, 0, length);
+            }
+
+            if (length + 2 > line.length) // room for a surrogate pair
+                line = Arrays.copyOf(line, 2 * line.length);
+            if (c > 0xFFFF)
+            {
+                line[length++] = Character.highSurrogate(c);
+                line[length++] = Character.lowSurrogate(c);
+            }
+            else
+                line[length++] = (char) c;
+        }
+
+        if (length == 0)
+            throw new NoSuchElementException("No line found");
+        return new String(line, 0, length); // last line has no line end
+    }
+
+    /**
+     * Gets next integer of input.  As with Scanner, the white space before the token is skipped, but the token is
+     * only consumed if it is an integer; otherwise it is left to be read.
+     * @return Int.
+     * @throws InputMismatchException if the next token is not an integer in range.
+     * @throws NoSuchElementException if the input has ended.
+     * @throws UncheckedIOException if the channel cannot be read.
+     */
+    @Override
+    public int nextInt()
+    {
+        int c;
+        while ((c = peekByte()) != -1 && isWhitespace(c))
+            consume();
+        if (c == -1)
+            throw new NoSuchElementException();
+        afterCR = false; // a line end was skipped over, or is not next
+
+        int i = 0; // bytes of token looked at
+        boolean negative = c == '-';
+        if (negative || c == '+')
+            c = peekByte(++i);
+
+        long value = 0; // negative, to reach Integer.MIN_VALUE
+        int digits = 0;
+        while (c >= '0' && c <= '9')
+        {
+            value = value * 10 - (c - '0');
+            if (value < Integer.MIN_VALUE)
+                throw new InputMismatchException("Integer out of range.");
+            digits++;
+            c = peekByte(++i);
+        }
+        if (digits == 0 || (c != -1 && !isWhitespace(c)))
+            throw new InputMismatchException("Not an integer.");
+        if (!negative && value == Integer.MIN_VALUE)
+            throw new InputMismatchException("Integer out of range.");
+
+        input.position(input.position() + i);
+        return (int) (negative ? value : -value);
+    }
+
+    /**
+     * Writes string and a line end.
+     * @param str String.
+     * @throws UncheckedIOException if the channel cannot be written.
+     */
+    @Override
+    public void send(String str)
+    {
+        for (int i = 0; i < str.length(); i++)
+        {
+            if (output.remaining() < 4)
+                drain();
+
+            char c = str.charAt(i);
+            if (c < 0x80)
+                output.put((byte) c);
+            else if (c < 0x800)
+            {
+                output.put((byte) (0xC0 | (c >> 6)));
+                output.put((byte) (0x80 | (c & 0x3F)));
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < str.length() &&
+                    Character.isLowSurrogate(str.charAt(i + 1)))
+            {
+                int cp = Character.toCodePoint(c, str.charAt(++i));
+                output.put((byte) (0xF0 | (cp >> 18)));
+                output.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                output.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                output.put((byte) (0x80 | (cp & 0x3F)));
+            }
+            else if (Character.isSurrogate(c)) // unpaired
+                output.put((byte) '?');
+            else
+            {
+                output.put((byte) (0xE0 | (c >> 12)));
+                output.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                output.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        if (!output.hasRemaining())
+            drain();
+        output.put((byte) '\n');
+    }
+
+    /**
+     * Write everything sent so far to the output channel.
+     * @throws UncheckedIOException if the channel cannot be written.
+     */
+    public void flush()
+    {
+        drain();
+    }
+
+    /**
+     * Flush the output, and close both channels.
+     * @throws IOException if a channel cannot be written or closed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            flush();
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        finally
+        {
+            try
+            {
+                out.close();
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Buffers
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Read one character; code points beyond the Basic Multilingual Plane are returned whole.
+     * @return code point; -1 at end of input.
+     */
+    private int read()
+    {
+        int b = peekByte();
+        if (b == -1)
+            return -1;
+        consume();
+        if (b < 0x80)
+            return b;
+
+        int extra, cp;
+        if ((b & 0xE0) == 0xC0)
+        {
+            extra = 1;
+            cp = b & 0x1F;
+        }
+        else if ((b & 0xF0) == 0xE0)
+        {
+            extra = 2;
+            cp = b & 0x0F;
+        }
+        else if ((b & 0xF8) == 0xF0)
+        {
+            extra = 3;
+            cp = b & 0x07;
+        }
+        else
+            return REPLACEMENT; // continuation byte or invalid lead byte
+
+        for (int i = 0; i < extra; i++)
+        {
+            int next = peekByte();
+            if (next == -1 || (next & 0xC0) != 0x80)
+                return REPLACEMENT; // truncated; the next byte starts a new character
+            consume();
+            cp = (cp << 6) | (next & 0x3F);
+        }
+        return (cp > Character.MAX_CODE_POINT || (cp <= 0xFFFF && Character.isSurrogate((char) cp))) ? REPLACEMENT : cp;
+    }
+
+    /**
+     * Look at the next byte of input, filling the buffer if needed.
+     * @return byte, 0 to 255; -1 at end of input.
+     */
+    private int peekByte()
+    {
+        return peekByte(0);
+    }
+
+    /**
+     * Look at a byte of input ahead of the next, without consuming any; the buffer is filled, and grown if full.
+     * @param ahead bytes after the next.
+     * @return byte, 0 to 255; -1 if the input ends first.
+     */
+    private int peekByte(int ahead)
+    {
+        while (input.remaining() <= ahead)
+        {
+            if (endOfInput)
+                return -1;
+            if (input.remaining() == input.capacity()) // full; look further ahead
+            {
+                ByteBuffer larger = ByteBuffer.allocateDirect(2 * input.capacity());
+                larger.put(input);
+                larger.flip();
+                input = larger;
+            }
+            input.compact();
+            try
+            {
+                int n;
+                do
+                    n = in.read(input);
+                while (n == 0);
+                endOfInput = n == -1;
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+            finally
+            {
+                input.flip();
+            }
+        }
+        return input.get(input.position() + ahead) & 0xFF;
+    }
+
+    /**
+     * Move past the byte returned by peekByte.
+     */
+    private void consume()
+    {
+        input.position(input.position() + 1);
+    }
+
+    private static boolean isWhitespace(int b)
+    {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B;
+    }
+
+    private void drain()
+    {
+        output.flip();
+        try
+        {
+            while (output.hasRemaining())
+                out.write(output);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        finally
+        {
+            output.clear();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package communicators;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Communicator that reads a session script from a file, and writes to a file or to the console.  See
+ * <code>ChannelCommunicator</code> for the parsing and buffering.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+public class FileCommunicator extends ChannelCommunicator
+{
+    /**
+     * Constructor.  Output goes to the console.
+     * @param script file of input.
+     * @throws IOException if the file cannot be opened.
+     */
+    public FileCommunicator(Path script) throws IOException
+    {
+        super(FileChannel.open(script, StandardOpenOption.READ), console());
+    }
+
+    /**
+     * Constructor.
+     * @param script file of input.
+     * @param transcript file of output; created, or replaced if it exists.
+     * @throws IOException if a file cannot be opened.
+     */
+    public FileCommunicator(Path script, Path transcript) throws IOException
+    {
+        this(open(script, transcript));
+    }
+
+    /**
+     * Constructor.
+     * @param channels script and transcript.
+     */
+    private FileCommunicator(FileChannel[] channels)
+    {
+        super(channels[0], channels[1]);
+    }
+
+    /**
+     * Open the script, then the transcript; the script is closed if the transcript cannot be opened.
+     * @return script and transcript.
+     */
+    private static FileChannel[] open(Path script, Path transcript) throws IOException
+    {
+        FileChannel in = FileChannel.open(script, StandardOpenOption.READ);
+        try
+        {
+            return new FileChannel[]{in, FileChannel.open(transcript, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)};
+        }
+        catch (IOException | RuntimeException e)
+        {
+            try
+            {
+                in.close();
+            }
+            catch (IOException suppressed)
+            {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Channel to the console that is flushed, not closed, on close.
+     */
+    private static WritableByteChannel console()
+    {
+        WritableByteChannel channel = Channels.newChannel(System.out);
+        return new WritableByteChannel()
+        {
+            @Override
+            public int write(ByteBuffer src) throws IOException
+            {
+                return channel.write(src);
+            }
+
+            @Override
+            public boolean isOpen()
+            {
+                return true;
+            }
+
+            @Override
+            public void close()
+            {
+                System.out.flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,160 @@
+package communicators;
+
+import engines.MachineCache;
+import engines.TableMachine;
+import exceptions.BadKeyException;
+import machines.MachineKey;
+import monitoring.LatencyRecorder;
+import monitoring.MetricsReporter;
+import resources.AlphabetConverter;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operator sessions of a <code>SessionServer</code>: each session sets up its own machine and types on it.  Keys are
+ * shared between sessions through a <code>MachineCache</code>, and each session has a <code>TableMachine</code> cursor
+ * of its own.
+ * <br><br>
+ * Commands, one per line:
+ * <pre>
+ * KEY &lt;version&gt; &lt;reflector&gt; &lt;rotors&gt; &lt;rings&gt; [plugboard pairs...]
+ *     set up the machine, e.g. KEY ENIGMA_1 B II-IV-V 02-21-12 AV BS CG; rotors start at the first letter
+ * SET &lt;letters&gt;   turn the rotors to letters in the windows, leftmost first
+ * TYPE &lt;text&gt;     type the letters of text (spaces are ignored); replies with the letters lit
+ * QUIT
+ * </pre>
+ * Replies are <code>OK</code>, the letters lit, or <code>ERROR &lt;reason&gt;</code>.
+ * <br><br>
+ * If given a <code>LatencyRecorder</code>, the time to type each TYPE line is recorded by machine version and length.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+public class OperatorHandler implements SessionServer.Handler
+{
+    private final MachineCache cache;
+    private volatile LatencyRecorder latency; // null if not recording
+
+    /**
+     * State of one session.
+     */
+    private static class Operator
+    {
+        private MachineKey key;
+        private TableMachine machine;
+    }
+
+    /**
+     * Constructor.
+     * @param cache cache of keys, shared by every session.
+     */
+    public OperatorHandler(MachineCache cache)
+    {
+        this.cache = cache;
+    }
+
+    /**
+     * Record the latency of every TYPE line from now on.
+     * @param latency LatencyRecorder; null to stop recording.
+     */
+    public void setLatencyRecorder(LatencyRecorder latency)
+    {
+        this.latency = latency;
+    }
+
+    @Override
+    public void opened(SocketCommunicator session)
+    {
+        session.setAttachment(new Operator());
+        session.send("READY KEY, SET, TYPE, QUIT");
+    }
+
+    @Override
+    public void received(SocketCommunicator session)
+    {
+        Operator operator = (Operator) session.getAttachment();
+        while (!session.isClosing() && session.hasNextLine())
+        {
+            String line = session.nextLine().trim();
+            if (line.isEmpty())
+                continue;
+            int space = line.indexOf(' ');
+            String command = (space == -1) ? line : line.substring(0, space);
+            String argument = (space == -1) ? "" : line.substring(space + 1).trim();
+
+            try
+            {
+                session.send(command(operator, command.toUpperCase(), argument));
+                if (command.equalsIgnoreCase("QUIT"))
+                    session.close();
+            }
+            catch (BadKeyException | IllegalArgumentException | IllegalStateException e)
+            {
+                session.send("ERROR " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Carry out one command.
+     * @return reply.
+     */
+    private String command(Operator operator, String command, String argument)
+    {
+        switch (command)
+        {
+            case "KEY":
+                MachineKey key = MachineKey.parse(argument);
+                operator.machine = new TableMachine(cache.get(key));
+                operator.key = key;
+                return "OK";
+            case "SET":
+                if (operator.key == null)
+                    throw new IllegalStateException("No KEY set.");
+                operator.machine = cache.cursor(operator.key, argument);
+                return "OK";
+            case "TYPE":
+                if (operator.machine == null)
+                    throw new IllegalStateException("No KEY set.");
+                String text = argument.replace(" ", "");
+                long start = System.nanoTime();
+                String lit = operator.machine.type(text);
+                LatencyRecorder recorder = latency;
+                if (recorder != null)
+                    recorder.record(operator.key.getVersion().name(), text.length(), System.nanoTime() - start);
+                return lit;
+            case "QUIT":
+                return "BYE";
+            default:
+                return "ERROR Unknown command " + command + ".";
+        }
+    }
+
+    /**
+     * Serve operator sessions.
+     * @param args port (default 8023).  Latency percentiles are written to standard error every minute.
+     * @throws IOException if the port cannot be bound.
+     */
+    @SuppressWarnings("try") // reporter runs on its own thread; it is only opened to be closed
+    public static void main(String[] args) throws IOException
+    {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : 8023;
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+
+        OperatorHandler handler = new OperatorHandler(new MachineCache(256));
+        LatencyRecorder latency = new LatencyRecorder();
+        handler.setLatencyRecorder(latency);
+        try (MetricsReporter reporter = new MetricsReporter(() -> latency.toText(true), System.err::print, 1,
+                TimeUnit.MINUTES);
+             SessionServer server = new SessionServer(new InetSocketAddress(port), handler))
+        {
+            System.err.println("Serving operator sessions on port " + server.getPort());
+            server.run();
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package communicators;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/**
+ * Server of telnet-style sessions, one <code>SocketCommunicator</code> per client, all run by a single thread around
+ * an NIO selector.  When a client connects, or sends anything, the handler is called on the thread of the server;
+ * replies it sends are written once it returns.  A client that falls behind in reading its replies stops being read
+ * until they are written.
+ * <br><br>
+ * The handler must not block, as every session waits on it.  A session is ended, without ending the server, if its
+ * client disconnects, a line is too long, its replies pile up, or the handler throws.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+public class SessionServer implements Runnable, Closeable
+{
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Handler handler;
+    private volatile boolean running = true;
+    private volatile int sessions;
+    private Thread thread; // set by start
+
+    /**
+     * Reacts to the sessions of a server.
+     */
+    public interface Handler
+    {
+        /**
+         * A client has connected.
+         * @param session new session.
+         */
+        void opened(SocketCommunicator session);
+
+        /**
+         * More input has arrived; take whatever whole lines or integers are ready.
+         * @param session session.
+         */
+        void received(SocketCommunicator session);
+
+        /**
+         * The session has ended.
+         * @param session session.
+         */
+        default void closed(SocketCommunicator session)
+        {
+        }
+    }
+
+    /**
+     * Constructor; binds the address.
+     * @param address address to listen on; port 0 for any free port.
+     * @param handler handler of sessions.
+     * @throws IOException if the address cannot be bound.
+     */
+    public SessionServer(InetSocketAddress address, Handler handler) throws IOException
+    {
+        this.handler = handler;
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        try
+        {
+            server.bind(address);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        }
+        catch (IOException e)
+        {
+            server.close();
+            selector.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Run the server on a thread of its own.
+     * @return this.
+     * @throws IllegalStateException if already started.
+     */
+    public synchronized SessionServer start()
+    {
+        if (thread != null)
+            throw new IllegalStateException("Server already started.");
+        thread = new Thread(this, "session-server");
+        thread.start();
+        return this;
+    }
+
+    /**
+     * Get the port listened on.
+     * @return port.
+     */
+    public int getPort()
+    {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Get the number of sessions open.
+     * @return number of sessions.
+     */
+    public int getSessions()
+    {
+        return sessions;
+    }
+
+    /**
+     * Run the server on the calling thread until closed.
+     */
+    @Override
+    public void run()
+    {
+        try
+        {
+            while (running)
+            {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext())
+                {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid())
+                        continue;
+                    if (key.isAcceptable())
+                        accept();
+                    else
+                        serve(key, (SocketCommunicator) key.attachment());
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        finally
+        {
+            for (SelectionKey key : selector.keys())
+                if (key.attachment() != null)
+                    end(key, (SocketCommunicator) key.attachment());
+        }
+    }
+
+    /**
+     * Stop the server and end every session.
+     * @throws IOException if a channel cannot be closed.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        running = false;
+        selector.wakeup();
+        Thread t;
+        synchronized (this)
+        {
+            t = thread;
+        }
+        if (t != null && t != Thread.currentThread())
+            try
+            {
+                t.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        server.close();
+        selector.close();
+    }
+
+    /**
+     * Take every waiting client.  A client that cannot be accepted or set up is dropped; only a failure of the selector
+     * ends the server.
+     */
+    private void accept()
+    {
+        while (true)
+        {
+            SocketChannel channel;
+            try
+            {
+                if ((channel = server.accept()) == null)
+                    return;
+            }
+            catch (IOException e) // such as no descriptors left; try again on the next select
+            {
+                return;
+            }
+
+            SocketCommunicator session = new SocketCommunicator(channel);
+            SelectionKey key;
+            try
+            {
+                channel.configureBlocking(false);
+                key = channel.register(selector, SelectionKey.OP_READ, session);
+            }
+            catch (IOException e) // client gone before its session began
+            {
+                try
+                {
+                    channel.close();
+                }
+                catch (IOException ignored)
+                {
+                    // already gone
+                }
+                continue;
+            }
+
+            sessions++;
+            try
+            {
+                handler.opened(session);
+                afterHandler(key, session);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                end(key, session);
+            }
+        }
+    }
+
+    private void serve(SelectionKey key, SocketCommunicator session)
+    {
+        try
+        {
+            if (key.isReadable())
+            {
+                if (session.fill() == -1)
+                {
+                    end(key, session);
+                    return;
+                }
+                handler.received(session);
+            }
+            afterHandler(key, session);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            end(key, session);
+        }
+    }
+
+    /**
+     * Write replies; wait for the client to read them before reading more from it.
+     */
+    private void afterHandler(SelectionKey key, SocketCommunicator session) throws IOException
+    {
+        if (!session.flush())
+            key.interestOps(SelectionKey.OP_WRITE);
+        else if (session.isClosing())
+            end(key, session);
+        else
+            key.interestOps(SelectionKey.OP_READ);
+    }
+
+    private void end(SelectionKey key, SocketCommunicator session)
+    {
+        if (!key.isValid()) // already ended
+            return;
+        key.cancel();
+        try
+        {
+            session.getChannel().close();
+        }
+        catch (IOException e)
+        {
+            // already gone
+        }
+        sessions--;
+        try
+        {
+            handler.closed(session);
+        }
+        catch (RuntimeException e)
+        {
+            // session is over either way
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package communicators;
+
+import interfaces.Communicator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * Communicator of one session of a <code>SessionServer</code>.  The server reads what the client sends into the input
+ * buffer of the session, which is kept and reused for the whole session, and then calls its handler; the handler takes
+ * the complete lines and integers already received, and sends replies, which are queued and written by the server with
+ * gathering writes.
+ * <br><br>
+ * Nothing blocks: <code>nextLine</code> and <code>nextInt</code> throw <code>NoSuchElementException</code> if what they
+ * need has not been received yet, so check <code>hasNextLine</code> first.  Lines end at "\n" (a "\r" before it is
+ * dropped), and <code>send</code> ends lines with "\r\n", as telnet does.
+ * <br>
+ * Only to be used from the handler, on the thread of the server.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class SocketCommunicator implements Communicator
+{
+    public static final int MAX_LINE = 1 << 16; // bytes; a longer line ends the session
+    public static final int MAX_PENDING = 1 << 20; // bytes of replies not yet written; more ends the session
+
+    private static final ByteBuffer LINE_END = ByteBuffer.wrap("\r\n".getBytes(StandardCharsets.US_ASCII))
+            .asReadOnlyBuffer();
+    private static final int GATHER = 32; // buffers per gathering write
+
+    private final SocketChannel channel;
+    private ByteBuffer input = ByteBuffer.allocate(1024); // received bytes, in read mode
+    private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+    private final ByteBuffer[] gather = new ByteBuffer[GATHER];
+    private long pendingBytes;
+    private boolean closing;
+    private Object attachment;
+
+    /**
+     * Constructor.
+     * @param channel connected channel, in non-blocking mode.
+     */
+    SocketCommunicator(SocketChannel channel)
+    {
+        this.channel = channel;
+        input.flip(); // empty
+    }
+
+    /**
+     * Whether a whole line has been received.
+     * @return If <code>nextLine</code> would return a line.
+     */
+    public boolean hasNextLine()
+    {
+        return lineEnd() != -1;
+    }
+
+    /**
+     * Gets next line received.
+     * @return String, without the line end.
+     * @throws NoSuchElementException if no whole line has been received.
+     */
+    @Override
+    public String nextLine()
+    {
+        int end = lineEnd();
+        if (end == -1)
+            throw new NoSuchElementException("No line received.");
+
+        int start = input.position();
+        int length = end - start;
+        if (length > 0 && input.get(end - 1) == '\r')
+            length--;
+        String line = new String(input.array(), input.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        input.position(end + 1);
+        return line;
+    }
+
+    /**
+     * Gets next integer received.  White space is skipped, and the rest of the line is left for
+     * <code>nextLine</code>.
+     * @return Int.
+     * @throws InputMismatchException if the next token is not an integer in range; the token is skipped.
+     * @throws NoSuchElementException if the whole of the next token has not been received; nothing is taken.
+     */
+    @Override
+    public int nextInt()
+    {
+        int i = input.position();
+        int limit = input.limit();
+        while (i < limit && isWhitespace(input.get(i)))
+            i++;
+
+        int end = i;
+        while (end < limit && !isWhitespace(input.get(end)))
+            end++;
+        if (end == limit) // token may go on
+            throw new NoSuchElementException("No integer received.");
+        input.position(end);
+
+        boolean negative = input.get(i) == '-';
+        if (negative || input.get(i) == '+')
+            i++;
+        if (i == end)
+            throw new InputMismatchException("Not an integer.");
+        long value = 0;
+        for (; i < end; i++)
+        {
+            byte b = input.get(i);
+            if (b < '0' || b > '9')
+                throw new InputMismatchException("Not an integer.");
+            value = value * 10 + (b - '0');
+            if (value > (long) Integer.MAX_VALUE + 1)
+                throw new InputMismatchException("Integer out of range.");
+        }
+        if (negative)
+            value = -value;
+        if (value > Integer.MAX_VALUE)
+            throw new InputMismatchException("Integer out of range.");
+        return (int) value;
+    }
+
+    /**
+     * Sends string and a line end.  The reply is written once the handler returns.
+     * @param str String.
+     */
+    @Override
+    public void send(String str)
+    {
+        if (closing)
+            return;
+        ByteBuffer bytes = ByteBuffer.wrap(str.getBytes(StandardCharsets.UTF_8));
+        pending.add(bytes);
+        pending.add(LINE_END.duplicate());
+        pendingBytes += bytes.remaining() + LINE_END.remaining();
+    }
+
+    /**
+     * End the session once every reply sent so far has been written.  Later replies are dropped.
+     */
+    public void close()
+    {
+        closing = true;
+    }
+
+    /**
+     * @return If <code>close</code> has been called.
+     */
+    public boolean isClosing()
+    {
+        return closing;
+    }
+
+    /**
+     * Get the object attached by the handler, such as the state of the session.
+     * @return attachment; null if none.
+     */
+    public Object getAttachment()
+    {
+        return attachment;
+    }
+
+    /**
+     * Attach an object to the session.
+     * @param attachment object; null to remove.
+     */
+    public void setAttachment(Object attachment)
+    {
+        this.attachment = attachment;
+    }
+
+    /**
+     * @return address of the client; null if not known.
+     */
+    public String getRemoteAddress()
+    {
+        try
+        {
+            return String.valueOf(channel.getRemoteAddress());
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Server side
+    // -----------------------------------------------------------------------------------------------------------------
+
+    SocketChannel getChannel()
+    {
+        return channel;
+    }
+
+    /**
+     * Read what has arrived into the input buffer, growing it for a long line.
+     * @return number of bytes read; -1 at end of stream.
+     * @throws IOException if the channel cannot be read, or a line is longer than MAX_LINE.
+     */
+    int fill() throws IOException
+    {
+        input.compact();
+        if (!input.hasRemaining())
+        {
+            if (input.capacity() >= MAX_LINE)
+                throw new IOException("Line longer than " + MAX_LINE + " bytes.");
+            input.flip();
+            input = ByteBuffer.allocate(Math.min(2 * input.capacity(), MAX_LINE)).put(input);
+        }
+        try
+        {
+            return channel.read(input);
+        }
+        finally
+        {
+            input.flip();
+        }
+    }
+
+    /**
+     * Write queued replies, as far as the channel takes them.
+     * @return If every reply was written.
+     * @throws IOException if the channel cannot be written, or more than MAX_PENDING bytes are waiting.
+     */
+    boolean flush() throws IOException
+    {
+        while (!pending.isEmpty())
+        {
+            int n = 0;
+            for (ByteBuffer buffer : pending)
+            {
+                gather[n++] = buffer;
+                if (n == GATHER)
+                    break;
+            }
+            long written = channel.write(gather, 0, n);
+            pendingBytes -= written;
+            while (!pending.isEmpty() && !pending.peek().hasRemaining())
+                pending.poll();
+            if (written == 0)
+                break;
+        }
+        for (int i = 0; i < GATHER; i++)
+            gather[i] = null;
+
+        if (pendingBytes > MAX_PENDING)
+            throw new IOException("Client is not reading replies.");
+        return pending.isEmpty();
+    }
+
+    /**
+     * Find the end of the next line.
+     * @return index of "\n" in the input buffer; -1 if none.
+     */
+    private int lineEnd()
+    {
+        for (int i = input.position(); i < input.limit(); i++)
+            if (input.get(i) == '\n')
+                return i;
+        return -1;
+    }
+
+    private static boolean isWhitespace(byte b)
+    {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B;
+    }
+}
@@ -0,0 +1,631 @@
+package cryptanalysis;
+
+import engines.ScramblerTables;
+import exceptions.BadKeyException;
+import machines.MachineKey;
+import monitoring.SearchProgressEvent;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated-annealing search for the ring settings and plugboard of a message whose wheel order, reflector and rotor
+ * positions are known (for example, from the indicator).  Each restart starts from random rings (of the slots
+ * searched) and an empty plugboard, and takes a fixed number of steps; a step changes one ring, or connects or
+ * disconnects one plugboard pair, and the change is kept if it scores better, or with probability
+ * e<sup>&Delta;/T</sup> if worse, where the temperature <i>T</i> falls over the restart as set by the
+ * <code>Cooling</code> schedule.
+ * <br><br>
+ * The rotors come from <code>ScramblerTables.of(MachineKey)</code>, so they turn and are wired as <code>Rotor</code>.
+ * For a set of rings, the permutation the rotors and reflector make at each letter of the message is worked out once;
+ * a plugboard change then costs only a lookup per letter, since the plugboard is the same permutation each way, as in
+ * <code>Plugboard</code>.  A ring change works the permutations out again.
+ * <br><br>
+ * Restarts are independent tasks on a work-stealing pool.  Each has its own <code>SplittableRandom</code>, split in
+ * order from the seed, so a restart does the same whatever thread runs it; the only shared state is the top
+ * candidates, offered to once per restart, so the search scales with the number of cores.  A time budget stops
+ * restarts running when it is reached and skips those not started.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+public class AnnealingSearch
+{
+    private static final int CHECK_DEADLINE = 1024; // steps between checks of the time budget
+
+    private final Config config;
+    private final int size;
+    private final int[] ciphertext; // letter indexes
+    private final int[] positions; // window positions at the start of the message
+
+    /**
+     * Scores a trial decryption; higher is better.
+     */
+    public interface Scorer
+    {
+        /**
+         * Score a text.
+         * @param text letter indexes.
+         * @param length number of letters.
+         * @return score.
+         */
+        double score(int[] text, int length);
+
+        /**
+         * Index of coincidence times the size of the alphabet: about 1 for random letters, and 1.7 to 2 for
+         * language.  Needs no language statistics, so suits the first stage of a search.
+         */
+        Scorer INDEX_OF_COINCIDENCE = (text, length) -> {
+            int size = AlphabetConverter.getAlphabetConverter().getAlphabet().length;
+            int[] counts = new int[size];
+            for (int i = 0; i < length; i++)
+                counts[text[i]]++;
+            long sum = 0;
+            for (int count : counts)
+                sum += (long) count * (count - 1);
+            return (length < 2) ? 0 : (double) sum * size / ((long) length * (length - 1));
+        };
+    }
+
+    /**
+     * Temperature over a restart.
+     */
+    public interface Cooling
+    {
+        /**
+         * Get the temperature.
+         * @param progress fraction of the steps of the restart taken, from 0 to 1.
+         * @return temperature; 0 or less accepts only changes that do not lower the score.
+         */
+        double temperature(double progress);
+
+        /**
+         * Fall by the same factor each step.
+         * @param from temperature at the start.
+         * @param to temperature at the end; greater than 0.
+         * @return Cooling.
+         */
+        static Cooling exponential(double from, double to)
+        {
+            double ratio = to / from;
+            return progress -> from * Math.pow(ratio, progress);
+        }
+
+        /**
+         * Fall by the same amount each step.
+         * @param from temperature at the start.
+         * @param to temperature at the end.
+         * @return Cooling.
+         */
+        static Cooling linear(double from, double to)
+        {
+            return progress -> from + (to - from) * progress;
+        }
+    }
+
+    /**
+     * What is known of the message, and how to search.  Immutable; the <code>with</code> methods make changed copies.
+     */
+    public static final class Config
+    {
+        private final WiringData.enimgaVersion version;
+        private final String[] rotors; // leftmost first
+        private final String reflector;
+        private final String positions; // window letters
+        private final String ciphertext;
+        private final int[] rings; // 01 -> A; rings of slots not searched
+        private final boolean[] searched; // [slot]; if ring is searched
+        private final int maxPairs;
+        private final Scorer scorer;
+        private final Cooling cooling;
+        private final double ringChance; // chance that a step changes a ring rather than the plugboard
+        private final int restarts;
+        private final int steps;
+        private final int threads;
+        private final int topK;
+        private final long seed;
+        private final long budgetNanos;
+
+        /**
+         * Constructor; every ring is searched from 01, with the defaults: at most 10 plugboard pairs, index of
+         * coincidence, exponential cooling from 0.05 to 0.0005, a ring change in 2% of steps, 64 restarts of 20,000
+         * steps on every core, the top 10 kept, seed 0 and no time budget.
+         * @param version version of the machine.
+         * @param rotors names of rotors, leftmost first.
+         * @param reflector name of reflector.
+         * @param positions letters in the rotor windows at the start of the message, leftmost first.
+         * @param ciphertext message, in the alphabet of AlphabetConverter.
+         */
+        public Config(WiringData.enimgaVersion version, String[] rotors, String reflector, String positions,
+                      String ciphertext)
+        {
+            this(version, rotors.clone(), reflector, positions, ciphertext, ones(rotors.length),
+                    all(rotors.length), 10, Scorer.INDEX_OF_COINCIDENCE, Cooling.exponential(0.05, 0.0005), 0.02,
+                    64, 20_000, Runtime.getRuntime().availableProcessors(), 10, 0, Long.MAX_VALUE);
+        }
+
+        private Config(WiringData.enimgaVersion version, String[] rotors, String reflector, String positions,
+                       String ciphertext, int[] rings, boolean[] searched, int maxPairs, Scorer scorer,
+                       Cooling cooling, double ringChance, int restarts, int steps, int threads, int topK, long seed,
+                       long budgetNanos)
+        {
+            this.version = version;
+            this.rotors = rotors;
+            this.reflector = reflector;
+            this.positions = positions;
+            this.ciphertext = ciphertext;
+            this.rings = rings;
+            this.searched = searched;
+            this.maxPairs = maxPairs;
+            this.scorer = scorer;
+            this.cooling = cooling;
+            this.ringChance = ringChance;
+            this.restarts = restarts;
+            this.steps = steps;
+            this.threads = threads;
+            this.topK = topK;
+            this.seed = seed;
+            this.budgetNanos = budgetNanos;
+        }
+
+        private static int[] ones(int length)
+        {
+            int[] rings = new int[length];
+            Arrays.fill(rings, 1);
+            return rings;
+        }
+
+        private static boolean[] all(int length)
+        {
+            boolean[] searched = new boolean[length];
+            Arrays.fill(searched, true);
+            return searched;
+        }
+
+        /**
+         * Fix the rings of every slot, and search only some.
+         * @param rings ring settings, leftmost first; 01 -> A.  Those of the slots searched are where a restart may
+         * start, if ring moves are rare.
+         * @param slots slots whose ring is searched.
+         * @return Config.
+         */
+        public Config withRings(int[] rings, int... slots)
+        {
+            boolean[] s = new boolean[this.rotors.length];
+            for (int slot : slots)
+                s[slot] = true;
+            return new Config(version, rotors, reflector, positions, ciphertext, rings.clone(), s, maxPairs, scorer,
+                    cooling, ringChance, restarts, steps, threads, topK, seed, budgetNanos);
+        }
+
+        public Config withMaxPairs(int maxPairs)
+        {
+            return new Config(version, rotors, reflector, positions, ciphertext, rings, searched, maxPairs, scorer,
+                    cooling, ringChance, restarts, steps, threads, topK, seed, budgetNanos);
+        }
+
+        public Config withScorer(Scorer scorer)
+        {
+            return new Config(version, rotors, reflector, positions, ciphertext, rings, searched, maxPairs, scorer,
+                    cooling, ringChance, restarts, steps, threads, topK, seed, budgetNanos);
+        }
+
+        public Config withCooling(Cooling cooling)
+        {
+            return new Config(version, rotors, reflector, positions, ciphertext, rings, searched, maxPairs, scorer,
+                    cooling, ringChance, restarts, steps, threads, topK, seed, budgetNanos);
+        }
+
+        public Config withRingChance(double ringChance)
+        {
+            return new Config(version, rotors, reflector, positions, ciphertext, rings, searched, maxPairs, scorer,
+                    cooling, ringChance, restarts, steps, threads, topK, seed, budgetNanos);
+        }
+
+        public Config withRestarts(int restarts, int steps)
+        {
+            return new Config(version, rotors, reflector, positions, ciphertext, rings, searched, maxPairs, scorer,
+                    cooling, ringChance, restarts, steps, threads, topK, seed, budgetNanos);
+        }
+
+        public Config withThreads(int threads)
+        {
+            return new Config(version, rotors, reflector, positions, ciphertext, rings, searched, maxPairs, scorer,
+                    cooling, ringChance, restarts, steps, threads, topK, seed, budgetNanos);
+        }
+
+        public Config withTopK(int topK)
+        {
+            return new Config(version, rotors, reflector, positions, ciphertext, rings, searched, maxPairs, scorer,
+                    cooling, ringChance, restarts, steps, threads, topK, seed, budgetNanos);
+        }
+
+        public Config withSeed(long seed)
+        {
+            return new Config(version, rotors, reflector, positions, ciphertext, rings, searched, maxPairs, scorer,
+                    cooling, ringChance, restarts, steps, threads, topK, seed, budgetNanos);
+        }
+
+        public Config withBudget(long budget, TimeUnit unit)
+        {
+            return new Config(version, rotors, reflector, positions, ciphertext, rings, searched, maxPairs, scorer,
+                    cooling, ringChance, restarts, steps, threads, topK, seed, unit.toNanos(budget));
+        }
+    }
+
+    /**
+     * A key found by the search.
+     */
+    public static final class Candidate
+    {
+        private final MachineKey key;
+        private final String positions;
+        private final double score;
+        private final int restart;
+
+        private Candidate(MachineKey key, String positions, double score, int restart)
+        {
+            this.key = key;
+            this.positions = positions;
+            this.score = score;
+            this.restart = restart;
+        }
+
+        public MachineKey getKey()
+        {
+            return key;
+        }
+
+        /**
+         * @return letters in the rotor windows at the start of the message.
+         */
+        public String getPositions()
+        {
+            return positions;
+        }
+
+        public double getScore()
+        {
+            return score;
+        }
+
+        /**
+         * @return index of restart that found the key.
+         */
+        public int getRestart()
+        {
+            return restart;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s %s score=%.4f", key, positions, score);
+        }
+    }
+
+    /**
+     * Best candidates of all restarts, each key once.
+     */
+    private static final class TopK
+    {
+        private final int capacity;
+        private final List<Candidate> best = new ArrayList<>(); // highest score first
+        private volatile double floor = Double.NEGATIVE_INFINITY; // score to beat once full
+
+        TopK(int capacity)
+        {
+            this.capacity = capacity;
+        }
+
+        void offer(Candidate candidate)
+        {
+            if (candidate.score <= floor)
+                return;
+            synchronized (best)
+            {
+                for (int i = 0; i < best.size(); i++)
+                    if (best.get(i).key.equals(candidate.key))
+                    {
+                        if (best.get(i).score >= candidate.score)
+                            return;
+                        best.remove(i);
+                        break;
+                    }
+                int at = 0;
+                while (at < best.size() && best.get(at).score >= candidate.score)
+                    at++;
+                best.add(at, candidate);
+                if (best.size() > capacity)
+                    best.remove(capacity);
+                if (best.size() == capacity)
+                    floor = best.get(capacity - 1).score;
+            }
+        }
+
+        List<Candidate> snapshot()
+        {
+            synchronized (best)
+            {
+                return Collections.unmodifiableList(new ArrayList<>(best));
+            }
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param config what is known of the message, and how to search.
+     * @throws BadKeyException if the wheel order, reflector or positions are not valid for the version.
+     * @throws IllegalArgumentException if the ciphertext has a letter outside the alphabet, or a setting is out of
+     * range.
+     * @throws IllegalStateException if AlphabetConverter has not been instantiated.
+     */
+    public AnnealingSearch(Config config) throws BadKeyException, IllegalArgumentException, IllegalStateException
+    {
+        if (!AlphabetConverter.exists())
+            throw new IllegalStateException("AlphabetConverter must first be instantiated.");
+        if (config.restarts < 1 || config.steps < 1 || config.threads < 1 || config.topK < 1 || config.maxPairs < 0)
+            throw new IllegalArgumentException("Restarts, steps, threads and top K must be at least 1; pairs may "
+                    + "not be negative.");
+        if (config.rings.length != config.rotors.length)
+            throw new IllegalArgumentException("Expected " + config.rotors.length + " ring settings.");
+        new MachineKey(config.version, config.rotors, config.rings, config.reflector, "").validate();
+
+        AlphabetConverter ac = AlphabetConverter.getAlphabetConverter();
+        this.config = config;
+        size = ac.getAlphabet().length;
+        if (config.positions.length() != config.rotors.length)
+            throw new BadKeyException("Expected " + config.rotors.length + " rotor positions: " + config.positions);
+        positions = new int[config.rotors.length];
+        for (int i = 0; i < positions.length; i++)
+            if ((positions[i] = ac.convert(config.positions.charAt(i))) == -1)
+                throw new BadKeyException("Rotor position is not in the alphabet: " + config.positions.charAt(i));
+        ciphertext = new int[config.ciphertext.length()];
+        for (int i = 0; i < ciphertext.length; i++)
+            if ((ciphertext[i] = ac.convert(config.ciphertext.charAt(i))) == -1)
+                throw new IllegalArgumentException("Ciphertext has a letter outside the alphabet: " +
+                        config.ciphertext.charAt(i));
+    }
+
+    /**
+     * Run every restart, or as many as the time budget allows.
+     * @return best candidates, highest score first; each key once.
+     */
+    public List<Candidate> run()
+    {
+        boolean budgeted = config.budgetNanos != Long.MAX_VALUE; // no deadline to compare against otherwise
+        long deadline = System.nanoTime() + config.budgetNanos; // only meaningful if budgeted
+        TopK best = new TopK(config.topK);
+        SplittableRandom root = new SplittableRandom(config.seed);
+
+        ForkJoinPool pool = new ForkJoinPool(config.threads);
+        try
+        {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int r = 0; r < config.restarts; r++)
+            {
+                int restart = r;
+                SplittableRandom random = root.split();
+                tasks.add(pool.submit(() -> {
+                    if (!budgeted || System.nanoTime() - deadline < 0)
+                        best.offer(anneal(restart, random, budgeted, deadline));
+                }));
+            }
+            for (ForkJoinTask<?> task : tasks)
+                task.join();
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+        return best.snapshot();
+    }
+
+    /**
+     * One restart.
+     * @param budgeted whether the search has a deadline.
+     * @param deadline <code>System.nanoTime</code> at which to stop; ignored if not budgeted.
+     * @return best key of restart.
+     */
+    Candidate anneal(int restart, SplittableRandom random, boolean budgeted, long deadline)
+    {
+        SearchProgressEvent event = new SearchProgressEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        int length = ciphertext.length;
+        int[] slots = searchedSlots();
+        int[] rings = config.rings.clone();
+        for (int slot : slots)
+            rings[slot] = 1 + random.nextInt(size);
+        int[] scrambler = scrambler(rings, new int[length * size]);
+        int[] spare = new int[length * size];
+        int[] plugs = new int[size]; // plugboard; its own inverse
+        for (int c = 0; c < size; c++)
+            plugs[c] = c;
+        int pairs = 0;
+
+        int[] text = new int[length];
+        double score = score(scrambler, plugs, text);
+        double bestScore = score;
+        int[] bestRings = rings.clone();
+        int[] bestPlugs = plugs.clone();
+        int[] saved = new int[size];
+
+        int step = 0;
+        for (; step < config.steps; step++)
+        {
+            if (budgeted && (step & (CHECK_DEADLINE - 1)) == 0 && step != 0 && System.nanoTime() - deadline >= 0)
+                break;
+            double temperature = config.cooling.temperature((double) step / config.steps);
+
+            if (slots.length != 0 && random.nextDouble() < config.ringChance)
+            {
+                int slot = slots[random.nextInt(slots.length)];
+                int old = rings[slot];
+                rings[slot] = 1 + Math.floorMod(old - 1 + 1 + random.nextInt(size - 1), size); // any other ring
+                scrambler(rings, spare);
+                double next = score(spare, plugs, text);
+                if (accept(next - score, temperature, random))
+                {
+                    int[] swap = scrambler;
+                    scrambler = spare;
+                    spare = swap;
+                    score = next;
+                }
+                else
+                    rings[slot] = old;
+            }
+            else
+            {
+                int a = random.nextInt(size);
+                int b = random.nextInt(size - 1);
+                if (b >= a)
+                    b++;
+                System.arraycopy(plugs, 0, saved, 0, size);
+                int savedPairs = pairs;
+                if (plugs[a] == b)
+                {
+                    plugs[a] = a; // disconnect
+                    plugs[b] = b;
+                    pairs--;
+                }
+                else
+                {
+                    // connect, moving a and b off any pairs they were in
+                    for (int letter : new int[]{a, b})
+                        if (plugs[letter] != letter)
+                        {
+                            plugs[plugs[letter]] = plugs[letter];
+                            plugs[letter] = letter;
+                            pairs--;
+                        }
+                    plugs[a] = b;
+                    plugs[b] = a;
+                    pairs++;
+                }
+                if (pairs > config.maxPairs)
+                {
+                    System.arraycopy(saved, 0, plugs, 0, size);
+                    pairs = savedPairs;
+                    continue;
+                }
+                double next = score(scrambler, plugs, text);
+                if (accept(next - score, temperature, random))
+                    score = next;
+                else
+                {
+                    System.arraycopy(saved, 0, plugs, 0, size);
+                    pairs = savedPairs;
+                }
+            }
+
+            if (score > bestScore)
+            {
+                bestScore = score;
+                System.arraycopy(rings, 0, bestRings, 0, rings.length);
+                System.arraycopy(plugs, 0, bestPlugs, 0, size);
+            }
+        }
+
+        event.search = "Annealing";
+        event.unit = "restart " + restart;
+        event.keysTested = step;
+        event.bestScore = bestScore;
+        event.commitWithRate(System.nanoTime() - start);
+        return new Candidate(new MachineKey(config.version, config.rotors, bestRings, config.reflector,
+                plugboard(bestPlugs)), config.positions, bestScore, restart);
+    }
+
+    private static boolean accept(double delta, double temperature, SplittableRandom random)
+    {
+        return delta >= 0 || (temperature > 0 && random.nextDouble() < Math.exp(delta / temperature));
+    }
+
+    private int[] searchedSlots()
+    {
+        int count = 0;
+        for (boolean s : config.searched)
+            if (s)
+                count++;
+        int[] slots = new int[count];
+        for (int slot = 0, i = 0; slot < config.searched.length; slot++)
+            if (config.searched[slot])
+                slots[i++] = slot;
+        return slots;
+    }
+
+    /**
+     * Work out the permutation of the rotors and reflector at each letter of the message.
+     * @param out [letter * size + contact]; lamp without the plugboard.
+     * @return out.
+     */
+    private int[] scrambler(int[] rings, int[] out)
+    {
+        ScramblerTables tables = ScramblerTables.of(new MachineKey(config.version, config.rotors, rings,
+                config.reflector, ""));
+        int[] at = positions.clone();
+        for (int i = 0; i < ciphertext.length; i++)
+        {
+            tables.step(at);
+            for (int c = 0; c < size; c++)
+                out[i * size + c] = tables.encipher(at, c);
+        }
+        return out;
+    }
+
+    /**
+     * Decipher with a plugboard, and score the text.
+     */
+    private double score(int[] scrambler, int[] plugs, int[] text)
+    {
+        for (int i = 0; i < text.length; i++)
+            text[i] = plugs[scrambler[i * size + plugs[ciphertext[i]]]];
+        return config.scorer.score(text, text.length);
+    }
+
+    /**
+     * Letter pairs of a plugboard, as a key gives them: "AB CD ...".
+     */
+    private static String plugboard(int[] plugs)
+    {
+        char[] alphabet = AlphabetConverter.getAlphabetConverter().getAlphabet();
+        StringBuilder pairs = new StringBuilder();
+        for (int c = 0; c < plugs.length; c++)
+            if (plugs[c] > c)
+            {
+                if (pairs.length() != 0)
+                    pairs.append(' ');
+                pairs.append(alphabet[c]).append(alphabet[plugs[c]]);
+            }
+        return pairs.toString();
+    }
+
+    /**
+     * Decipher a message with a candidate.
+     * @param candidate key found.
+     * @return plaintext.
+     */
+    public String decipher(Candidate candidate)
+    {
+        ScramblerTables tables = ScramblerTables.of(candidate.key);
+        int[] at = positions.clone();
+        char[] out = new char[ciphertext.length];
+        for (int i = 0; i < out.length; i++)
+        {
+            tables.step(at);
+            out[i] = tables.letterAt(tables.encipher(at, ciphertext[i]));
+        }
+        return new String(out);
+    }
+}
@@ -0,0 +1,294 @@
+package cryptanalysis;
+
+import resources.AlphabetConverter;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton that finds many expected words (such as "WETTER", "OBERKOMMANDO" or the names of units) in a
+ * text in one pass, one table lookup per letter.
+ * <br><br>
+ * The words are compiled to a trie whose missing edges are filled in from the failure links, so every state has a
+ * transition for every letter, held in one dense <code>int</code> table indexed by state and
+ * <code>AlphabetConverter</code> index.  Each state also records how many words end at it (counting words that are a
+ * suffix of another), so a search can accept a trial decryption on the letter that completes a word, while the
+ * machine is still typing, rather than testing the whole decryption with <code>String.contains</code> for each word:
+ * <pre>
+ *     int state = CribMatcher.START;
+ *     for (int i = 0; i &lt; length; i++)
+ *     {
+ *         state = matcher.next(state, machine.type(ciphertext[i]));
+ *         if (matcher.isMatch(state))
+ *             return true;
+ *     }
+ * </pre>
+ * Immutable and thread-safe once compiled; each search keeps its own state.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+public class CribMatcher
+{
+    /**
+     * State before any letter.
+     */
+    public static final int START = 0;
+
+    private final String[] words;
+    private final int size;
+    private final int[] transitions; // [state * size + letter]; next state
+    private final int[][] wordsAt; // [state]; words that are the path to state; empty if none
+    private final int[] suffix; // [state]; next state down the failure links at which a word ends; -1 if none
+    private final int[] matches; // [state]; number of words ending at state
+    private final int[] depth; // [state]; letters matched of the words that state is in
+
+    /**
+     * Receives matches.
+     */
+    public interface Handler
+    {
+        /**
+         * A word ends at a place.
+         * @param word index of word, in the order given to the matcher.
+         * @param end index just past the last letter of the word.
+         */
+        void match(int word, int end);
+    }
+
+    /**
+     * Constructor; compiles the automaton.  A word given more than once is matched once for each time.
+     * @param words words, in the alphabet of AlphabetConverter.
+     * @throws IllegalArgumentException if there are no words, or a word is empty or has a letter outside the alphabet.
+     * @throws IllegalStateException if AlphabetConverter has not been instantiated.
+     */
+    public CribMatcher(List<String> words) throws IllegalArgumentException, IllegalStateException
+    {
+        if (!AlphabetConverter.exists())
+            throw new IllegalStateException("AlphabetConverter must first be instantiated.");
+        if (words.isEmpty())
+            throw new IllegalArgumentException("At least one word is needed.");
+        AlphabetConverter ac = AlphabetConverter.getAlphabetConverter();
+        size = ac.getAlphabet().length;
+        this.words = words.toArray(new String[0]);
+
+        int capacity = 1;
+        for (String w : this.words)
+            capacity += w.length();
+
+        // trie; 0 is no edge, since no edge leads back to the start
+        int[] table = new int[capacity * size];
+        int[] ends = new int[capacity];
+        int[] deep = new int[capacity];
+        int[][] paths = new int[capacity][0];
+        int states = 1;
+        for (int w = 0; w < this.words.length; w++)
+        {
+            String text = this.words[w];
+            if (text.isEmpty())
+                throw new IllegalArgumentException("Word " + w + " is empty.");
+            int state = START;
+            for (int i = 0; i < text.length(); i++)
+            {
+                int letter = ac.convert(text.charAt(i));
+                if (letter == -1)
+                    throw new IllegalArgumentException("Word " + w + " has a letter outside the alphabet: " +
+                            text.charAt(i));
+                if (table[state * size + letter] == 0)
+                {
+                    deep[states] = deep[state] + 1;
+                    table[state * size + letter] = states++;
+                }
+                state = table[state * size + letter];
+            }
+            ends[state]++;
+            paths[state] = Arrays.copyOf(paths[state], paths[state].length + 1);
+            paths[state][paths[state].length - 1] = w;
+        }
+
+        // breadth first, so the failure of a state is done before the state; fill in the missing edges
+        int[] fail = new int[states];
+        int[] links = new int[states];
+        Arrays.fill(links, -1);
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int letter = 0; letter < size; letter++)
+            if (table[letter] != 0)
+                queue[tail++] = table[letter]; // failure of depth 1 is the start
+        while (head < tail)
+        {
+            int state = queue[head++];
+            int failure = fail[state];
+            ends[state] += ends[failure];
+            links[state] = (paths[failure].length != 0) ? failure : links[failure];
+            for (int letter = 0; letter < size; letter++)
+            {
+                int child = table[state * size + letter];
+                if (child != 0)
+                {
+                    fail[child] = table[failure * size + letter];
+                    queue[tail++] = child;
+                }
+                else
+                    table[state * size + letter] = table[failure * size + letter];
+            }
+        }
+
+        transitions = Arrays.copyOf(table, states * size);
+        wordsAt = Arrays.copyOf(paths, states);
+        suffix = links;
+        matches = Arrays.copyOf(ends, states);
+        depth = Arrays.copyOf(deep, states);
+    }
+
+    /**
+     * Move to the next state.
+     * @param state current state.
+     * @param letter index of letter in the alphabet.
+     * @return next state.
+     */
+    public int next(int state, int letter)
+    {
+        return transitions[state * size + letter];
+    }
+
+    /**
+     * Whether a word ends at a state.
+     * @param state state.
+     * @return If at least one word ends.
+     */
+    public boolean isMatch(int state)
+    {
+        return matches[state] != 0;
+    }
+
+    /**
+     * Get the number of words that end at a state.
+     * @param state state.
+     * @return number of words.
+     */
+    public int getMatches(int state)
+    {
+        return matches[state];
+    }
+
+    /**
+     * Get the number of letters of a word matched so far at a state; a search may reject a decryption that stays
+     * at small depths.
+     * @param state state.
+     * @return letters matched; 0 at the start.
+     */
+    public int getDepth(int state)
+    {
+        return depth[state];
+    }
+
+    /**
+     * Count the matches in a sequence of letters.
+     * @param letters indexes of letters.
+     * @param from index of first letter.
+     * @param length number of letters.
+     * @return number of matches; overlapping matches are each counted.
+     */
+    public int count(int[] letters, int from, int length)
+    {
+        int count = 0;
+        int state = START;
+        for (int i = from; i < from + length; i++)
+        {
+            state = transitions[state * size + letters[i]];
+            count += matches[state];
+        }
+        return count;
+    }
+
+    /**
+     * Count the matches in a text.  A character outside the alphabet ends any word in progress.
+     * @param text text.
+     * @return number of matches; overlapping matches are each counted.
+     */
+    public int count(String text)
+    {
+        AlphabetConverter ac = AlphabetConverter.getAlphabetConverter();
+        int count = 0;
+        int state = START;
+        for (int i = 0; i < text.length(); i++)
+        {
+            int letter = ac.convert(text.charAt(i));
+            state = (letter == -1) ? START : transitions[state * size + letter];
+            count += matches[state];
+        }
+        return count;
+    }
+
+    /**
+     * Find the first match in a sequence of letters.
+     * @param letters indexes of letters.
+     * @param from index of first letter.
+     * @param length number of letters.
+     * @return index just past the last letter of the first word to end; -1 if none.
+     */
+    public int find(int[] letters, int from, int length)
+    {
+        int state = START;
+        for (int i = from; i < from + length; i++)
+        {
+            state = transitions[state * size + letters[i]];
+            if (matches[state] != 0)
+                return i + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Report every match in a sequence of letters, in order of end; words ending at the same place, longest first.
+     * @param letters indexes of letters.
+     * @param from index of first letter.
+     * @param length number of letters.
+     * @param handler receives matches.
+     */
+    public void forEach(int[] letters, int from, int length, Handler handler)
+    {
+        int state = START;
+        for (int i = from; i < from + length; i++)
+        {
+            state = transitions[state * size + letters[i]];
+            if (matches[state] == 0)
+                continue;
+            for (int s = (wordsAt[state].length != 0) ? state : suffix[state]; s != -1; s = suffix[s])
+                for (int w : wordsAt[s])
+                    handler.match(w, i + 1);
+        }
+    }
+
+    /**
+     * Get a word.
+     * @param index index of word, in the order given to the matcher.
+     * @return word.
+     */
+    public String getWord(int index)
+    {
+        return words[index];
+    }
+
+    /**
+     * Get the number of words.
+     * @return number of words.
+     */
+    public int getWords()
+    {
+        return words.length;
+    }
+
+    /**
+     * Get the number of states of the automaton.
+     * @return number of states.
+     */
+    public int getStates()
+    {
+        return matches.length;
+    }
+}
@@ -0,0 +1,275 @@
+package cryptanalysis;
+
+import monitoring.SearchProgressEvent;
+import resources.AlphabetConverter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds every place in a ciphertext that a crib (plaintext guessed to be in the message) could be, for many cribs at
+ * once.  An Enigma never enciphers a letter to itself, so a crib cannot be placed where any of its letters is over the
+ * same letter of ciphertext.
+ * <br><br>
+ * For each letter of the alphabet, the ciphertext is held as a bitset of the places it has that letter.  A crib is
+ * ruled out at offset <i>o</i> if, for some <i>j</i>, the ciphertext at <i>o</i> + <i>j</i> is letter <i>j</i> of the
+ * crib; so the offsets a crib may be placed at are the AND, over its letters, of the complement of the bitset of that
+ * letter shifted back by <i>j</i>.  64 offsets are decided per operation, and a shifted bitset is made once for all the
+ * cribs with the same letter at the same place.
+ * <br><br>
+ * The ciphertext is read in blocks of <code>BLOCK</code> letters, with the letters under the longest crib carried over
+ * to the next block, so an input of any length is scanned in fixed memory.  Each admissible placement is handed to a
+ * <code>Handler</code>, with the ciphertext under it, for testing by a bombe or hill climb.
+ * <br>
+ * Not thread-safe; use one instance per thread.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class CribScanner
+{
+    /**
+     * Number of offsets decided per block.  A multiple of 64.
+     */
+    public static final int BLOCK = 1 << 16;
+
+    private final int[][] cribs; // [crib][place]; letter index
+    private final int longest;
+    private final int size;
+    private final byte[] codes; // [character]; index in alphabet + 1; 0 if not in alphabet
+
+    private final int[][][] cribsAt; // [place][letter]; cribs with letter at place
+    private final int[] letters; // ciphertext of block, and the letters carried over past it
+    private final long[][] bitsets; // [letter]; places of letter in block
+    private final long[][] admissible; // [crib]; offsets of block crib may be placed at
+    private final long[] shifted;
+
+    /**
+     * Receives admissible placements.
+     */
+    public interface Handler
+    {
+        /**
+         * A crib may be placed at an offset.  The arrays passed are reused once this returns.
+         * @param crib index of crib, in the order given to the scanner.
+         * @param offset letters of ciphertext before the placement.
+         * @param ciphertext letter indexes of ciphertext; the letters under the crib start at index <code>from</code>.
+         * @param from index in ciphertext of the letter under the first letter of the crib.
+         */
+        void admissible(int crib, long offset, int[] ciphertext, int from);
+    }
+
+    /**
+     * Constructor.
+     * @param cribs cribs, in the alphabet of AlphabetConverter.
+     * @throws IllegalArgumentException if there are no cribs, or a crib is empty or has a letter outside the alphabet.
+     * @throws IllegalStateException if AlphabetConverter has not been instantiated.
+     */
+    public CribScanner(List<String> cribs) throws IllegalArgumentException, IllegalStateException
+    {
+        if (!AlphabetConverter.exists())
+            throw new IllegalStateException("AlphabetConverter must first be instantiated.");
+        if (cribs.isEmpty())
+            throw new IllegalArgumentException("At least one crib is needed.");
+        char[] alphabet = AlphabetConverter.getAlphabetConverter().getAlphabet();
+        size = alphabet.length;
+        codes = new byte[Character.MAX_VALUE + 1];
+        for (int i = 0; i < alphabet.length; i++)
+            codes[alphabet[i]] = (byte) (i + 1);
+
+        this.cribs = new int[cribs.size()][];
+        int longest = 0;
+        for (int c = 0; c < this.cribs.length; c++)
+        {
+            String crib = cribs.get(c);
+            if (crib.isEmpty())
+                throw new IllegalArgumentException("Crib " + c + " is empty.");
+            this.cribs[c] = new int[crib.length()];
+            for (int j = 0; j < crib.length(); j++)
+            {
+                this.cribs[c][j] = codes[crib.charAt(j)] - 1;
+                if (this.cribs[c][j] == -1)
+                    throw new IllegalArgumentException("Crib " + c + " has a letter outside the alphabet: " +
+                            crib.charAt(j));
+            }
+            longest = Math.max(longest, crib.length());
+        }
+        this.longest = longest;
+
+        // index the cribs by letter at each place
+        int[][] counts = new int[longest][size];
+        for (int[] crib : this.cribs)
+            for (int j = 0; j < crib.length; j++)
+                counts[j][crib[j]]++;
+        cribsAt = new int[longest][size][];
+        for (int j = 0; j < longest; j++)
+            for (int letter = 0; letter < size; letter++)
+                cribsAt[j][letter] = new int[counts[j][letter]];
+        for (int c = 0; c < this.cribs.length; c++)
+            for (int j = 0; j < this.cribs[c].length; j++)
+                cribsAt[j][this.cribs[c][j]][--counts[j][this.cribs[c][j]]] = c;
+
+        letters = new int[BLOCK + longest - 1];
+        int words = (letters.length + Long.SIZE - 1) / Long.SIZE + 1; // one past the end, so shifts need no check
+        bitsets = new long[size][words];
+        admissible = new long[this.cribs.length][BLOCK / Long.SIZE];
+        shifted = new long[BLOCK / Long.SIZE];
+    }
+
+    /**
+     * Scan a ciphertext held in memory.
+     * @param ciphertext letters of the alphabet; whitespace is skipped.
+     * @param handler receives admissible placements.
+     * @return number of letters of ciphertext.
+     * @throws IllegalArgumentException if the ciphertext has a character that is neither whitespace nor in the
+     * alphabet.
+     */
+    public long scan(String ciphertext, Handler handler) throws IllegalArgumentException
+    {
+        try
+        {
+            return scan(new StringReader(ciphertext), handler);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e); // not thrown by StringReader
+        }
+    }
+
+    /**
+     * Scan a ciphertext read to its end.  Offsets are handed to the handler in increasing order for each crib, and
+     * each block is finished before the next is read.
+     * @param in ciphertext, letters of the alphabet; whitespace is skipped.
+     * @param handler receives admissible placements.
+     * @return number of letters of ciphertext.
+     * @throws IOException if the ciphertext cannot be read.
+     * @throws IllegalArgumentException if the ciphertext has a character that is neither whitespace nor in the
+     * alphabet.
+     */
+    public long scan(Reader in, Handler handler) throws IOException, IllegalArgumentException
+    {
+        SearchProgressEvent event = new SearchProgressEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        char[] chars = new char[8192];
+        int read = 0; // characters in chars
+        int next = 0; // next character of chars to take
+        int filled = 0; // letters in block
+        long base = 0; // offset of block
+        boolean end = false;
+        while (true)
+        {
+            // fill the block, with the letters under the longest crib at its last offset
+            while (filled < letters.length && !end)
+            {
+                if (next == read)
+                {
+                    read = in.read(chars, 0, chars.length);
+                    next = 0;
+                    if (read == -1)
+                    {
+                        end = true;
+                        break;
+                    }
+                }
+                char c = chars[next++];
+                int code = codes[c];
+                if (code != 0)
+                    letters[filled++] = code - 1;
+                else if (!Character.isWhitespace(c))
+                    throw new IllegalArgumentException("Character at letter " + (base + filled) +
+                            " is not in the alphabet: " + c);
+            }
+
+            int offsets = end ? filled : BLOCK;
+            scanBlock(base, filled, offsets, handler);
+            if (end)
+                break;
+            System.arraycopy(letters, BLOCK, letters, 0, filled - BLOCK);
+            filled -= BLOCK;
+            base += BLOCK;
+        }
+
+        long total = base + filled;
+        event.search = "Crib";
+        event.unit = cribs.length + " cribs";
+        event.keysTested = total * cribs.length;
+        event.bestScore = Double.NaN;
+        event.commitWithRate(System.nanoTime() - start);
+        return total;
+    }
+
+    /**
+     * Find the admissible placements of every crib at offsets [0, offsets) of the block.
+     * @param filled letters in block.
+     */
+    private void scanBlock(long base, int filled, int offsets, Handler handler)
+    {
+        for (long[] bitset : bitsets)
+            Arrays.fill(bitset, 0L);
+        for (int i = 0; i < filled; i++)
+            bitsets[letters[i]][i >>> 6] |= 1L << i;
+
+        int words = (offsets + Long.SIZE - 1) / Long.SIZE;
+        for (long[] offsetsOfCrib : admissible)
+            Arrays.fill(offsetsOfCrib, 0, words, -1L);
+
+        for (int j = 0; j < longest; j++)
+            for (int letter = 0; letter < size; letter++)
+            {
+                int[] withLetter = cribsAt[j][letter];
+                if (withLetter.length == 0)
+                    continue;
+
+                // places of letter, shifted back by j
+                long[] bitset = bitsets[letter];
+                int word = j >>> 6;
+                int bit = j & 63;
+                if (bit == 0)
+                    System.arraycopy(bitset, word, shifted, 0, words);
+                else
+                    for (int w = 0; w < words; w++)
+                        shifted[w] = (bitset[w + word] >>> bit) | (bitset[w + word + 1] << (Long.SIZE - bit));
+
+                for (int c : withLetter)
+                {
+                    long[] offsetsOfCrib = admissible[c];
+                    for (int w = 0; w < words; w++)
+                        offsetsOfCrib[w] &= ~shifted[w];
+                }
+            }
+
+        for (int c = 0; c < cribs.length; c++)
+        {
+            int limit = Math.min(offsets, filled - cribs[c].length + 1); // crib must fit in the ciphertext
+            long[] offsetsOfCrib = admissible[c];
+            for (int w = 0; w < words && w * Long.SIZE < limit; w++)
+            {
+                long bits = offsetsOfCrib[w];
+                while (bits != 0)
+                {
+                    int offset = w * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                    if (offset >= limit)
+                        break;
+                    handler.admissible(c, base + offset, letters, offset);
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the number of cribs.
+     * @return number of cribs.
+     */
+    public int getCribs()
+    {
+        return cribs.length;
+    }
+}
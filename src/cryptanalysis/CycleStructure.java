@@ -0,0 +1,139 @@
+package cryptanalysis;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cycle structure of permutations, as used by Rejewski's characteristic (the cyclometer catalog).
+ * <br><br>
+ * Under the doubled-indicator procedure, the message key is typed twice at the ground setting.  If <i>A<sub>k</sub></i>
+ * is the permutation of the machine at the <i>k</i>-th key press, the first and fourth letters of every indicator are
+ * linked by the product <i>AD = A<sub>4</sub>A<sub>1</sub></i>, and likewise <i>BE</i> and <i>CF</i>.  The lengths of
+ * the cycles of these three products do not depend on the plugboard, so they identify the wheel order and rotor
+ * positions of the day independently of it.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class CycleStructure
+{
+    private CycleStructure()
+    {
+        // utility class
+    }
+
+    /**
+     * Get the cycle lengths of a permutation, longest first.
+     * @param permutation int[] where element i is the image of i.
+     * @return int[] of cycle lengths.
+     */
+    public static int[] cycleLengths(int[] permutation)
+    {
+        boolean[] seen = new boolean[permutation.length];
+        int[] lengths = new int[permutation.length];
+        int count = 0;
+        for (int start = 0; start < permutation.length; start++)
+        {
+            if (seen[start])
+                continue;
+
+            int length = 0;
+            for (int i = start; !seen[i]; i = permutation[i])
+            {
+                seen[i] = true;
+                length++;
+            }
+            lengths[count++] = length;
+        }
+
+        int[] result = Arrays.copyOf(lengths, count);
+        Arrays.sort(result);
+        for (int i = 0; i < result.length / 2; i++) // reverse to longest first
+        {
+            int temp = result[i];
+            result[i] = result[result.length - 1 - i];
+            result[result.length - 1 - i] = temp;
+        }
+        return result;
+    }
+
+    /**
+     * Get the characteristic signature of the three products AD, BE, CF.  The signature lists the cycle lengths of
+     * each product, longest first, separated by commas; the products are separated by slashes (for example
+     * <code>13,13/10,10,3,3/12,12,1,1</code>).
+     * @param products int[3][] of the products AD, BE and CF.
+     * @return String signature.
+     */
+    public static String signature(int[][] products)
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < products.length; k++)
+        {
+            if (k > 0)
+                sb.append('/');
+            int[] lengths = cycleLengths(products[k]);
+            for (int i = 0; i < lengths.length; i++)
+            {
+                if (i > 0)
+                    sb.append(',');
+                sb.append(lengths[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Build the products AD, BE, CF from the observed indicators of a day.  Each indicator is six letters: the message
+     * key enciphered twice.
+     * @param indicators List of six-letter indicators.
+     * @param alphabet alphabet of the machine.
+     * @return int[3][] of the products; null if the indicators do not yet cover every letter of the alphabet.
+     * @throws IllegalArgumentException if an indicator has the wrong length or a letter not in the alphabet, or if two
+     * indicators contradict each other.
+     */
+    public static int[][] products(List<String> indicators, char[] alphabet) throws IllegalArgumentException
+    {
+        String sAlphabet = new String(alphabet);
+        int n = alphabet.length;
+        int[][] products = new int[3][n];
+        for (int[] product : products)
+            Arrays.fill(product, -1);
+
+        for (String indicator : indicators)
+        {
+            if (indicator.length() != 6)
+                throw new IllegalArgumentException("Indicator must have six letters: " + indicator);
+
+            for (int k = 0; k < 3; k++)
+            {
+                int from = sAlphabet.indexOf(indicator.charAt(k));
+                int to = sAlphabet.indexOf(indicator.charAt(k + 3));
+                if (from == -1 || to == -1)
+                    throw new IllegalArgumentException("Indicator has letter not in alphabet: " + indicator);
+                if (products[k][from] != -1 && products[k][from] != to)
+                    throw new IllegalArgumentException("Indicator contradicts earlier indicators: " + indicator);
+                products[k][from] = to;
+            }
+        }
+
+        for (int[] product : products)
+            for (int image : product)
+                if (image == -1)
+                    return null; // not yet complete
+        return products;
+    }
+
+    /**
+     * Get the signature of a day's observed indicators.
+     * @param indicators List of six-letter indicators.
+     * @param alphabet alphabet of the machine.
+     * @return String signature; null if the indicators do not yet cover every letter.
+     * @throws IllegalArgumentException if the indicators are malformed or contradict each other.
+     */
+    public static String signature(List<String> indicators, char[] alphabet) throws IllegalArgumentException
+    {
+        int[][] products = products(indicators, alphabet);
+        return (products == null) ? null : signature(products);
+    }
+}
@@ -0,0 +1,438 @@
+package cryptanalysis;
+
+import engines.ScramblerTables;
+import machine_pieces.EntryWheel;
+import machine_pieces.GearConstruction;
+import machine_pieces.Plugboard;
+import machine_pieces.Reflector;
+import machine_pieces.Rotor;
+import machines.ConstructedFullModel;
+import monitoring.SearchProgressEvent;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Catalog of the characteristic cycle structure (Rejewski's cyclometer catalog) of every wheel order and start position
+ * of an Enigma version.  See <code>CycleStructure</code> for the characteristic itself.
+ * <br><br>
+ * Generation runs the wheel orders in parallel across all cores.  The catalog is indexed by signature, so the possible
+ * settings of a day are found with a single map lookup once enough indicators have been collected.  The catalog can be
+ * written to and read from a compact binary file, so it only has to be generated again when the wiring data changes.
+ * <br><br>
+ * Settings are found with an empty plugboard, ring settings at 01, and the reflector selected at generation.  The
+ * characteristic does not depend on the plugboard; the ring settings only move the turnover of the middle rotor, as
+ * with the historical catalog.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class CyclometerCatalog
+{
+    private static final int MAGIC = 0x43594331; // "CYC1"
+    private static final int FORMAT_VERSION = 1;
+
+    private final String version; // name of Enigma version
+    private final String reflector;
+    private final char[] alphabet;
+    private final String[][] wheelOrders; // [order][slot], leftmost first
+    private final Map<String, int[]> index; // signature -> packed settings
+
+    /**
+     * A single setting found in the catalog.
+     */
+    public static class Setting
+    {
+        private final String[] wheelOrder;
+        private final String position;
+
+        private Setting(String[] wheelOrder, String position)
+        {
+            this.wheelOrder = wheelOrder;
+            this.position = position;
+        }
+
+        /**
+         * Get the names of the rotors, leftmost first.
+         * @return String[] of rotor names.
+         */
+        public String[] getWheelOrder()
+        {
+            return wheelOrder.clone();
+        }
+
+        /**
+         * Get the letters in the windows at the ground setting, leftmost first.
+         * @return String of window letters.
+         */
+        public String getPosition()
+        {
+            return position;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.join("-", wheelOrder) + " " + position;
+        }
+    }
+
+    /**
+     * Constructor; only called by generate() and read().
+     */
+    private CyclometerCatalog(String version, String reflector, char[] alphabet, String[][] wheelOrders,
+                              Map<String, int[]> index)
+    {
+        this.version = version;
+        this.reflector = reflector;
+        this.alphabet = alphabet;
+        this.wheelOrders = wheelOrders;
+        this.index = index;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Generation
+
+    /**
+     * Generate the catalog of every three-rotor wheel order of an Enigma version.
+     * @param version Enigma version.
+     * @param reflector name of reflector to use.
+     * @return CyclometerCatalog.
+     * @throws IllegalStateException if AlphabetConverter has not been instantiated.
+     * @throws IllegalArgumentException if the reflector is not part of the version.
+     */
+    public static CyclometerCatalog generate(WiringData.enimgaVersion version, String reflector)
+            throws IllegalStateException, IllegalArgumentException
+    {
+        if (!AlphabetConverter.exists())
+            throw new IllegalStateException("AlphabetConverter must first be instantiated.");
+        char[] alphabet = AlphabetConverter.getAlphabetConverter().getAlphabet();
+
+        Map<String, Map<String, GearConstruction>> components = WiringData.getComponents(version);
+        if (!components.get("reflector").containsKey(reflector))
+            throw new IllegalArgumentException("Reflector " + reflector + " is not part of " + version + ".");
+
+        // all ordered selections of three different rotors, in a fixed order
+        List<String> rotorNames = new ArrayList<>(components.get("rotor").keySet());
+        Collections.sort(rotorNames);
+        List<String[]> orders = new ArrayList<>();
+        for (String left : rotorNames)
+            for (String middle : rotorNames)
+                for (String right : rotorNames)
+                    if (!left.equals(middle) && !left.equals(right) && !middle.equals(right))
+                        orders.add(new String[]{left, middle, right});
+        String[][] wheelOrders = orders.toArray(new String[0][]);
+
+        // each wheel order is independent; run them in parallel, then merge in order so the result is repeatable
+        List<Map<String, IntList>> partial = IntStream.range(0, wheelOrders.length)
+                .parallel()
+                .mapToObj(i -> catalogWheelOrder(i, wheelOrders[i], reflector, components))
+                .collect(Collectors.toList());
+
+        Map<String, IntList> merged = new HashMap<>();
+        for (Map<String, IntList> part : partial)
+            for (Map.Entry<String, IntList> entry : part.entrySet())
+                merged.computeIfAbsent(entry.getKey(), k -> new IntList()).addAll(entry.getValue());
+
+        Map<String, int[]> index = new HashMap<>(merged.size() * 2);
+        for (Map.Entry<String, IntList> entry : merged.entrySet())
+            index.put(entry.getKey(), entry.getValue().toArray());
+
+        return new CyclometerCatalog(version.name(), reflector, alphabet, wheelOrders, index);
+    }
+
+    /**
+     * Catalog every start position of a single wheel order.
+     * @return Map of signature to packed settings.
+     */
+    private static Map<String, IntList> catalogWheelOrder(int order, String[] wheelOrder, String reflector,
+                                                          Map<String, Map<String, GearConstruction>> components)
+    {
+        SearchProgressEvent event = new SearchProgressEvent();
+        event.begin();
+        long begin = System.nanoTime();
+
+        Rotor[] rotors = new Rotor[wheelOrder.length];
+        for (int i = 0; i < rotors.length; i++)
+            rotors[i] = new Rotor(wheelOrder[i], components);
+        ScramblerTables tables = ScramblerTables.of(new ConstructedFullModel(
+                new EntryWheel(EntryWheel.ETWsequence.ABCDE), new Plugboard(), rotors,
+                new Reflector(reflector, components)));
+
+        int n = tables.size();
+        int[] positions = new int[3];
+        int[][] permutations = new int[6][n];
+        int[][] products = new int[3][n];
+        Map<String, IntList> result = new HashMap<>();
+        for (int start = 0; start < n * n * n; start++)
+        {
+            positions[0] = start / (n * n);
+            positions[1] = (start / n) % n;
+            positions[2] = start % n;
+
+            // permutation at each of the six key presses of the doubled indicator
+            for (int[] permutation : permutations)
+            {
+                tables.step(positions);
+                for (int c = 0; c < n; c++)
+                    permutation[c] = tables.encipher(positions, c);
+            }
+            // products AD, BE, CF; each A_k is an involution, so a -> A_k(a) -> A_{k+3}(A_k(a))
+            for (int k = 0; k < 3; k++)
+                for (int c = 0; c < n; c++)
+                    products[k][c] = permutations[k + 3][permutations[k][c]];
+
+            result.computeIfAbsent(CycleStructure.signature(products), s -> new IntList()).add(pack(order, start));
+        }
+
+        event.search = "CyclometerCatalog";
+        event.unit = String.join("-", wheelOrder);
+        event.keysTested = (long) n * n * n;
+        event.bestScore = Double.NaN; // catalog does not score settings
+        event.commitWithRate(System.nanoTime() - begin);
+        return result;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Lookup
+
+    /**
+     * Find every setting with the given signature.
+     * @param signature signature from <code>CycleStructure.signature</code>.
+     * @return List of settings; empty if none.
+     */
+    public List<Setting> lookup(String signature)
+    {
+        int[] packed = index.get(signature);
+        if (packed == null)
+            return Collections.emptyList();
+
+        List<Setting> settings = new ArrayList<>(packed.length);
+        for (int p : packed)
+            settings.add(unpack(p));
+        return settings;
+    }
+
+    /**
+     * Find every setting consistent with a day's observed doubled indicators.
+     * @param indicators List of six-letter indicators.
+     * @return List of settings; null if the indicators do not yet cover every letter of the alphabet.
+     * @throws IllegalArgumentException if the indicators are malformed or contradict each other.
+     */
+    public List<Setting> lookup(List<String> indicators) throws IllegalArgumentException
+    {
+        String signature = CycleStructure.signature(indicators, alphabet);
+        return (signature == null) ? null : lookup(signature);
+    }
+
+    /**
+     * Get the number of distinct signatures in the catalog.
+     * @return number of signatures.
+     */
+    public int numberOfSignatures()
+    {
+        return index.size();
+    }
+
+    /**
+     * Get the number of settings in the catalog.
+     * @return number of settings.
+     */
+    public int numberOfSettings()
+    {
+        int total = 0;
+        for (int[] packed : index.values())
+            total += packed.length;
+        return total;
+    }
+
+    /**
+     * Get the name of the Enigma version of the catalog.
+     * @return version name.
+     */
+    public String getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Get the name of the reflector of the catalog.
+     * @return reflector name.
+     */
+    public String getReflector()
+    {
+        return reflector;
+    }
+
+    /**
+     * Pack a wheel order and start position into a single int.
+     */
+    private static int pack(int order, int start)
+    {
+        return (order << 20) | start;
+    }
+
+    /**
+     * Unpack an int into a setting.
+     */
+    private Setting unpack(int packed)
+    {
+        int n = alphabet.length;
+        int start = packed & 0xFFFFF;
+        char[] position = {alphabet[start / (n * n)], alphabet[(start / n) % n], alphabet[start % n]};
+        return new Setting(wheelOrders[packed >>> 20], new String(position));
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // File format
+
+    /**
+     * Write the catalog to a file.  Signatures are written in sorted order, so the same catalog always produces the
+     * same file.
+     * @param path file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(Path path) throws IOException
+    {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path))))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(version);
+            out.writeUTF(reflector);
+            out.writeUTF(new String(alphabet));
+
+            out.writeInt(wheelOrders.length);
+            for (String[] wheelOrder : wheelOrders)
+            {
+                out.writeByte(wheelOrder.length);
+                for (String name : wheelOrder)
+                    out.writeUTF(name);
+            }
+
+            out.writeInt(index.size());
+            for (Map.Entry<String, int[]> entry : new TreeMap<>(index).entrySet())
+            {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                for (int packed : entry.getValue())
+                    out.writeInt(packed);
+            }
+        }
+    }
+
+    /**
+     * Read a catalog from a file written by <code>write</code>.
+     * @param path file to read.
+     * @return CyclometerCatalog.
+     * @throws IOException if the file cannot be read or is not a catalog.
+     */
+    public static CyclometerCatalog read(Path path) throws IOException
+    {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path))))
+        {
+            if (in.readInt() != MAGIC)
+                throw new IOException("Not a cyclometer catalog: " + path);
+            int formatVersion = in.readInt();
+            if (formatVersion != FORMAT_VERSION)
+                throw new IOException("Unsupported catalog format version " + formatVersion + ".");
+
+            String version = in.readUTF();
+            String reflector = in.readUTF();
+            char[] alphabet = in.readUTF().toCharArray();
+
+            String[][] wheelOrders = new String[in.readInt()][];
+            for (int i = 0; i < wheelOrders.length; i++)
+            {
+                wheelOrders[i] = new String[in.readByte()];
+                for (int j = 0; j < wheelOrders[i].length; j++)
+                    wheelOrders[i][j] = in.readUTF();
+            }
+
+            int signatures = in.readInt();
+            Map<String, int[]> index = new HashMap<>(signatures * 2);
+            for (int i = 0; i < signatures; i++)
+            {
+                String signature = in.readUTF();
+                int[] packed = new int[in.readInt()];
+                for (int j = 0; j < packed.length; j++)
+                    packed[j] = in.readInt();
+                index.put(signature, packed);
+            }
+
+            return new CyclometerCatalog(version, reflector, alphabet, wheelOrders, index);
+        }
+    }
+
+    /**
+     * Generate a catalog and write it to a file.
+     * <br>
+     * Usage: <code>CyclometerCatalog &lt;ENIGMA_1|ENIGMA_M3&gt; &lt;reflector&gt; &lt;output file&gt;</code>
+     * @param args version, reflector and output file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 3)
+        {
+            System.err.println("Usage: CyclometerCatalog <ENIGMA_1|ENIGMA_M3> <reflector> <output file>");
+            System.exit(1);
+        }
+
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+
+        long start = System.nanoTime();
+        CyclometerCatalog catalog = generate(WiringData.enimgaVersion.valueOf(args[0]), args[1]);
+        catalog.write(Paths.get(args[2]));
+        System.out.printf("%,d settings in %,d signatures written in %.1f s%n", catalog.numberOfSettings(),
+                catalog.numberOfSignatures(), (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Growable list of primitive ints, to avoid boxing a million settings.
+     */
+    private static class IntList
+    {
+        private int[] data = new int[4];
+        private int size;
+
+        void add(int value)
+        {
+            if (size == data.length)
+                data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        void addAll(IntList other)
+        {
+            if (size + other.size > data.length)
+                data = Arrays.copyOf(data, Math.max(size + other.size, size * 2));
+            System.arraycopy(other.data, 0, data, size, other.size);
+            size += other.size;
+        }
+
+        int[] toArray()
+        {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package cryptanalysis;
+
+import monitoring.SearchProgressEvent;
+import processing.MessageArchive;
+import resources.AlphabetConverter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Finds messages in depth (typed at the same rotor positions, so that a letter of one and the letter at the same place
+ * of the other were enciphered by the same permutation) in a large corpus of intercepts.
+ * <br><br>
+ * Two messages can only be in depth if they were sent on the same daily key, so the corpus is first indexed by net
+ * (the daily key, or whatever groups the messages of one key), and messages are only compared within a net.  Messages
+ * of a net with the same indicator share a message key, and are reported as in depth at offset 0 whatever their
+ * statistics.  Every other pair is tested at every offset up to <code>maxOffset</code>: message keys that differ only
+ * in the rightmost rotor give depths at offsets less than the size of the alphabet.
+ * <br><br>
+ * The test is the coincidence count (kappa test): in depth, two ciphertext letters are equal exactly when their
+ * plaintext letters are, which happens about twice as often in language (about 0.076 for German) as for random letters
+ * (1 / size of alphabet).  A pair is reported if its count is at least <code>minZ</code> standard deviations above
+ * chance over at least <code>minOverlap</code> letters.  Since every offset of every pair is a separate trial, minZ
+ * must be high for a large corpus, and overlaps must be long.
+ * <br><br>
+ * Ciphertexts are held as byte arrays, and eight letters are compared at once as a long.  A comparison ends as soon as
+ * the rest of the overlap could not bring the count up to the threshold.  The messages of a net are compared in
+ * parallel across all cores.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class DepthDetector
+{
+    public static final int DEFAULT_MAX_OFFSET = 25;
+    public static final int DEFAULT_MIN_OVERLAP = 100;
+    public static final double DEFAULT_MIN_Z = 5.0;
+
+    private static final long LOW_SEVEN = 0x7F7F7F7F7F7F7F7FL;
+
+    private final int maxOffset;
+    private final int minOverlap;
+    private final double minZ;
+
+    /**
+     * An intercepted message.
+     */
+    public static class Intercept
+    {
+        private final String id;
+        private final String net;
+        private final String indicator;
+        private final String ciphertext;
+
+        /**
+         * Constructor.
+         * @param id name of message.
+         * @param net daily key or net of message; null if not known (compared with every other message without one).
+         * @param indicator indicator of message, as sent; null if not known.
+         * @param ciphertext letters of the alphabet.
+         */
+        public Intercept(String id, String net, String indicator, String ciphertext)
+        {
+            this.id = id;
+            this.net = net;
+            this.indicator = indicator;
+            this.ciphertext = ciphertext;
+        }
+
+        public String getId()
+        {
+            return id;
+        }
+
+        public String getNet()
+        {
+            return net;
+        }
+
+        public String getIndicator()
+        {
+            return indicator;
+        }
+
+        public String getCiphertext()
+        {
+            return ciphertext;
+        }
+    }
+
+    /**
+     * Two messages found to be in depth.
+     */
+    public static class Depth
+    {
+        private final Intercept first;
+        private final Intercept second;
+        private final int offset;
+        private final int overlap;
+        private final int coincidences;
+        private final double z;
+        private final boolean sameIndicator;
+
+        private Depth(Intercept first, Intercept second, int offset, int overlap, int coincidences, double z,
+                      boolean sameIndicator)
+        {
+            this.first = first;
+            this.second = second;
+            this.offset = offset;
+            this.overlap = overlap;
+            this.coincidences = coincidences;
+            this.z = z;
+            this.sameIndicator = sameIndicator;
+        }
+
+        public Intercept getFirst()
+        {
+            return first;
+        }
+
+        public Intercept getSecond()
+        {
+            return second;
+        }
+
+        /**
+         * @return key presses between the start of the first message and the start of the second; letter
+         * <i>i</i> of the second is in depth with letter <i>i</i> + offset of the first.
+         */
+        public int getOffset()
+        {
+            return offset;
+        }
+
+        /**
+         * @return number of letters in depth.
+         */
+        public int getOverlap()
+        {
+            return overlap;
+        }
+
+        /**
+         * @return number of letters in depth that are equal.
+         */
+        public int getCoincidences()
+        {
+            return coincidences;
+        }
+
+        /**
+         * @return coincidences / overlap.
+         */
+        public double getKappa()
+        {
+            return (overlap == 0) ? 0 : (double) coincidences / overlap;
+        }
+
+        /**
+         * @return standard deviations of the coincidences above chance.
+         */
+        public double getZ()
+        {
+            return z;
+        }
+
+        /**
+         * @return If found by indicator rather than by statistics.
+         */
+        public boolean isSameIndicator()
+        {
+            return sameIndicator;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s %s offset=%d overlap=%d kappa=%.4f z=%.1f%s", first.id, second.id, offset,
+                    overlap, getKappa(), z, sameIndicator ? " indicator" : "");
+        }
+    }
+
+    /**
+     * Constructor with the default limits.
+     */
+    public DepthDetector()
+    {
+        this(DEFAULT_MAX_OFFSET, DEFAULT_MIN_OVERLAP, DEFAULT_MIN_Z);
+    }
+
+    /**
+     * Constructor.
+     * @param maxOffset largest offset tested, either way.
+     * @param minOverlap fewest letters in depth for a pair to be reported on statistics.
+     * @param minZ standard deviations above chance for a pair to be reported on statistics.
+     * @throws IllegalArgumentException if maxOffset is negative or minOverlap is less than 1.
+     */
+    public DepthDetector(int maxOffset, int minOverlap, double minZ)
+    {
+        if (maxOffset < 0 || minOverlap < 1)
+            throw new IllegalArgumentException("Offset may not be negative, and overlap must be at least 1.");
+        this.maxOffset = maxOffset;
+        this.minOverlap = minOverlap;
+        this.minZ = minZ;
+    }
+
+    /**
+     * Find the messages in depth in a corpus.
+     * @param corpus intercepts.
+     * @return List of Depth, highest z first; each pair at most once, at its best offset.
+     * @throws IllegalArgumentException if a ciphertext has a letter outside the alphabet.
+     * @throws IllegalStateException if AlphabetConverter has not been instantiated.
+     */
+    public List<Depth> find(List<Intercept> corpus) throws IllegalArgumentException, IllegalStateException
+    {
+        if (!AlphabetConverter.exists())
+            throw new IllegalStateException("AlphabetConverter must first be instantiated.");
+        char[] alphabet = AlphabetConverter.getAlphabetConverter().getAlphabet();
+        byte[] codes = new byte[Character.MAX_VALUE + 1]; // [letter]; index in alphabet + 1; 0 if not in alphabet
+        for (int i = 0; i < alphabet.length; i++)
+            codes[alphabet[i]] = (byte) (i + 1);
+
+        // index by net
+        Map<String, List<Intercept>> nets = new LinkedHashMap<>();
+        for (Intercept intercept : corpus)
+            nets.computeIfAbsent(intercept.net, k -> new ArrayList<>()).add(intercept);
+
+        List<Depth> depths = new ArrayList<>();
+        for (Map.Entry<String, List<Intercept>> net : nets.entrySet())
+            if (net.getValue().size() > 1)
+                depths.addAll(findInNet(net.getKey(), net.getValue(), codes, alphabet.length));
+
+        depths.sort(Comparator.comparingDouble(Depth::getZ).reversed()
+                .thenComparing(d -> d.first.id).thenComparing(d -> d.second.id));
+        return depths;
+    }
+
+    /**
+     * Compare every pair of messages of one net.
+     */
+    private List<Depth> findInNet(String net, List<Intercept> messages, byte[] codes, int size)
+    {
+        SearchProgressEvent event = new SearchProgressEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        ByteBuffer[] texts = new ByteBuffer[messages.size()];
+        for (int m = 0; m < texts.length; m++)
+        {
+            String ciphertext = messages.get(m).ciphertext;
+            byte[] letters = new byte[ciphertext.length()];
+            for (int i = 0; i < letters.length; i++)
+            {
+                letters[i] = codes[ciphertext.charAt(i)];
+                if (letters[i] == 0)
+                    throw new IllegalArgumentException("Message " + messages.get(m).id +
+                            " has a letter outside the alphabet: " + ciphertext.charAt(i));
+            }
+            texts[m] = ByteBuffer.wrap(letters);
+        }
+        double chance = 1.0 / size;
+
+        List<Depth> depths = IntStream.range(1, texts.length).parallel().boxed().flatMap(second -> {
+            List<Depth> found = new ArrayList<>();
+            Intercept b = messages.get(second);
+            for (int first = 0; first < second; first++)
+            {
+                Intercept a = messages.get(first);
+                if (a.indicator != null && a.indicator.equals(b.indicator))
+                {
+                    int overlap = Math.min(texts[first].capacity(), texts[second].capacity());
+                    int count = coincidences(texts[first], texts[second], 0, 0);
+                    found.add(new Depth(a, b, 0, overlap, count, z(count, overlap, chance), true));
+                    continue;
+                }
+
+                Depth best = null;
+                for (int offset = -maxOffset; offset <= maxOffset; offset++)
+                {
+                    int overlap = Math.min(texts[first].capacity() - offset, texts[second].capacity()) -
+                            Math.max(0, -offset);
+                    if (overlap < minOverlap)
+                        continue;
+                    int needed = (int) Math.ceil(overlap * chance + minZ * Math.sqrt(overlap * chance *
+                            (1 - chance)));
+                    int count = coincidences(texts[first], texts[second], offset, needed);
+                    if (count >= needed && (best == null || z(count, overlap, chance) > best.z))
+                        best = new Depth(a, b, offset, overlap, count, z(count, overlap, chance), false);
+                }
+                if (best != null)
+                    found.add(best);
+            }
+            return found.stream();
+        }).collect(Collectors.toList());
+
+        long pairs = (long) texts.length * (texts.length - 1) / 2;
+        event.search = "Depth";
+        event.unit = String.valueOf(net);
+        event.keysTested = pairs * (2L * maxOffset + 1);
+        event.bestScore = depths.stream().mapToDouble(Depth::getZ).max().orElse(Double.NaN);
+        event.commitWithRate(System.nanoTime() - start);
+        return depths;
+    }
+
+    private static double z(int count, int overlap, double chance)
+    {
+        double sd = Math.sqrt(overlap * chance * (1 - chance));
+        return (sd == 0) ? 0 : (count - overlap * chance) / sd;
+    }
+
+    /**
+     * Count the letters of the second text equal to the letter <code>offset</code> places on in the first.
+     * @param needed count below which the exact count is not wanted; counting stops once it cannot be reached.
+     * @return number of equal letters; less than needed if counting stopped early.
+     */
+    static int coincidences(ByteBuffer first, ByteBuffer second, int offset, int needed)
+    {
+        int from = Math.max(0, -offset);
+        int to = Math.min(second.capacity(), first.capacity() - offset);
+        int count = 0;
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES)
+        {
+            long x = first.getLong(i + offset) ^ second.getLong(i);
+            // high bit of each byte set where the byte is zero, so the letters are equal
+            long zero = ~(((x & LOW_SEVEN) + LOW_SEVEN) | x | LOW_SEVEN);
+            count += Long.bitCount(zero);
+            if (count + (to - i - Long.BYTES) < needed)
+                return count;
+        }
+        for (; i < to; i++)
+            if (first.get(i + offset) == second.get(i))
+                count++;
+        return count;
+    }
+
+    /**
+     * Find depths in a message archive (see <code>processing.MessageArchive</code>); the net of a message is its daily
+     * key and ground setting, and depths are written one per line.
+     * @param args archive file, and optionally the largest offset, the least overlap and the least z.
+     * @throws IOException if the archive cannot be read.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 1)
+        {
+            System.err.println("Usage: DepthDetector <archive> [max offset] [min overlap] [min z]");
+            return;
+        }
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+        DepthDetector detector = new DepthDetector(
+                (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_MAX_OFFSET,
+                (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_MIN_OVERLAP,
+                (args.length > 3) ? Double.parseDouble(args[3]) : DEFAULT_MIN_Z);
+
+        List<Intercept> corpus = new ArrayList<>();
+        try (Reader in = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+             MessageArchive archive = new MessageArchive(in))
+        {
+            MessageArchive.Message message;
+            while ((message = archive.next()) != null)
+                corpus.add(new Intercept(message.getId(), message.getKey() + " " + message.getGroundSetting(),
+                        message.getIndicator(), message.getBody()));
+        }
+
+        long start = System.nanoTime();
+        List<Depth> depths = detector.find(corpus);
+        for (Depth depth : depths)
+            System.out.println(depth);
+        System.err.printf("%d messages, %d depths in %.1f s%n", corpus.size(), depths.size(),
+                (System.nanoTime() - start) / 1e9);
+    }
+}
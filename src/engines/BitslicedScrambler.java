@@ -0,0 +1,316 @@
+package engines;
+
+import java.util.Arrays;
+
+/**
+ * Bitsliced scrambler that runs 64 independent machines ("lanes") at once, one lane per bit of a <code>long</code>.
+ * All lanes share the same wheel order, ring settings, reflector and plugboard (the same <code>ScramblerTables</code>),
+ * but each lane has its own rotor positions.  This is the shape of an exhaustive rotor-position sweep, where each wheel
+ * order is tested at every start position against a crib.
+ * <br><br>
+ * Signals are held one-hot: <code>planes[c]</code> has bit <i>k</i> set when the signal of lane <i>k</i> is at
+ * contact <i>c</i>.  A fixed permutation (entry wheel, plugboard, reflector) moves whole planes.  A rotor is applied
+ * once for every position that at least one lane is at, masked to those lanes; during a sweep the slow rotors are
+ * spread over only one or two positions, so most of their work is skipped.  Stepping is done on the masks of lanes
+ * at each rotor position, so all 64 lanes step together without leaving the bit-planes.
+ * <br><br>
+ * Not thread-safe; use one instance per thread.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class BitslicedScrambler
+{
+    /**
+     * Number of machines run at once.
+     */
+    public static final int LANES = Long.SIZE;
+
+    private final ScramblerTables tables;
+    private final int size;
+    private final int slots;
+
+    private final long[][] positionMasks; // [slot][position]; lanes with rotor in slot at position
+    private long activeLanes; // lanes that have been given positions
+
+    // working planes, reused between key presses
+    private final long[] planeA;
+    private final long[] planeB;
+    private final long[] stepBuffer;
+    private final long[] notched; // [slot]; lanes with rotor in slot at a turnover position
+
+    /**
+     * Constructor; no lanes are active until given positions.
+     * @param tables tables shared by all lanes.
+     */
+    public BitslicedScrambler(ScramblerTables tables)
+    {
+        this.tables = tables;
+        this.size = tables.size();
+        this.slots = tables.slots();
+
+        positionMasks = new long[slots][size];
+        planeA = new long[size];
+        planeB = new long[size];
+        stepBuffer = new long[size];
+        notched = new long[slots];
+    }
+
+    /**
+     * Remove all lanes.
+     */
+    public void clearLanes()
+    {
+        for (long[] masks : positionMasks)
+            Arrays.fill(masks, 0L);
+        activeLanes = 0L;
+    }
+
+    /**
+     * Set the rotor positions of a single lane.
+     * @param lane lane number, 0 to 63.
+     * @param positions indexes of window letters, leftmost first.
+     * @throws IllegalArgumentException if lane is out of range or the number of positions does not match the rotors.
+     */
+    public void setLane(int lane, int... positions)
+    {
+        if (lane < 0 || lane >= LANES)
+            throw new IllegalArgumentException("Lane must be between 0 and " + (LANES - 1) + ".");
+        if (positions.length != slots)
+            throw new IllegalArgumentException("Expected " + slots + " rotor positions.");
+
+        long bit = 1L << lane;
+        for (int slot = 0; slot < slots; slot++)
+        {
+            for (int p = 0; p < size; p++) // remove lane from previous position
+                positionMasks[slot][p] &= ~bit;
+            positionMasks[slot][Math.floorMod(positions[slot], size)] |= bit;
+        }
+        activeLanes |= bit;
+    }
+
+    /**
+     * Load consecutive start positions of a sweep into the lanes.  Sweep index <i>i</i> is the position whose rotor
+     * indexes are the base-<i>size</i> digits of <i>i</i>, with the rightmost rotor as the lowest digit; all lanes
+     * beyond the end of the sweep are left empty.
+     * @param firstIndex sweep index for lane 0.
+     * @return number of lanes loaded.
+     */
+    public int loadSweep(long firstIndex)
+    {
+        clearLanes();
+
+        long total = 1;
+        for (int i = 0; i < slots; i++)
+            total *= size;
+
+        int loaded = 0;
+        int[] positions = new int[slots];
+        for (int lane = 0; lane < LANES && firstIndex + lane < total; lane++)
+        {
+            long index = firstIndex + lane;
+            for (int slot = slots - 1; slot > -1; slot--)
+            {
+                positions[slot] = (int) (index % size);
+                index /= size;
+            }
+            setLane(lane, positions);
+            loaded++;
+        }
+        return loaded;
+    }
+
+    /**
+     * Get the lanes that have been given positions.
+     * @return bitmask of lanes.
+     */
+    public long getActiveLanes()
+    {
+        return activeLanes;
+    }
+
+    /**
+     * Get the rotor positions of a lane.
+     * @param lane lane number.
+     * @return int[] of window letter indexes, leftmost first; null if lane is not active.
+     */
+    public int[] getLane(int lane)
+    {
+        long bit = 1L << lane;
+        if ((activeLanes & bit) == 0)
+            return null;
+
+        int[] positions = new int[slots];
+        for (int slot = 0; slot < slots; slot++)
+            for (int p = 0; p < size; p++)
+                if ((positionMasks[slot][p] & bit) != 0)
+                    positions[slot] = p;
+        return positions;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Running methods
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Step every active lane once, as <code>ScramblerTables.step</code> does for a single machine.
+     */
+    public void step()
+    {
+        // lanes at a turnover position in each slot, taken before any rotor moves
+        for (int slot = 0; slot < slots; slot++)
+        {
+            long mask = 0L;
+            for (int p = 0; p < size; p++)
+                if (tables.isTurnover(slot, p))
+                    mask |= positionMasks[slot][p];
+            notched[slot] = mask;
+        }
+
+        int last = slots - 1;
+        for (int slot = 0; slot < slots; slot++)
+        {
+            long stepping;
+            if (slot == last)
+                stepping = activeLanes; // every lane steps its rightmost rotor
+            else
+                stepping = notched[slot + 1] | ((slot > 0) ? notched[slot] : 0L); // carry or double step
+            if (stepping == 0)
+                continue;
+
+            // rotate stepping lanes one position forward; others stay in place
+            long[] masks = positionMasks[slot];
+            for (int p = 0; p < size; p++)
+                stepBuffer[p] = masks[p] & ~stepping;
+            for (int p = 0; p < size; p++)
+                stepBuffer[(p + 1 == size) ? 0 : p + 1] |= masks[p] & stepping;
+            System.arraycopy(stepBuffer, 0, masks, 0, size);
+        }
+    }
+
+    /**
+     * Depress one key in every lane.  The rotors step first, as in the machine.
+     * @param input one-hot planes of keys pressed, one plane per letter; not modified.
+     * @param output one-hot planes of lamps lit; overwritten.
+     */
+    public void type(long[] input, long[] output)
+    {
+        step();
+        System.arraycopy(input, 0, planeA, 0, size);
+        System.arraycopy(encipher(), 0, output, 0, size);
+    }
+
+    /**
+     * Depress the same key in every active lane.  The rotors step first, as in the machine.
+     * @param letter index of key pressed.
+     * @param output one-hot planes of lamps lit; overwritten.
+     */
+    public void type(int letter, long[] output)
+    {
+        step();
+        Arrays.fill(planeA, 0L);
+        planeA[letter] = activeLanes;
+        System.arraycopy(encipher(), 0, output, 0, size);
+    }
+
+    /**
+     * Test a crib against every active lane.  Lanes are typed from their current positions, and a lane survives if
+     * every plaintext letter enciphers to the ciphertext letter at the same place.  Typing stops early once no lane
+     * survives, so the lane positions are only meaningful afterward if every letter was typed.
+     * @param plaintext indexes of crib letters.
+     * @param ciphertext indexes of ciphertext letters, at least as long as the crib.
+     * @return bitmask of surviving lanes.
+     */
+    public long testCrib(int[] plaintext, int[] ciphertext)
+    {
+        long survivors = activeLanes;
+        for (int i = 0; i < plaintext.length && survivors != 0; i++)
+        {
+            step();
+            Arrays.fill(planeA, 0L);
+            planeA[plaintext[i]] = activeLanes;
+            survivors &= encipher()[ciphertext[i]];
+        }
+        return survivors;
+    }
+
+    /**
+     * Read the contact of a single lane from one-hot planes.
+     * @param planes one-hot planes.
+     * @param lane lane number.
+     * @return contact of lane; -1 if the lane has no signal.
+     */
+    public static int laneContact(long[] planes, int lane)
+    {
+        long bit = 1L << lane;
+        for (int c = 0; c < planes.length; c++)
+            if ((planes[c] & bit) != 0)
+                return c;
+        return -1;
+    }
+
+    /**
+     * Pass the signal held in <code>planeA</code> through the machine without stepping.
+     * @return the working planes (<code>planeA</code> or <code>planeB</code>) holding the output.
+     */
+    private long[] encipher()
+    {
+        long[] from = planeA;
+        long[] to = planeB;
+        long[] temp;
+
+        permute(tables.entryTable(), from, to);
+        temp = from; from = to; to = temp;
+        for (int slot = slots - 1; slot > -1; slot--) // right to left
+        {
+            rotor(tables.forwardTable(slot), slot, from, to);
+            temp = from; from = to; to = temp;
+        }
+        permute(tables.reflectorTable(), from, to);
+        temp = from; from = to; to = temp;
+        for (int slot = 0; slot < slots; slot++) // left to right
+        {
+            rotor(tables.backwardTable(slot), slot, from, to);
+            temp = from; from = to; to = temp;
+        }
+        permute(tables.exitTable(), from, to);
+        return to;
+    }
+
+    /**
+     * Move planes through a fixed permutation.
+     */
+    private void permute(int[] table, long[] from, long[] to)
+    {
+        for (int c = 0; c < size; c++)
+            to[table[c]] = from[c];
+    }
+
+    /**
+     * Move planes through a rotor, masked by the lanes at each of its positions.
+     * @param table forward or backward table of slot, indexed [position * size + contact].
+     * @param slot rotor slot.
+     * @param from input planes.
+     * @param to output planes.
+     */
+    private void rotor(int[] table, int slot, long[] from, long[] to)
+    {
+        Arrays.fill(to, 0L);
+        long[] masks = positionMasks[slot];
+        for (int p = 0; p < size; p++)
+        {
+            long mask = masks[p];
+            if (mask == 0)
+                continue;
+
+            int offset = p * size;
+            for (int c = 0; c < size; c++)
+            {
+                long lanes = from[c] & mask;
+                if (lanes != 0)
+                    to[table[offset + c]] |= lanes;
+            }
+        }
+    }
+}
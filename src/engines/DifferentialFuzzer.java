@@ -0,0 +1,810 @@
+package engines;
+
+import machine_pieces.EntryWheel;
+import machine_pieces.GearConstruction;
+import machine_pieces.Plugboard;
+import machine_pieces.Reflector;
+import machine_pieces.Rotor;
+import machines.ConstructedFullModel;
+import machines.MachineKey;
+import resources.AlphabetConverter;
+import resources.VersionDefinition;
+import resources.WiringCatalog;
+import resources.WiringData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Differential fuzzer of the engines against <code>ConstructedFullModel</code>.  Random keys are drawn from the
+ * versions of the wiring catalog (and from <code>WiringData</code>, for the <code>MachineKey</code> path), random
+ * texts are typed through the reference model and every engine, and the outputs are compared letter by letter.
+ * <br><br>
+ * Runs are reproducible: case <i>i</i> of a run is generated from the seed and <i>i</i> alone, whatever the number of
+ * threads, and the divergence reported is always the one of the lowest case.  A divergence is shrunk to a minimal key
+ * and text before being reported: the text is cut and its letters removed or replaced by the first letter of the
+ * alphabet, plugboard pairs are removed, and rings, positions, rotors and reflector are set back to the first of their
+ * kind, for as long as the engine still diverges.
+ * <br><br>
+ * AlphabetConverter is one per program, so a run covers the versions of a single alphabet; run once per alphabet (e.g.
+ * once with <code>--alphabet A-133</code>).
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class DifferentialFuzzer
+{
+    private static final int CHUNK = 256; // cases taken by a worker at a time
+
+    private final List<Source> sources;
+    private final Map<String, Engine> engines;
+
+    /**
+     * An engine under test.
+     */
+    public interface Engine
+    {
+        /**
+         * Type a text on a new machine of a key.
+         * @param config key and start positions.
+         * @param text letters of the alphabet.
+         * @return letters lit; null if the engine does not handle the key.
+         */
+        String type(Config config, String text);
+    }
+
+    /**
+     * A version keys can be drawn from.
+     */
+    public static final class Source
+    {
+        private final String name;
+        private final Map<String, Map<String, GearConstruction>> components;
+        private final String etw; // keyboard order of entry wheel; null for alphabet order
+        private final int slots;
+        private final int maxPlugs;
+        private final WiringData.enimgaVersion registered; // version in WiringData; null if only in the catalog
+        private final List<String> rotors;
+        private final List<String> reflectors;
+
+        Source(String name, Map<String, Map<String, GearConstruction>> components, String etw, int slots, int maxPlugs,
+               WiringData.enimgaVersion registered)
+        {
+            this.name = name;
+            this.components = components;
+            this.etw = etw;
+            this.slots = slots;
+            this.maxPlugs = maxPlugs;
+            this.registered = registered;
+            rotors = sorted(components.get("rotor").keySet());
+            reflectors = sorted(components.get("reflector").keySet());
+        }
+
+        private static List<String> sorted(Set<String> names)
+        {
+            List<String> list = new ArrayList<>(names);
+            Collections.sort(list);
+            return Collections.unmodifiableList(list);
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * @return version in WiringData, for MachineKey; null if the version is only in the catalog.
+         */
+        public WiringData.enimgaVersion getRegistered()
+        {
+            return registered;
+        }
+
+        @Override
+        public String toString()
+        {
+            return name;
+        }
+    }
+
+    /**
+     * A key and start positions.  Immutable; the <code>with</code> methods make changed copies.
+     */
+    public static final class Config
+    {
+        private final Source source;
+        private final String[] rotors; // leftmost first
+        private final int[] rings; // 01 -> A
+        private final String reflector;
+        private final int[] positions; // indexes of window letters
+        private final List<String> plugs;
+
+        Config(Source source, String[] rotors, int[] rings, String reflector, int[] positions, List<String> plugs)
+        {
+            this.source = source;
+            this.rotors = rotors;
+            this.rings = rings;
+            this.reflector = reflector;
+            this.positions = positions;
+            this.plugs = Collections.unmodifiableList(plugs);
+        }
+
+        public Source getSource()
+        {
+            return source;
+        }
+
+        public String[] getRotors()
+        {
+            return rotors.clone();
+        }
+
+        public int[] getRings()
+        {
+            return rings.clone();
+        }
+
+        public String getReflector()
+        {
+            return reflector;
+        }
+
+        public int[] getPositions()
+        {
+            return positions.clone();
+        }
+
+        public List<String> getPlugs()
+        {
+            return plugs;
+        }
+
+        Config withRotor(int slot, String rotor)
+        {
+            String[] r = rotors.clone();
+            r[slot] = rotor;
+            return new Config(source, r, rings, reflector, positions, plugs);
+        }
+
+        Config withRing(int slot, int ring)
+        {
+            int[] r = rings.clone();
+            r[slot] = ring;
+            return new Config(source, rotors, r, reflector, positions, plugs);
+        }
+
+        Config withPosition(int slot, int position)
+        {
+            int[] p = positions.clone();
+            p[slot] = position;
+            return new Config(source, rotors, rings, reflector, p, plugs);
+        }
+
+        Config withReflector(String reflector)
+        {
+            return new Config(source, rotors, rings, reflector, positions, plugs);
+        }
+
+        Config withoutPlug(int index)
+        {
+            List<String> p = new ArrayList<>(plugs);
+            p.remove(index);
+            return new Config(source, rotors, rings, reflector, positions, p);
+        }
+
+        /**
+         * Build the reference machine, with the rotors at the start positions.
+         * @return ConstructedFullModel.
+         */
+        public ConstructedFullModel build()
+        {
+            AlphabetConverter ac = AlphabetConverter.getAlphabetConverter();
+            String alphabet = new String(ac.getAlphabet());
+            EntryWheel entryWheel = new EntryWheel(EntryWheel.ETWsequence.CUSTOM);
+            entryWheel.set((source.etw == null) ? alphabet : source.etw, alphabet);
+
+            Plugboard plugboard = new Plugboard();
+            for (String pair : plugs)
+                plugboard.insertWire(pair);
+
+            Rotor[] assembly = new Rotor[rotors.length];
+            for (int i = 0; i < rotors.length; i++)
+                assembly[i] = new Rotor(rotors[i], rings[i], ac.convert(positions[i]), source.components);
+
+            return new ConstructedFullModel(entryWheel, plugboard, assembly, new Reflector(reflector,
+                    source.components));
+        }
+
+        /**
+         * Get the MachineKey of the config.
+         * @return MachineKey; null if the version is not in WiringData.
+         */
+        public MachineKey key()
+        {
+            if (source.registered == null)
+                return null;
+            return new MachineKey(source.registered, rotors, rings, reflector, String.join(" ", plugs));
+        }
+
+        @Override
+        public String toString()
+        {
+            AlphabetConverter ac = AlphabetConverter.getAlphabetConverter();
+            StringBuilder sb = new StringBuilder(source.name).append(" | ").append(reflector).append(" | ")
+                    .append(String.join("-", rotors)).append(" | ");
+            for (int i = 0; i < rings.length; i++)
+                sb.append((i == 0) ? "" : "-").append(String.format("%02d", rings[i]));
+            sb.append(" | ");
+            for (int p : positions)
+                sb.append(ac.convert(p));
+            return sb.append(" | ").append(String.join(" ", plugs)).toString();
+        }
+    }
+
+    /**
+     * A key and text on which an engine and the reference model disagree.
+     */
+    public static final class Divergence
+    {
+        private final long testCase;
+        private final String engine;
+        private final Config config;
+        private final String text;
+        private final String expected;
+        private final String actual;
+
+        Divergence(long testCase, String engine, Config config, String text, String expected, String actual)
+        {
+            this.testCase = testCase;
+            this.engine = engine;
+            this.config = config;
+            this.text = text;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        /**
+         * @return index of the case in its run.
+         */
+        public long getCase()
+        {
+            return testCase;
+        }
+
+        public String getEngine()
+        {
+            return engine;
+        }
+
+        public Config getConfig()
+        {
+            return config;
+        }
+
+        public String getText()
+        {
+            return text;
+        }
+
+        /**
+         * @return output of the reference model.
+         */
+        public String getExpected()
+        {
+            return expected;
+        }
+
+        /**
+         * @return output of the engine, or the exception it threw.
+         */
+        public String getActual()
+        {
+            return actual;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "case " + testCase + ", " + engine + "\n  key:      " + config + "\n  text:     " + text +
+                    "\n  expected: " + expected + "\n  actual:   " + actual;
+        }
+    }
+
+    /**
+     * Totals of a run.
+     */
+    public static final class Report
+    {
+        private final long cases;
+        private final long letters;
+        private final Divergence divergence;
+
+        Report(long cases, long letters, Divergence divergence)
+        {
+            this.cases = cases;
+            this.letters = letters;
+            this.divergence = divergence;
+        }
+
+        /**
+         * @return number of cases run; cases after a divergence may be skipped.
+         */
+        public long getCases()
+        {
+            return cases;
+        }
+
+        /**
+         * @return number of letters typed through the reference model.
+         */
+        public long getLetters()
+        {
+            return letters;
+        }
+
+        /**
+         * @return shrunk divergence of the lowest failing case; null if every engine agreed.
+         */
+        public Divergence getDivergence()
+        {
+            return divergence;
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param sources versions to draw keys from.
+     * @param engines engines to compare with the reference model, by name.
+     * @throws IllegalArgumentException if there are no sources.
+     */
+    public DifferentialFuzzer(List<Source> sources, Map<String, Engine> engines)
+    {
+        if (sources.isEmpty())
+            throw new IllegalArgumentException("No versions to draw keys from.");
+        this.sources = new ArrayList<>(sources);
+        this.engines = new LinkedHashMap<>(engines);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Sources and engines
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Get the versions of the catalog and of WiringData that use the alphabet of AlphabetConverter.  Rotors and
+     * reflectors whose wiring is not a rearrangement of the alphabet are left out; a version without a usable
+     * reflector is given a fixed, made-up one named "R".
+     * @return List of Source.
+     * @throws IllegalStateException if AlphabetConverter has not been instantiated.
+     */
+    public static List<Source> sources() throws IllegalStateException
+    {
+        if (!AlphabetConverter.exists())
+            throw new IllegalStateException("AlphabetConverter must first be instantiated.");
+        String alphabet = new String(AlphabetConverter.getAlphabetConverter().getAlphabet());
+
+        List<Source> sources = new ArrayList<>();
+        for (VersionDefinition version : WiringCatalog.load())
+        {
+            if (!alphabet.equals(version.getAlphabet()))
+                continue;
+
+            Map<String, GearConstruction> rotors = new HashMap<>();
+            for (VersionDefinition.RotorDefinition rotor : version.getRotors())
+                if (isRearrangement(rotor.getWiring(), alphabet))
+                    rotors.put(rotor.getName(), new GearConstruction(rotor.getWiring(),
+                            (rotor.getTurnover() == null) ? "" : rotor.getTurnover()));
+            Map<String, GearConstruction> reflectors = new HashMap<>();
+            for (VersionDefinition.ReflectorDefinition reflector : version.getReflectors())
+                if (isRearrangement(reflector.getWiring(), alphabet))
+                    reflectors.put(reflector.getName(), new GearConstruction(reflector.getWiring(),
+                            reflector.isRotatable(), reflector.isStepping(), reflector.isRewirable()));
+            if (reflectors.isEmpty() && alphabet.length() % 2 == 0)
+                reflectors.put("R", new GearConstruction(madeUpReflector(alphabet), false, false, false));
+            if (rotors.isEmpty() || reflectors.isEmpty())
+                continue;
+
+            Map<String, Map<String, GearConstruction>> components = new HashMap<>();
+            components.put("rotor", rotors);
+            components.put("reflector", reflectors);
+            String etw = isRearrangement(version.getETW(), alphabet) ? version.getETW() : null;
+            int maxPlugs = Boolean.FALSE.equals(version.getPlugboardInstalled()) ? 0 :
+                    Math.min(version.getMaxConnections(), alphabet.length() / 2);
+            sources.add(new Source(version.getName(), components, etw, version.getRotorSlots(), maxPlugs, null));
+        }
+
+        if (alphabet.equals("ABCDEFGHIJKLMNOPQRSTUVWXYZ"))
+            for (WiringData.enimgaVersion version : WiringData.enimgaVersion.values())
+                sources.add(new Source("WiringData " + version, WiringData.getComponents(version), null, 3, 13,
+                        version));
+        return sources;
+    }
+
+    private static boolean isRearrangement(String wiring, String alphabet)
+    {
+        if (wiring == null || wiring.length() != alphabet.length())
+            return false;
+        char[] a = wiring.toCharArray(), b = alphabet.toCharArray();
+        Arrays.sort(a);
+        Arrays.sort(b);
+        return Arrays.equals(a, b);
+    }
+
+    /**
+     * A reflector pairing the letters of the alphabet, the same for every run.
+     */
+    private static String madeUpReflector(String alphabet)
+    {
+        SplittableRandom random = new SplittableRandom(alphabet.hashCode());
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < alphabet.length(); i++)
+            order.add(i);
+        for (int i = order.size() - 1; i > 0; i--)
+            Collections.swap(order, i, random.nextInt(i + 1));
+
+        char[] wiring = new char[alphabet.length()];
+        for (int i = 0; i < order.size(); i += 2)
+        {
+            wiring[order.get(i)] = alphabet.charAt(order.get(i + 1));
+            wiring[order.get(i + 1)] = alphabet.charAt(order.get(i));
+        }
+        return new String(wiring);
+    }
+
+    /**
+     * Get every engine of this package, each on a new machine per text.
+     * @return engines by name.
+     */
+    public static Map<String, Engine> defaultEngines()
+    {
+        Map<String, Engine> engines = new LinkedHashMap<>();
+        engines.put("TableMachine", (config, text) -> new TableMachine(ScramblerTables.of(config.build())).type(text));
+        engines.put("TableMachine, scheduled", (config, text) -> {
+            ScramblerTables tables = ScramblerTables.of(config.build());
+            if (Math.pow(tables.size(), tables.slots()) > SteppingSchedule.MAX_STATES)
+                return null;
+            return new TableMachine(tables, SteppingSchedule.of(tables)).type(text);
+        });
+        engines.put("SpecializedMachine", (config, text) -> SpecializedMachine.of(ScramblerTables.of(config.build()))
+                .type(text));
+        engines.put("BitslicedScrambler", DifferentialFuzzer::typeBitsliced);
+        engines.put("ScramblerTables of MachineKey", (config, text) -> {
+            MachineKey key = config.key();
+            if (key == null)
+                return null;
+            TableMachine machine = new TableMachine(ScramblerTables.of(key));
+            machine.setPositions(config.positions);
+            return machine.type(text);
+        });
+        return engines;
+    }
+
+    /**
+     * Type in one lane of a bitsliced scrambler, with the other lanes busy at other positions.
+     */
+    private static String typeBitsliced(Config config, String text)
+    {
+        ScramblerTables tables = ScramblerTables.of(config.build());
+        BitslicedScrambler scrambler = new BitslicedScrambler(tables);
+        int lane = Math.floorMod(Arrays.hashCode(config.positions), BitslicedScrambler.LANES);
+        for (int other = 0; other < BitslicedScrambler.LANES; other++)
+        {
+            int[] p = config.getPositions();
+            for (int slot = 0; slot < p.length; slot++)
+                p[slot] += other * (slot + 1); // spread the other lanes over the positions
+            scrambler.setLane(other, p);
+        }
+        scrambler.setLane(lane, config.positions);
+
+        long[] planes = new long[tables.size()];
+        char[] out = new char[text.length()];
+        for (int i = 0; i < out.length; i++)
+        {
+            scrambler.type(tables.indexOf(text.charAt(i)), planes);
+            out[i] = tables.letterAt(BitslicedScrambler.laneContact(planes, lane));
+        }
+        return new String(out);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Running
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Generate a case.
+     * @param seed seed of run.
+     * @param testCase index of case.
+     * @param maxLength longest text.
+     * @return Object[]{Config, String text}.
+     */
+    Object[] generate(long seed, long testCase, int maxLength)
+    {
+        SplittableRandom random = new SplittableRandom(seed ^ (testCase * 0x9E3779B97F4A7C15L));
+        char[] alphabet = AlphabetConverter.getAlphabetConverter().getAlphabet();
+        int n = alphabet.length;
+        Source source = sources.get(random.nextInt(sources.size()));
+
+        // wheel order without repeats, unless the version has too few rotors
+        List<String> pool = new ArrayList<>(source.rotors);
+        String[] rotors = new String[source.slots];
+        for (int i = 0; i < rotors.length; i++)
+            rotors[i] = (pool.size() >= rotors.length - i) ? pool.remove(random.nextInt(pool.size())) :
+                    source.rotors.get(random.nextInt(source.rotors.size()));
+
+        int[] rings = new int[rotors.length];
+        int[] positions = new int[rotors.length];
+        for (int i = 0; i < rotors.length; i++)
+        {
+            rings[i] = random.nextInt(n) + 1;
+            positions[i] = random.nextInt(n);
+        }
+        String reflector = source.reflectors.get(random.nextInt(source.reflectors.size()));
+
+        List<Integer> letters = new ArrayList<>();
+        for (int i = 0; i < n; i++)
+            letters.add(i);
+        for (int i = letters.size() - 1; i > 0; i--)
+            Collections.swap(letters, i, random.nextInt(i + 1));
+        int pairs = (source.maxPlugs == 0) ? 0 : random.nextInt(source.maxPlugs + 1);
+        List<String> plugs = new ArrayList<>();
+        for (int i = 0; i < pairs; i++)
+            plugs.add("" + alphabet[letters.get(2 * i)] + alphabet[letters.get(2 * i + 1)]);
+
+        char[] text = new char[1 + random.nextInt(maxLength)];
+        for (int i = 0; i < text.length; i++)
+            text[i] = alphabet[random.nextInt(n)];
+
+        return new Object[]{new Config(source, rotors, rings, reflector, positions, plugs), new String(text)};
+    }
+
+    /**
+     * Compare every engine with the reference model on one key and text.
+     * @return first Divergence; null if every engine agreed, or the reference model cannot build the key.
+     */
+    Divergence check(long testCase, Config config, String text, Set<String> only)
+    {
+        String expected;
+        try
+        {
+            ConstructedFullModel model = config.build();
+            char[] out = text.toCharArray();
+            for (int i = 0; i < out.length; i++)
+                out[i] = model.type(out[i]);
+            expected = new String(out);
+        }
+        catch (RuntimeException e) // not a valid key; nothing to compare
+        {
+            return null;
+        }
+
+        for (Map.Entry<String, Engine> engine : engines.entrySet())
+        {
+            if (only != null && !only.contains(engine.getKey()))
+                continue;
+            String actual;
+            try
+            {
+                actual = engine.getValue().type(config, text);
+            }
+            catch (RuntimeException e)
+            {
+                actual = e.toString();
+            }
+            if (actual != null && !actual.equals(expected))
+                return new Divergence(testCase, engine.getKey(), config, text, expected, actual);
+        }
+        return null;
+    }
+
+    /**
+     * Run the cases of a seed on several threads.
+     * @param seed seed of run.
+     * @param cases number of cases.
+     * @param threads number of worker threads.
+     * @param maxLength longest text.
+     * @return Report, with the shrunk divergence of the lowest failing case.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Report run(long seed, long cases, int threads, int maxLength) throws InterruptedException
+    {
+        AtomicLong next = new AtomicLong();
+        AtomicLong lowestFailure = new AtomicLong(Long.MAX_VALUE);
+        AtomicLong run = new AtomicLong();
+        AtomicLong letters = new AtomicLong();
+        Divergence[] found = new Divergence[1];
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++)
+            workers.add(pool.submit(() -> {
+                long start;
+                while ((start = next.getAndAdd(CHUNK)) < Math.min(cases, lowestFailure.get()))
+                    for (long c = start; c < Math.min(start + CHUNK, cases) && c < lowestFailure.get(); c++)
+                    {
+                        Object[] generated = generate(seed, c, maxLength);
+                        String text = (String) generated[1];
+                        Divergence divergence = check(c, (Config) generated[0], text, null);
+                        run.incrementAndGet();
+                        letters.addAndGet(text.length());
+                        if (divergence != null)
+                            synchronized (found)
+                            {
+                                if (c < lowestFailure.get())
+                                {
+                                    lowestFailure.set(c);
+                                    found[0] = divergence;
+                                }
+                            }
+                    }
+            }));
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        for (Future<?> worker : workers)
+            try
+            {
+                worker.get();
+            }
+            catch (ExecutionException e)
+            {
+                throw new IllegalStateException("Fuzzer worker failed.", e.getCause());
+            }
+
+        return new Report(run.get(), letters.get(), (found[0] == null) ? null : shrink(found[0]));
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Shrinking
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Shrink a divergence to a minimal key and text on which the same engine still diverges.
+     * @param divergence divergence found.
+     * @return smallest divergence found.
+     */
+    public Divergence shrink(Divergence divergence)
+    {
+        Set<String> engine = Collections.singleton(divergence.engine);
+        char first = AlphabetConverter.getAlphabetConverter().getAlphabet()[0];
+        Divergence best = divergence;
+
+        boolean changed = true;
+        while (changed)
+        {
+            changed = false;
+            // cut text after the first wrong letter
+            int wrong = firstDifference(best.expected, best.actual);
+            if (wrong + 1 < best.text.length())
+            {
+                Divergence d = check(best.testCase, best.config, best.text.substring(0, wrong + 1), engine);
+                if (d != null)
+                {
+                    best = d;
+                    changed = true;
+                }
+            }
+
+            // each change is made to the smallest config so far
+            List<UnaryOperator<Config>> changes = new ArrayList<>();
+            for (int i = best.config.plugs.size() - 1; i > -1; i--)
+            {
+                int plug = i;
+                changes.add(c -> (plug < c.plugs.size()) ? c.withoutPlug(plug) : c);
+            }
+            for (int i = 0; i < best.config.rotors.length; i++)
+            {
+                int slot = i;
+                changes.add(c -> c.withRing(slot, 1));
+                changes.add(c -> c.withPosition(slot, 0));
+                changes.add(c -> {
+                    for (String rotor : c.source.rotors) // first rotor not already in the machine
+                        if (rotor.compareTo(c.rotors[slot]) < 0 && !Arrays.asList(c.rotors).contains(rotor))
+                            return c.withRotor(slot, rotor);
+                    return c;
+                });
+            }
+            changes.add(c -> c.withReflector(c.source.reflectors.get(0)));
+
+            for (UnaryOperator<Config> change : changes)
+            {
+                Config candidate = change.apply(best.config);
+                if (candidate.toString().equals(best.config.toString()))
+                    continue;
+                Divergence d = check(best.testCase, candidate, best.text, engine);
+                if (d != null)
+                {
+                    best = d;
+                    changed = true;
+                }
+            }
+
+            // remove letters, then replace them with the first letter
+            for (int i = best.text.length() - 1; i > -1 && best.text.length() > 1; i--)
+            {
+                Divergence d = check(best.testCase, best.config, best.text.substring(0, i) +
+                        best.text.substring(i + 1), engine);
+                if (d != null)
+                {
+                    best = d;
+                    changed = true;
+                }
+            }
+            for (int i = 0; i < best.text.length(); i++)
+                if (best.text.charAt(i) != first)
+                {
+                    Divergence d = check(best.testCase, best.config, best.text.substring(0, i) + first +
+                            best.text.substring(i + 1), engine);
+                    if (d != null)
+                    {
+                        best = d;
+                        changed = true;
+                    }
+                }
+        }
+        return best;
+    }
+
+    private static int firstDifference(String a, String b)
+    {
+        int i = 0;
+        while (i < a.length() && i < b.length() && a.charAt(i) == b.charAt(i))
+            i++;
+        return i;
+    }
+
+    /**
+     * Run the fuzzer headless, for pre-merge checks.  Exits with status 1 if an engine diverges.
+     * @param args <code>--seed n</code> (default 1), <code>--cases n</code> (default 1000000), <code>--threads n</code>
+     *             (default: one per processor), <code>--max-length n</code> (default 100), <code>--alphabet
+     *             version</code> (catalog version whose alphabet to use; default the 26-letter alphabet).
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public static void main(String[] args) throws InterruptedException
+    {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2)
+            options.put(args[i], args[i + 1]);
+        long seed = Long.parseLong(options.getOrDefault("--seed", "1"));
+        long cases = Long.parseLong(options.getOrDefault("--cases", "1000000"));
+        int threads = Integer.parseInt(options.getOrDefault("--threads",
+                Integer.toString(Runtime.getRuntime().availableProcessors())));
+        int maxLength = Integer.parseInt(options.getOrDefault("--max-length", "100"));
+
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+        if (options.containsKey("--alphabet"))
+            for (VersionDefinition version : WiringCatalog.load())
+                if (version.getName().equals(options.get("--alphabet")))
+                    alphabet = version.getAlphabet();
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter(alphabet);
+
+        List<Source> sources = sources();
+        System.out.println("Seed " + seed + ", " + cases + " cases on " + threads + " threads; versions " + sources);
+
+        long start = System.nanoTime();
+        Report report = new DifferentialFuzzer(sources, defaultEngines()).run(seed, cases, threads, maxLength);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d cases, %d letters in %.1f s (%.0f letters/s)%n", report.getCases(),
+                report.getLetters(), seconds, report.getLetters() / seconds);
+
+        if (report.getDivergence() != null)
+        {
+            System.out.println("DIVERGENCE " + report.getDivergence());
+            System.exit(1);
+        }
+        System.out.println("All engines agree.");
+    }
+}
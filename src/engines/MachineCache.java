@@ -0,0 +1,233 @@
+package engines;
+
+import exceptions.BadKeyException;
+import machines.MachineKey;
+import monitoring.CacheLookupEvent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of prepared machine definitions, keyed by <code>MachineKey</code>.  Building a machine from a key means
+ * constructing every component and taking its tables; with the cache, that is done once per daily key, and every
+ * message sent on that key only needs a new <code>TableMachine</code> cursor over the shared tables.
+ * <br><br>
+ * The least recently used definition is evicted once the cache is full.  The cache may be used from any number of
+ * threads.  Definitions are built outside the lock, so a slow build does not hold up lookups of other keys; if two
+ * threads miss on the same key at once, both build it and the first to finish is kept.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class MachineCache
+{
+    private final int maximumSize;
+    private final LinkedHashMap<MachineKey, ScramblerTables> entries;
+
+    // statistics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Snapshot of cache statistics.
+     */
+    public static class Stats
+    {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        private Stats(long hits, long misses, long evictions)
+        {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        /**
+         * @return number of lookups that found a definition.
+         */
+        public long hits()
+        {
+            return hits;
+        }
+
+        /**
+         * @return number of lookups that built a definition.
+         */
+        public long misses()
+        {
+            return misses;
+        }
+
+        /**
+         * @return number of definitions removed to stay within the maximum size.
+         */
+        public long evictions()
+        {
+            return evictions;
+        }
+
+        /**
+         * @return fraction of lookups that found a definition; 0 if there were no lookups.
+         */
+        public double hitRate()
+        {
+            long total = hits + misses;
+            return (total == 0) ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("hits=%d misses=%d evictions=%d hitRate=%.3f", hits, misses, evictions, hitRate());
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param maximumSize maximum number of definitions held.
+     * @throws IllegalArgumentException if maximumSize is less than 1.
+     */
+    public MachineCache(int maximumSize) throws IllegalArgumentException
+    {
+        if (maximumSize < 1)
+            throw new IllegalArgumentException("Cache must hold at least one definition.");
+        this.maximumSize = maximumSize;
+
+        entries = new LinkedHashMap<MachineKey, ScramblerTables>(16, 0.75f, true) // access order for LRU
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MachineKey, ScramblerTables> eldest)
+            {
+                if (size() > MachineCache.this.maximumSize)
+                {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the definition of a key, building it if it is not cached.
+     * @param key machine key.
+     * @return ScramblerTables of key, with the rotors at the first letter of the alphabet.
+     * @throws BadKeyException if the key cannot be built.
+     */
+    public ScramblerTables get(MachineKey key) throws BadKeyException
+    {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+
+        ScramblerTables tables;
+        synchronized (entries)
+        {
+            tables = entries.get(key);
+        }
+        if (tables != null)
+        {
+            hits.increment();
+            commit(event, key, true);
+            return tables;
+        }
+
+        misses.increment();
+        ScramblerTables built = ScramblerTables.of(key);
+        synchronized (entries)
+        {
+            tables = entries.get(key); // another thread may have finished first
+            if (tables == null)
+            {
+                entries.put(key, built);
+                tables = built;
+            }
+        }
+        commit(event, key, false);
+        return tables;
+    }
+
+    /**
+     * Commit a lookup event, if it is being recorded.
+     */
+    private static void commit(CacheLookupEvent event, MachineKey key, boolean hit)
+    {
+        if (event.shouldCommit())
+        {
+            event.key = key.toString();
+            event.hit = hit;
+            event.commit();
+        }
+    }
+
+    /**
+     * Get a new machine for a key, with the rotors at the given positions.
+     * @param key machine key.
+     * @param positions letters in the rotor windows, leftmost first.
+     * @return TableMachine ready to type.
+     * @throws BadKeyException if the key cannot be built, or the positions do not match the rotors.
+     */
+    public TableMachine cursor(MachineKey key, String positions) throws BadKeyException
+    {
+        ScramblerTables tables = get(key);
+        if (positions.length() != tables.slots())
+            throw new BadKeyException("Expected " + tables.slots() + " rotor positions: " + positions);
+
+        int[] indexes = new int[positions.length()];
+        for (int i = 0; i < indexes.length; i++)
+        {
+            indexes[i] = tables.indexOf(positions.charAt(i));
+            if (indexes[i] == -1)
+                throw new BadKeyException("Rotor position is not in the alphabet: " + positions.charAt(i));
+        }
+
+        TableMachine machine = new TableMachine(tables);
+        machine.setPositions(indexes);
+        return machine;
+    }
+
+    /**
+     * Get the number of definitions held.
+     * @return number of definitions.
+     */
+    public int size()
+    {
+        synchronized (entries)
+        {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Get the maximum number of definitions held.
+     * @return maximum size.
+     */
+    public int getMaximumSize()
+    {
+        return maximumSize;
+    }
+
+    /**
+     * Remove all definitions.  Statistics are kept.
+     */
+    public void invalidateAll()
+    {
+        synchronized (entries)
+        {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Get a snapshot of the cache statistics.
+     * @return Stats.
+     */
+    public Stats stats()
+    {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum());
+    }
+}
@@ -0,0 +1,405 @@
+package engines;
+
+import exceptions.BadKeyException;
+import machine_pieces.EntryWheel;
+import machine_pieces.GearConstruction;
+import machine_pieces.Plugboard;
+import machine_pieces.Reflector;
+import machine_pieces.Rotor;
+import machines.ConstructedFullModel;
+import machines.MachineKey;
+import monitoring.MachineBuildEvent;
+import monitoring.MachineMetrics;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable, table-driven form of a fully configured Enigma machine.  The tables are taken from the component classes
+ * themselves (through their <code>Wiring</code> methods), so the behaviour matches <code>ConstructedFullModel</code>,
+ * but every pass through a component becomes a single <code>int[]</code> lookup instead of a search through an
+ * ArrayList.
+ * <br><br>
+ * The tables only hold the parts of the key that do not change while typing: wheel order, ring settings, reflector,
+ * entry wheel and plugboard.  The rotor positions are held separately by each user of the tables (see
+ * <code>TableMachine</code> and <code>BitslicedScrambler</code>), so a single instance can be shared between threads.
+ * <br><br>
+ * Rotors are arranged as in <code>ConstructedFullModel</code>, with the rightmost (fast) rotor in the last slot.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public final class ScramblerTables
+{
+    private final int size; // number of letters in the alphabet
+    private final char[] alphabet;
+    private final int[] charIndex; // character -> index in alphabet; -1 if not in alphabet
+
+    private final int[] entry; // keyboard toward rotor assembly (entry wheel, then plugboard)
+    private final int[] exit; // rotor assembly toward lampboard (plugboard, then entry wheel)
+    private final int[][] forward; // [slot][position * size + contact]; signal toward reflector
+    private final int[][] backward; // [slot][position * size + contact]; signal toward lampboard
+    private final boolean[][] turnover; // [slot][position]; if rotor is at a turnover position
+    private final int[] reflector;
+
+    private final String[] rotorNames;
+    private final int[] startPositions; // rotor positions when tables were taken
+
+    /**
+     * Constructor; only called by the factory methods.
+     */
+    private ScramblerTables(char[] alphabet, int[] entry, int[] exit, int[][] forward, int[][] backward,
+                            boolean[][] turnover, int[] reflector, String[] rotorNames, int[] startPositions)
+    {
+        this.size = alphabet.length;
+        this.alphabet = alphabet;
+        this.entry = entry;
+        this.exit = exit;
+        this.forward = forward;
+        this.backward = backward;
+        this.turnover = turnover;
+        this.reflector = reflector;
+        this.rotorNames = rotorNames;
+        this.startPositions = startPositions;
+
+        // find largest character to size lookup array
+        int max = 0;
+        for (char c : alphabet)
+            max = Math.max(max, c);
+        charIndex = new int[max + 1];
+        Arrays.fill(charIndex, -1);
+        for (int i = 0; i < alphabet.length; i++)
+            charIndex[alphabet[i]] = i;
+    }
+
+    /**
+     * Take the tables of a constructed machine in its current state.  Ring settings, plugboard connections and the
+     * letters currently in the rotor windows are all captured; later changes to the machine do not affect the tables.
+     *
+     * @param model machine to take tables from.
+     * @return ScramblerTables of the machine.
+     * @throws IllegalStateException if AlphabetConverter has not been instantiated.
+     */
+    public static ScramblerTables of(ConstructedFullModel model) throws IllegalStateException
+    {
+        if (!AlphabetConverter.exists())
+            throw new IllegalStateException("AlphabetConverter must first be instantiated.");
+        AlphabetConverter ac = AlphabetConverter.getAlphabetConverter();
+        char[] alphabet = ac.getAlphabet();
+        int n = alphabet.length;
+
+        // entry wheel and plugboard do not step; combine them into a single table each way
+        EntryWheel entryWheel = model.getEntryWheel();
+        Plugboard plugboard = model.getPlugboard();
+        int[] entry = new int[n];
+        int[] exit = new int[n];
+        for (int c = 0; c < n; c++)
+        {
+            entry[c] = plugboard.input(entryWheel.input(c));
+            exit[c] = entryWheel.output(plugboard.output(c));
+        }
+
+        Rotor[] rotors = model.getRotorAssembly();
+        int[][] forward = new int[rotors.length][];
+        int[][] backward = new int[rotors.length][];
+        boolean[][] turnover = new boolean[rotors.length][n];
+        String[] names = new String[rotors.length];
+        int[] positions = new int[rotors.length];
+        for (int slot = 0; slot < rotors.length; slot++)
+        {
+            Rotor rotor = rotors[slot];
+            int p0 = ac.convert(rotor.getWindow());
+
+            // wiring of the rotor (with ring setting) as it would be with the first letter in the window
+            int[] base = new int[n];
+            for (int c = 0; c < n; c++)
+                base[Math.floorMod(c + p0, n)] = Math.floorMod(rotor.input(c) + p0, n);
+
+            forward[slot] = new int[n * n];
+            backward[slot] = new int[n * n];
+            for (int p = 0; p < n; p++)
+                for (int c = 0; c < n; c++)
+                {
+                    int out = Math.floorMod(base[(c + p) % n] - p, n);
+                    forward[slot][p * n + c] = out;
+                    backward[slot][p * n + out] = c;
+                }
+
+            for (int p = 0; p < n; p++)
+                turnover[slot][p] = rotor.getTurnoverMask().isSet(p);
+
+            names[slot] = rotor.getRotorSelected();
+            positions[slot] = p0;
+        }
+
+        Reflector ref = model.getReflector();
+        int[] reflector = new int[n];
+        for (int c = 0; c < n; c++)
+            reflector[c] = ref.input(c);
+
+        return new ScramblerTables(alphabet, entry, exit, forward, backward, turnover, reflector, names, positions);
+    }
+
+    /**
+     * Build the tables of a key directly from the shared wiring tables in <code>WiringData</code>, without
+     * constructing any components.  The entry wheel is wired alphabetically, and the rotors are placed at the first
+     * letter of the alphabet.  Gives the same tables as <code>of(key.build())</code>.
+     *
+     * @param key machine key.
+     * @return ScramblerTables of the key.
+     * @throws BadKeyException if the key is not valid.
+     * @throws IllegalStateException if AlphabetConverter has not been instantiated.
+     */
+    public static ScramblerTables of(MachineKey key) throws BadKeyException, IllegalStateException
+    {
+        MachineBuildEvent event = new MachineBuildEvent();
+        event.begin();
+
+        key.validate();
+        AlphabetConverter ac = AlphabetConverter.getAlphabetConverter();
+        char[] alphabet = ac.getAlphabet();
+        int n = alphabet.length;
+        Map<String, Map<String, GearConstruction>> components = WiringData.getComponents(key.getVersion());
+
+        // plugboard is its own inverse; entry wheel is A -> A
+        int[] plugboard = new int[n];
+        for (int c = 0; c < n; c++)
+            plugboard[c] = c;
+        if (!key.getPlugboard().isEmpty())
+            for (String pair : key.getPlugboard().split(" "))
+            {
+                int a = ac.convert(pair.charAt(0));
+                int b = ac.convert(pair.charAt(1));
+                plugboard[a] = b;
+                plugboard[b] = a;
+            }
+
+        String[] names = key.getRotors();
+        int[] rings = key.getRingSettings();
+        int[][] forward = new int[names.length][];
+        int[][] backward = new int[names.length][];
+        boolean[][] turnover = new boolean[names.length][n];
+        for (int slot = 0; slot < names.length; slot++)
+        {
+            GearConstruction gear = components.get("rotor").get(names[slot]);
+            int[] wiring = gear.getWiringTable();
+            int ring = Math.floorMod(Math.abs(rings[slot]) - 1, n); // as Rotor.setRingSetting
+
+            forward[slot] = new int[n * n];
+            backward[slot] = new int[n * n];
+            for (int p = 0; p < n; p++)
+                for (int c = 0; c < n; c++)
+                {
+                    int out = Math.floorMod(wiring[Math.floorMod(c + p - ring, n)] + ring - p, n);
+                    forward[slot][p * n + c] = out;
+                    backward[slot][p * n + out] = c;
+                }
+
+            for (int p = 0; p < n; p++)
+                turnover[slot][p] = gear.getTurnoverMask().isSet(p);
+        }
+
+        int[] reflector = components.get("reflector").get(key.getReflector()).getWiringTable();
+
+        ScramblerTables tables = new ScramblerTables(alphabet, plugboard.clone(), plugboard, forward, backward,
+                turnover, reflector, names, new int[names.length]);
+
+        if (event.shouldCommit())
+        {
+            event.builtBy = "ScramblerTables";
+            event.wheelOrder = String.join("-", names);
+            event.commit();
+        }
+        return tables;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Getter methods
+
+    /**
+     * Get the number of letters in the alphabet.
+     * @return size of alphabet.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Get the number of rotor slots.
+     * @return number of rotors.
+     */
+    public int slots()
+    {
+        return forward.length;
+    }
+
+    /**
+     * Get the alphabet of the machine.
+     * @return char[] copy of alphabet.
+     */
+    public char[] getAlphabet()
+    {
+        return alphabet.clone();
+    }
+
+    /**
+     * Get the names of the rotors, leftmost first.
+     * @return String[] of rotor names.
+     */
+    public String[] getRotorNames()
+    {
+        return rotorNames.clone();
+    }
+
+    /**
+     * Get the rotor positions (window letters as indexes) at the time the tables were taken, leftmost first.
+     * @return int[] of positions.
+     */
+    public int[] getStartPositions()
+    {
+        return startPositions.clone();
+    }
+
+    /**
+     * Convert a character into its index in the alphabet.
+     * @param letter character to convert.
+     * @return index of character; -1 if not in alphabet.
+     */
+    public int indexOf(char letter)
+    {
+        return (letter < charIndex.length) ? charIndex[letter] : -1;
+    }
+
+    /**
+     * Convert an index of the alphabet into its character.
+     * @param index index in alphabet.
+     * @return character.
+     */
+    public char letterAt(int index)
+    {
+        return alphabet[index];
+    }
+
+    /**
+     * Get if a rotor is at a turnover position; that is, if the pawl to its left engages at the next key press.
+     * @param slot rotor slot.
+     * @param position position of rotor.
+     * @return true if next rotor steps.
+     */
+    public boolean isTurnover(int slot, int position)
+    {
+        return turnover[slot][position];
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Running methods
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Step the rotor positions once, as <code>ConstructedFullModel</code> does before every key press.
+     * @param positions rotor positions, leftmost first; modified in place.
+     */
+    public void step(int[] positions)
+    {
+        int last = positions.length - 1; // first (rightmost) rotor
+        for (int i = 0; i < last; i++) // left to right, so rotor i + 1 has not yet moved
+            if (turnover[i + 1][positions[i + 1]] || (i > 0 && turnover[i][positions[i]])) // carry or double step
+                positions[i] = (positions[i] + 1 == size) ? 0 : positions[i] + 1;
+        positions[last] = (positions[last] + 1 == size) ? 0 : positions[last] + 1;
+    }
+
+    /**
+     * Step the rotor positions once, reporting the key press and every step to metrics.
+     * @param positions rotor positions, leftmost first; modified in place.
+     * @param metrics MachineMetrics to report to.
+     */
+    public void step(int[] positions, MachineMetrics metrics)
+    {
+        metrics.keysPressed(1);
+        int last = positions.length - 1;
+        for (int i = 0; i < last; i++)
+        {
+            boolean carried = turnover[i + 1][positions[i + 1]];
+            if (carried || (i > 0 && turnover[i][positions[i]]))
+            {
+                positions[i] = (positions[i] + 1 == size) ? 0 : positions[i] + 1;
+                metrics.rotorStepped(i);
+                if (carried)
+                    metrics.turnover(i + 1);
+                else
+                    metrics.doubleStep(i);
+            }
+        }
+        positions[last] = (positions[last] + 1 == size) ? 0 : positions[last] + 1;
+        metrics.rotorStepped(last);
+    }
+
+    /**
+     * Pass a contact signal through the machine at the given rotor positions.  Does not step the rotors.
+     * @param positions rotor positions, leftmost first.
+     * @param contactSignal index of letter on keyboard.
+     * @return index of lamp lit.
+     */
+    public int encipher(int[] positions, int contactSignal)
+    {
+        int c = entry[contactSignal];
+        for (int i = forward.length - 1; i > -1; i--) // right to left
+            c = forward[i][positions[i] * size + c];
+        c = reflector[c];
+        for (int i = 0; i < backward.length; i++) // left to right
+            c = backward[i][positions[i] * size + c];
+        return exit[c];
+    }
+
+    /**
+     * Pass a contact signal through the machine at a state of a stepping schedule.  Does not step the rotors.
+     * @param schedule stepping schedule of these tables.
+     * @param state state of schedule.
+     * @param contactSignal index of letter on keyboard.
+     * @return index of lamp lit.
+     */
+    int encipher(SteppingSchedule schedule, int state, int contactSignal)
+    {
+        int[] offsets = schedule.offsetTable();
+        int base = state * forward.length;
+        int c = entry[contactSignal];
+        for (int i = forward.length - 1; i > -1; i--) // right to left
+            c = forward[i][offsets[base + i] + c];
+        c = reflector[c];
+        for (int i = 0; i < backward.length; i++) // left to right
+            c = backward[i][offsets[base + i] + c];
+        return exit[c];
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Table access for other engines in this package
+
+    int[] entryTable()
+    {
+        return entry;
+    }
+
+    int[] exitTable()
+    {
+        return exit;
+    }
+
+    int[] reflectorTable()
+    {
+        return reflector;
+    }
+
+    int[] forwardTable(int slot)
+    {
+        return forward[slot];
+    }
+
+    int[] backwardTable(int slot)
+    {
+        return backward[slot];
+    }
+}
@@ -0,0 +1,248 @@
+package engines;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One logical stream typed on one key by several writers at once.  Each writer reserves the next range of key presses
+ * with a single atomic add, works out the rotor positions at the start of its range on its own, and types its segment
+ * without locks.  Put back together in order of offset, the segments are exactly what one machine would give typing
+ * them one after the other.
+ * <br><br>
+ * With a <code>SteppingSchedule</code>, the rotor positions at any offset are found at once: the states the rotors pass
+ * through from the start are worked out once, up front, and the rotors are periodic after the first few presses (a
+ * double step can only happen before the cycle is entered), so an offset is looked up modulo the period.  Without a
+ * schedule (more than <code>SteppingSchedule.MAX_STATES</code> states), the rotors are stepped from the start to the
+ * offset.
+ * <br>
+ * Thread-safe.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class SharedKeystream
+{
+    private final ScramblerTables tables;
+    private final int[] start; // rotor positions before the first key press
+    private final SteppingSchedule schedule; // null if too many states
+    private final int[] orbit; // [presses]; state after that many presses, until a state repeats
+    private final int tail; // presses before the cycle is entered
+    private final AtomicLong reserved = new AtomicLong();
+
+    /**
+     * A segment typed at a reserved range of the stream.
+     */
+    public static final class Segment
+    {
+        private final long offset;
+        private final String text;
+
+        private Segment(long offset, String text)
+        {
+            this.offset = offset;
+            this.text = text;
+        }
+
+        /**
+         * @return number of key presses in the stream before this segment.
+         */
+        public long getOffset()
+        {
+            return offset;
+        }
+
+        /**
+         * @return letters lit.
+         */
+        public String getText()
+        {
+            return text;
+        }
+    }
+
+    /**
+     * Constructor; the stream starts at the positions the rotors were in when the tables were taken.
+     * @param tables tables of the key.
+     */
+    public SharedKeystream(ScramblerTables tables)
+    {
+        this(tables, tables.getStartPositions());
+    }
+
+    /**
+     * Constructor.
+     * @param tables tables of the key.
+     * @param positions rotor positions at the start of the stream, leftmost first.
+     * @throws IllegalArgumentException if the number of positions does not match the number of rotors.
+     */
+    public SharedKeystream(ScramblerTables tables, int[] positions)
+    {
+        if (positions.length != tables.slots())
+            throw new IllegalArgumentException("Expected " + tables.slots() + " rotor positions.");
+        this.tables = tables;
+        start = new int[positions.length];
+        for (int i = 0; i < start.length; i++)
+            start[i] = Math.floorMod(positions[i], tables.size());
+
+        long states = 1;
+        for (int slot = 0; slot < tables.slots(); slot++)
+            states *= tables.size();
+        if (states > SteppingSchedule.MAX_STATES)
+        {
+            schedule = null;
+            orbit = null;
+            tail = 0;
+            return;
+        }
+
+        // follow the states from the start until one repeats
+        schedule = SteppingSchedule.of(tables);
+        int[] seen = new int[(int) states]; // [state]; presses to reach it + 1; 0 if not reached
+        int[] path = new int[64];
+        int length = 0;
+        int state = schedule.pack(start);
+        while (seen[state] == 0)
+        {
+            if (length == path.length)
+                path = Arrays.copyOf(path, 2 * length);
+            path[length++] = state;
+            seen[state] = length;
+            state = schedule.next(state);
+        }
+        orbit = Arrays.copyOf(path, length);
+        tail = seen[state] - 1;
+    }
+
+    /**
+     * Reserve the next range of key presses.
+     * @param length number of key presses.
+     * @return offset of the range: key presses in the stream before it.
+     * @throws IllegalArgumentException if length is negative.
+     */
+    public long reserve(int length)
+    {
+        if (length < 0)
+            throw new IllegalArgumentException("Length may not be negative.");
+        return reserved.getAndAdd(length);
+    }
+
+    /**
+     * Get the number of key presses reserved so far.
+     * @return offset of the next reservation.
+     */
+    public long getReserved()
+    {
+        return reserved.get();
+    }
+
+    /**
+     * Reserve a range for a text and type it.
+     * @param text letters in the alphabet of the machine.
+     * @return Segment of the letters lit and their offset.
+     * @throws IllegalArgumentException if a letter is not in the alphabet of the machine; the range stays reserved.
+     */
+    public Segment write(String text)
+    {
+        long offset = reserve(text.length());
+        return new Segment(offset, type(offset, text));
+    }
+
+    /**
+     * Type a text at a range of the stream, whether or not it was reserved.
+     * @param offset key presses in the stream before the text.
+     * @param text letters in the alphabet of the machine.
+     * @return letters lit.
+     * @throws IllegalArgumentException if a letter is not in the alphabet of the machine, or offset is negative.
+     */
+    public String type(long offset, String text)
+    {
+        int[] letters = new int[text.length()];
+        for (int i = 0; i < letters.length; i++)
+        {
+            letters[i] = tables.indexOf(text.charAt(i));
+            if (letters[i] == -1)
+                throw new IllegalArgumentException("Character is not in the alphabet: " + text.charAt(i));
+        }
+
+        type(offset, letters, letters, letters.length);
+        char[] out = new char[letters.length];
+        for (int i = 0; i < out.length; i++)
+            out[i] = tables.letterAt(letters[i]);
+        return new String(out);
+    }
+
+    /**
+     * Type a sequence of letter indexes at a range of the stream.
+     * @param offset key presses in the stream before the sequence.
+     * @param input indexes of letters.
+     * @param output array to write lamp indexes to; may be the same array as input.
+     * @param length number of letters to type.
+     * @throws IllegalArgumentException if offset is negative.
+     */
+    public void type(long offset, int[] input, int[] output, int length)
+    {
+        if (schedule != null)
+        {
+            int state = stateAt(offset);
+            for (int i = 0; i < length; i++)
+            {
+                state = schedule.next(state);
+                output[i] = tables.encipher(schedule, state, input[i]);
+            }
+        }
+        else
+        {
+            int[] positions = positionsAt(offset);
+            for (int i = 0; i < length; i++)
+            {
+                tables.step(positions);
+                output[i] = tables.encipher(positions, input[i]);
+            }
+        }
+    }
+
+    /**
+     * Get the rotor positions after a number of key presses.
+     * @param offset key presses from the start of the stream.
+     * @return rotor positions, leftmost first.
+     * @throws IllegalArgumentException if offset is negative.
+     */
+    public int[] positionsAt(long offset)
+    {
+        if (schedule != null)
+        {
+            int[] positions = new int[start.length];
+            schedule.positions(stateAt(offset), positions);
+            return positions;
+        }
+
+        if (offset < 0)
+            throw new IllegalArgumentException("Offset may not be negative.");
+        int[] positions = start.clone();
+        for (long i = 0; i < offset; i++)
+            tables.step(positions);
+        return positions;
+    }
+
+    /**
+     * Get the number of key presses after which the rotor positions repeat.
+     * @return period; 0 if not known (no schedule).
+     */
+    public int getPeriod()
+    {
+        return (orbit == null) ? 0 : orbit.length - tail;
+    }
+
+    /**
+     * Look up the state of the schedule after a number of key presses.
+     */
+    private int stateAt(long offset)
+    {
+        if (offset < 0)
+            throw new IllegalArgumentException("Offset may not be negative.");
+        if (offset < orbit.length)
+            return orbit[(int) offset];
+        return orbit[tail + (int) ((offset - tail) % (orbit.length - tail))];
+    }
+}
@@ -0,0 +1,338 @@
+package engines;
+
+import interfaces.MachineModel;
+import monitoring.EncryptionEvent;
+
+/**
+ * Table-driven machine specialized to the number of rotors.  The common machines of three and four rotors each have
+ * their own class, with every table in its own final field and every rotor pass written out in full, so there are no
+ * loops over slots or lookups of <code>int[][]</code> rows, and the JIT can keep the whole key press in registers.
+ * Any other number of rotors falls back to an ordinary <code>TableMachine</code>.  All forms give the same output as
+ * the <code>TableMachine</code> of the same tables.
+ * <br>
+ * Not thread-safe, but any number of machines may share the same tables.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public abstract class SpecializedMachine implements MachineModel
+{
+    protected final ScramblerTables tables;
+
+    private SpecializedMachine(ScramblerTables tables)
+    {
+        this.tables = tables;
+    }
+
+    /**
+     * Make the machine for tables; rotors start at the positions they were in when the tables were taken.
+     * @param tables tables of the machine.
+     * @return specialized machine for three or four rotors; TableMachine fallback otherwise.
+     */
+    public static SpecializedMachine of(ScramblerTables tables)
+    {
+        switch (tables.slots())
+        {
+            case 3:
+                return new ThreeRotors(tables);
+            case 4:
+                return new FourRotors(tables);
+            default:
+                return new Interpreted(tables);
+        }
+    }
+
+    /**
+     * Depress a letter on the keyboard of the Enigma machine.  Returns the lamp that is lit up.
+     *
+     * @param letter Character to type into Enigma.
+     * @return Output letter of the Enigma.
+     * @throws IllegalArgumentException if letter is not in the alphabet of the machine; rotors do not step.
+     */
+    @Override
+    public char type(char letter)
+    {
+        int index = tables.indexOf(letter);
+        if (index == -1)
+            throw new IllegalArgumentException("Character is not in the alphabet: " + letter);
+
+        return tables.letterAt(type(index));
+    }
+
+    /**
+     * Type a whole text.
+     * @param text String of letters in the alphabet of the machine.
+     * @return String of lamps lit.
+     * @throws IllegalArgumentException if a letter is not in the alphabet of the machine.
+     */
+    public String type(String text)
+    {
+        EncryptionEvent event = new EncryptionEvent();
+        event.begin();
+
+        char[] letters = text.toCharArray();
+        for (int i = 0; i < letters.length; i++)
+            letters[i] = type(letters[i]);
+
+        if (event.shouldCommit())
+        {
+            event.engine = getClass().getSimpleName();
+            event.length = letters.length;
+            event.commit();
+        }
+        return new String(letters);
+    }
+
+    /**
+     * Depress a key by its index in the alphabet.
+     * @param contactSignal index of letter.
+     * @return index of lamp lit.
+     */
+    public abstract int type(int contactSignal);
+
+    /**
+     * Type a sequence of letter indexes.
+     * @param input indexes of letters.
+     * @param output array to write lamp indexes to; may be the same array as input.
+     * @param length number of letters to type.
+     */
+    public void type(int[] input, int[] output, int length)
+    {
+        for (int i = 0; i < length; i++)
+            output[i] = type(input[i]);
+    }
+
+    /**
+     * Set the rotor positions.
+     * @param positions indexes of window letters, leftmost first.
+     * @throws IllegalArgumentException if the number of positions does not match the number of rotors.
+     */
+    public abstract void setPositions(int... positions);
+
+    /**
+     * Get the rotor positions.
+     * @return int[] of window letter indexes, leftmost first.
+     */
+    public abstract int[] getPositions();
+
+    /**
+     * Get the tables used by this machine.
+     * @return ScramblerTables.
+     */
+    public ScramblerTables getTables()
+    {
+        return tables;
+    }
+
+    /**
+     * Check the number of positions given and wrap them into the alphabet.
+     */
+    int[] wrap(int[] positions)
+    {
+        if (positions.length != tables.slots())
+            throw new IllegalArgumentException("Expected " + tables.slots() + " rotor positions.");
+        int[] wrapped = new int[positions.length];
+        for (int i = 0; i < positions.length; i++)
+            wrapped[i] = Math.floorMod(positions[i], tables.size());
+        return wrapped;
+    }
+
+    /**
+     * Turnover table of a slot, indexed by position.
+     */
+    static boolean[] notches(ScramblerTables tables, int slot)
+    {
+        boolean[] notches = new boolean[tables.size()];
+        for (int p = 0; p < notches.length; p++)
+            notches[p] = tables.isTurnover(slot, p);
+        return notches;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Specializations
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Three rotors: left (0), middle (1), right (2).
+     */
+    static final class ThreeRotors extends SpecializedMachine
+    {
+        private final int n;
+        private final int[] entry, exit, reflector;
+        private final int[] f0, f1, f2, b0, b1, b2;
+        private final boolean[] notch1, notch2;
+        private int p0, p1, p2;
+
+        ThreeRotors(ScramblerTables tables)
+        {
+            super(tables);
+            n = tables.size();
+            entry = tables.entryTable();
+            exit = tables.exitTable();
+            reflector = tables.reflectorTable();
+            f0 = tables.forwardTable(0);
+            f1 = tables.forwardTable(1);
+            f2 = tables.forwardTable(2);
+            b0 = tables.backwardTable(0);
+            b1 = tables.backwardTable(1);
+            b2 = tables.backwardTable(2);
+            notch1 = notches(tables, 1);
+            notch2 = notches(tables, 2);
+            setPositions(tables.getStartPositions());
+        }
+
+        @Override
+        public int type(int contactSignal)
+        {
+            // step, deciding every rotor from the positions before the key press
+            boolean carry1 = notch1[p1];
+            if (carry1)
+                p0 = (p0 + 1 == n) ? 0 : p0 + 1;
+            if (carry1 || notch2[p2]) // double step, or carry from the right rotor
+                p1 = (p1 + 1 == n) ? 0 : p1 + 1;
+            p2 = (p2 + 1 == n) ? 0 : p2 + 1;
+
+            int o0 = p0 * n, o1 = p1 * n, o2 = p2 * n;
+            int c = entry[contactSignal];
+            c = f2[o2 + c];
+            c = f1[o1 + c];
+            c = f0[o0 + c];
+            c = reflector[c];
+            c = b0[o0 + c];
+            c = b1[o1 + c];
+            c = b2[o2 + c];
+            return exit[c];
+        }
+
+        @Override
+        public void setPositions(int... positions)
+        {
+            int[] p = wrap(positions);
+            p0 = p[0];
+            p1 = p[1];
+            p2 = p[2];
+        }
+
+        @Override
+        public int[] getPositions()
+        {
+            return new int[]{p0, p1, p2};
+        }
+    }
+
+    /**
+     * Four rotors: leftmost (0) to rightmost (3).
+     */
+    static final class FourRotors extends SpecializedMachine
+    {
+        private final int n;
+        private final int[] entry, exit, reflector;
+        private final int[] f0, f1, f2, f3, b0, b1, b2, b3;
+        private final boolean[] notch1, notch2, notch3;
+        private int p0, p1, p2, p3;
+
+        FourRotors(ScramblerTables tables)
+        {
+            super(tables);
+            n = tables.size();
+            entry = tables.entryTable();
+            exit = tables.exitTable();
+            reflector = tables.reflectorTable();
+            f0 = tables.forwardTable(0);
+            f1 = tables.forwardTable(1);
+            f2 = tables.forwardTable(2);
+            f3 = tables.forwardTable(3);
+            b0 = tables.backwardTable(0);
+            b1 = tables.backwardTable(1);
+            b2 = tables.backwardTable(2);
+            b3 = tables.backwardTable(3);
+            notch1 = notches(tables, 1);
+            notch2 = notches(tables, 2);
+            notch3 = notches(tables, 3);
+            setPositions(tables.getStartPositions());
+        }
+
+        @Override
+        public int type(int contactSignal)
+        {
+            // step, deciding every rotor from the positions before the key press
+            boolean carry1 = notch1[p1];
+            boolean carry2 = notch2[p2];
+            if (carry1)
+                p0 = (p0 + 1 == n) ? 0 : p0 + 1;
+            if (carry1 || carry2)
+                p1 = (p1 + 1 == n) ? 0 : p1 + 1;
+            if (carry2 || notch3[p3])
+                p2 = (p2 + 1 == n) ? 0 : p2 + 1;
+            p3 = (p3 + 1 == n) ? 0 : p3 + 1;
+
+            int o0 = p0 * n, o1 = p1 * n, o2 = p2 * n, o3 = p3 * n;
+            int c = entry[contactSignal];
+            c = f3[o3 + c];
+            c = f2[o2 + c];
+            c = f1[o1 + c];
+            c = f0[o0 + c];
+            c = reflector[c];
+            c = b0[o0 + c];
+            c = b1[o1 + c];
+            c = b2[o2 + c];
+            c = b3[o3 + c];
+            return exit[c];
+        }
+
+        @Override
+        public void setPositions(int... positions)
+        {
+            int[] p = wrap(positions);
+            p0 = p[0];
+            p1 = p[1];
+            p2 = p[2];
+            p3 = p[3];
+        }
+
+        @Override
+        public int[] getPositions()
+        {
+            return new int[]{p0, p1, p2, p3};
+        }
+    }
+
+    /**
+     * Any other number of rotors, through TableMachine.
+     */
+    static final class Interpreted extends SpecializedMachine
+    {
+        private final TableMachine machine;
+
+        Interpreted(ScramblerTables tables)
+        {
+            super(tables);
+            machine = new TableMachine(tables);
+        }
+
+        @Override
+        public int type(int contactSignal)
+        {
+            return machine.type(contactSignal);
+        }
+
+        @Override
+        public void type(int[] input, int[] output, int length)
+        {
+            machine.type(input, output, length);
+        }
+
+        @Override
+        public void setPositions(int... positions)
+        {
+            machine.setPositions(positions);
+        }
+
+        @Override
+        public int[] getPositions()
+        {
+            return machine.getPositions();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package engines;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed stepping of a rotor assembly.  The rotor positions are packed into a single state (positions read as the
+ * digits of a number, leftmost rotor most significant), and the state after every possible state is worked out once,
+ * double step included; stepping then becomes one array lookup.  The positions of each state are kept ready-multiplied
+ * into offsets of the rotor tables, so <code>ScramblerTables</code> enciphers straight from the state without
+ * unpacking it.
+ * <br><br>
+ * Stepping only depends on where each rotor turns over, not on the wiring, rings (where the notch is on the letter
+ * ring) or plugboard, so every machine with the same turnover layout shares one schedule.  Schedules are made on first
+ * use through <code>of</code> and kept for the life of the program.
+ * <br>
+ * Immutable; safe to share between threads.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public final class SteppingSchedule
+{
+    /**
+     * Largest number of states a schedule is made for; enough for four rotors of a 28-letter alphabet.
+     */
+    public static final int MAX_STATES = 1 << 20;
+
+    private static final Map<String, SteppingSchedule> SHARED = new ConcurrentHashMap<>();
+
+    private final int size; // letters in alphabet
+    private final int slots;
+    private final int[] successor; // [state]; state after the next key press
+    private final int[] offsets; // [state * slots + slot]; position of rotor in slot * size
+
+    /**
+     * Constructor; only called by <code>of</code>.
+     */
+    private SteppingSchedule(ScramblerTables tables, int states)
+    {
+        size = tables.size();
+        slots = tables.slots();
+        successor = new int[states];
+        offsets = new int[states * slots];
+
+        int[] digits = new int[slots];
+        for (int state = 0; state < states; state++)
+        {
+            for (int slot = 0; slot < slots; slot++)
+                offsets[state * slots + slot] = digits[slot] * size;
+
+            int[] next = digits.clone();
+            tables.step(next);
+            successor[state] = pack(next);
+
+            // count to the next state, rightmost rotor fastest
+            for (int slot = slots - 1; slot > -1 && ++digits[slot] == size; slot--)
+                digits[slot] = 0;
+        }
+    }
+
+    /**
+     * Get the schedule of the turnover layout of a machine, making it on first use.
+     * @param tables tables of machine.
+     * @return SteppingSchedule shared by every machine with the same turnover layout.
+     * @throws IllegalArgumentException if the assembly has more than MAX_STATES states.
+     */
+    public static SteppingSchedule of(ScramblerTables tables)
+    {
+        long states = 1;
+        for (int slot = 0; slot < tables.slots(); slot++)
+            states *= tables.size();
+        if (states > MAX_STATES)
+            throw new IllegalArgumentException("Rotor assembly has too many states to schedule: " + states);
+
+        int count = (int) states;
+        return SHARED.computeIfAbsent(layoutOf(tables), k -> new SteppingSchedule(tables, count));
+    }
+
+    /**
+     * Describe the turnover positions of every slot, as the key of the shared schedules.
+     */
+    private static String layoutOf(ScramblerTables tables)
+    {
+        StringBuilder sb = new StringBuilder().append(tables.size()).append(':');
+        for (int slot = 0; slot < tables.slots(); slot++)
+        {
+            for (int p = 0; p < tables.size(); p++)
+                sb.append(tables.isTurnover(slot, p) ? '1' : '0');
+            sb.append('/');
+        }
+        return sb.toString();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Running methods
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Get the state after one key press.
+     * @param state current state.
+     * @return next state.
+     */
+    public int next(int state)
+    {
+        return successor[state];
+    }
+
+    /**
+     * Get the position of one rotor in a state.
+     * @param state state.
+     * @param slot rotor slot.
+     * @return position of rotor.
+     */
+    public int position(int state, int slot)
+    {
+        return offsets[state * slots + slot] / size;
+    }
+
+    /**
+     * Copy the positions of a state.
+     * @param state state.
+     * @param out array to write the positions to, leftmost first.
+     */
+    public void positions(int state, int[] out)
+    {
+        int base = state * slots;
+        for (int slot = 0; slot < slots; slot++)
+            out[slot] = offsets[base + slot] / size;
+    }
+
+    /**
+     * Pack rotor positions into a state.
+     * @param positions rotor positions, leftmost first.
+     * @return state.
+     */
+    public int pack(int[] positions)
+    {
+        int state = 0;
+        for (int slot = 0; slot < slots; slot++)
+            state = state * size + positions[slot];
+        return state;
+    }
+
+    /**
+     * Get the number of key presses before the rotors return to a state.
+     * @param state start state.
+     * @return length of the cycle through the state; 0 if the rotors never return to it (a state only reached by
+     *         setting the rotors by hand, as when the middle rotor is left on its notch).
+     */
+    public int period(int state)
+    {
+        int s = state; // if the rotors return at all, they return within `states` key presses
+        for (int i = 0; i < successor.length; i++)
+        {
+            s = successor[s];
+            if (s == state)
+                return i + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Get the number of states.
+     * @return size<sup>slots</sup>.
+     */
+    public int states()
+    {
+        return successor.length;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public int slots()
+    {
+        return slots;
+    }
+
+    /**
+     * Offsets of every state, for <code>ScramblerTables.encipher</code>.
+     */
+    int[] offsetTable()
+    {
+        return offsets;
+    }
+}
@@ -0,0 +1,220 @@
+package engines;
+
+import interfaces.MachineModel;
+import monitoring.EncryptionEvent;
+import monitoring.MachineMetrics;
+
+/**
+ * Table-driven Enigma machine.  Holds only the rotor positions; all wiring is read from a shared, immutable
+ * <code>ScramblerTables</code>.  Produces the same output as the <code>ConstructedFullModel</code> the tables were
+ * taken from, but a key press costs a handful of array lookups.
+ * <br>
+ * A TableMachine is not thread-safe, but any number of TableMachines may share the same tables.
+ * <br>
+ * Metrics are off by default; the instrumented stepping is only used once metrics are set.
+ * <br>
+ * Given a <code>SteppingSchedule</code>, the machine steps by table lookup of the packed rotor positions instead of
+ * testing each rotor for a turnover.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class TableMachine implements MachineModel
+{
+    private final ScramblerTables tables;
+    private final int[] positions; // rotor positions, leftmost first
+    private MachineMetrics metrics = MachineMetrics.NOOP;
+    private final SteppingSchedule schedule; // null if stepping rotor by rotor
+    private int state; // packed positions, with a schedule; positions is then only updated when read
+
+    /**
+     * Constructor; rotors start at the positions they were in when the tables were taken.
+     * @param tables tables of the machine.
+     */
+    public TableMachine(ScramblerTables tables)
+    {
+        this(tables, null);
+    }
+
+    /**
+     * Constructor; rotors start at the positions they were in when the tables were taken.
+     * @param tables tables of the machine.
+     * @param schedule stepping schedule of the tables (see <code>SteppingSchedule.of</code>); null to step rotor by
+     *                 rotor.
+     * @throws IllegalArgumentException if the schedule is not for an assembly of the same size.
+     */
+    public TableMachine(ScramblerTables tables, SteppingSchedule schedule)
+    {
+        if (schedule != null && (schedule.size() != tables.size() || schedule.slots() != tables.slots()))
+            throw new IllegalArgumentException("Stepping schedule does not match the rotor assembly.");
+        this.tables = tables;
+        this.positions = tables.getStartPositions();
+        this.schedule = schedule;
+        if (schedule != null)
+            state = schedule.pack(positions);
+    }
+
+    /**
+     * Depress a letter on the keyboard of the Enigma machine.  Returns the lamp that is lit up.
+     *
+     * @param letter Character to type into Enigma.
+     * @return Output letter of the Enigma.
+     * @throws IllegalArgumentException if letter is not in the alphabet of the machine; rotors do not step.
+     */
+    @Override
+    public char type(char letter)
+    {
+        int index = tables.indexOf(letter);
+        if (index == -1)
+            throw new IllegalArgumentException("Character is not in the alphabet: " + letter);
+
+        return tables.letterAt(type(index));
+    }
+
+    /**
+     * Depress a key by its index in the alphabet.
+     * @param contactSignal index of letter.
+     * @return index of lamp lit.
+     */
+    public int type(int contactSignal)
+    {
+        if (schedule != null && metrics == MachineMetrics.NOOP)
+        {
+            state = schedule.next(state);
+            return tables.encipher(schedule, state, contactSignal);
+        }
+
+        step(); // machine steps before electrical signal passes through rotor assembly
+        return tables.encipher(positions, contactSignal);
+    }
+
+    /**
+     * Type a whole text.
+     * @param text String of letters in the alphabet of the machine.
+     * @return String of lamps lit.
+     * @throws IllegalArgumentException if a letter is not in the alphabet of the machine.
+     */
+    public String type(String text)
+    {
+        EncryptionEvent event = new EncryptionEvent();
+        event.begin();
+
+        char[] letters = text.toCharArray();
+        for (int i = 0; i < letters.length; i++)
+            letters[i] = type(letters[i]);
+
+        metrics.messageProcessed(letters.length);
+        commit(event, letters.length);
+        return new String(letters);
+    }
+
+    /**
+     * Type a sequence of letter indexes.
+     * @param input indexes of letters.
+     * @param output array to write lamp indexes to; may be the same array as input.
+     * @param length number of letters to type.
+     */
+    public void type(int[] input, int[] output, int length)
+    {
+        EncryptionEvent event = new EncryptionEvent();
+        event.begin();
+
+        if (schedule != null && metrics == MachineMetrics.NOOP)
+            for (int i = 0; i < length; i++)
+            {
+                state = schedule.next(state);
+                output[i] = tables.encipher(schedule, state, input[i]);
+            }
+        else if (metrics == MachineMetrics.NOOP)
+            for (int i = 0; i < length; i++)
+            {
+                tables.step(positions);
+                output[i] = tables.encipher(positions, input[i]);
+            }
+        else
+            for (int i = 0; i < length; i++)
+            {
+                step();
+                output[i] = tables.encipher(positions, input[i]);
+            }
+
+        metrics.messageProcessed(length);
+        commit(event, length);
+    }
+
+    /**
+     * Step the rotors once, reporting to metrics if they are set.
+     */
+    private void step()
+    {
+        if (schedule != null)
+            schedule.positions(state, positions);
+
+        if (metrics == MachineMetrics.NOOP)
+            tables.step(positions);
+        else
+            tables.step(positions, metrics);
+
+        if (schedule != null)
+            state = schedule.pack(positions);
+    }
+
+    /**
+     * Commit an encryption event, if it is being recorded.
+     */
+    private static void commit(EncryptionEvent event, int length)
+    {
+        if (event.shouldCommit())
+        {
+            event.engine = "TableMachine";
+            event.length = length;
+            event.commit();
+        }
+    }
+
+    /**
+     * Set the rotor positions.
+     * @param positions indexes of window letters, leftmost first.
+     * @throws IllegalArgumentException if the number of positions does not match the number of rotors.
+     */
+    public void setPositions(int... positions)
+    {
+        if (positions.length != this.positions.length)
+            throw new IllegalArgumentException("Expected " + this.positions.length + " rotor positions.");
+
+        for (int i = 0; i < positions.length; i++)
+            this.positions[i] = Math.floorMod(positions[i], tables.size());
+        if (schedule != null)
+            state = schedule.pack(this.positions);
+    }
+
+    /**
+     * Get the rotor positions.
+     * @return int[] copy of window letter indexes, leftmost first.
+     */
+    public int[] getPositions()
+    {
+        if (schedule != null)
+            schedule.positions(state, positions);
+        return positions.clone();
+    }
+
+    /**
+     * Set the metrics that key presses and rotor steps are reported to.
+     * @param metrics MachineMetrics; MachineMetrics.NOOP to stop reporting.
+     */
+    public void setMetrics(MachineMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Get the tables used by this machine.
+     * @return ScramblerTables.
+     */
+    public ScramblerTables getTables()
+    {
+        return tables;
+    }
+}
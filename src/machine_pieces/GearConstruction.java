@@ -9,28 +9,31 @@ import java.util.ArrayList;
  * This class is instantiated to create an unmodified rotor or reflector in its most basic sense.
  *
  * @author Eliezer Meth
- * @version 3.1<br>
+ * @version 3.2<br>
  * Start Date: 2022-02-22<br>
- * Last Modified: 2024-09-03
+ * Last Modified: 2026-10-19
  */
 public class GearConstruction
 {
     // interfaces.Wiring (for either rotor or reflector)
-    private ArrayList<Character> letters; // letters visible on the rotor/reflector
-    private ArrayList<Character> wirings; // wiring connection from the visible letters of rotor/reflector
+    private final ArrayList<Character> letters; // letters visible on the rotor/reflector
+    private final ArrayList<Character> wirings; // wiring connection from the visible letters of rotor/reflector
     /* Letters (front) and wirings (back) have a one-to-one relation.  The letter in front element 0 links directly to
     wiring back element 0.  However, to find where the signal is output from the gear, the letter from the back must
     have its position found in the front.
     */
+    private final int[] wiringTable; // index in alphabet of each wiring letter; input with ring setting A at A
+    private final int[] inverseTable; // inverse of wiringTable; output with ring setting A at A
 
     // for rotor
-    private char[] turnoverPositions; // letter(s) visible in window at step when ringstellung (ring setting) is A
+    private final char[] turnoverPositions; // letter(s) visible in window at step when ringstellung (ring setting) is A
     // notches (to physically cause turnover) are 8 positions further on from visible in window
+    private final NotchMask turnoverMask; // turnover positions by index in alphabet
 
     // for reflector
-    private boolean reflectorRotatable;
-    private boolean reflectorStepping;
-    private boolean reflectorRewirable;
+    private final boolean reflectorRotatable;
+    private final boolean reflectorStepping;
+    private final boolean reflectorRewirable;
 
     /**
      * Constructor for rotor.
@@ -39,8 +42,7 @@ public class GearConstruction
      */
     public GearConstruction(String wirings, String turnover)
     {
-        populateWiring(wirings); // set wiring
-        turnoverPositions = turnover.toCharArray();
+        this(wirings, turnover.toCharArray(), false, false, false);
     }
 
     /**
@@ -52,20 +54,20 @@ public class GearConstruction
      */
     public GearConstruction(String wirings, boolean reflectorRotatable, boolean reflectorStepping, boolean reflectorRewirable)
     {
-        populateWiring(wirings);
-        this.reflectorRotatable = reflectorRotatable;
-        this.reflectorStepping = reflectorStepping;
-        this.reflectorRewirable = reflectorRewirable;
+        this(wirings, new char[0], reflectorRotatable, reflectorStepping, reflectorRewirable);
     }
 
     /**
-     * Takes String of wiring instructions and converts it into wiring array.
-     * @param wiring String of wiring instructions.
+     * Constructor for all gears.  Takes String of wiring instructions and converts it into wiring lists and tables.
+     * All fields are final and only copies are handed out, so a GearConstruction can be shared between threads.
      */
-    private void populateWiring(String wiring)
+    private GearConstruction(String wiring, char[] turnover, boolean reflectorRotatable, boolean reflectorStepping,
+                             boolean reflectorRewirable)
     {
+        AlphabetConverter ac = AlphabetConverter.getAlphabetConverter(); // TODO ensure AlphabetConverter instantiated?
+
         // populate letters (front)
-        char[] temp = AlphabetConverter.getAlphabetConverter().getAlphabet(); // TODO ensure AlphabetConverter instantiated?
+        char[] temp = ac.getAlphabet();
         letters = new ArrayList<>(temp.length);
         for (char c : temp)
             letters.add(c);
@@ -75,6 +77,22 @@ public class GearConstruction
         wirings = new ArrayList<>(characters.length);
         for (char c : characters)
             wirings.add(c);
+
+        // precompute tables
+        wiringTable = new int[characters.length];
+        inverseTable = new int[characters.length];
+        for (int i = 0; i < characters.length; i++)
+        {
+            wiringTable[i] = ac.convert(characters[i]);
+            if (wiringTable[i] > -1 && wiringTable[i] < inverseTable.length)
+                inverseTable[wiringTable[i]] = i;
+        }
+
+        this.turnoverPositions = turnover;
+        this.turnoverMask = NotchMask.of(turnover);
+        this.reflectorRotatable = reflectorRotatable;
+        this.reflectorStepping = reflectorStepping;
+        this.reflectorRewirable = reflectorRewirable;
     }
 
     // -----------------------------------------------------------------------------------------------------------------
@@ -89,6 +107,25 @@ public class GearConstruction
         return new ArrayList[] {new ArrayList<>(letters), new ArrayList<>(wirings)};
     }
 
+    /**
+     * Get the wiring as a table of alphabet indexes: element i is the contact the signal leaves by when it enters at
+     * contact i, with the ring setting at A and A in the window.
+     * @return int[] copy of table.
+     */
+    public int[] getWiringTable()
+    {
+        return wiringTable.clone();
+    }
+
+    /**
+     * Get the inverse of the wiring table, for the signal returning from the reflector.
+     * @return int[] copy of table.
+     */
+    public int[] getInverseTable()
+    {
+        return inverseTable.clone();
+    }
+
     /**
      * Get turnover positions on rotor.
      * @return char[]
@@ -98,6 +135,15 @@ public class GearConstruction
         return turnoverPositions.clone(); // returns copy to prevent multiple components using same array
     }
 
+    /**
+     * Get turnover positions on rotor as a bitmask over the positions of the alphabet.
+     * @return NotchMask; immutable, so the same instance is shared by every rotor made from this gear.
+     */
+    public NotchMask getTurnoverMask()
+    {
+        return turnoverMask;
+    }
+
     /**
      * Reflector rotatable possibility.
      * @return True/false.
@@ -0,0 +1,125 @@
+package machine_pieces;
+
+import resources.AlphabetConverter;
+
+import java.util.Arrays;
+
+/**
+ * Set of the turnover positions of a rotor, held as a bitmask over positions (one bit per letter of the alphabet), so
+ * testing for a turnover is a single bit test however many notches the rotor has.  Alphabets of up to 64 letters fit
+ * in one <code>long</code>; larger alphabets use as many as needed.
+ * <br>
+ * Immutable; safe to share between rotors and threads.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public final class NotchMask
+{
+    private final int size; // positions in ring
+    private final long[] words; // bit p of word p / 64 is set if p is a turnover position
+
+    /**
+     * Constructor.
+     * @param size number of positions on the ring.
+     * @param positions turnover positions; out-of-range positions are ignored.
+     * @throws IllegalArgumentException if size is less than 1.
+     */
+    public NotchMask(int size, int... positions)
+    {
+        if (size < 1)
+            throw new IllegalArgumentException("Ring must have at least one position.");
+        this.size = size;
+        words = new long[(size + Long.SIZE - 1) / Long.SIZE];
+        for (int p : positions)
+            if (p > -1 && p < size)
+                words[p >>> 6] |= 1L << p;
+    }
+
+    /**
+     * Make the mask of turnover letters, by their position in the alphabet of AlphabetConverter.
+     * @param turnovers letter(s) in the window when the notch is engaged; letters outside the alphabet are ignored.
+     * @return NotchMask.
+     * @throws IllegalStateException if AlphabetConverter has not been instantiated.
+     */
+    public static NotchMask of(char[] turnovers) throws IllegalStateException
+    {
+        if (!AlphabetConverter.exists())
+            throw new IllegalStateException("AlphabetConverter must first be instantiated.");
+        AlphabetConverter ac = AlphabetConverter.getAlphabetConverter();
+
+        int[] positions = new int[turnovers.length];
+        for (int i = 0; i < turnovers.length; i++)
+            positions[i] = ac.convert(turnovers[i]);
+        return new NotchMask(ac.getAlphabet().length, positions);
+    }
+
+    /**
+     * Test if a position is a turnover position.
+     * @param position position on ring; must be in range.
+     * @return If the notch is engaged at the position.
+     */
+    public boolean isSet(int position)
+    {
+        return (words[position >>> 6] & (1L << position)) != 0; // shift distance is taken mod 64
+    }
+
+    /**
+     * Get the number of turnover positions.
+     * @return number of notches.
+     */
+    public int count()
+    {
+        int count = 0;
+        for (long word : words)
+            count += Long.bitCount(word);
+        return count;
+    }
+
+    /**
+     * Get the turnover positions.
+     * @return int[] of positions, in order.
+     */
+    public int[] positions()
+    {
+        int[] positions = new int[count()];
+        int i = 0;
+        for (int w = 0; w < words.length; w++)
+            for (long word = words[w]; word != 0; word &= word - 1) // clear lowest set bit
+                positions[i++] = w * Long.SIZE + Long.numberOfTrailingZeros(word);
+        return positions;
+    }
+
+    /**
+     * Get the number of positions on the ring.
+     * @return size of ring.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+            return true;
+        if (!(o instanceof NotchMask))
+            return false;
+        NotchMask other = (NotchMask) o;
+        return size == other.size && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * size + Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "NotchMask" + Arrays.toString(positions());
+    }
+}
@@ -2,6 +2,7 @@ package machine_pieces;
 
 import exceptions.BadKeyException;
 import interfaces.Wiring;
+import monitoring.MachineMetrics;
 import resources.AlphabetConverter;
 import resources.Utilities;
 
@@ -20,9 +21,9 @@ import java.util.Set;
  * inserted.
  * <br>
  * @author Eliezer Meth
- * @version 2.1<br>
+ * @version 2.2<br>
  * Start Date: 2024-05-09<br>
- * Last Modified: 2024-05-21
+ * Last Modified: 2026-10-19
  */
 public class Plugboard implements Wiring
 {
@@ -33,6 +34,7 @@ public class Plugboard implements Wiring
     private LinkedList<String> connections = new LinkedList<>(); // list of connections in the plugboard
 
     private AlphabetConverter ac;
+    private MachineMetrics metrics = MachineMetrics.NOOP;
 
     /**
      * Default constructor; initializes plugboard with alphabet from AlphabetConverter and no connections.
@@ -97,6 +99,7 @@ public class Plugboard implements Wiring
 
         // clear connections list
         connections.clear();
+        metrics.plugboardChanged();
     }
 
     /**
@@ -148,6 +151,7 @@ public class Plugboard implements Wiring
         wiring[let2pos] = let1pos;
 
         connections.add(new String(letterPair));
+        metrics.plugboardChanged();
 
         return true;
     }
@@ -216,6 +220,7 @@ public class Plugboard implements Wiring
         wiring[let1pos] = let1pos;
         wiring[let2pos] = let2pos;
         connections.remove(properOrder);
+        metrics.plugboardChanged();
 
         return true;
     }
@@ -279,6 +284,15 @@ public class Plugboard implements Wiring
         return connections.size();
     }
 
+    /**
+     * Set the metrics that plugboard changes are reported to.
+     * @param metrics MachineMetrics; MachineMetrics.NOOP to stop reporting.
+     */
+    public void setMetrics(MachineMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
     /**
      * Get the alphabet used by the plugboard.
      * @return char array of alphabet.
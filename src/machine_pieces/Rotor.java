@@ -3,6 +3,7 @@ package machine_pieces;
 import interfaces.Wiring;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -16,9 +17,9 @@ import java.util.Map;
  * <a href="https://crypto.stackexchange.com/questions/29315/how-does-the-ring-settings-of-enigma-change-wiring-tables">https://crypto.stackexchange.com/questions/29315/how-does-the-ring-settings-of-enigma-change-wiring-tables</a><br>
  * <br>
  * @author Eliezer Meth
- * @version 3<br>
+ * @version 3.3<br>
  * Start Date: 2024-04-05<br>
- * Last Modified: 2024-05-08
+ * Last Modified: 2026-10-19
  */
 public class Rotor implements Wiring
 {
@@ -36,6 +37,8 @@ public class Rotor implements Wiring
     have its position found in the front.
     */
     private final char[] turnovers; // letter(s) on top when the notch is engaged to turn over the next rotor
+    private final NotchMask turnoverMask; // turnovers, by index in alphabet
+    private int position = 0; // index in alphabet of letter in window
 
     /**
      * Constructor to allow the rotor to be selected at its default settings.
@@ -49,6 +52,7 @@ public class Rotor implements Wiring
         letters = gear.getWirings()[0]; // get letters wheel
         wirings = gear.getWirings()[1]; // get internal rotor wiring
         turnovers = gear.getTurnoverPositions(); // get turnover positions
+        turnoverMask = gear.getTurnoverMask();
     }
 
     /**
@@ -91,6 +95,7 @@ public class Rotor implements Wiring
         // restore to default
         letters = gear.getWirings()[0];
         wirings = gear.getWirings()[1];
+        position = 0;
 
         // Rotate connections in rotor (wirings)
         // 1. Advance each wiring connection by the specified ring setting
@@ -123,15 +128,16 @@ public class Rotor implements Wiring
      */
     public boolean setGroundPosition(char groundPosition)
     {
-        // test that ground position is valid
-        ArrayList<Character> temp = gear.getWirings()[0]; // get used alphabet for reference
-        if (groundPosition < temp.get(0) || groundPosition > temp.get(temp.size() - 1)) // within first and last
+        // letters are in window order, so the index of a letter is the number of steps to bring it to the window
+        int steps = letters.indexOf(groundPosition);
+        if (steps == -1) // not on rotor
             return false;
 
-        // set information and rotor
+        // set information and rotor; turn both rings at once rather than a step at a time
         this.groundPosition = groundPosition;
-        while (getWindow() != this.groundPosition)
-            step();
+        Collections.rotate(letters, -steps);
+        Collections.rotate(wirings, -steps);
+        position = (position + steps) % letters.size();
         return true;
     }
 
@@ -171,6 +177,15 @@ public class Rotor implements Wiring
         return turnovers.clone();
     }
 
+    /**
+     * Get turnover positions on rotor as a bitmask over the positions of the alphabet.
+     * @return NotchMask.
+     */
+    public NotchMask getTurnoverMask()
+    {
+        return turnoverMask;
+    }
+
     /**
      * Shift a possible number into the range possible for the component.
      * @param number Number to restrict.
@@ -198,6 +213,17 @@ public class Rotor implements Wiring
         return wirings.indexOf(letters.get(contactSignal));
     }
 
+    /**
+     * Test if the rotor is at a turnover position; that is, if its notch is under the pawl, so its next step also
+     * steps the next rotor.
+     *
+     * @return If a turnover letter is in the window.
+     */
+    public boolean isAtTurnover()
+    {
+        return turnoverMask.isSet(position);
+    }
+
     /**
      * Steps rotor forward one revolution.
      *
@@ -205,13 +231,10 @@ public class Rotor implements Wiring
      */
     public boolean step()
     {
-        // test if next rotor should step
-        boolean propogate = false;
-        for (char c : turnovers) // test against all possible turnover positions
-            if (getWindow() == c)
-                propogate = true;
+        boolean propogate = isAtTurnover(); // test if next rotor should step
 
         advanceRing(letters, wirings);
+        position = (position + 1 == letters.size()) ? 0 : position + 1;
         return propogate;
     }
 
@@ -7,6 +7,7 @@ import machine_pieces.EntryWheel;
 import machine_pieces.Plugboard;
 import machine_pieces.Reflector;
 import machine_pieces.Rotor;
+import monitoring.MachineMetrics;
 import resources.AlphabetConverter;
 
 /**
@@ -20,9 +21,9 @@ import resources.AlphabetConverter;
  * This class is a rewrite of ConstructedMilitaryModel.
  * <br>
  * @author Eliezer Meth
- * @version 2<br>
+ * @version 2.1<br>
  * Start Date: 2024-06-24<br>
- * Last Modified: 2024-06-25
+ * Last Modified: 2026-10-19
  */
 public class ConstructedFullModel implements MachineModel
 {
@@ -35,6 +36,8 @@ public class ConstructedFullModel implements MachineModel
     // rotors are stored as they physically would exist in the machine, with the first rotor in the rightmost slot
     private final Reflector reflector;
 
+    private MachineMetrics metrics = MachineMetrics.NOOP;
+
     /**
      * Constructor for an Enigma model.  Requires existing entry wheel, plugboard, rotors, and reflector.
      *
@@ -69,6 +72,7 @@ public class ConstructedFullModel implements MachineModel
     {
         int position = ac.convert(letter); // throw exception if invalid letter?
 
+        metrics.keysPressed(1);
         stepping(); // machine steps before electrical signal passes through rotor assembly
         int cipherLetter = entryWheel.output(plugboard.output(rotorAssemblyLR(
                 reflector.input(rotorAssemblyRL(plugboard.input(entryWheel.input(position)))))));
@@ -106,17 +110,52 @@ public class ConstructedFullModel implements MachineModel
     /**
      * Step the necessary rotors.
      * <br><br>
-     * After a key press (and signal return), the rightmost rotor would step.  If the pawl engaged, it would step the
-     * next rotor, etc.
+     * At a key press (before the signal passes), the pawls all move together.  The rightmost rotor always steps.  Each
+     * other pawl rests on the notch ring of the rotor to its right; if that rotor is at a turnover position, the pawl
+     * engages and pushes both rotors.  So a rotor steps if the rotor to its right is at a turnover position, or if it
+     * is itself at a turnover position and has a pawl to its left (the double step of the middle rotor).
+     * <br>
+     * Whether each rotor steps is decided from the positions before any rotor moves.  Rotors are checked left to right,
+     * so the rotor to the right of the one being checked has not yet moved.
      */
     private void stepping()
     {
-        boolean propogate; // if next rotor should step
-        int i = rotorAssembly.length - 1; // first (rightmost) rotor
+        int last = rotorAssembly.length - 1; // first (rightmost) rotor
+        for (int i = 0; i < last; i++)
+        {
+            boolean carried = rotorAssembly[i + 1].isAtTurnover(); // pawl engaged by notch of rotor to the right
+            boolean doubleStep = !carried && i > 0 && rotorAssembly[i].isAtTurnover(); // pushed by its own pawl
+            if (carried || doubleStep)
+            {
+                rotorAssembly[i].step();
+                metrics.rotorStepped(i);
+                if (carried)
+                    metrics.turnover(i + 1);
+                else
+                    metrics.doubleStep(i);
+            }
+        }
+        rotorAssembly[last].step();
+        metrics.rotorStepped(last);
+    }
+
+    /**
+     * Set the metrics that key presses, rotor steps and plugboard changes are reported to.
+     * @param metrics MachineMetrics; MachineMetrics.NOOP to stop reporting.
+     */
+    public void setMetrics(MachineMetrics metrics)
+    {
+        this.metrics = metrics;
+        plugboard.setMetrics(metrics);
+    }
 
-        do {
-            propogate = rotorAssembly[i--].step(); // step individual rotor and shift i to new rotor
-        } while (propogate && i > -1); // restrain to array
+    /**
+     * Get the metrics the machine reports to.
+     * @return MachineMetrics.
+     */
+    public MachineMetrics getMetrics()
+    {
+        return metrics;
     }
 
     /**
@@ -0,0 +1,286 @@
+package machines;
+
+import exceptions.BadKeyException;
+import machine_pieces.Rotor;
+import monitoring.EncryptionEvent;
+import resources.AlphabetConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The doubled-indicator procedure (used until 1940): the operator chose a message key, typed it twice at the ground
+ * setting of the day to give the indicator, then set the rotors to the message key and typed the message.  To read a
+ * message, the indicator is deciphered at the ground setting, the two copies of the message key are compared, and the
+ * body is deciphered at the message key.
+ * <br><br>
+ * One procedure is made per daily key and ground setting.  The machine is built once; the ground setting only
+ * depends on the day, so the permutation applied to each letter of the indicator is worked out once up front, and every
+ * indicator of the day is deciphered by table lookup.  Bodies are deciphered by resetting the rotors of the same
+ * machine, without building it again.
+ * <br>
+ * Not thread-safe; use one procedure per thread.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class DoubledIndicatorProcedure
+{
+    private final AlphabetConverter ac;
+    private final ConstructedFullModel model;
+    private final String groundSetting;
+    private final int keyLength; // letters in message key; one per rotor
+    private final int[][] indicatorPermutations; // [place in indicator][letter]; ciphertext letter at ground setting
+
+    /**
+     * Outcome of reading a message.
+     */
+    public enum Status
+    {
+        /** Indicator halves agree; message deciphered. */
+        OK,
+        /** Indicator halves disagree (garbled indicator, or wrong daily key); body not deciphered. */
+        INCONSISTENT,
+        /** Indicator has the wrong length or letters outside the alphabet; body not deciphered. */
+        MALFORMED
+    }
+
+    /**
+     * Result of reading one message.
+     */
+    public static class Result
+    {
+        private final String indicator;
+        private final String decipheredIndicator;
+        private final String messageKey;
+        private final String plaintext;
+        private final Status status;
+
+        private Result(String indicator, String decipheredIndicator, String messageKey, String plaintext,
+                       Status status)
+        {
+            this.indicator = indicator;
+            this.decipheredIndicator = decipheredIndicator;
+            this.messageKey = messageKey;
+            this.plaintext = plaintext;
+            this.status = status;
+        }
+
+        public String getIndicator()
+        {
+            return indicator;
+        }
+
+        /**
+         * @return indicator deciphered at the ground setting; null if MALFORMED.
+         */
+        public String getDecipheredIndicator()
+        {
+            return decipheredIndicator;
+        }
+
+        /**
+         * @return message key; null unless OK.
+         */
+        public String getMessageKey()
+        {
+            return messageKey;
+        }
+
+        /**
+         * @return deciphered body; null unless OK.
+         */
+        public String getPlaintext()
+        {
+            return plaintext;
+        }
+
+        public Status getStatus()
+        {
+            return status;
+        }
+
+        @Override
+        public String toString()
+        {
+            return indicator + " " + status + ((status == Status.OK) ? " " + messageKey + " " + plaintext : "");
+        }
+    }
+
+    /**
+     * Constructor; builds the machine of the daily key and works out the indicator permutations.
+     * @param key daily key.
+     * @param groundSetting letters in the rotor windows for the indicator, leftmost first.
+     * @throws BadKeyException if the key is not valid, or the ground setting does not match the rotors.
+     * @throws IllegalStateException if AlphabetConverter has not been instantiated.
+     */
+    public DoubledIndicatorProcedure(MachineKey key, String groundSetting) throws BadKeyException,
+            IllegalStateException
+    {
+        model = key.build();
+        ac = AlphabetConverter.getAlphabetConverter();
+        keyLength = model.getRotorAssembly().length;
+        if (groundSetting.length() != keyLength)
+            throw new BadKeyException("Expected " + keyLength + " letters of ground setting: " + groundSetting);
+        for (char c : groundSetting.toCharArray())
+            if (ac.convert(c) == -1)
+                throw new BadKeyException("Ground setting is not in the alphabet: " + groundSetting);
+        this.groundSetting = groundSetting;
+
+        // the rotors pass through the same positions for every indicator; type each letter through all of them
+        char[] alphabet = ac.getAlphabet();
+        indicatorPermutations = new int[2 * keyLength][alphabet.length];
+        for (int c = 0; c < alphabet.length; c++)
+        {
+            setPositions(groundSetting);
+            for (int place = 0; place < 2 * keyLength; place++)
+                indicatorPermutations[place][c] = ac.convert(model.type(alphabet[c]));
+        }
+    }
+
+    /**
+     * Decipher an indicator at the ground setting.
+     * @param indicator enciphered doubled message key.
+     * @return deciphered indicator; null if the indicator has the wrong length or letters outside the alphabet.
+     */
+    public String decipherIndicator(String indicator)
+    {
+        if (indicator.length() != 2 * keyLength)
+            return null;
+
+        char[] letters = new char[indicator.length()];
+        for (int place = 0; place < letters.length; place++)
+        {
+            int c = ac.convert(indicator.charAt(place));
+            if (c == -1)
+                return null;
+            letters[place] = ac.convert(indicatorPermutations[place][c]);
+        }
+        return new String(letters);
+    }
+
+    /**
+     * Encipher a message key into an indicator; the enciphering is reciprocal, so this is the same table lookup.
+     * @param messageKey message key, one letter per rotor.
+     * @return indicator.
+     * @throws BadKeyException if the message key has the wrong length or letters outside the alphabet.
+     */
+    public String encipherIndicator(String messageKey) throws BadKeyException
+    {
+        String indicator = decipherIndicator(messageKey + messageKey);
+        if (indicator == null)
+            throw new BadKeyException("Message key must be " + keyLength + " letters of the alphabet: " + messageKey);
+        return indicator;
+    }
+
+    /**
+     * Type a text with the rotors set to a message key.  Enciphers plaintext and deciphers ciphertext alike.
+     * @param messageKey letters in the rotor windows, leftmost first.
+     * @param text letters to type.
+     * @return letters lit.
+     * @throws BadKeyException if the message key has the wrong length or letters outside the alphabet.
+     * @throws IllegalArgumentException if the text has letters outside the alphabet.
+     */
+    public String type(String messageKey, String text) throws BadKeyException, IllegalArgumentException
+    {
+        if (messageKey.length() != keyLength)
+            throw new BadKeyException("Message key must be " + keyLength + " letters: " + messageKey);
+        for (int i = 0; i < text.length(); i++)
+            if (ac.convert(text.charAt(i)) == -1)
+                throw new IllegalArgumentException("Character is not in the alphabet: " + text.charAt(i));
+        if (!setPositions(messageKey))
+            throw new BadKeyException("Message key is not in the alphabet: " + messageKey);
+
+        EncryptionEvent event = new EncryptionEvent();
+        event.begin();
+
+        char[] letters = text.toCharArray();
+        for (int i = 0; i < letters.length; i++)
+            letters[i] = model.type(letters[i]);
+        model.getMetrics().messageProcessed(letters.length);
+
+        if (event.shouldCommit())
+        {
+            event.engine = "ConstructedFullModel";
+            event.length = letters.length;
+            event.commit();
+        }
+        return new String(letters);
+    }
+
+    /**
+     * Read one message.
+     * @param indicator enciphered doubled message key.
+     * @param body ciphertext.
+     * @return Result.
+     * @throws IllegalArgumentException if the body has letters outside the alphabet.
+     */
+    public Result decipher(String indicator, String body) throws IllegalArgumentException
+    {
+        String deciphered = decipherIndicator(indicator);
+        if (deciphered == null)
+            return new Result(indicator, null, null, null, Status.MALFORMED);
+
+        String messageKey = deciphered.substring(0, keyLength);
+        if (!messageKey.equals(deciphered.substring(keyLength)))
+            return new Result(indicator, deciphered, null, null, Status.INCONSISTENT);
+
+        return new Result(indicator, deciphered, messageKey, type(messageKey, body), Status.OK);
+    }
+
+    /**
+     * Read a day's traffic.
+     * @param indicators indicator of each message.
+     * @param bodies ciphertext of each message, in the same order.
+     * @return List of Result, in the same order.
+     * @throws IllegalArgumentException if the lists differ in length, or a body has letters outside the alphabet.
+     */
+    public List<Result> decipherAll(List<String> indicators, List<String> bodies) throws IllegalArgumentException
+    {
+        if (indicators.size() != bodies.size())
+            throw new IllegalArgumentException("Each message needs one indicator and one body.");
+
+        List<Result> results = new ArrayList<>(indicators.size());
+        for (int i = 0; i < indicators.size(); i++)
+            results.add(decipher(indicators.get(i), bodies.get(i)));
+        return results;
+    }
+
+    /**
+     * Get the indicators (as sent, enciphered) of the messages of a day whose halves agree; the input of
+     * <code>cryptanalysis.CycleStructure.products</code>.
+     * @param results results of a day's traffic.
+     * @return List of enciphered indicators.
+     */
+    public static List<String> consistentIndicators(List<Result> results)
+    {
+        List<String> indicators = new ArrayList<>();
+        for (Result result : results)
+            if (result.getStatus() == Status.OK)
+                indicators.add(result.getIndicator());
+        return indicators;
+    }
+
+    /**
+     * Get the ground setting of the procedure.
+     * @return ground setting, leftmost first.
+     */
+    public String getGroundSetting()
+    {
+        return groundSetting;
+    }
+
+    /**
+     * Set the letters in the rotor windows.
+     * @return If every rotor was set.
+     */
+    private boolean setPositions(String letters)
+    {
+        Rotor[] rotors = model.getRotorAssembly();
+        boolean set = true;
+        for (int i = 0; i < rotors.length; i++)
+            set &= rotors[i].setGroundPosition(letters.charAt(i));
+        return set;
+    }
+}
@@ -1,19 +1,23 @@
 package machines;
 
 import machine_pieces.*;
+import monitoring.MachineBuildEvent;
 import resources.AlphabetConverter;
 import resources.WiringData;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Builder class for create Enigma machine.
  *
  * @author Eliezer Meth
- * @version 2<br>
+ * @version 2.1<br>
  * Start Date: 2024-06-25<br>
- * Last Modified: 2024-06-27
+ * Last Modified: 2026-10-19
  */
 public class MachineBuilder
 {
@@ -30,7 +34,8 @@ public class MachineBuilder
     private boolean plugboardModifiable;
 
     private Rotor[] rotors; // holds rotors in LR configuration; .length = number of rotor slots
-    private Set<String> availableRotors;
+    private List<String> rotorNames; // names of rotors of the version, sorted; index is bit in usedRotors
+    private final BitSet usedRotors = new BitSet(); // rotors already placed in a slot
 
     private Reflector reflector;
     // TODO
@@ -58,16 +63,27 @@ public class MachineBuilder
                 entryWheel = new EntryWheel(EntryWheel.ETWsequence.ABCDE);
                 plugboardModifiable = true;
                 rotors = new Rotor[3]; // initialize array to proper length; TODO
-                availableRotors = machineComponents.get("rotor").keySet();
                 break;
             case ENIGMA_M3:
                 machineComponents = WiringData.EnigmaM3();
                 entryWheel = new EntryWheel(EntryWheel.ETWsequence.ABCDE);
                 plugboardModifiable = true;
                 rotors = new Rotor[3]; // initialize array to proper length, 3 or 4?; TODO
-                availableRotors = machineComponents.get("rotor").keySet();
                 break;
         }
+
+        // machineComponents is shared by every builder; keep track of used rotors here instead of modifying it
+        rotorNames = new ArrayList<>(machineComponents.get("rotor").keySet());
+        Collections.sort(rotorNames);
+    }
+
+    /**
+     * Get the number of rotor slots of the machine being built.
+     * @return number of rotor slots.
+     */
+    public int getRotorSlots()
+    {
+        return rotors.length;
     }
 
     public MachineBuilder setEntryWheel(EntryWheel entryWheel)
@@ -93,7 +109,7 @@ public class MachineBuilder
 
         String[] connections = letters.split(" ");
         for (String c : connections)
-            plugboard.insertWire(letters); // does not return if successful
+            plugboard.insertWire(c); // does not return if successful
 
         return this;
     }
@@ -107,13 +123,14 @@ public class MachineBuilder
     public MachineBuilder setRotor(int num, String name)
     {
         num = rotors.length - num;
-        if (num < 1 || num > rotors.length - 1) // invalid slot selection
+        if (num < 0 || num > rotors.length - 1) // invalid slot selection
             return this;
-        if (rotors[num] != null || !availableRotors.contains(name)) // slot occupied or rotor unavailable (nonexistent/used)
+        int index = Collections.binarySearch(rotorNames, name);
+        if (rotors[num] != null || index < 0 || usedRotors.get(index)) // slot occupied or rotor unavailable (nonexistent/used)
             return this;
 
         rotors[num] = new Rotor(name, machineComponents);
-        availableRotors.remove(name); // remove rotor from available pool
+        usedRotors.set(index); // remove rotor from available pool
 
         return this;
     }
@@ -121,7 +138,7 @@ public class MachineBuilder
     public MachineBuilder setRotorRingSetting(int num, int letter)
     {
         num = rotors.length - num;
-        if (num < 1 || num > rotors.length - 1) // invalid slot selection
+        if (num < 0 || num > rotors.length - 1) // invalid slot selection
             return this;
         if (rotors[num] == null) // rotor not yet selected
             return this;
@@ -134,7 +151,7 @@ public class MachineBuilder
     public MachineBuilder setRotorGroundPosition(int num, char letter)
     {
         num = rotors.length - num;
-        if (num < 1 || num > rotors.length - 1) // invalid slot selection
+        if (num < 0 || num > rotors.length - 1) // invalid slot selection
             return this;
         if (rotors[num] == null) // rotor not yet selected
             return this;
@@ -154,6 +171,9 @@ public class MachineBuilder
 
     public ConstructedFullModel build()
     {
+        MachineBuildEvent event = new MachineBuildEvent();
+        event.begin();
+
         // Entry wheel
         if (entryWheel == null)
             entryWheel = new EntryWheel(EntryWheel.ETWsequence.ABCDE);
@@ -171,6 +191,17 @@ public class MachineBuilder
         if (reflector == null)
             throw new IllegalStateException("Reflector must be set before machine is built.");
 
-        return new ConstructedFullModel(entryWheel, plugboard, rotors, reflector);
+        ConstructedFullModel model = new ConstructedFullModel(entryWheel, plugboard, rotors, reflector);
+
+        if (event.shouldCommit())
+        {
+            StringBuilder wheelOrder = new StringBuilder();
+            for (Rotor r : rotors)
+                wheelOrder.append(wheelOrder.length() == 0 ? "" : "-").append(r.getRotorSelected());
+            event.builtBy = "MachineBuilder";
+            event.wheelOrder = wheelOrder.toString();
+            event.commit();
+        }
+        return model;
     }
 }
@@ -0,0 +1,264 @@
+package machines;
+
+import exceptions.BadKeyException;
+import machine_pieces.GearConstruction;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable specification of the parts of an Enigma key that do not change while typing: version, wheel order, ring
+ * settings, reflector and plugboard connections.  The rotor positions (ground setting or message key) are not part of
+ * the key, so every message sent on the same daily key has an equal MachineKey.
+ * <br>
+ * The plugboard connections are normalized, so <code>"BA DC"</code> and <code>"CD AB"</code> give equal keys.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+public final class MachineKey
+{
+    private final WiringData.enimgaVersion version;
+    private final String[] rotors; // leftmost first
+    private final int[] ringSettings; // leftmost first; 01 -> A
+    private final String reflector;
+    private final String plugboard; // normalized letter pairs separated by spaces
+
+    private final int hash;
+
+    /**
+     * Constructor.
+     * @param version Enigma version.
+     * @param rotors names of rotors, leftmost first.
+     * @param ringSettings ring settings of rotors, leftmost first; 01 -> A.
+     * @param reflector name of reflector.
+     * @param plugboard letter pairs separated by spaces; empty for no connections.
+     * @throws BadKeyException if the number of ring settings does not match the number of rotors, or a plugboard pair
+     * is not two letters.
+     */
+    public MachineKey(WiringData.enimgaVersion version, String[] rotors, int[] ringSettings, String reflector,
+                      String plugboard) throws BadKeyException
+    {
+        if (rotors.length != ringSettings.length)
+            throw new BadKeyException("Each rotor requires a ring setting.");
+
+        this.version = version;
+        this.rotors = rotors.clone();
+        this.ringSettings = ringSettings.clone();
+        this.reflector = reflector;
+        this.plugboard = normalizePlugboard(plugboard);
+
+        int h = version.hashCode();
+        h = 31 * h + Arrays.hashCode(this.rotors);
+        h = 31 * h + Arrays.hashCode(this.ringSettings);
+        h = 31 * h + reflector.hashCode();
+        h = 31 * h + this.plugboard.hashCode();
+        hash = h;
+    }
+
+    /**
+     * Read a key written as by <code>toString</code>: version, reflector, rotors, rings, then plugboard pairs, e.g.
+     * <code>ENIGMA_1 B II-IV-V 02-21-12 AV BS CG</code>.  The key is not validated.
+     * @param text key.
+     * @return MachineKey.
+     * @throws BadKeyException if a part is missing, the version is unknown, or a ring setting is not a number.
+     */
+    public static MachineKey parse(String text) throws BadKeyException
+    {
+        String[] fields = text.trim().split("\\s+");
+        if (fields.length < 4)
+            throw new BadKeyException("Key needs version, reflector, rotors and rings.");
+
+        WiringData.enimgaVersion version;
+        try
+        {
+            version = WiringData.enimgaVersion.valueOf(fields[0]);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new BadKeyException("Unknown version " + fields[0] + ".", e);
+        }
+
+        String[] ringText = fields[3].split("-");
+        int[] rings = new int[ringText.length];
+        try
+        {
+            for (int i = 0; i < rings.length; i++)
+                rings[i] = Integer.parseInt(ringText[i]);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new BadKeyException("Ring settings must be numbers.", e);
+        }
+
+        String plugboard = String.join(" ", Arrays.copyOfRange(fields, 4, fields.length));
+        return new MachineKey(version, fields[2].split("-"), rings, fields[1], plugboard);
+    }
+
+    /**
+     * Sort the letters of each pair and the pairs themselves.
+     * @param plugboard letter pairs separated by spaces.
+     * @return normalized String.
+     * @throws BadKeyException if a pair is not two letters.
+     */
+    private static String normalizePlugboard(String plugboard) throws BadKeyException
+    {
+        String trimmed = plugboard.trim();
+        if (trimmed.isEmpty())
+            return "";
+
+        String[] pairs = trimmed.split("\\s+");
+        for (int i = 0; i < pairs.length; i++)
+        {
+            if (pairs[i].length() != 2)
+                throw new BadKeyException("Plugboard connections must be letter pairs: " + pairs[i]);
+            char a = pairs[i].charAt(0);
+            char b = pairs[i].charAt(1);
+            pairs[i] = (a < b) ? "" + a + b : "" + b + a;
+        }
+        Arrays.sort(pairs);
+        return String.join(" ", pairs);
+    }
+
+    /**
+     * Check that every part of the key exists in its version and can be put together.
+     * @throws BadKeyException if a rotor or reflector is not part of the version, a rotor is used twice, or a plugboard
+     * letter is not in the alphabet or is used twice.
+     * @throws IllegalStateException if AlphabetConverter has not been instantiated.
+     */
+    public void validate() throws BadKeyException, IllegalStateException
+    {
+        Map<String, Map<String, GearConstruction>> components = WiringData.getComponents(version);
+
+        for (int i = 0; i < rotors.length; i++)
+        {
+            if (!components.get("rotor").containsKey(rotors[i]))
+                throw new BadKeyException("Rotor " + rotors[i] + " is not part of " + version + ".");
+            for (int j = 0; j < i; j++)
+                if (rotors[j].equals(rotors[i]))
+                    throw new BadKeyException("Rotor " + rotors[i] + " may only be used once.");
+        }
+
+        if (!components.get("reflector").containsKey(reflector))
+            throw new BadKeyException("Reflector " + reflector + " is not part of " + version + ".");
+
+        AlphabetConverter ac = AlphabetConverter.getAlphabetConverter();
+        boolean[] used = new boolean[ac.getAlphabet().length];
+        for (char c : plugboard.replace(" ", "").toCharArray())
+        {
+            int index = ac.convert(c);
+            if (index == -1)
+                throw new BadKeyException("Plugboard letter is not in the alphabet: " + c);
+            if (used[index])
+                throw new BadKeyException("Plugboard letter may only be connected once: " + c);
+            used[index] = true;
+        }
+    }
+
+    /**
+     * Construct a machine for this key with <code>MachineBuilder</code>.  The rotors are placed at the first letter of
+     * the alphabet.
+     * @return ConstructedFullModel of key.
+     * @throws BadKeyException if the key is not valid (see <code>validate</code>), or the number of rotors does not
+     * match the rotor slots of the version.
+     * @throws IllegalStateException if AlphabetConverter has not been instantiated.
+     */
+    public ConstructedFullModel build() throws BadKeyException, IllegalStateException
+    {
+        validate();
+
+        MachineBuilder builder = MachineBuilder.builder(version);
+        if (rotors.length != builder.getRotorSlots())
+            throw new BadKeyException(version + " has " + builder.getRotorSlots() + " rotor slots.");
+
+        for (int i = 0; i < rotors.length; i++)
+        {
+            int slot = rotors.length - i; // builder numbers slots from the right
+            builder.setRotor(slot, rotors[i]).setRotorRingSetting(slot, ringSettings[i]);
+        }
+        builder.setReflector(reflector);
+        if (!plugboard.isEmpty())
+            builder.addPlugboardConnection(plugboard);
+
+        return builder.build();
+    }
+
+    /**
+     * Get the Enigma version.
+     * @return version.
+     */
+    public WiringData.enimgaVersion getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Get the names of the rotors, leftmost first.
+     * @return String[] of rotor names.
+     */
+    public String[] getRotors()
+    {
+        return rotors.clone();
+    }
+
+    /**
+     * Get the ring settings, leftmost first; 01 -> A.
+     * @return int[] of ring settings.
+     */
+    public int[] getRingSettings()
+    {
+        return ringSettings.clone();
+    }
+
+    /**
+     * Get the name of the reflector.
+     * @return reflector name.
+     */
+    public String getReflector()
+    {
+        return reflector;
+    }
+
+    /**
+     * Get the normalized plugboard connections.
+     * @return letter pairs separated by spaces.
+     */
+    public String getPlugboard()
+    {
+        return plugboard;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+            return true;
+        if (!(o instanceof MachineKey))
+            return false;
+
+        MachineKey other = (MachineKey) o;
+        return hash == other.hash && version == other.version && Arrays.equals(rotors, other.rotors) &&
+                Arrays.equals(ringSettings, other.ringSettings) && reflector.equals(other.reflector) &&
+                plugboard.equals(other.plugboard);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return hash;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder rings = new StringBuilder();
+        for (int ring : ringSettings)
+            rings.append(rings.length() == 0 ? "" : "-").append(String.format("%02d", ring));
+        return version + " " + reflector + " " + String.join("-", rotors) + " " + rings +
+                (plugboard.isEmpty() ? "" : " " + plugboard);
+    }
+}
@@ -0,0 +1,377 @@
+package machines;
+
+import exceptions.BadKeyException;
+import machine_pieces.GearConstruction;
+import machine_pieces.Plugboard;
+import machine_pieces.Reflector;
+import machine_pieces.Rotor;
+import monitoring.MachineMetrics;
+import resources.WiringData;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of built machines of one version, lent out for a key and taken back when done.  Building a
+ * <code>ConstructedFullModel</code> from a key means looking up every component, copying the wiring of each rotor and
+ * reflector, and setting its ring; a pooled machine is instead restored to the key asked for from the parts it already
+ * has.  Each pooled machine keeps every rotor and reflector it has been given, so a new wheel order only puts different
+ * parts in the slots, a ring is only set again if it changed, the plugboard is only rewired if it differs, and the
+ * rotors are turned to their positions in one move each.  A machine last used for the same key is preferred, since
+ * restoring it only turns the rotors.
+ * <br><br>
+ * At most <code>maximumIdle</code> machines are kept; a machine returned to a full pool is dropped.  Metrics reported
+ * to while a machine was lent out are removed when it is returned.  The pool may be used from any number of threads;
+ * a lent machine may only be used by one thread at a time.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class MachinePool
+{
+    private final WiringData.enimgaVersion version;
+    private final int maximumIdle;
+    private final ArrayDeque<Pooled> idle = new ArrayDeque<>(); // most recently returned first
+
+    // statistics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder discards = new LongAdder();
+
+    /**
+     * Snapshot of pool statistics.
+     */
+    public static class Stats
+    {
+        private final long hits;
+        private final long misses;
+        private final long discards;
+        private final int idle;
+
+        private Stats(long hits, long misses, long discards, int idle)
+        {
+            this.hits = hits;
+            this.misses = misses;
+            this.discards = discards;
+            this.idle = idle;
+        }
+
+        /**
+         * @return number of loans restored from an idle machine.
+         */
+        public long hits()
+        {
+            return hits;
+        }
+
+        /**
+         * @return number of loans that built a machine.
+         */
+        public long misses()
+        {
+            return misses;
+        }
+
+        /**
+         * @return number of machines dropped because the pool was full when they were returned.
+         */
+        public long discards()
+        {
+            return discards;
+        }
+
+        /**
+         * @return number of idle machines at the time of the snapshot.
+         */
+        public int idle()
+        {
+            return idle;
+        }
+
+        /**
+         * @return fraction of loans restored from an idle machine; 0 if there were no loans.
+         */
+        public double hitRate()
+        {
+            long total = hits + misses;
+            return (total == 0) ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("hits=%d misses=%d discards=%d idle=%d hitRate=%.3f", hits, misses, discards, idle,
+                    hitRate());
+        }
+    }
+
+    /**
+     * A machine lent out by the pool.  Closing the lease returns the machine.
+     */
+    public static final class Lease implements AutoCloseable
+    {
+        private final MachinePool pool;
+        private Pooled machine;
+
+        private Lease(MachinePool pool, Pooled machine)
+        {
+            this.pool = pool;
+            this.machine = machine;
+        }
+
+        /**
+         * Get the machine lent.
+         * @return ConstructedFullModel, set to the key and positions asked for.
+         * @throws IllegalStateException if the machine has been returned.
+         */
+        public ConstructedFullModel getModel()
+        {
+            if (machine == null)
+                throw new IllegalStateException("Machine has been returned to the pool.");
+            return machine.model;
+        }
+
+        /**
+         * Return the machine to the pool.  Returning it again does nothing.
+         */
+        @Override
+        public void close()
+        {
+            if (machine != null)
+            {
+                pool.release(machine);
+                machine = null;
+            }
+        }
+    }
+
+    /**
+     * A machine of the pool, with every part it has been given.
+     */
+    private static final class Pooled
+    {
+        private final Map<String, Rotor> rotors = new HashMap<>();
+        private final Map<String, Reflector> reflectors = new HashMap<>();
+        private ConstructedFullModel model;
+        private MachineKey key; // key last restored to; null if a restore failed
+
+        Pooled(ConstructedFullModel model, MachineKey key)
+        {
+            this.model = model;
+            this.key = key;
+            for (Rotor rotor : model.getRotorAssembly())
+                rotors.put(rotor.getRotorSelected(), rotor);
+            reflectors.put(model.getReflector().getReflectorSelected(), model.getReflector());
+        }
+
+        /**
+         * Set the machine to a valid key of its version.
+         * @throws BadKeyException if the key has the wrong number of rotors, or the positions do not match the rotors.
+         */
+        void restore(MachineKey key, String positions, Map<String, Map<String, GearConstruction>> components)
+        {
+            this.key = null;
+            String[] names = key.getRotors();
+            int[] rings = key.getRingSettings();
+            Rotor[] assembly = model.getRotorAssembly();
+            if (names.length != assembly.length)
+                throw new BadKeyException(key.getVersion() + " has " + assembly.length + " rotor slots.");
+            if (positions.length() != assembly.length)
+                throw new BadKeyException("Expected " + assembly.length + " rotor positions: " + positions);
+
+            // put other parts in the slots only if the wheel order or reflector changed
+            boolean sameParts = model.getReflector().getReflectorSelected().equals(key.getReflector());
+            for (int i = 0; i < names.length && sameParts; i++)
+                sameParts = assembly[i].getRotorSelected().equals(names[i]);
+            if (!sameParts)
+            {
+                assembly = new Rotor[names.length];
+                for (int i = 0; i < names.length; i++)
+                    assembly[i] = rotors.computeIfAbsent(names[i], name -> new Rotor(name, components));
+                Reflector reflector = reflectors.computeIfAbsent(key.getReflector(),
+                        name -> new Reflector(name, components));
+                model = new ConstructedFullModel(model.getEntryWheel(), model.getPlugboard(), assembly, reflector);
+            }
+
+            for (int i = 0; i < assembly.length; i++)
+            {
+                if (assembly[i].getRingSetting() != rings[i])
+                    assembly[i].setRingSetting(rings[i]);
+                if (!assembly[i].setGroundPosition(positions.charAt(i)))
+                    throw new BadKeyException("Rotor position is not in the alphabet: " + positions.charAt(i));
+            }
+
+            Plugboard plugboard = model.getPlugboard();
+            String pairs = key.getPlugboard();
+            if (!isWired(plugboard, pairs))
+            {
+                plugboard.resetPlugboard();
+                for (int i = 0; i < pairs.length(); i += 3) // normalized: "AB CD ..."
+                    plugboard.insertWire(pairs.charAt(i), pairs.charAt(i + 1));
+            }
+            this.key = key;
+        }
+    }
+
+    /**
+     * Whether a plugboard has exactly the connections of a key; checked on the plugboard itself, as it may have been
+     * rewired while lent out.
+     * @param pairs normalized letter pairs of key.
+     */
+    private static boolean isWired(Plugboard plugboard, String pairs)
+    {
+        int count = pairs.isEmpty() ? 0 : (pairs.length() + 1) / 3;
+        if (plugboard.numberOfConnections() != count)
+            return false;
+        for (int i = 0; i < pairs.length(); i += 3)
+            if (plugboard.findConnectedLetter(pairs.charAt(i)) != pairs.charAt(i + 1))
+                return false;
+        return true;
+    }
+
+    /**
+     * Constructor.
+     * @param version version of every machine of the pool.
+     * @param maximumIdle maximum number of idle machines kept.
+     * @throws IllegalArgumentException if maximumIdle is less than 1.
+     */
+    public MachinePool(WiringData.enimgaVersion version, int maximumIdle) throws IllegalArgumentException
+    {
+        if (maximumIdle < 1)
+            throw new IllegalArgumentException("Maximum idle machines must be at least 1.");
+        this.version = version;
+        this.maximumIdle = maximumIdle;
+    }
+
+    /**
+     * Build idle machines ahead of demand, up to the maximum.
+     * @param key key to build the machines for.
+     * @param count number of machines wanted idle.
+     * @throws BadKeyException if the key is not valid, or is not for the version of the pool.
+     * @throws IllegalStateException if AlphabetConverter has not been instantiated.
+     */
+    public void prebuild(MachineKey key, int count) throws BadKeyException, IllegalStateException
+    {
+        checkVersion(key);
+        while (getIdle() < Math.min(count, maximumIdle))
+        {
+            Pooled machine = new Pooled(key.build(), key);
+            synchronized (idle)
+            {
+                if (idle.size() >= maximumIdle)
+                    return;
+                idle.addLast(machine);
+            }
+        }
+    }
+
+    /**
+     * Borrow a machine set to a key, with the rotors at the given positions.
+     * @param key machine key.
+     * @param positions letters in the rotor windows, leftmost first.
+     * @return Lease of the machine; close it to return the machine.
+     * @throws BadKeyException if the key is not valid, is not for the version of the pool, or the positions do not
+     * match the rotors.
+     * @throws IllegalStateException if AlphabetConverter has not been instantiated.
+     */
+    public Lease acquire(MachineKey key, String positions) throws BadKeyException, IllegalStateException
+    {
+        checkVersion(key);
+        key.validate();
+
+        Pooled machine = take(key);
+        if (machine == null)
+        {
+            misses.increment();
+            machine = new Pooled(key.build(), key);
+        }
+        else
+            hits.increment();
+
+        try
+        {
+            machine.restore(key, positions, WiringData.getComponents(version));
+        }
+        catch (BadKeyException e)
+        {
+            release(machine);
+            throw e;
+        }
+        return new Lease(this, machine);
+    }
+
+    /**
+     * Get the number of idle machines.
+     * @return number of machines.
+     */
+    public int getIdle()
+    {
+        synchronized (idle)
+        {
+            return idle.size();
+        }
+    }
+
+    /**
+     * Get the maximum number of idle machines.
+     * @return maximum size.
+     */
+    public int getMaximumIdle()
+    {
+        return maximumIdle;
+    }
+
+    /**
+     * Get a snapshot of the pool statistics.
+     * @return Stats.
+     */
+    public Stats stats()
+    {
+        return new Stats(hits.sum(), misses.sum(), discards.sum(), getIdle());
+    }
+
+    private void checkVersion(MachineKey key)
+    {
+        if (key.getVersion() != version)
+            throw new BadKeyException("Key is for " + key.getVersion() + "; pool is for " + version + ".");
+    }
+
+    /**
+     * Take an idle machine, preferring one last used for the key.
+     * @return Pooled; null if none idle.
+     */
+    private Pooled take(MachineKey key)
+    {
+        synchronized (idle)
+        {
+            for (Iterator<Pooled> i = idle.iterator(); i.hasNext(); )
+            {
+                Pooled machine = i.next();
+                if (key.equals(machine.key))
+                {
+                    i.remove();
+                    return machine;
+                }
+            }
+            return idle.pollFirst();
+        }
+    }
+
+    private void release(Pooled machine)
+    {
+        machine.model.setMetrics(MachineMetrics.NOOP);
+        synchronized (idle)
+        {
+            if (idle.size() < maximumIdle)
+            {
+                idle.addFirst(machine);
+                return;
+            }
+        }
+        discards.increment();
+    }
+}
@@ -0,0 +1,30 @@
+package monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a lookup in a cache of prepared machines.  A miss lasts as long as building the entry.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+@Name("enigma.CacheLookup")
+@Label("Cache Lookup")
+@Category({"Enigma", "Cache"})
+@Description("Lookup of a prepared machine definition")
+@StackTrace(false)
+public class CacheLookupEvent extends jdk.jfr.Event
+{
+    @Label("Key")
+    @Description("Machine key looked up")
+    public String key;
+
+    @Label("Hit")
+    @Description("If the definition was already cached")
+    public boolean hit;
+}
@@ -0,0 +1,250 @@
+package monitoring;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <code>MachineMetrics</code> that counts every event.  Counters are <code>LongAdder</code>s, which spread updates
+ * from different threads over separate cells, so machines on many threads can share one instance without contending
+ * on a single counter.  Reading a counter sums the cells, and is only exact while no machine is running.
+ * <br><br>
+ * Counts can be written as plain text or in the Prometheus text exposition format, labelled with the name of the
+ * instance.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class CounterMetrics implements MachineMetrics
+{
+    private final String name;
+
+    private final LongAdder keyPresses = new LongAdder();
+    private final LongAdder[] rotorSteps; // [slot]
+    private final LongAdder[] turnovers; // [slot]
+    private final LongAdder[] doubleSteps; // [slot]
+    private final LongAdder plugboardChanges = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder letters = new LongAdder();
+
+    /**
+     * Constructor.
+     * @param name name of instance; the machine label of the Prometheus output.
+     * @param slots number of rotor slots counted; events of higher slots are ignored.
+     * @throws IllegalArgumentException if slots is negative.
+     */
+    public CounterMetrics(String name, int slots)
+    {
+        if (slots < 0)
+            throw new IllegalArgumentException("Slots may not be negative.");
+        this.name = name;
+        rotorSteps = adders(slots);
+        turnovers = adders(slots);
+        doubleSteps = adders(slots);
+    }
+
+    private static LongAdder[] adders(int count)
+    {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++)
+            adders[i] = new LongAdder();
+        return adders;
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Recording
+    // -----------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public void keysPressed(long count)
+    {
+        keyPresses.add(count);
+    }
+
+    @Override
+    public void rotorStepped(int slot)
+    {
+        if (slot < rotorSteps.length)
+            rotorSteps[slot].increment();
+    }
+
+    @Override
+    public void turnover(int slot)
+    {
+        if (slot < turnovers.length)
+            turnovers[slot].increment();
+    }
+
+    @Override
+    public void doubleStep(int slot)
+    {
+        if (slot < doubleSteps.length)
+            doubleSteps[slot].increment();
+    }
+
+    @Override
+    public void plugboardChanged()
+    {
+        plugboardChanges.increment();
+    }
+
+    @Override
+    public void messageProcessed(long letters)
+    {
+        messages.increment();
+        this.letters.add(letters);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Reading
+    // -----------------------------------------------------------------------------------------------------------------
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public int slots()
+    {
+        return rotorSteps.length;
+    }
+
+    public long getKeyPresses()
+    {
+        return keyPresses.sum();
+    }
+
+    public long getRotorSteps(int slot)
+    {
+        return rotorSteps[slot].sum();
+    }
+
+    public long getTurnovers(int slot)
+    {
+        return turnovers[slot].sum();
+    }
+
+    public long getDoubleSteps(int slot)
+    {
+        return doubleSteps[slot].sum();
+    }
+
+    public long getPlugboardChanges()
+    {
+        return plugboardChanges.sum();
+    }
+
+    public long getMessages()
+    {
+        return messages.sum();
+    }
+
+    public long getLetters()
+    {
+        return letters.sum();
+    }
+
+    /**
+     * Set every counter back to zero.  Events recorded while resetting may be lost.
+     */
+    public void reset()
+    {
+        keyPresses.reset();
+        for (int i = 0; i < rotorSteps.length; i++)
+        {
+            rotorSteps[i].reset();
+            turnovers[i].reset();
+            doubleSteps[i].reset();
+        }
+        plugboardChanges.reset();
+        messages.reset();
+        letters.reset();
+    }
+
+    /**
+     * Write the counts as plain text, one counter per line.
+     * @return String of counts.
+     */
+    public String toText()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(name).append('\n');
+        line(sb, "key presses", Long.toString(getKeyPresses()));
+        line(sb, "rotor steps", slotCounts(rotorSteps));
+        line(sb, "turnovers", slotCounts(turnovers));
+        line(sb, "double steps", slotCounts(doubleSteps));
+        line(sb, "plugboard changes", Long.toString(getPlugboardChanges()));
+        line(sb, "messages", Long.toString(getMessages()));
+        line(sb, "letters", Long.toString(getLetters()));
+        return sb.toString();
+    }
+
+    private static void line(StringBuilder sb, String label, String value)
+    {
+        sb.append(String.format(Locale.ROOT, "  %-18s %s\n", label + ":", value));
+    }
+
+    /**
+     * Counts of each slot, leftmost first, separated by spaces.
+     */
+    private static String slotCounts(LongAdder[] adders)
+    {
+        StringBuilder sb = new StringBuilder();
+        for (LongAdder adder : adders)
+            sb.append((sb.length() == 0) ? "" : " ").append(adder.sum());
+        return sb.toString();
+    }
+
+    /**
+     * Write the counts in the Prometheus text exposition format.
+     * @return String of counts.
+     */
+    public String toPrometheus()
+    {
+        String machine = "machine=\"" + escape(name) + "\"";
+        StringBuilder sb = new StringBuilder();
+        counter(sb, "enigma_keypresses_total", "Keys depressed.", machine, getKeyPresses());
+        slotCounter(sb, "enigma_rotor_steps_total", "Rotor steps by slot.", machine, rotorSteps);
+        slotCounter(sb, "enigma_turnovers_total", "Steps carried to the next rotor, by slot of the notch.", machine,
+                turnovers);
+        slotCounter(sb, "enigma_double_steps_total", "Double steps by slot.", machine, doubleSteps);
+        counter(sb, "enigma_plugboard_changes_total", "Plugboard wires inserted or removed.", machine,
+                getPlugboardChanges());
+        counter(sb, "enigma_messages_total", "Messages typed.", machine, getMessages());
+        counter(sb, "enigma_letters_total", "Letters typed in messages.", machine, getLetters());
+        return sb.toString();
+    }
+
+    private static void counter(StringBuilder sb, String metric, String help, String labels, long value)
+    {
+        header(sb, metric, help);
+        sb.append(metric).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    private static void slotCounter(StringBuilder sb, String metric, String help, String labels, LongAdder[] adders)
+    {
+        header(sb, metric, help);
+        for (int slot = 0; slot < adders.length; slot++)
+            sb.append(String.format(Locale.ROOT, "%s{%s,slot=\"%d\"} %d\n", metric, labels, slot, adders[slot].sum()));
+    }
+
+    private static void header(StringBuilder sb, String metric, String help)
+    {
+        sb.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(metric).append(" counter\n");
+    }
+
+    /**
+     * Escape a Prometheus label value.
+     */
+    private static String escape(String value)
+    {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    @Override
+    public String toString()
+    {
+        return toText();
+    }
+}
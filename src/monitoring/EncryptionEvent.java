@@ -0,0 +1,31 @@
+package monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for the enciphering or deciphering of one message.  The duration of the event is the time
+ * spent typing.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+@Name("enigma.Encryption")
+@Label("Message Encryption")
+@Category({"Enigma", "Machine"})
+@Description("Enciphering or deciphering of one message")
+@StackTrace(false)
+public class EncryptionEvent extends jdk.jfr.Event
+{
+    @Label("Engine")
+    @Description("Class that typed the message")
+    public String engine;
+
+    @Label("Length")
+    @Description("Number of letters typed")
+    public int length;
+}
@@ -0,0 +1,234 @@
+package monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-bucketed latency histogram in the style of HdrHistogram.  Values below 2<sup>precision</sup> get a bucket each;
+ * above that, every power of two is split into 2<sup>precision</sup> equal buckets, so each value is kept to within a
+ * relative error of 2<sup>-precision</sup> (under 1% at the default of 7) whatever its size.  Values above the highest
+ * trackable value are counted in the top bucket.
+ * <br><br>
+ * Recording is lock-free: one <code>AtomicLongArray</code> increment, so any number of threads may record at once.
+ * Snapshots copy the counts without stopping the recorders; an interval snapshot holds only what was recorded since
+ * the previous interval snapshot.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class LatencyHistogram
+{
+    /**
+     * Default sub-bucket bits.
+     */
+    public static final int DEFAULT_PRECISION = 7;
+
+    /**
+     * Default highest trackable value: one minute in nanoseconds.
+     */
+    public static final long DEFAULT_HIGHEST = 60_000_000_000L;
+
+    private final int precision; // bits of sub-bucket index
+    private final long highest;
+    private final AtomicLongArray counts;
+    private final AtomicLong total = new AtomicLong();
+
+    private long[] lastInterval; // counts at the previous interval snapshot; guarded by this
+
+    /**
+     * Constructor with the default precision and highest trackable value.
+     */
+    public LatencyHistogram()
+    {
+        this(DEFAULT_PRECISION, DEFAULT_HIGHEST);
+    }
+
+    /**
+     * Constructor.
+     * @param precision bits of sub-bucket index, 1 to 16.
+     * @param highest highest trackable value; larger values are counted in the top bucket.
+     * @throws IllegalArgumentException if precision is out of range or highest is less than 1.
+     */
+    public LatencyHistogram(int precision, long highest)
+    {
+        if (precision < 1 || precision > 16)
+            throw new IllegalArgumentException("Precision must be 1 to 16 bits.");
+        if (highest < 1)
+            throw new IllegalArgumentException("Highest trackable value must be positive.");
+        this.precision = precision;
+        this.highest = highest;
+        counts = new AtomicLongArray(bucketOf(highest, precision) + 1);
+        lastInterval = new long[counts.length()];
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Buckets
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Bucket of a non-negative value.
+     */
+    static int bucketOf(long value, int precision)
+    {
+        if (value < (1L << precision))
+            return (int) value; // exact
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int shift = msb - precision;
+        return ((shift + 1) << precision) + (int) ((value >>> shift) - (1L << precision));
+    }
+
+    /**
+     * Lowest value counted in a bucket.
+     */
+    static long lowestOf(int bucket, int precision)
+    {
+        int range = bucket >>> precision;
+        if (range == 0)
+            return bucket; // exact
+        long sub = (bucket & ((1 << precision) - 1)) + (1L << precision);
+        return sub << (range - 1);
+    }
+
+    /**
+     * Highest value counted in a bucket.
+     */
+    static long highestOf(int bucket, int precision)
+    {
+        int range = bucket >>> precision;
+        return lowestOf(bucket, precision) + ((range == 0) ? 0 : (1L << (range - 1)) - 1);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Recording
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Record one value.
+     * @param value value, such as a latency in nanoseconds; negative values are counted as 0.
+     */
+    public void record(long value)
+    {
+        counts.incrementAndGet(bucketOf(Math.max(0, Math.min(value, highest)), precision));
+        total.incrementAndGet();
+    }
+
+    /**
+     * Get the number of values recorded since the histogram was made.
+     * @return number of values.
+     */
+    public long getCount()
+    {
+        return total.get();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Snapshots
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Take a snapshot of every value recorded since the histogram was made.
+     * @return Snapshot.
+     */
+    public Snapshot snapshot()
+    {
+        long[] copy = new long[counts.length()];
+        for (int i = 0; i < copy.length; i++)
+            copy[i] = counts.get(i);
+        return new Snapshot(copy, precision);
+    }
+
+    /**
+     * Take a snapshot of the values recorded since the previous interval snapshot (or since the histogram was made).
+     * @return Snapshot.
+     */
+    public synchronized Snapshot intervalSnapshot()
+    {
+        long[] copy = new long[counts.length()];
+        long[] interval = new long[copy.length];
+        for (int i = 0; i < copy.length; i++)
+        {
+            copy[i] = counts.get(i);
+            interval[i] = copy[i] - lastInterval[i];
+        }
+        lastInterval = copy;
+        return new Snapshot(interval, precision);
+    }
+
+    /**
+     * Immutable copy of the counts of a histogram.
+     */
+    public static class Snapshot
+    {
+        private final long[] counts;
+        private final int precision;
+        private final long count;
+
+        private Snapshot(long[] counts, int precision)
+        {
+            this.counts = counts;
+            this.precision = precision;
+            long sum = 0;
+            for (long c : counts)
+                sum += c;
+            this.count = sum;
+        }
+
+        /**
+         * @return number of values in the snapshot.
+         */
+        public long getCount()
+        {
+            return count;
+        }
+
+        /**
+         * Get the value at a percentile: the highest value of the bucket that holds it.
+         * @param percentile percentile, 0 to 100.
+         * @return value; 0 if the snapshot is empty.
+         * @throws IllegalArgumentException if percentile is out of range.
+         */
+        public long valueAtPercentile(double percentile)
+        {
+            if (percentile < 0 || percentile > 100)
+                throw new IllegalArgumentException("Percentile must be 0 to 100.");
+            if (count == 0)
+                return 0;
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count)); // values at or below
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++)
+            {
+                seen += counts[i];
+                if (seen >= rank)
+                    return highestOf(i, precision);
+            }
+            return highestOf(counts.length - 1, precision);
+        }
+
+        /**
+         * @return highest value recorded, to the precision of its bucket; 0 if the snapshot is empty.
+         */
+        public long getMax()
+        {
+            for (int i = counts.length - 1; i > -1; i--)
+                if (counts[i] != 0)
+                    return highestOf(i, precision);
+            return 0;
+        }
+
+        /**
+         * @return mean of the values, taking each at the middle of its bucket; 0 if the snapshot is empty.
+         */
+        public double getMean()
+        {
+            if (count == 0)
+                return 0;
+            double sum = 0;
+            for (int i = 0; i < counts.length; i++)
+                if (counts[i] != 0)
+                    sum += counts[i] * ((lowestOf(i, precision) + highestOf(i, precision)) / 2.0);
+            return sum / count;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Latency of encryption requests, kept in one <code>LatencyHistogram</code> per machine version and message-size
+ * bucket, so a slow path (a cold build, a long message, a GC pause) shows up in the tail of its own series instead of
+ * being averaged away.  Reports give p50, p99 and p99.9 of each series, as plain text or as Prometheus summaries.
+ * <br><br>
+ * Size buckets are by number of letters: up to 16, 64, 256, 1024, 4096, and larger.  Histograms are made on first use
+ * and recording is lock-free, so one recorder may be shared by every worker of a service.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class LatencyRecorder
+{
+    private static final int[] SIZE_LIMITS = {16, 64, 256, 1024, 4096}; // highest letters in each bucket
+    private static final String LARGER = "+Inf";
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Record the latency of one request.
+     * @param version machine version of the request.
+     * @param letters length of the message.
+     * @param nanos latency in nanoseconds.
+     */
+    public void record(String version, int letters, long nanos)
+    {
+        histogram(version, letters).record(nanos);
+    }
+
+    /**
+     * Get the histogram of a version and message size, making it if needed.
+     * @param version machine version.
+     * @param letters length of message.
+     * @return LatencyHistogram of the series.
+     */
+    public LatencyHistogram histogram(String version, int letters)
+    {
+        return histograms.computeIfAbsent(version + '\0' + sizeBucket(letters), k -> new LatencyHistogram());
+    }
+
+    /**
+     * Get the label of the size bucket of a message.
+     * @param letters length of message.
+     * @return highest length in bucket, or "+Inf".
+     */
+    public static String sizeBucket(int letters)
+    {
+        for (int limit : SIZE_LIMITS)
+            if (letters <= limit)
+                return Integer.toString(limit);
+        return LARGER;
+    }
+
+    /**
+     * Percentiles of one series.
+     */
+    public static class Percentiles
+    {
+        private final String version;
+        private final String size;
+        private final long count;
+        private final long[] values; // nanoseconds, at each of QUANTILES
+
+        private Percentiles(String version, String size, LatencyHistogram.Snapshot snapshot)
+        {
+            this.version = version;
+            this.size = size;
+            this.count = snapshot.getCount();
+            values = new long[QUANTILES.length];
+            for (int q = 0; q < QUANTILES.length; q++)
+                values[q] = snapshot.valueAtPercentile(QUANTILES[q] * 100);
+        }
+
+        public String getVersion()
+        {
+            return version;
+        }
+
+        /**
+         * @return label of size bucket.
+         */
+        public String getSize()
+        {
+            return size;
+        }
+
+        public long getCount()
+        {
+            return count;
+        }
+
+        public long getP50()
+        {
+            return values[0];
+        }
+
+        public long getP99()
+        {
+            return values[1];
+        }
+
+        public long getP999()
+        {
+            return values[2];
+        }
+    }
+
+    /**
+     * Get the percentiles of every series, ordered by version and size.
+     * @param interval true for values since the previous interval report; false for values since the start.
+     * @return List of Percentiles, in nanoseconds.
+     */
+    public List<Percentiles> report(boolean interval)
+    {
+        List<Map.Entry<String, LatencyHistogram>> series = new ArrayList<>(histograms.entrySet());
+        series.sort((a, b) -> compareSeries(a.getKey(), b.getKey()));
+
+        List<Percentiles> report = new ArrayList<>(series.size());
+        for (Map.Entry<String, LatencyHistogram> entry : series)
+        {
+            String[] name = entry.getKey().split("\0");
+            report.add(new Percentiles(name[0], name[1], interval ? entry.getValue().intervalSnapshot() :
+                    entry.getValue().snapshot()));
+        }
+        return report;
+    }
+
+    /**
+     * Order series by version, then by size bucket.
+     */
+    private static int compareSeries(String a, String b)
+    {
+        String[] x = a.split("\0"), y = b.split("\0");
+        int byVersion = x[0].compareTo(y[0]);
+        return (byVersion != 0) ? byVersion : Long.compare(sizeOrder(x[1]), sizeOrder(y[1]));
+    }
+
+    private static long sizeOrder(String bucket)
+    {
+        return bucket.equals(LARGER) ? Long.MAX_VALUE : Long.parseLong(bucket);
+    }
+
+    /**
+     * Write the percentiles of every series as a table, in microseconds.
+     * @param interval true for values since the previous interval report; false for values since the start.
+     * @return String of table.
+     */
+    public String toText(boolean interval)
+    {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "%-16s %6s %10s %10s %10s %10s\n",
+                "version", "size", "count", "p50 us", "p99 us", "p999 us"));
+        for (Percentiles p : report(interval))
+            sb.append(String.format(Locale.ROOT, "%-16s %6s %10d %10.1f %10.1f %10.1f\n", p.version, p.size, p.count,
+                    p.getP50() / 1e3, p.getP99() / 1e3, p.getP999() / 1e3));
+        return sb.toString();
+    }
+
+    /**
+     * Write the percentiles of every series as Prometheus summaries, in seconds.
+     * @param interval true for values since the previous interval report; false for values since the start.
+     * @return String of summaries.
+     */
+    public String toPrometheus(boolean interval)
+    {
+        String metric = "enigma_request_latency_seconds";
+        StringBuilder sb = new StringBuilder();
+        sb.append("# HELP ").append(metric).append(" Latency of encryption requests.\n");
+        sb.append("# TYPE ").append(metric).append(" summary\n");
+        for (Percentiles p : report(interval))
+        {
+            String labels = "version=\"" + p.version + "\",size=\"" + p.size + "\"";
+            for (int q = 0; q < QUANTILES.length; q++)
+                sb.append(String.format(Locale.ROOT, "%s{%s,quantile=\"%s\"} %.9f\n", metric, labels,
+                        QUANTILES[q], p.values[q] / 1e9));
+            sb.append(metric).append("_count{").append(labels).append("} ").append(p.count).append('\n');
+        }
+        return sb.toString();
+    }
+}
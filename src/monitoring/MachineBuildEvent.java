@@ -0,0 +1,33 @@
+package monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for the construction of a machine, or of the tables of a machine.
+ * <br>
+ * Like all events in this package, it costs nothing unless a recording with the event enabled is running, for example
+ * after <code>jcmd &lt;pid&gt; JFR.start</code>.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+@Name("enigma.MachineBuild")
+@Label("Machine Build")
+@Category({"Enigma", "Machine"})
+@Description("Construction of a machine from its components")
+@StackTrace(false)
+public class MachineBuildEvent extends jdk.jfr.Event
+{
+    @Label("Built By")
+    @Description("Class that built the machine")
+    public String builtBy;
+
+    @Label("Wheel Order")
+    @Description("Rotor names, leftmost first")
+    public String wheelOrder;
+}
@@ -0,0 +1,70 @@
+package monitoring;
+
+/**
+ * Service provider interface for counting what the machines do: key presses, rotor steps, turnovers, double steps,
+ * plugboard changes and letters processed.  Machines report to <code>NOOP</code> until given other metrics, so an
+ * unmonitored machine pays for no more than a call to an empty method.
+ * <br>
+ * Implementations must be thread-safe, as one instance may be shared by machines on many threads.  Rotor slots are
+ * numbered as in the machines, leftmost first.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public interface MachineMetrics
+{
+    /**
+     * Metrics that record nothing.
+     */
+    MachineMetrics NOOP = new MachineMetrics()
+    {
+    };
+
+    /**
+     * Keys were depressed.
+     * @param count number of keys.
+     */
+    default void keysPressed(long count)
+    {
+    }
+
+    /**
+     * A rotor stepped one position.
+     * @param slot slot of rotor.
+     */
+    default void rotorStepped(int slot)
+    {
+    }
+
+    /**
+     * A rotor at a turnover position carried a step to the rotor to its left.
+     * @param slot slot of the rotor whose notch engaged the pawl.
+     */
+    default void turnover(int slot)
+    {
+    }
+
+    /**
+     * A rotor stepped on its own notch, without a carry from the rotor to its right (the double step).
+     * @param slot slot of rotor.
+     */
+    default void doubleStep(int slot)
+    {
+    }
+
+    /**
+     * A plugboard wire was inserted or removed, or the plugboard was cleared.
+     */
+    default void plugboardChanged()
+    {
+    }
+
+    /**
+     * A message (or other run of letters) was typed.
+     * @param letters number of letters.
+     */
+    default void messageProcessed(long letters)
+    {
+    }
+}
@@ -0,0 +1,120 @@
+package monitoring;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Writes the counts of one or more <code>CounterMetrics</code> at a fixed period, on a single daemon thread, so a long
+ * run (an archive, a key search) can be watched while it works.  Each dump is handed whole to a sink, such as
+ * <code>System.err::print</code> or a method that replaces a file scraped by Prometheus.  Any other report can be
+ * dumped the same way by giving a source; e.g. <code>() -&gt; latency.toText(true)</code> dumps the latency
+ * percentiles of each interval.
+ * <br>
+ * Closing the reporter stops the thread and writes a final dump.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public class MetricsReporter implements Closeable
+{
+    /**
+     * Output formats.
+     */
+    public enum Format
+    {
+        /** Plain text; see <code>CounterMetrics.toText</code>. */
+        TEXT,
+        /** Prometheus text exposition format; see <code>CounterMetrics.toPrometheus</code>. */
+        PROMETHEUS
+    }
+
+    private final Supplier<String> source;
+    private final Consumer<String> sink;
+    private final ScheduledExecutorService scheduler;
+    private boolean closed;
+
+    /**
+     * Constructor; starts reporting.
+     * @param metrics metrics to dump, in order.
+     * @param format output format.
+     * @param sink receiver of each dump.
+     * @param period time between dumps.
+     * @param unit unit of period.
+     * @throws IllegalArgumentException if period is not positive.
+     */
+    public MetricsReporter(List<CounterMetrics> metrics, Format format, Consumer<String> sink, long period,
+                           TimeUnit unit)
+    {
+        this(dumpOf(metrics, format), sink, period, unit);
+    }
+
+    /**
+     * Constructor; starts reporting.
+     * @param source maker of each dump; called on the reporter thread.
+     * @param sink receiver of each dump.
+     * @param period time between dumps.
+     * @param unit unit of period.
+     * @throws IllegalArgumentException if period is not positive.
+     */
+    public MetricsReporter(Supplier<String> source, Consumer<String> sink, long period, TimeUnit unit)
+    {
+        if (period <= 0)
+            throw new IllegalArgumentException("Period must be positive.");
+        this.source = source;
+        this.sink = sink;
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-reporter");
+            thread.setDaemon(true); // never keeps the program alive
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::report, period, period, unit);
+    }
+
+    /**
+     * Make the source of a dump of the counts of metrics.
+     */
+    private static Supplier<String> dumpOf(List<CounterMetrics> metrics, Format format)
+    {
+        List<CounterMetrics> copy = Collections.unmodifiableList(new ArrayList<>(metrics));
+        return () -> {
+            StringBuilder sb = new StringBuilder();
+            for (CounterMetrics m : copy)
+                sb.append((format == Format.PROMETHEUS) ? m.toPrometheus() : m.toText());
+            return sb.toString();
+        };
+    }
+
+    /**
+     * Hand a dump to the sink now.
+     */
+    public synchronized void report()
+    {
+        if (!closed)
+            sink.accept(source.get());
+    }
+
+    /**
+     * Stop reporting, after a final dump.
+     */
+    @Override
+    public void close()
+    {
+        scheduler.shutdownNow();
+        synchronized (this)
+        {
+            if (closed)
+                return;
+            sink.accept(source.get());
+            closed = true;
+        }
+    }
+}
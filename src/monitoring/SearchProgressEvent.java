@@ -0,0 +1,55 @@
+package monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for the progress of a key search.  Searches emit one event per unit of work (for example, per
+ * wheel order); the duration of the event is the time spent on that unit.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+@Name("enigma.SearchProgress")
+@Label("Search Progress")
+@Category({"Enigma", "Search"})
+@Description("Progress of a key search")
+@StackTrace(false)
+public class SearchProgressEvent extends jdk.jfr.Event
+{
+    @Label("Search")
+    @Description("Name of the search")
+    public String search;
+
+    @Label("Unit")
+    @Description("Unit of work reported, such as a wheel order")
+    public String unit;
+
+    @Label("Keys Tested")
+    @Description("Keys tested in this unit of work")
+    public long keysTested;
+
+    @Label("Keys per Second")
+    public double keysPerSecond;
+
+    @Label("Best Score")
+    @Description("Best score found so far; NaN if the search does not score keys")
+    public double bestScore;
+
+    /**
+     * Fill in the rate from the keys tested and the duration of the event, and commit it.  Call after
+     * <code>end()</code> or instead of it; does nothing unless the event is being recorded.
+     * @param elapsedNanos time spent on the unit of work.
+     */
+    public void commitWithRate(long elapsedNanos)
+    {
+        if (!shouldCommit())
+            return;
+        keysPerSecond = (elapsedNanos <= 0) ? 0 : keysTested * 1e9 / elapsedNanos;
+        commit();
+    }
+}
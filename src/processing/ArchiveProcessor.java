@@ -0,0 +1,359 @@
+package processing;
+
+import engines.MachineCache;
+import monitoring.LatencyRecorder;
+import monitoring.MetricsReporter;
+import resources.AlphabetConverter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decrypts a whole message archive (see <code>MessageArchive</code>) in parallel.  For each message, the indicator is
+ * deciphered at the ground setting to give the message key, and the body is deciphered at the message key.
+ * <br><br>
+ * The archive is read by the calling thread, messages are deciphered by a pool of workers, and a single writer thread
+ * writes the results in archive order through a <code>ReorderBuffer</code>.  At most <code>window</code> messages are
+ * in flight at once, so memory is fixed whatever the size of the archive.  Daily keys are shared through a
+ * <code>MachineCache</code>, so each key is only prepared once however many messages use it.
+ * <br><br>
+ * Output is one line per message: <code>&lt;id&gt; &lt;message key&gt; &lt;plaintext&gt;</code>, or
+ * <code>&lt;id&gt; ERROR &lt;reason&gt;</code> if the message could not be deciphered.
+ * <br><br>
+ * If given a <code>LatencyRecorder</code>, the time to decipher each message (indicator and body) is recorded by
+ * machine version and length of body.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+public class ArchiveProcessor
+{
+    private final MachineCache cache;
+    private final int threads;
+    private final int window;
+    private volatile LatencyRecorder latency; // null if not recording
+
+    /**
+     * Result of one message.
+     */
+    public static class Result
+    {
+        private static final Result END = new Result(-1, null, null, null, null);
+
+        private final long sequence;
+        private final String id;
+        private final String messageKey;
+        private final String plaintext;
+        private final String error;
+
+        private Result(long sequence, String id, String messageKey, String plaintext, String error)
+        {
+            this.sequence = sequence;
+            this.id = id;
+            this.messageKey = messageKey;
+            this.plaintext = plaintext;
+            this.error = error;
+        }
+
+        public long getSequence()
+        {
+            return sequence;
+        }
+
+        public String getId()
+        {
+            return id;
+        }
+
+        /**
+         * @return message key; null if the message failed.
+         */
+        public String getMessageKey()
+        {
+            return messageKey;
+        }
+
+        /**
+         * @return plaintext; null if the message failed.
+         */
+        public String getPlaintext()
+        {
+            return plaintext;
+        }
+
+        /**
+         * @return reason the message failed; null if it did not.
+         */
+        public String getError()
+        {
+            return error;
+        }
+
+        @Override
+        public String toString()
+        {
+            return (error == null) ? id + " " + messageKey + " " + plaintext : id + " ERROR " + error;
+        }
+    }
+
+    /**
+     * Totals of a run.
+     */
+    public static class Report
+    {
+        private final long messages;
+        private final long failed;
+        private final long letters;
+        private final long nanos;
+
+        private Report(long messages, long failed, long letters, long nanos)
+        {
+            this.messages = messages;
+            this.failed = failed;
+            this.letters = letters;
+            this.nanos = nanos;
+        }
+
+        public long getMessages()
+        {
+            return messages;
+        }
+
+        public long getFailed()
+        {
+            return failed;
+        }
+
+        /**
+         * @return number of body letters deciphered.
+         */
+        public long getLetters()
+        {
+            return letters;
+        }
+
+        public long getNanos()
+        {
+            return nanos;
+        }
+
+        public double messagesPerSecond()
+        {
+            return (nanos == 0) ? 0 : messages * 1e9 / nanos;
+        }
+
+        public double lettersPerSecond()
+        {
+            return (nanos == 0) ? 0 : letters * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%d messages (%d failed), %d letters in %.3f s: %.0f messages/s, %.0f letters/s",
+                    messages, failed, letters, nanos / 1e9, messagesPerSecond(), lettersPerSecond());
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param cache cache of daily keys.
+     * @param threads number of worker threads.
+     * @param window maximum number of messages in flight.
+     * @throws IllegalArgumentException if threads or window is less than 1.
+     */
+    public ArchiveProcessor(MachineCache cache, int threads, int window)
+    {
+        if (threads < 1 || window < 1)
+            throw new IllegalArgumentException("Threads and window must be at least 1.");
+        this.cache = cache;
+        this.threads = threads;
+        this.window = window;
+    }
+
+    /**
+     * Decipher a single message.
+     * @param message message of archive.
+     * @return Result; never throws for a bad message.
+     */
+    public Result decipher(MessageArchive.Message message)
+    {
+        long start = System.nanoTime();
+        Result result;
+        try
+        {
+            String messageKey = cache.cursor(message.getKey(), message.getGroundSetting()).type(message.getIndicator());
+            String plaintext = cache.cursor(message.getKey(), messageKey).type(message.getBody());
+            result = new Result(message.getSequence(), message.getId(), messageKey, plaintext, null);
+        }
+        catch (RuntimeException e) // bad settings or letters in this message only
+        {
+            result = new Result(message.getSequence(), message.getId(), null, null, e.getMessage());
+        }
+
+        LatencyRecorder recorder = latency;
+        if (recorder != null)
+            recorder.record(message.getKey().getVersion().name(), message.getBody().length(),
+                    System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Record the latency of every message deciphered from now on.
+     * @param latency LatencyRecorder; null to stop recording.
+     */
+    public void setLatencyRecorder(LatencyRecorder latency)
+    {
+        this.latency = latency;
+    }
+
+    /**
+     * Decipher every message of an archive, writing the results in archive order.
+     * @param archive archive to read; closed when done.
+     * @param output destination of results; flushed, but not closed.
+     * @return Report of the run.
+     * @throws IOException if the archive cannot be read or the output cannot be written.
+     * @throws exceptions.BadKeyException if the archive holds a bad key line or message header.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Report process(MessageArchive archive, Writer output) throws IOException, InterruptedException
+    {
+        long start = System.nanoTime();
+        ReorderBuffer<Result> buffer = new ReorderBuffer<>(window);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+
+        Future<long[]> written = writer.submit(() -> {
+            try
+            {
+                long messages = 0, failed = 0, letters = 0;
+                Result result;
+                while ((result = buffer.take()) != Result.END)
+                {
+                    output.write(result.toString());
+                    output.write('\n');
+                    messages++;
+                    if (result.error != null)
+                        failed++;
+                    else
+                        letters += result.plaintext.length();
+                }
+                output.flush();
+                return new long[]{messages, failed, letters};
+            }
+            catch (Throwable t)
+            {
+                buffer.abort(t); // stop the reader instead of leaving it waiting
+                throw t;
+            }
+        });
+
+        try (MessageArchive messages = archive)
+        {
+            MessageArchive.Message message;
+            while (true)
+            {
+                buffer.reserve(messages.getMessagesRead());
+                if ((message = messages.next()) == null)
+                    break;
+
+                MessageArchive.Message m = message;
+                workers.execute(() -> buffer.put(m.getSequence(), decipher(m)));
+            }
+            buffer.put(messages.getMessagesRead(), Result.END);
+        }
+        catch (Throwable t) // includes being interrupted while waiting for room
+        {
+            boolean writerFailed = buffer.isAborted(); // reader was stopped by a failure of the writer
+            buffer.abort(t); // stop the writer instead of leaving it waiting
+            workers.shutdownNow();
+            if (writerFailed)
+                totals(written); // throws the failure of the writer, such as a full disk
+            throw t;
+        }
+        finally
+        {
+            workers.shutdown();
+            writer.shutdown();
+        }
+
+        try
+        {
+            long[] totals = totals(written);
+            return new Report(totals[0], totals[1], totals[2], System.nanoTime() - start);
+        }
+        catch (InterruptedException e)
+        {
+            buffer.abort(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Wait for the writer.
+     * @return messages, failed messages and letters written.
+     * @throws IOException if the output could not be written.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private static long[] totals(Future<long[]> written) throws IOException, InterruptedException
+    {
+        try
+        {
+            return written.get();
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            throw new IllegalStateException("Writer failed.", cause);
+        }
+    }
+
+    /**
+     * Decipher an archive file.
+     * @param args archive file, output file, and optionally the number of worker threads (default: one per processor)
+     *             and the window (default: 1024).  Latency percentiles are written to standard error every 10 seconds
+     *             and at the end.
+     * @throws IOException if a file cannot be read or written.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    @SuppressWarnings("try") // reporter runs on its own thread; it is only opened to be closed
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        if (args.length < 2)
+        {
+            System.err.println("Usage: ArchiveProcessor <archive> <output> [threads] [window]");
+            return;
+        }
+        int threads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int window = (args.length > 3) ? Integer.parseInt(args[3]) : 1024;
+
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+
+        ArchiveProcessor processor = new ArchiveProcessor(new MachineCache(256), threads, window);
+        LatencyRecorder latency = new LatencyRecorder();
+        processor.setLatencyRecorder(latency);
+        try (Reader in = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+             BufferedWriter out = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8);
+             MetricsReporter reporter = new MetricsReporter(() -> latency.toText(true), System.err::print, 10,
+                     TimeUnit.SECONDS))
+        {
+            System.err.println(processor.process(new MessageArchive(in), out));
+        }
+        System.err.print(latency.toText(false));
+    }
+}
@@ -0,0 +1,196 @@
+package processing;
+
+import exceptions.BadKeyException;
+import machines.MachineKey;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming reader of a message archive.  Messages are read one at a time, so an archive of any size can be processed
+ * in fixed memory.
+ * <br><br>
+ * Archive format (one item per line; blank lines and lines starting with # are ignored between messages):
+ * <pre>
+ * KEY &lt;name&gt; &lt;version&gt; &lt;reflector&gt; &lt;rotors&gt; &lt;rings&gt; [plugboard pairs...]
+ *     daily key, e.g. KEY 1941-09-07 ENIGMA_1 B II-IV-V 02-21-12 AV BS CG DL FU HZ IN KM OW RX
+ * MSG &lt;id&gt; &lt;key name&gt; &lt;ground setting&gt; &lt;indicator&gt;
+ *     message header, e.g. MSG 1 1941-09-07 WXC KCH; the body follows in groups, up to a blank line or end of file
+ * </pre>
+ * The indicator is the message key enciphered at the ground setting.  A key must be defined before the messages that
+ * use it; a later KEY line with the same name replaces it.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+public class MessageArchive implements Closeable
+{
+    private final BufferedReader reader;
+    private final Map<String, MachineKey> keys = new HashMap<>();
+    private long sequence; // number of messages read
+    private int lineNumber;
+
+    /**
+     * A message read from the archive.
+     */
+    public static class Message
+    {
+        private final long sequence;
+        private final String id;
+        private final MachineKey key;
+        private final String groundSetting;
+        private final String indicator;
+        private final String body;
+
+        Message(long sequence, String id, MachineKey key, String groundSetting, String indicator, String body)
+        {
+            this.sequence = sequence;
+            this.id = id;
+            this.key = key;
+            this.groundSetting = groundSetting;
+            this.indicator = indicator;
+            this.body = body;
+        }
+
+        /**
+         * @return position of message in archive, starting at 0.
+         */
+        public long getSequence()
+        {
+            return sequence;
+        }
+
+        public String getId()
+        {
+            return id;
+        }
+
+        public MachineKey getKey()
+        {
+            return key;
+        }
+
+        public String getGroundSetting()
+        {
+            return groundSetting;
+        }
+
+        public String getIndicator()
+        {
+            return indicator;
+        }
+
+        /**
+         * @return ciphertext with the group spaces removed.
+         */
+        public String getBody()
+        {
+            return body;
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param reader archive text.
+     */
+    public MessageArchive(Reader reader)
+    {
+        this.reader = (reader instanceof BufferedReader) ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Read the next message.
+     * @return Message; null at end of archive.
+     * @throws IOException if the archive cannot be read.
+     * @throws BadKeyException if a key line or message header is not valid.
+     */
+    public Message next() throws IOException, BadKeyException
+    {
+        String line;
+        while ((line = readLine()) != null)
+        {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+
+            String[] fields = line.split("\\s+");
+            switch (fields[0])
+            {
+                case "KEY":
+                    readKey(fields);
+                    break;
+                case "MSG":
+                    return readMessage(fields);
+                default:
+                    throw new BadKeyException("Line " + lineNumber + ": expected KEY or MSG.");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of messages read so far.
+     * @return number of messages.
+     */
+    public long getMessagesRead()
+    {
+        return sequence;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        reader.close();
+    }
+
+    private String readLine() throws IOException
+    {
+        String line = reader.readLine();
+        if (line != null)
+            lineNumber++;
+        return line;
+    }
+
+    private void readKey(String[] fields)
+    {
+        if (fields.length < 6)
+            throw new BadKeyException("Line " + lineNumber + ": KEY needs name, version, reflector, rotors and rings.");
+
+        MachineKey key;
+        try
+        {
+            key = MachineKey.parse(String.join(" ", Arrays.copyOfRange(fields, 2, fields.length)));
+            key.validate();
+        }
+        catch (BadKeyException e)
+        {
+            throw new BadKeyException("Line " + lineNumber + ": " + e.getMessage(), e);
+        }
+        keys.put(fields[1], key);
+    }
+
+    private Message readMessage(String[] fields) throws IOException
+    {
+        if (fields.length != 5)
+            throw new BadKeyException("Line " + lineNumber + ": MSG needs id, key name, ground setting and indicator.");
+        MachineKey key = keys.get(fields[2]);
+        if (key == null)
+            throw new BadKeyException("Line " + lineNumber + ": key " + fields[2] + " is not defined.");
+
+        StringBuilder body = new StringBuilder();
+        String line;
+        while ((line = readLine()) != null && !line.trim().isEmpty())
+            for (int i = 0; i < line.length(); i++)
+                if (!Character.isWhitespace(line.charAt(i)))
+                    body.append(line.charAt(i));
+
+        return new Message(sequence++, fields[1], key, fields[3], fields[4], body.toString());
+    }
+}
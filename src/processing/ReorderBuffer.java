@@ -0,0 +1,127 @@
+package processing;
+
+/**
+ * Bounded buffer that hands items out in sequence order, whatever order they were finished in.  Items are numbered
+ * from 0.  A producer reserves a sequence number before starting the work, which blocks while the item is more than
+ * <code>capacity</code> places ahead of the next item to be taken; this caps the number of items in flight, and so the
+ * memory used, however far the slowest item falls behind.
+ * <br><br>
+ * If one side fails, <code>abort</code> wakes every waiting thread, so the other side does not wait forever.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+public class ReorderBuffer<T>
+{
+    private final Object[] slots;
+    private long next; // sequence number of the next item to take
+    private Throwable failure; // set by abort
+
+    /**
+     * Constructor.
+     * @param capacity maximum number of items in flight.
+     * @throws IllegalArgumentException if capacity is less than 1.
+     */
+    public ReorderBuffer(int capacity)
+    {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be at least 1.");
+        slots = new Object[capacity];
+    }
+
+    /**
+     * Wait until an item may be started.
+     * @param sequence sequence number of item.
+     * @throws InterruptedException if interrupted while waiting.
+     * @throws IllegalStateException if the buffer was aborted.
+     */
+    public synchronized void reserve(long sequence) throws InterruptedException
+    {
+        while (sequence >= next + slots.length)
+        {
+            checkFailure();
+            wait();
+        }
+        checkFailure();
+    }
+
+    /**
+     * Add a finished item.  The item must have been reserved.
+     * @param sequence sequence number of item.
+     * @param item finished item; not null.
+     * @throws IllegalArgumentException if the sequence number is not in flight or is already filled.
+     */
+    public synchronized void put(long sequence, T item)
+    {
+        if (item == null)
+            throw new IllegalArgumentException("Item may not be null.");
+        if (sequence < next || sequence >= next + slots.length)
+            throw new IllegalArgumentException("Sequence " + sequence + " is not in flight.");
+
+        int slot = (int) (sequence % slots.length);
+        if (slots[slot] != null)
+            throw new IllegalArgumentException("Sequence " + sequence + " is already filled.");
+        slots[slot] = item;
+        notifyAll();
+    }
+
+    /**
+     * Take the next item in sequence order, waiting until it is finished.
+     * @return item.
+     * @throws InterruptedException if interrupted while waiting.
+     * @throws IllegalStateException if the buffer was aborted.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized T take() throws InterruptedException
+    {
+        int slot = (int) (next % slots.length);
+        while (slots[slot] == null)
+        {
+            checkFailure();
+            wait();
+        }
+
+        T item = (T) slots[slot];
+        slots[slot] = null;
+        next++;
+        notifyAll(); // room for another item
+        return item;
+    }
+
+    /**
+     * Stop the buffer; every waiting and later call to <code>reserve</code> or <code>take</code> throws.
+     * @param cause reason for stopping.
+     */
+    public synchronized void abort(Throwable cause)
+    {
+        if (failure == null)
+            failure = cause;
+        notifyAll();
+    }
+
+    /**
+     * Whether the buffer has been stopped.
+     * @return If <code>abort</code> has been called.
+     */
+    public synchronized boolean isAborted()
+    {
+        return failure != null;
+    }
+
+    /**
+     * Get the number of items taken.
+     * @return sequence number of the next item to take.
+     */
+    public synchronized long getTaken()
+    {
+        return next;
+    }
+
+    private void checkFailure()
+    {
+        if (failure != null)
+            throw new IllegalStateException("Reorder buffer aborted.", failure);
+    }
+}
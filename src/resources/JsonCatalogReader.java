@@ -0,0 +1,340 @@
+package resources;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Pull reader for JSON text.  Each call to <code>next</code> reads one token from the stream; no document tree is
+ * built.  The text of the last name, string or number is held in a reusable buffer, and can be compared or converted
+ * without creating a String.
+ * <br>
+ * Only as much checking is done as is needed to read a well-formed catalog; the order of commas and colons is not
+ * validated.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public final class JsonCatalogReader implements Closeable
+{
+    /**
+     * Kinds of JSON token.
+     */
+    public enum Token
+    {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, TRUE, FALSE, NULL, END_DOCUMENT
+    }
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private int line = 1;
+
+    private char[] text = new char[64]; // text of last name, string or number
+    private int textLength;
+
+    private boolean[] inObject = new boolean[16]; // [depth]; if container is an object rather than an array
+    private int depth;
+    private boolean expectName;
+
+    /**
+     * Constructor.
+     * @param reader JSON text; buffered internally.
+     */
+    public JsonCatalogReader(Reader reader)
+    {
+        this.reader = reader;
+    }
+
+    /**
+     * Read the next token.
+     * @return Token; END_DOCUMENT once the stream is exhausted.
+     * @throws IOException if the stream cannot be read or does not hold JSON.
+     */
+    public Token next() throws IOException
+    {
+        while (true)
+        {
+            int c = read();
+            switch (c)
+            {
+                case -1:
+                    return Token.END_DOCUMENT;
+                case ' ': case '\t': case '\r':
+                    continue;
+                case '\n':
+                    line++;
+                    continue;
+                case ',':
+                    expectName = depth > 0 && inObject[depth - 1];
+                    continue;
+                case ':':
+                    expectName = false;
+                    continue;
+                case '{':
+                    push(true);
+                    expectName = true;
+                    return Token.BEGIN_OBJECT;
+                case '[':
+                    push(false);
+                    expectName = false;
+                    return Token.BEGIN_ARRAY;
+                case '}':
+                case ']':
+                    if (depth == 0 || inObject[depth - 1] != (c == '}'))
+                        throw error("Unmatched '" + (char) c + "'");
+                    depth--;
+                    expectName = false;
+                    return (c == '}') ? Token.END_OBJECT : Token.END_ARRAY;
+                case '"':
+                    readString();
+                    if (expectName)
+                    {
+                        expectName = false;
+                        return Token.NAME;
+                    }
+                    return Token.STRING;
+                case 't':
+                    literal("rue");
+                    return Token.TRUE;
+                case 'f':
+                    literal("alse");
+                    return Token.FALSE;
+                case 'n':
+                    literal("ull");
+                    return Token.NULL;
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9'))
+                    {
+                        readNumber((char) c);
+                        return Token.NUMBER;
+                    }
+                    throw error("Unexpected character '" + (char) c + "'");
+            }
+        }
+    }
+
+    /**
+     * Skip the value that begins with a token just read, including all of its contents if it is an object or array.
+     * @param token token just read.
+     * @throws IOException if the stream cannot be read or does not hold JSON.
+     */
+    public void skipValue(Token token) throws IOException
+    {
+        if (token != Token.BEGIN_OBJECT && token != Token.BEGIN_ARRAY)
+            return;
+
+        int target = depth - 1;
+        while (depth > target)
+            if (next() == Token.END_DOCUMENT)
+                throw error("Unexpected end of document");
+    }
+
+    /**
+     * Get the text of the last name, string or number as a String.
+     * @return String.
+     */
+    public String text()
+    {
+        return new String(text, 0, textLength);
+    }
+
+    /**
+     * Compare the text of the last name, string or number with a String, without creating a String.
+     * @param s String to compare with.
+     * @return If text equals s.
+     */
+    public boolean textEquals(String s)
+    {
+        if (s.length() != textLength)
+            return false;
+        for (int i = 0; i < textLength; i++)
+            if (text[i] != s.charAt(i))
+                return false;
+        return true;
+    }
+
+    /**
+     * Get the length of the text of the last name, string or number.
+     * @return number of characters.
+     */
+    public int textLength()
+    {
+        return textLength;
+    }
+
+    /**
+     * Get a character of the text of the last name, string or number.
+     * @param index index of character.
+     * @return char.
+     */
+    public char textAt(int index)
+    {
+        return text[index];
+    }
+
+    /**
+     * Get the last number as an int.
+     * @return int value.
+     * @throws IOException if the number is not an int.
+     */
+    public int intValue() throws IOException
+    {
+        int value = 0;
+        boolean negative = textLength > 0 && text[0] == '-';
+        for (int i = negative ? 1 : 0; i < textLength; i++)
+        {
+            char c = text[i];
+            if (c < '0' || c > '9' || value > (Integer.MAX_VALUE - (c - '0')) / 10)
+                throw error("Not an int: " + text());
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Get the line the reader is on, for error messages.
+     * @return line number, starting at 1.
+     */
+    public int getLine()
+    {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        reader.close();
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Scanning
+    // -----------------------------------------------------------------------------------------------------------------
+
+    private int read() throws IOException
+    {
+        if (position == limit)
+        {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0)
+            {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private void push(boolean object)
+    {
+        if (depth == inObject.length)
+        {
+            boolean[] larger = new boolean[depth * 2];
+            System.arraycopy(inObject, 0, larger, 0, depth);
+            inObject = larger;
+        }
+        inObject[depth++] = object;
+    }
+
+    private void append(char c)
+    {
+        if (textLength == text.length)
+        {
+            char[] larger = new char[textLength * 2];
+            System.arraycopy(text, 0, larger, 0, textLength);
+            text = larger;
+        }
+        text[textLength++] = c;
+    }
+
+    private void readString() throws IOException
+    {
+        textLength = 0;
+        while (true)
+        {
+            int c = read();
+            if (c == -1)
+                throw error("Unterminated string");
+            if (c == '"')
+                return;
+            if (c != '\\')
+            {
+                append((char) c);
+                continue;
+            }
+
+            c = read();
+            switch (c)
+            {
+                case '"': case '\\': case '/':
+                    append((char) c);
+                    break;
+                case 'b':
+                    append('\b');
+                    break;
+                case 'f':
+                    append('\f');
+                    break;
+                case 'n':
+                    append('\n');
+                    break;
+                case 'r':
+                    append('\r');
+                    break;
+                case 't':
+                    append('\t');
+                    break;
+                case 'u':
+                    int value = 0;
+                    for (int i = 0; i < 4; i++)
+                    {
+                        int digit = Character.digit(read(), 16);
+                        if (digit == -1)
+                            throw error("Bad unicode escape");
+                        value = (value << 4) | digit;
+                    }
+                    append((char) value);
+                    break;
+                default:
+                    throw error("Bad escape");
+            }
+        }
+    }
+
+    private void readNumber(char first) throws IOException
+    {
+        textLength = 0;
+        append(first);
+        while (true)
+        {
+            if (position == limit && read() != -1) // refill buffer, then step back
+                position--;
+            if (position == limit)
+                return;
+
+            char c = buffer[position];
+            if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-')
+            {
+                append(c);
+                position++;
+            }
+            else
+                return;
+        }
+    }
+
+    private void literal(String rest) throws IOException
+    {
+        for (int i = 0; i < rest.length(); i++)
+            if (read() != rest.charAt(i))
+                throw error("Unknown literal");
+    }
+
+    private IOException error(String message)
+    {
+        return new IOException(message + " at line " + line + ".");
+    }
+}
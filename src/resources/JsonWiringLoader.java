@@ -0,0 +1,498 @@
+package resources;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streaming loader for WiringInformation.json.  The catalog is read with a <code>JsonCatalogReader</code>, and each
+ * rotor and reflector wiring is turned into a table of alphabet indexes straight from the reader's buffer, so no
+ * document tree and no wiring Strings are kept.  Each version is handed on as soon as its closing brace is read.
+ * <br><br>
+ * Groups of versions (an entry with its own <code>"versions"</code> list, such as Enigma I) are flattened; the name of
+ * each version in a group is the group name and the version name joined by <code>": "</code>.  Keys the loader does not
+ * know are skipped, so catalogs may carry extra data.
+ * <br><br>
+ * Wirings are converted with the alphabet of their own version, not the AlphabetConverter, so versions with different
+ * alphabets can be loaded together.  A wiring letter that is not in the alphabet becomes -1, as in
+ * <code>GearConstruction</code>.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public final class JsonWiringLoader
+{
+    /**
+     * Location of the JSON catalog on the classpath.
+     */
+    public static final String JSON_RESOURCE = "resources/WiringInformation.json";
+
+    /**
+     * Wiring tables of one version.
+     */
+    public static final class VersionTables
+    {
+        private final String name;
+        private final String alphabet;
+        private final int[] etw;
+        private final int maxConnections;
+        private final int rotorSlots;
+        private final Map<String, int[]> rotorWirings;
+        private final Map<String, int[]> turnovers;
+        private final Map<String, int[]> reflectorWirings;
+
+        private VersionTables(String name, String alphabet, int[] etw, int maxConnections, int rotorSlots,
+                              Map<String, int[]> rotorWirings, Map<String, int[]> turnovers,
+                              Map<String, int[]> reflectorWirings)
+        {
+            this.name = name;
+            this.alphabet = alphabet;
+            this.etw = etw;
+            this.maxConnections = maxConnections;
+            this.rotorSlots = rotorSlots;
+            this.rotorWirings = rotorWirings;
+            this.turnovers = turnovers;
+            this.reflectorWirings = reflectorWirings;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public String getAlphabet()
+        {
+            return alphabet;
+        }
+
+        /**
+         * Get the entry wheel wiring.
+         * @return int[] copy of table; null if unknown.
+         */
+        public int[] getETW()
+        {
+            return (etw == null) ? null : etw.clone();
+        }
+
+        /**
+         * @return maximum number of plugboard connections; -1 if unknown.
+         */
+        public int getMaxConnections()
+        {
+            return maxConnections;
+        }
+
+        /**
+         * @return number of rotor slots; -1 if unknown.
+         */
+        public int getRotorSlots()
+        {
+            return rotorSlots;
+        }
+
+        /**
+         * @return names of rotors, in catalog order.
+         */
+        public List<String> getRotorNames()
+        {
+            return Collections.unmodifiableList(new ArrayList<>(rotorWirings.keySet()));
+        }
+
+        /**
+         * Get the wiring of a rotor as alphabet indexes.
+         * @param rotor name of rotor.
+         * @return int[] copy of table; null if no such rotor.
+         */
+        public int[] getRotorWiring(String rotor)
+        {
+            int[] table = rotorWirings.get(rotor);
+            return (table == null) ? null : table.clone();
+        }
+
+        /**
+         * Get the turnover positions of a rotor as alphabet indexes.
+         * @param rotor name of rotor.
+         * @return int[] copy of indexes; null if no such rotor.
+         */
+        public int[] getTurnover(String rotor)
+        {
+            int[] table = turnovers.get(rotor);
+            return (table == null) ? null : table.clone();
+        }
+
+        /**
+         * @return names of reflectors, in catalog order.
+         */
+        public List<String> getReflectorNames()
+        {
+            return Collections.unmodifiableList(new ArrayList<>(reflectorWirings.keySet()));
+        }
+
+        /**
+         * Get the wiring of a reflector as alphabet indexes.
+         * @param reflector name of reflector.
+         * @return int[] copy of table; null if no such reflector.
+         */
+        public int[] getReflectorWiring(String reflector)
+        {
+            int[] table = reflectorWirings.get(reflector);
+            return (table == null) ? null : table.clone();
+        }
+
+        @Override
+        public String toString()
+        {
+            return name + " (" + rotorWirings.size() + " rotors, " + reflectorWirings.size() + " reflectors)";
+        }
+    }
+
+    /**
+     * Version being read; wirings are converted as soon as the alphabet is known.
+     */
+    private static final class Builder
+    {
+        String name;
+        String alphabet;
+        int[] charIndex; // character -> index in alphabet; -1 if not in alphabet
+        int[] etw;
+        String pendingEtw; // ETW read before the alphabet
+        int maxConnections = -1;
+        int rotorSlots = -1;
+        final Map<String, int[]> rotorWirings = new LinkedHashMap<>();
+        final Map<String, int[]> turnovers = new LinkedHashMap<>();
+        final Map<String, int[]> reflectorWirings = new LinkedHashMap<>();
+        final Map<String, String> pending = new LinkedHashMap<>(); // "r"/"t"/"u" + name -> text before alphabet
+
+        void setAlphabet(String alphabet)
+        {
+            this.alphabet = alphabet;
+            int max = 0;
+            for (int i = 0; i < alphabet.length(); i++)
+                max = Math.max(max, alphabet.charAt(i));
+            charIndex = new int[max + 1];
+            Arrays.fill(charIndex, -1);
+            for (int i = 0; i < alphabet.length(); i++)
+                charIndex[alphabet.charAt(i)] = i;
+        }
+
+        int indexOf(char c)
+        {
+            return (c < charIndex.length) ? charIndex[c] : -1;
+        }
+
+        /**
+         * Convert the text held by the reader; the alphabet must be known.
+         */
+        int[] table(JsonCatalogReader json)
+        {
+            int[] table = new int[json.textLength()];
+            for (int i = 0; i < table.length; i++)
+                table[i] = indexOf(json.textAt(i));
+            return table;
+        }
+
+        int[] table(String text)
+        {
+            int[] table = new int[text.length()];
+            for (int i = 0; i < table.length; i++)
+                table[i] = indexOf(text.charAt(i));
+            return table;
+        }
+
+        VersionTables build() throws IOException
+        {
+            if (alphabet == null)
+            {
+                if (!pending.isEmpty() || pendingEtw != null)
+                    throw new IOException("Version " + name + " has wirings but no alphabet.");
+            }
+            else
+            {
+                if (pendingEtw != null)
+                    etw = table(pendingEtw);
+                for (Map.Entry<String, String> entry : pending.entrySet())
+                {
+                    String key = entry.getKey().substring(1);
+                    switch (entry.getKey().charAt(0))
+                    {
+                        case 'r': rotorWirings.put(key, table(entry.getValue())); break;
+                        case 't': turnovers.put(key, table(entry.getValue())); break;
+                        default: reflectorWirings.put(key, table(entry.getValue())); break;
+                    }
+                }
+            }
+            return new VersionTables(name, alphabet, etw, maxConnections, rotorSlots, rotorWirings, turnovers,
+                    reflectorWirings);
+        }
+    }
+
+    private JsonWiringLoader()
+    {
+    }
+
+    /**
+     * Read a JSON catalog, handing on each version as soon as it has been read.
+     * @param reader JSON catalog; not closed.
+     * @param consumer receives each version, in catalog order.
+     * @throws IOException if the catalog cannot be read or is not well-formed.
+     */
+    public static void read(Reader reader, Consumer<VersionTables> consumer) throws IOException
+    {
+        JsonCatalogReader json = new JsonCatalogReader(reader);
+        if (json.next() != JsonCatalogReader.Token.BEGIN_OBJECT)
+            throw new IOException("Wiring catalog must be a JSON object.");
+
+        JsonCatalogReader.Token token;
+        while ((token = json.next()) == JsonCatalogReader.Token.NAME)
+        {
+            if (json.textEquals("versions"))
+                readVersions(json, consumer);
+            else
+                json.skipValue(json.next());
+        }
+        if (token != JsonCatalogReader.Token.END_OBJECT)
+            throw new IOException("Unexpected " + token + " at line " + json.getLine() + ".");
+    }
+
+    /**
+     * Read a whole JSON catalog.
+     * @param reader JSON catalog; not closed.
+     * @return List of VersionTables, in catalog order.
+     * @throws IOException if the catalog cannot be read or is not well-formed.
+     */
+    public static List<VersionTables> read(Reader reader) throws IOException
+    {
+        List<VersionTables> versions = new ArrayList<>();
+        read(reader, versions::add);
+        return versions;
+    }
+
+    /**
+     * Read the JSON catalog on the classpath.
+     * @return List of VersionTables, in catalog order.
+     * @throws IOException if the catalog is missing, cannot be read or is not well-formed.
+     */
+    public static List<VersionTables> load() throws IOException
+    {
+        InputStream in = JsonWiringLoader.class.getClassLoader().getResourceAsStream(JSON_RESOURCE);
+        if (in == null)
+            throw new IOException("Wiring catalog not found: " + JSON_RESOURCE);
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8))
+        {
+            return read(reader);
+        }
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Structure
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Read a list of versions; the opening bracket is next.
+     */
+    private static void readVersions(JsonCatalogReader json, Consumer<VersionTables> consumer) throws IOException
+    {
+        expect(json, JsonCatalogReader.Token.BEGIN_ARRAY);
+        JsonCatalogReader.Token token;
+        while ((token = json.next()) == JsonCatalogReader.Token.BEGIN_OBJECT)
+            readVersion(json, consumer);
+        if (token != JsonCatalogReader.Token.END_ARRAY)
+            throw new IOException("Unexpected " + token + " at line " + json.getLine() + ".");
+    }
+
+    /**
+     * Read one version, or a group of versions; the opening brace has been read.
+     */
+    private static void readVersion(JsonCatalogReader json, Consumer<VersionTables> consumer) throws IOException
+    {
+        Builder version = new Builder();
+        List<VersionTables> groupVersions = null; // versions of a group; named once the whole group is read
+
+        JsonCatalogReader.Token token;
+        while ((token = json.next()) == JsonCatalogReader.Token.NAME)
+        {
+            if (json.textEquals("name"))
+                version.name = string(json);
+            else if (json.textEquals("alphabet"))
+            {
+                String alphabet = string(json);
+                if (alphabet != null)
+                    version.setAlphabet(alphabet);
+            }
+            else if (json.textEquals("components"))
+                readComponents(json, version);
+            else if (json.textEquals("rotorSlots"))
+                version.rotorSlots = integer(json);
+            else if (json.textEquals("versions"))
+            {
+                groupVersions = new ArrayList<>();
+                readVersions(json, groupVersions::add);
+            }
+            else
+                json.skipValue(json.next());
+        }
+        if (token != JsonCatalogReader.Token.END_OBJECT)
+            throw new IOException("Unexpected " + token + " at line " + json.getLine() + ".");
+
+        if (groupVersions == null)
+        {
+            consumer.accept(version.build());
+            return;
+        }
+
+        // a group; name its versions after it
+        for (VersionTables v : groupVersions)
+            consumer.accept(new VersionTables(version.name + ": " + v.name, v.alphabet, v.etw, v.maxConnections,
+                    v.rotorSlots, v.rotorWirings, v.turnovers, v.reflectorWirings));
+    }
+
+    /**
+     * Read the components of a version.
+     */
+    private static void readComponents(JsonCatalogReader json, Builder version) throws IOException
+    {
+        expect(json, JsonCatalogReader.Token.BEGIN_OBJECT);
+        JsonCatalogReader.Token token;
+        while ((token = json.next()) == JsonCatalogReader.Token.NAME)
+        {
+            if (json.textEquals("plugboard"))
+            {
+                expect(json, JsonCatalogReader.Token.BEGIN_OBJECT);
+                while (json.next() == JsonCatalogReader.Token.NAME)
+                {
+                    if (json.textEquals("max-connections"))
+                        version.maxConnections = integer(json);
+                    else
+                        json.skipValue(json.next());
+                }
+            }
+            else if (json.textEquals("ETW"))
+            {
+                if (json.next() == JsonCatalogReader.Token.STRING)
+                {
+                    if (version.alphabet != null)
+                        version.etw = version.table(json);
+                    else
+                        version.pendingEtw = json.text();
+                }
+            }
+            else if (json.textEquals("rotors"))
+                readGears(json, version, true);
+            else if (json.textEquals("reflectors"))
+                readGears(json, version, false);
+            else
+                json.skipValue(json.next());
+        }
+        if (token != JsonCatalogReader.Token.END_OBJECT)
+            throw new IOException("Unexpected " + token + " at line " + json.getLine() + ".");
+    }
+
+    /**
+     * Read a list of rotors or reflectors; each wiring is converted as soon as it is read.
+     */
+    private static void readGears(JsonCatalogReader json, Builder version, boolean rotors) throws IOException
+    {
+        JsonCatalogReader.Token token = json.next();
+        if (token == JsonCatalogReader.Token.NULL)
+            return;
+        if (token != JsonCatalogReader.Token.BEGIN_ARRAY)
+            throw new IOException("Expected a list at line " + json.getLine() + ".");
+
+        while ((token = json.next()) == JsonCatalogReader.Token.BEGIN_OBJECT)
+        {
+            String name = null;
+            int[] wiring = null;
+            int[] turnover = new int[0];
+            String pendingWiring = null;
+            String pendingTurnover = null;
+
+            while ((token = json.next()) == JsonCatalogReader.Token.NAME)
+            {
+                if (json.textEquals("name"))
+                    name = string(json);
+                else if (json.textEquals("wiringOrder") || json.textEquals("turnover"))
+                {
+                    boolean isWiring = json.textEquals("wiringOrder");
+                    if (json.next() != JsonCatalogReader.Token.STRING)
+                        continue;
+                    if (version.alphabet == null)
+                    {
+                        if (isWiring)
+                            pendingWiring = json.text();
+                        else
+                            pendingTurnover = json.text();
+                    }
+                    else if (isWiring)
+                        wiring = version.table(json);
+                    else
+                        turnover = version.table(json);
+                }
+                else
+                    json.skipValue(json.next());
+            }
+            if (token != JsonCatalogReader.Token.END_OBJECT)
+                throw new IOException("Unexpected " + token + " at line " + json.getLine() + ".");
+
+            if (name == null)
+                throw new IOException("Component without a name before line " + json.getLine() + ".");
+            if (pendingWiring != null)
+                version.pending.put((rotors ? "r" : "u") + name, pendingWiring);
+            if (pendingTurnover != null && rotors)
+                version.pending.put("t" + name, pendingTurnover);
+            if (rotors)
+            {
+                if (wiring != null)
+                    version.rotorWirings.put(name, wiring);
+                if (pendingTurnover == null)
+                    version.turnovers.put(name, turnover);
+            }
+            else if (wiring != null)
+                version.reflectorWirings.put(name, wiring);
+        }
+        if (token != JsonCatalogReader.Token.END_ARRAY)
+            throw new IOException("Unexpected " + token + " at line " + json.getLine() + ".");
+    }
+
+    private static void expect(JsonCatalogReader json, JsonCatalogReader.Token expected) throws IOException
+    {
+        JsonCatalogReader.Token token = json.next();
+        if (token != expected)
+            throw new IOException("Expected " + expected + " but found " + token + " at line " + json.getLine() + ".");
+    }
+
+    /**
+     * Read a string value.
+     * @return String; null if the value is not a string.
+     */
+    private static String string(JsonCatalogReader json) throws IOException
+    {
+        JsonCatalogReader.Token token = json.next();
+        if (token == JsonCatalogReader.Token.STRING)
+            return json.text();
+        json.skipValue(token);
+        return null;
+    }
+
+    /**
+     * Read an int value.
+     * @return int; -1 if the value is not a number.
+     */
+    private static int integer(JsonCatalogReader json) throws IOException
+    {
+        JsonCatalogReader.Token token = json.next();
+        if (token == JsonCatalogReader.Token.NUMBER)
+            return json.intValue();
+        json.skipValue(token);
+        return -1;
+    }
+}
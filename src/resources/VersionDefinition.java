@@ -0,0 +1,312 @@
+package resources;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable description of one Enigma version, as written in the wiring catalog (WiringInformation.yaml).  Holds only
+ * the text of the catalog, so it can be read before an AlphabetConverter exists; components are built from it later.
+ * <br>
+ * Entries the catalog leaves empty (<code>null</code> in the YAML) are kept as null, and missing component lists are
+ * empty.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public final class VersionDefinition
+{
+    private final String name;
+    private final String description;
+    private final String alphabet;
+    private final Boolean plugboardInstalled; // null if unknown
+    private final int maxConnections;
+    private final String etw; // null if unknown
+    private final List<RotorDefinition> rotors;
+    private final List<ReflectorDefinition> reflectors;
+    private final int rotorSlots;
+    private final String comments;
+
+    /**
+     * Catalog entry of a rotor.
+     */
+    public static final class RotorDefinition
+    {
+        private final String name;
+        private final String wiring;
+        private final String turnover;
+        private final String notch;
+        private final boolean rotatable;
+        private final boolean stepping;
+
+        /**
+         * Constructor.
+         * @param name name of rotor.
+         * @param wiring String in order of scrambled letter output.
+         * @param turnover letter(s) in window when notch causes next rotor to step.
+         * @param notch letter(s) on the notch ring.
+         * @param rotatable if rotor can be rotated by hand.
+         * @param stepping if rotor steps.
+         */
+        public RotorDefinition(String name, String wiring, String turnover, String notch, boolean rotatable,
+                               boolean stepping)
+        {
+            this.name = name;
+            this.wiring = wiring;
+            this.turnover = turnover;
+            this.notch = notch;
+            this.rotatable = rotatable;
+            this.stepping = stepping;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public String getWiring()
+        {
+            return wiring;
+        }
+
+        public String getTurnover()
+        {
+            return turnover;
+        }
+
+        public String getNotch()
+        {
+            return notch;
+        }
+
+        public boolean isRotatable()
+        {
+            return rotatable;
+        }
+
+        public boolean isStepping()
+        {
+            return stepping;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+                return true;
+            if (!(o instanceof RotorDefinition))
+                return false;
+            RotorDefinition other = (RotorDefinition) o;
+            return rotatable == other.rotatable && stepping == other.stepping && Objects.equals(name, other.name) &&
+                    Objects.equals(wiring, other.wiring) && Objects.equals(turnover, other.turnover) &&
+                    Objects.equals(notch, other.notch);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(name, wiring, turnover, notch, rotatable, stepping);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Rotor " + name + " " + wiring;
+        }
+    }
+
+    /**
+     * Catalog entry of a reflector.
+     */
+    public static final class ReflectorDefinition
+    {
+        private final String name;
+        private final String wiring;
+        private final boolean rotatable;
+        private final boolean stepping;
+        private final boolean rewirable;
+
+        /**
+         * Constructor.
+         * @param name name of reflector.
+         * @param wiring String in order of scrambled letter output.
+         * @param rotatable if reflector can rotate position and setting.
+         * @param stepping if reflector steps.
+         * @param rewirable if reflector can be rewired.
+         */
+        public ReflectorDefinition(String name, String wiring, boolean rotatable, boolean stepping, boolean rewirable)
+        {
+            this.name = name;
+            this.wiring = wiring;
+            this.rotatable = rotatable;
+            this.stepping = stepping;
+            this.rewirable = rewirable;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public String getWiring()
+        {
+            return wiring;
+        }
+
+        public boolean isRotatable()
+        {
+            return rotatable;
+        }
+
+        public boolean isStepping()
+        {
+            return stepping;
+        }
+
+        public boolean isRewirable()
+        {
+            return rewirable;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+                return true;
+            if (!(o instanceof ReflectorDefinition))
+                return false;
+            ReflectorDefinition other = (ReflectorDefinition) o;
+            return rotatable == other.rotatable && stepping == other.stepping && rewirable == other.rewirable &&
+                    Objects.equals(name, other.name) && Objects.equals(wiring, other.wiring);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(name, wiring, rotatable, stepping, rewirable);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Reflector " + name + " " + wiring;
+        }
+    }
+
+    /**
+     * Constructor.
+     * @param name name of version.
+     * @param description description of version.
+     * @param alphabet letters of the keyboard, in order.
+     * @param plugboardInstalled if the version has a plugboard; null if unknown.
+     * @param maxConnections maximum number of plugboard connections.
+     * @param etw wiring of the entry wheel; null if unknown.
+     * @param rotors rotors of the version.
+     * @param reflectors reflectors of the version.
+     * @param rotorSlots number of rotor slots.
+     * @param comments comments on the version.
+     */
+    public VersionDefinition(String name, String description, String alphabet, Boolean plugboardInstalled,
+                             int maxConnections, String etw, List<RotorDefinition> rotors,
+                             List<ReflectorDefinition> reflectors, int rotorSlots, String comments)
+    {
+        this.name = name;
+        this.description = description;
+        this.alphabet = alphabet;
+        this.plugboardInstalled = plugboardInstalled;
+        this.maxConnections = maxConnections;
+        this.etw = etw;
+        this.rotors = Collections.unmodifiableList(new ArrayList<>(rotors));
+        this.reflectors = Collections.unmodifiableList(new ArrayList<>(reflectors));
+        this.rotorSlots = rotorSlots;
+        this.comments = comments;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public String getDescription()
+    {
+        return description;
+    }
+
+    public String getAlphabet()
+    {
+        return alphabet;
+    }
+
+    public Boolean getPlugboardInstalled()
+    {
+        return plugboardInstalled;
+    }
+
+    public int getMaxConnections()
+    {
+        return maxConnections;
+    }
+
+    public String getETW()
+    {
+        return etw;
+    }
+
+    /**
+     * Get the rotors of the version, in catalog order.
+     * @return unmodifiable List.
+     */
+    public List<RotorDefinition> getRotors()
+    {
+        return rotors;
+    }
+
+    /**
+     * Get the reflectors of the version, in catalog order.
+     * @return unmodifiable List.
+     */
+    public List<ReflectorDefinition> getReflectors()
+    {
+        return reflectors;
+    }
+
+    public int getRotorSlots()
+    {
+        return rotorSlots;
+    }
+
+    public String getComments()
+    {
+        return comments;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+            return true;
+        if (!(o instanceof VersionDefinition))
+            return false;
+        VersionDefinition other = (VersionDefinition) o;
+        return maxConnections == other.maxConnections && rotorSlots == other.rotorSlots &&
+                Objects.equals(name, other.name) && Objects.equals(description, other.description) &&
+                Objects.equals(alphabet, other.alphabet) &&
+                Objects.equals(plugboardInstalled, other.plugboardInstalled) && Objects.equals(etw, other.etw) &&
+                rotors.equals(other.rotors) && reflectors.equals(other.reflectors) &&
+                Objects.equals(comments, other.comments);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(name, alphabet, etw, rotors, reflectors, rotorSlots);
+    }
+
+    @Override
+    public String toString()
+    {
+        return name + " (" + rotors.size() + " rotors, " + reflectors.size() + " reflectors)";
+    }
+}
@@ -1,129 +1,420 @@
 package resources;
 
-import machine_pieces.EntryWheel;
-import machine_pieces.Plugboard;
-import machine_pieces.Reflector;
-import machine_pieces.Rotor;
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionEndEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class takes the YAML information of the different Enigma machines (currently stored into WiringInformation.yaml
  * and converts it to a form capable of being used by the rest of the program.
  * <br>
+ * When the compiler is created, the catalog is only scanned as a stream of YAML events, and the name and place in the
+ * text of each version are indexed; no nodes are built.  A version is composed and converted into a
+ * <code>VersionDefinition</code> the first time it is asked for, from its own part of the text alone, and the
+ * definition is kept, so the work done scales with the versions used and not the size of the catalog.  A version
+ * whose text does not stand alone (an alias of an anchor outside it, or tags declared for the document) is taken from
+ * the whole catalog, composed once when first needed.
+ * <br>
  * @author Eliezer Meth
- * @version 1<br>
+ * @version 2<br>
  * Start Date: 2024-08-28<br>
- * Last Modified: 2024-09-16
+ * Last Modified: 2026-10-19
  */
 public class VersionInformationCompiler
 {
+    /**
+     * Location of the wiring catalog on the classpath; the source of truth for all other catalog forms.
+     */
+    public static final String YAML_RESOURCE = "resources/WiringInformation.yaml";
+
     // Data held in WiringInformation
-    Map<String, Map<String, Object>> rawData = new HashMap<>();
+    private final String source; // text of catalog
+    private final Map<String, VersionText> versionTexts = new LinkedHashMap<>(); // in catalog order
+    private List<MappingNode> documentVersions; // whole catalog composed; null until a version needs it
+    private final Map<String, VersionDefinition> definitions = new ConcurrentHashMap<>(); // converted versions
 
-    List<String> versionMenu = new ArrayList<>(); // list of versions
+    /**
+     * Constructor; indexes the versions of the catalog on the classpath.
+     * @throws IllegalStateException if the catalog is not on the classpath.
+     */
+    public VersionInformationCompiler()
+    {
+        this(readResource());
+    }
 
-    AlphabetConverter ac;
+    /**
+     * Constructor; indexes the versions of a YAML catalog.
+     * @param inputStream YAML catalog; read fully, but not closed.
+     * @throws IllegalStateException if inputStream is null.
+     */
+    public VersionInformationCompiler(InputStream inputStream)
+    {
+        this(readText(inputStream));
+    }
 
     /**
-     * Constructor; reads in raw version information from file.
+     * Constructor; indexes the versions of the text of a YAML catalog.
      */
-    public VersionInformationCompiler()
+    private VersionInformationCompiler(String source)
     {
-        // Create new Yaml instance
-        Yaml yaml = new Yaml();
+        this.source = source;
+        indexVersions();
+    }
 
-        // Load Yaml file as Map
-        InputStream inputStream =
-                VersionInformationCompiler.class.getClassLoader().getResourceAsStream("WiringInformation.yaml");
-        Map<String, Object> yamlMap = yaml.load(inputStream);
+    /**
+     * Get a list of versions available for Enigma.
+     * @return List of version names, in catalog order.
+     */
+    public List<String> getVersionMenu()
+    {
+        return new ArrayList<>(versionTexts.keySet());
+    }
 
-        // Get list of all versions
-        List<Map<String, Object>> versions = (List<Map<String, Object>>) yamlMap.get("versions");
+    /**
+     * Get the definition of a version.  The version is composed and converted on first access and the same definition
+     * is returned after.
+     * @param version name of version.
+     * @return VersionDefinition; null if version is not in the catalog.
+     */
+    public VersionDefinition getVersion(String version)
+    {
+        VersionText text = versionTexts.get(version);
+        if (text == null) // test that version is available
+            return null;
 
-        // Scrape order of keys into versionMenu
-        for (Map<String, Object> version : versions)
-            versionMenu.add((String) version.get("name"));
+        return definitions.computeIfAbsent(version, v -> definitionOf(composeVersion(text)));
+    }
 
-        // Created flattened map of versions
-        for (Map<String, Object> version : versions)
-            rawData.put((String) version.get("name"), version);
+    /**
+     * Read every version of a YAML wiring catalog into typed definitions.
+     * @param inputStream YAML catalog.
+     * @return List of VersionDefinition, in catalog order.
+     */
+    public static List<VersionDefinition> readDefinitions(InputStream inputStream)
+    {
+        List<MappingNode> versions = versionNodes(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        List<VersionDefinition> definitions = new ArrayList<>(versions.size());
+        for (MappingNode version : versions)
+            definitions.add(definitionOf(version));
+        return definitions;
     }
 
+    // -----------------------------------------------------------------------------------------------------------------
+    // Indexing
+    // -----------------------------------------------------------------------------------------------------------------
+
     /**
-     * Get a list of versions available for Enigma.
-     * @return List.
+     * Read the catalog on the classpath, and close it.
+     * @return text of catalog.
      */
-    public ArrayList getVersionMenu()
+    private static String readResource()
     {
-        return new ArrayList<>(versionMenu);
+        try (InputStream inputStream = VersionInformationCompiler.class.getClassLoader()
+                .getResourceAsStream(YAML_RESOURCE))
+        {
+            return readText(inputStream);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    public String getVersion(String version)
+    /**
+     * Read a catalog to its end.
+     * @throws IllegalStateException if inputStream is null.
+     */
+    private static String readText(InputStream inputStream)
     {
-        // test that version is available
-        if (!versionMenu.contains(version))
-            return null;
+        if (inputStream == null)
+            throw new IllegalStateException("Wiring catalog not found: " + YAML_RESOURCE);
 
-        Map<String, Object> versionData = rawData.get(version);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try
+        {
+            for (int read; (read = inputStream.read(buffer)) != -1; )
+                bytes.write(buffer, 0, read);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
 
-        // create AlphabetConverter
-        AlphabetConverter.createAlphabetConverter((String) versionData.get("alphabet"));
-        ac = AlphabetConverter.getAlphabetConverter();
+    /**
+     * Scan the events of the catalog for the items of the <code>versions</code> sequence, and record the name and
+     * the text of each.
+     */
+    private void indexVersions()
+    {
+        Deque<int[]> open = new ArrayDeque<>(); // {1 if mapping, nodes seen} of each open collection, innermost first
+        boolean versionsNext = false; // next node is the value of the root key "versions"
+        boolean nameNext = false; // next node is the value of the key "name" of a version
+        boolean tagDirectives = false; // tags declared for the document, which a part of it would lose
+        int versionsDepth = -1; // depth of the versions sequence; -1 if not in it
+        int items = 0; // items of the versions sequence so far
+        VersionText version = null; // being scanned
+        Set<String> anchors = new HashSet<>(); // defined in the version being scanned
+        String name = null;
+        CodePoints offsets = new CodePoints();
 
-        Map<String, Object> components = (Map<String, Object>) versionData.get("components");
+        for (Event event : new Yaml().parse(new StringReader(source)))
+        {
+            if (event instanceof DocumentStartEvent)
+            {
+                Map<String, String> tags = ((DocumentStartEvent) event).getTags(); // null if not explicit
+                tagDirectives = tags != null && !tags.isEmpty();
+            }
+            if (event instanceof CollectionEndEvent)
+            {
+                open.pop();
+                if (open.size() == versionsDepth && version != null) // end of a version; after "}" if flow style
+                {
+                    version.end = offsets.charIndex(event.getEndMark().getIndex());
+                    version.whole |= tagDirectives;
+                    if (name != null)
+                        versionTexts.put(name, version);
+                    version = null;
+                    name = null;
+                }
+                else if (open.size() < versionsDepth)
+                    versionsDepth = -1;
+                continue;
+            }
+            if (!(event instanceof NodeEvent))
+                continue;
 
-        // create EntryWheel
-        // TODO make sure wiring is set correctly between keyboard and rotor
-        EntryWheel ew = new EntryWheel(EntryWheel.ETWsequence.CUSTOM);
-        ew.set(ac.getAlphabetString(), (String) components.get("ETW"));
+            // a node; key or value of the collection it is in
+            int[] parent = open.peek();
+            boolean key = parent != null && parent[0] == 1 && parent[1] % 2 == 0;
+            if (parent != null)
+                parent[1]++;
+            String scalar = (event instanceof ScalarEvent) ? ((ScalarEvent) event).getValue() : null;
+            String anchor = ((NodeEvent) event).getAnchor();
 
-        // create Plugboard
-        Plugboard plugboard = new Plugboard(ac.getAlphabet());
-        Map<String, Object> plugboardDetails = (Map<String, Object>) components.get("plugboard");
-        // plugboard.setMaxConnections((Integer) plugboardDetails.get("max-connections"); // set max connection
-        // if (!(Boolean) plugboardDetail.get("installed")) plugboard.lock(); // if plugboard not installed, lock to prevent modification
+            if (versionsNext && event instanceof SequenceStartEvent)
+                versionsDepth = open.size() + 1;
+            else if (nameNext && scalar != null)
+                name = scalar;
+            else if (open.size() == versionsDepth && event instanceof MappingStartEvent) // start of a version
+            {
+                version = new VersionText(offsets.charIndex(event.getStartMark().getIndex()),
+                        event.getStartMark().getColumn(), items);
+                anchors.clear();
+            }
+            if (open.size() == versionsDepth)
+                items++;
+            if (version != null && anchor != null)
+            {
+                if (event instanceof AliasEvent)
+                    version.whole |= !anchors.contains(anchor); // anchored outside the version
+                else
+                    anchors.add(anchor);
+            }
+            versionsNext = key && open.size() == 1 && "versions".equals(scalar);
+            nameNext = key && version != null && open.size() == versionsDepth + 1 && "name".equals(scalar);
+
+            if (event instanceof CollectionStartEvent)
+                open.push(new int[]{(event instanceof MappingStartEvent) ? 1 : 0, 0});
+        }
+    }
+
+    /**
+     * Compose the node of one version, from its part of the text if it stands alone.
+     * @param version place of version in text.
+     */
+    private MappingNode composeVersion(VersionText version)
+    {
+        if (version.whole)
+            return documentVersions().get(version.index);
+
+        // the first line of the version follows the sequence indicator; indent it as the lines after it
+        StringBuilder text = new StringBuilder(version.column + version.end - version.start);
+        for (int i = 0; i < version.column; i++)
+            text.append(' ');
+        text.append(source, version.start, version.end);
+        return (MappingNode) new Yaml().compose(new StringReader(text.toString()));
+    }
 
-        // create Rotors selection
-        Map<String, Rotor> rotorList = new HashMap<>();
-        // access Rotors list
-        List<Map<String, Object>> rotorsYAML = (List<Map<String, Object>>) components.get("rotors");
-        // TODO modify how Rotors can be implemented
-        for (Map<String, Object> rotor : rotorsYAML)
+    /**
+     * Compose the whole catalog, once, for versions that need more of it than their own text.
+     * @return List of version nodes.
+     */
+    private synchronized List<MappingNode> documentVersions()
+    {
+        if (documentVersions == null)
+            documentVersions = versionNodes(new StringReader(source));
+        return documentVersions;
+    }
+
+    /**
+     * Place of a version in the text of the catalog.
+     */
+    private static final class VersionText
+    {
+        private final int start; // char index of first character
+        private int end; // char index after last character
+        private final int column; // of first character
+        private final int index; // in versions sequence
+        private boolean whole; // refers to anchors outside of it, or the document has tag directives
+
+        private VersionText(int start, int column, int index)
+        {
+            this.start = start;
+            this.column = column;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Converts the code point indexes of marks, which only increase, to char indexes of the text.
+     */
+    private final class CodePoints
+    {
+        private int codePoint;
+        private int charIndex;
+
+        int charIndex(int codePointIndex)
+        {
+            charIndex = source.offsetByCodePoints(charIndex, codePointIndex - codePoint);
+            codePoint = codePointIndex;
+            return charIndex;
+        }
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Node conversion
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Compose a YAML catalog into nodes, without constructing any Java objects.
+     * @return List of version nodes.
+     */
+    private static List<MappingNode> versionNodes(Reader reader)
+    {
+        MappingNode root = (MappingNode) new Yaml().compose(reader);
+
+        List<MappingNode> versions = new ArrayList<>();
+        for (Node version : sequence(root, "versions"))
+            versions.add((MappingNode) version);
+        return versions;
+    }
+
+    /**
+     * Convert the YAML node of a single version into a VersionDefinition.
+     * @param version YAML node of version.
+     * @return VersionDefinition.
+     */
+    static VersionDefinition definitionOf(MappingNode version)
+    {
+        MappingNode components = (MappingNode) get(version, "components");
+        MappingNode plugboardDetails = (MappingNode) get(components, "plugboard");
+
+        List<VersionDefinition.RotorDefinition> rotors = new ArrayList<>();
+        for (Node node : sequence(components, "rotors")) // catalog may not list the rotors
         {
-            String name = (String) rotor.get("name");
-            String wiring = (String) rotor.get("wiring");
-            String turnover = (String) rotor.get("turnover");
-            String notch = (String) rotor.get("notch");
-            boolean stepping = (Boolean) rotor.get("stepping");
-            boolean rotatable = (Boolean) rotor.get("rotatable");
-
-            // TODO
+            MappingNode rotor = (MappingNode) node;
+            rotors.add(new VersionDefinition.RotorDefinition(scalar(rotor, "name"), scalar(rotor, "wiring"),
+                    scalar(rotor, "turnover"), scalar(rotor, "notch"), bool(rotor, "rotatable"),
+                    bool(rotor, "stepping")));
         }
 
-        // create Reflector selection
-        Map<String, Reflector> reflectorList = new HashMap<>();
-        // access Reflectors list
-        List<Map<String, Object>> reflectorsYAML = (List<Map<String, Object>>) components.get("reflectors");
-        // TODO modify how Reflector can be implemented
-        for (Map<String, Object> reflector : reflectorsYAML)
+        List<VersionDefinition.ReflectorDefinition> reflectors = new ArrayList<>();
+        for (Node node : sequence(components, "reflectors")) // catalog may not list the reflectors
         {
-            String name = (String) reflector.get("name");
-            String wiring = (String) reflector.get("wiring");
-            boolean rotatable = (Boolean) reflector.get("rotatable");
-            boolean stepping = (Boolean) reflector.get("stepping");
-            boolean rewiring = (Boolean) reflector.get("rewiring");
+            MappingNode reflector = (MappingNode) node;
+            reflectors.add(new VersionDefinition.ReflectorDefinition(scalar(reflector, "name"),
+                    scalar(reflector, "wiring"), bool(reflector, "rotatable"), bool(reflector, "stepping"),
+                    bool(reflector, "rewirable")));
         }
 
-        int numRotorSlots = (Integer) versionData.get("rotor-slots");
-        String comments = (String) versionData.get("comments");
+        String installed = scalar(plugboardDetails, "installed");
+        return new VersionDefinition(scalar(version, "name"), scalar(version, "description"),
+                scalar(version, "alphabet"), (installed == null) ? null : Boolean.valueOf(installed),
+                Integer.parseInt(scalar(plugboardDetails, "max-connections")), scalar(components, "ETW"), rotors,
+                reflectors, Integer.parseInt(scalar(version, "rotor-slots")), scalar(version, "comments"));
+    }
 
+    /**
+     * Get the value node of a key in a mapping.
+     * @return value node; null if key is missing.
+     */
+    private static Node get(MappingNode mapping, String key)
+    {
+        for (NodeTuple tuple : mapping.getValue())
+            if (key.equals(((ScalarNode) tuple.getKeyNode()).getValue()))
+                return tuple.getValueNode();
         return null;
     }
+
+    /**
+     * Get the text of a scalar value.
+     * @return text; null if key is missing or the value is null.
+     */
+    private static String scalar(MappingNode mapping, String key)
+    {
+        Node node = get(mapping, key);
+        if (!(node instanceof ScalarNode))
+            return null;
+
+        ScalarNode scalar = (ScalarNode) node;
+        String value = scalar.getValue();
+        if (scalar.getScalarStyle().getChar() == null && // null is only recognized when not quoted
+                (value.isEmpty() || value.equals("~") || value.equalsIgnoreCase("null")))
+            return null;
+        return value;
+    }
+
+    /**
+     * Get a boolean value; missing values are false.
+     */
+    private static boolean bool(MappingNode mapping, String key)
+    {
+        return Boolean.parseBoolean(scalar(mapping, key));
+    }
+
+    /**
+     * Get the items of a sequence value.
+     * @return List of item nodes; empty if key is missing or the value is not a sequence.
+     */
+    private static List<Node> sequence(MappingNode mapping, String key)
+    {
+        Node node = get(mapping, key);
+        if (!(node instanceof SequenceNode))
+            return Collections.emptyList();
+        return ((SequenceNode) node).getValue();
+    }
 }
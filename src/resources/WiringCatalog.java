@@ -0,0 +1,344 @@
+package resources;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Precompiled binary form of the wiring catalog.  WiringInformation.yaml stays the source of truth; <code>main</code>
+ * compiles it into WiringInformation.bin, which is read back with a <code>ByteBuffer</code> (memory-mapped when read
+ * from a file) without SnakeYAML or any reflection.
+ * <br><br>
+ * Format (big-endian):
+ * <pre>
+ * int    magic "WCAT"
+ * int    format version
+ * long   CRC-32 of the YAML source the catalog was compiled from
+ * int    number of versions, then for each version:
+ *   str name, str description, str alphabet, byte plugboard installed (-1 unknown, 0, 1), int max connections,
+ *   str ETW, int rotor slots, str comments,
+ *   int number of rotors, then for each:
+ *     str name, str wiring, str turnover, str notch, byte flags (rotatable, stepping)
+ *   int number of reflectors, then for each:
+ *     str name, str wiring, byte flags (rotatable, stepping, rewirable)
+ * str    int length of UTF-8 bytes (-1 for null), then the bytes
+ * </pre>
+ * <code>load</code> checks the stored CRC against the YAML on the classpath and falls back to parsing the YAML if the
+ * binary is missing or was compiled from an older source.
+ * <br>
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+public final class WiringCatalog
+{
+    /**
+     * Location of the compiled catalog on the classpath.
+     */
+    public static final String BINARY_RESOURCE = "resources/WiringInformation.bin";
+
+    private static final int MAGIC = 0x57434154; // "WCAT"
+    private static final int FORMAT_VERSION = 1;
+
+    // flag bits
+    private static final int ROTATABLE = 1;
+    private static final int STEPPING = 2;
+    private static final int REWIRABLE = 4;
+
+    private WiringCatalog()
+    {
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Writing
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Compile a YAML catalog into the binary format.
+     * @param yamlSource bytes of the YAML catalog.
+     * @return bytes of the binary catalog.
+     */
+    public static byte[] compile(byte[] yamlSource)
+    {
+        List<VersionDefinition> definitions =
+                VersionInformationCompiler.readDefinitions(new ByteArrayInputStream(yamlSource));
+        return encode(definitions, crc(yamlSource));
+    }
+
+    /**
+     * Encode definitions in the binary format.
+     * @param definitions versions to encode.
+     * @param sourceCrc CRC-32 of the YAML source of the definitions.
+     * @return bytes of the binary catalog.
+     */
+    public static byte[] encode(List<VersionDefinition> definitions, long sourceCrc)
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(sourceCrc);
+            out.writeInt(definitions.size());
+            for (VersionDefinition version : definitions)
+            {
+                writeString(out, version.getName());
+                writeString(out, version.getDescription());
+                writeString(out, version.getAlphabet());
+                out.writeByte((version.getPlugboardInstalled() == null) ? -1 : version.getPlugboardInstalled() ? 1 : 0);
+                out.writeInt(version.getMaxConnections());
+                writeString(out, version.getETW());
+                out.writeInt(version.getRotorSlots());
+                writeString(out, version.getComments());
+
+                out.writeInt(version.getRotors().size());
+                for (VersionDefinition.RotorDefinition rotor : version.getRotors())
+                {
+                    writeString(out, rotor.getName());
+                    writeString(out, rotor.getWiring());
+                    writeString(out, rotor.getTurnover());
+                    writeString(out, rotor.getNotch());
+                    out.writeByte((rotor.isRotatable() ? ROTATABLE : 0) | (rotor.isStepping() ? STEPPING : 0));
+                }
+
+                out.writeInt(version.getReflectors().size());
+                for (VersionDefinition.ReflectorDefinition reflector : version.getReflectors())
+                {
+                    writeString(out, reflector.getName());
+                    writeString(out, reflector.getWiring());
+                    out.writeByte((reflector.isRotatable() ? ROTATABLE : 0) | (reflector.isStepping() ? STEPPING : 0) |
+                            (reflector.isRewirable() ? REWIRABLE : 0));
+                }
+            }
+        }
+        catch (IOException e) // not thrown by ByteArrayOutputStream
+        {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException
+    {
+        if (s == null)
+        {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Reading
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Decode a binary catalog.  Reads from the current position of the buffer.
+     * @param buffer binary catalog.
+     * @return List of VersionDefinition, in catalog order.
+     * @throws IOException if the buffer does not hold a catalog of this format version, or is cut short.
+     */
+    public static List<VersionDefinition> read(ByteBuffer buffer) throws IOException
+    {
+        try
+        {
+            readHeader(buffer);
+            int count = buffer.getInt();
+            List<VersionDefinition> definitions = new ArrayList<>(count);
+            for (int v = 0; v < count; v++)
+            {
+                String name = readString(buffer);
+                String description = readString(buffer);
+                String alphabet = readString(buffer);
+                byte installed = buffer.get();
+                int maxConnections = buffer.getInt();
+                String etw = readString(buffer);
+                int rotorSlots = buffer.getInt();
+                String comments = readString(buffer);
+
+                int rotorCount = buffer.getInt();
+                List<VersionDefinition.RotorDefinition> rotors = new ArrayList<>(rotorCount);
+                for (int i = 0; i < rotorCount; i++)
+                {
+                    String rotorName = readString(buffer);
+                    String wiring = readString(buffer);
+                    String turnover = readString(buffer);
+                    String notch = readString(buffer);
+                    int flags = buffer.get();
+                    rotors.add(new VersionDefinition.RotorDefinition(rotorName, wiring, turnover, notch,
+                            (flags & ROTATABLE) != 0, (flags & STEPPING) != 0));
+                }
+
+                int reflectorCount = buffer.getInt();
+                List<VersionDefinition.ReflectorDefinition> reflectors = new ArrayList<>(reflectorCount);
+                for (int i = 0; i < reflectorCount; i++)
+                {
+                    String reflectorName = readString(buffer);
+                    String wiring = readString(buffer);
+                    int flags = buffer.get();
+                    reflectors.add(new VersionDefinition.ReflectorDefinition(reflectorName, wiring,
+                            (flags & ROTATABLE) != 0, (flags & STEPPING) != 0, (flags & REWIRABLE) != 0));
+                }
+
+                definitions.add(new VersionDefinition(name, description, alphabet,
+                        (installed == -1) ? null : installed == 1, maxConnections, etw, rotors, reflectors, rotorSlots,
+                        comments));
+            }
+            return definitions;
+        }
+        catch (BufferUnderflowException e)
+        {
+            throw new IOException("Wiring catalog is cut short.", e);
+        }
+    }
+
+    /**
+     * Memory-map a binary catalog file and decode it.
+     * @param path binary catalog file.
+     * @return List of VersionDefinition, in catalog order.
+     * @throws IOException if the file cannot be read or is not a catalog.
+     */
+    public static List<VersionDefinition> read(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Get the CRC-32 of the YAML source a binary catalog was compiled from.  Does not move the buffer position.
+     * @param buffer binary catalog.
+     * @return CRC-32 of source.
+     * @throws IOException if the buffer does not hold a catalog of this format version.
+     */
+    public static long sourceCrc(ByteBuffer buffer) throws IOException
+    {
+        return readHeader(buffer.duplicate());
+    }
+
+    /**
+     * Check magic number and format version, and leave the buffer after the header.
+     * @return CRC-32 of source.
+     */
+    private static long readHeader(ByteBuffer buffer) throws IOException
+    {
+        if (buffer.remaining() < 16 || buffer.getInt() != MAGIC)
+            throw new IOException("Not a wiring catalog.");
+        int formatVersion = buffer.getInt();
+        if (formatVersion != FORMAT_VERSION)
+            throw new IOException("Unsupported wiring catalog format version " + formatVersion + ".");
+        return buffer.getLong();
+    }
+
+    private static String readString(ByteBuffer buffer)
+    {
+        int length = buffer.getInt();
+        if (length == -1)
+            return null;
+        if (length < 0 || length > buffer.remaining())
+            throw new BufferUnderflowException();
+
+        byte[] utf8 = new byte[length];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // -----------------------------------------------------------------------------------------------------------------
+    // Loading
+    // -----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Load the catalog from the classpath.  The compiled binary is used if it was compiled from the YAML on the
+     * classpath; otherwise (binary missing, unreadable or stale) the YAML is parsed.
+     * @return List of VersionDefinition, in catalog order.
+     * @throws IllegalStateException if the YAML catalog is not on the classpath.
+     */
+    public static List<VersionDefinition> load()
+    {
+        byte[] yamlSource = readResource(VersionInformationCompiler.YAML_RESOURCE);
+        if (yamlSource == null)
+            throw new IllegalStateException("Wiring catalog not found: " + VersionInformationCompiler.YAML_RESOURCE);
+
+        byte[] binary = readResource(BINARY_RESOURCE);
+        if (binary != null)
+        {
+            try
+            {
+                ByteBuffer buffer = ByteBuffer.wrap(binary);
+                if (sourceCrc(buffer) == crc(yamlSource))
+                    return read(buffer);
+            }
+            catch (IOException e)
+            {
+                // fall back to the YAML source
+            }
+        }
+
+        return VersionInformationCompiler.readDefinitions(new ByteArrayInputStream(yamlSource));
+    }
+
+    /**
+     * Read a whole resource from the classpath.
+     * @return bytes of resource; null if not found or unreadable.
+     */
+    private static byte[] readResource(String name)
+    {
+        try (InputStream in = WiringCatalog.class.getClassLoader().getResourceAsStream(name))
+        {
+            if (in == null)
+                return null;
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1)
+                bytes.write(chunk, 0, read);
+            return bytes.toByteArray();
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * CRC-32 of a YAML source.
+     */
+    static long crc(byte[] source)
+    {
+        CRC32 crc = new CRC32();
+        crc.update(source, 0, source.length);
+        return crc.getValue();
+    }
+
+    /**
+     * Compile the YAML catalog into the binary catalog.  Run whenever WiringInformation.yaml is changed.
+     * @param args optional YAML source and binary output paths; default to the catalog in src/resources.
+     * @throws IOException if a file cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException
+    {
+        Path source = Paths.get((args.length > 0) ? args[0] : "src/resources/WiringInformation.yaml");
+        Path target = Paths.get((args.length > 1) ? args[1] : "src/resources/WiringInformation.bin");
+
+        byte[] binary = compile(Files.readAllBytes(source));
+        Files.write(target, binary);
+        System.out.println("Compiled " + source + " -> " + target + " (" + binary.length + " bytes)");
+    }
+}
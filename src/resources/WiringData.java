@@ -2,20 +2,25 @@ package resources;
 
 import machine_pieces.GearConstruction;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class contains the wiring data for rotors (with their turnovers) and reflectors.
  * <br><br>
+ * The data of each version is built once, the first time it is requested, and the same unmodifiable maps are returned
+ * to every caller after that.  The GearConstructions in them are immutable, so the data may be shared between threads.
+ * <br><br>
  * Historic rotor configurations can be found at:<br>
  * <a href="https://en.wikipedia.org/wiki/Enigma_rotor_details">https://en.wikipedia.org/wiki/Enigma_rotor_details</a><br>
  * <a href="https://www.cryptomuseum.com/crypto/enigma/wiring.htm#10">https://www.cryptomuseum.com/crypto/enigma/wiring.htm#10</a><br>
  * <br>
  * @author Eliezer Meth
- * @version 2<br>
+ * @version 3<br>
  * Start Date: 2020-09-17<br>
- * Last Modified: 2024-05-08
+ * Last Modified: 2026-10-19
  */
 
 public class WiringData
@@ -30,17 +35,65 @@ public class WiringData
             ENIGMA_1, ENIGMA_M3
     }
 
+    // data of each version, built on first request
+    private static final Map<enimgaVersion, Map<String, Map<String, GearConstruction>>> registry =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Get the information for a version of Enigma.
+     * @param version Enigma version.
+     * @return Map&lt;String, Map&lt;String, machine.GearConstruction&gt;&gt; of gear data
+     */
+    public static Map<String, Map<String, GearConstruction>> getComponents(enimgaVersion version)
+    {
+        return registry.computeIfAbsent(version, WiringData::load);
+    }
+
+    /**
+     * Build the information for a version of Enigma, as unmodifiable maps.
+     * @param version Enigma version.
+     * @return Map&lt;String, Map&lt;String, machine.GearConstruction&gt;&gt; of gear data
+     */
+    private static Map<String, Map<String, GearConstruction>> load(enimgaVersion version)
+    {
+        Map<String, Map<String, GearConstruction>> selection;
+        switch (version)
+        {
+            case ENIGMA_M3:
+                selection = loadEnigmaM3();
+                break;
+            case ENIGMA_1:
+            default:
+                selection = loadEnigma1();
+                break;
+        }
+
+        Map<String, Map<String, GearConstruction>> frozen = new HashMap<>();
+        for (Map.Entry<String, Map<String, GearConstruction>> entry : selection.entrySet())
+            frozen.put(entry.getKey(), Collections.unmodifiableMap(entry.getValue()));
+        return Collections.unmodifiableMap(frozen);
+    }
+
     /**
      * This method contains the information for: Enigma I
      * This version was used by: Army, Luftwaffe (Air Force)<br>
      * <br>
      * Data is returned in a double-layered map.  First level is rotor/reflector, and second level is the name of the
-     * specific part.
+     * specific part.  The maps are shared and unmodifiable.
      * <br>
      * @return Map&lt;String, Map&lt;String, machine.GearConstruction&gt;&gt; of gear data
      */
     //public static Map<String, GearConstruction[]> Enigma1()
     public static Map<String, Map<String, GearConstruction>> Enigma1()
+    {
+        return getComponents(enimgaVersion.ENIGMA_1);
+    }
+
+    /**
+     * Build the information for Enigma I.
+     * @return Map&lt;String, Map&lt;String, machine.GearConstruction&gt;&gt; of gear data
+     */
+    private static Map<String, Map<String, GearConstruction>> loadEnigma1()
     {
         Map<String, Map<String, GearConstruction>> selection = new HashMap<>();
 
@@ -70,11 +123,20 @@ public class WiringData
      * This version was used by: Kriegsmarine (Navy)
      * <br>
      * Data is returned in a double-layered map.  First level is rotor/reflector, and second level is the name of the
-     * specific part.
+     * specific part.  The maps are shared and unmodifiable.
      * <br>
      * @return Map&lt;String, Map&lt;String, machine.GearConstruction&gt;&gt; of gear data
      */
     public static Map<String, Map<String, GearConstruction>> EnigmaM3()
+    {
+        return getComponents(enimgaVersion.ENIGMA_M3);
+    }
+
+    /**
+     * Build the information for Enigma M3.
+     * @return Map&lt;String, Map&lt;String, machine.GearConstruction&gt;&gt; of gear data
+     */
+    private static Map<String, Map<String, GearConstruction>> loadEnigmaM3()
     {
         Map<String, Map<String, GearConstruction>> selection = new HashMap<>();
 
@@ -0,0 +1,194 @@
+package communicators;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test ChannelCommunicator and FileCommunicator against Scanner, as used by ConsoleCommunicator.
+ *
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+class ChannelCommunicatorTest
+{
+    private static final String SESSION = "3\nB\r\nII IV V\r02 21 12\n  -17 +4\t2147483647\n" +
+            "\u00C5\u00C4\u00D6 \uD835\uDD08nigma\nlast"; // letters of two bytes, and one of four (a surrogate pair)
+
+    /**
+     * Channel that returns at most a few bytes per read, to split lines and characters between reads.
+     */
+    private static ReadableByteChannel trickle(String text, int bytesPerRead)
+    {
+        ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(text.getBytes(
+                StandardCharsets.UTF_8)));
+        return new ReadableByteChannel()
+        {
+            @Override
+            public int read(ByteBuffer dst) throws IOException
+            {
+                ByteBuffer part = ByteBuffer.allocate(Math.min(bytesPerRead, dst.remaining()));
+                int n = channel.read(part);
+                part.flip();
+                dst.put(part);
+                return n;
+            }
+
+            @Override
+            public boolean isOpen()
+            {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException
+            {
+                channel.close();
+            }
+        };
+    }
+
+    private static ChannelCommunicator communicator(String text, int bytesPerRead, ByteArrayOutputStream out)
+    {
+        return new ChannelCommunicator(trickle(text, bytesPerRead), Channels.newChannel(out), 4);
+    }
+
+    private static ChannelCommunicator reader(String text)
+    {
+        return communicator(text, 100, new ByteArrayOutputStream());
+    }
+
+    @Test
+    void matchesScanner()
+    {
+        for (int bytesPerRead : new int[]{1, 2, 3, 7, 1000})
+        {
+            Scanner scanner = new Scanner(SESSION);
+            ChannelCommunicator channel = communicator(SESSION, bytesPerRead, new ByteArrayOutputStream());
+
+            assertEquals(scanner.nextInt(), channel.nextInt());
+            for (int i = 0; i < 4; i++) // rest of "3" line, then B, rotors, rings
+                assertEquals(scanner.nextLine(), channel.nextLine());
+            for (int i = 0; i < 3; i++)
+                assertEquals(scanner.nextInt(), channel.nextInt());
+            assertEquals(scanner.nextLine(), channel.nextLine());
+            assertEquals(scanner.nextLine(), channel.nextLine());
+            assertEquals(scanner.nextLine(), channel.nextLine());
+            assertThrows(NoSuchElementException.class, channel::nextLine);
+        }
+    }
+
+    @Test
+    void badIntegers()
+    {
+        assertThrows(InputMismatchException.class, () -> reader("12a").nextInt());
+        assertThrows(InputMismatchException.class, () -> reader("-").nextInt());
+        assertThrows(InputMismatchException.class, () -> reader("2147483648").nextInt());
+        assertEquals(Integer.MIN_VALUE, reader("-2147483648").nextInt());
+        assertThrows(NoSuchElementException.class, () -> reader(" \n ").nextInt());
+    }
+
+    @Test
+    void mismatchLeftInPlace()
+    {
+        // as Scanner, white space is skipped but the token is not consumed, even across reads and past the size of
+        // the buffer
+        String text = "7 \r\n \t\n   12abc def\n-x\n000000000042\n";
+        for (int bytesPerRead : new int[]{1, 3, 1000})
+        {
+            Scanner scanner = new Scanner(text);
+            ChannelCommunicator channel = communicator(text, bytesPerRead, new ByteArrayOutputStream());
+            assertEquals(scanner.nextInt(), channel.nextInt());
+            assertEquals(scanner.nextLine(), channel.nextLine()); // rest of "7" line
+            assertThrows(InputMismatchException.class, scanner::nextInt);
+            assertThrows(InputMismatchException.class, channel::nextInt);
+            assertEquals("12abc def", scanner.nextLine());
+            assertEquals("12abc def", channel.nextLine());
+            assertThrows(InputMismatchException.class, scanner::nextInt);
+            assertThrows(InputMismatchException.class, channel::nextInt);
+            assertEquals(scanner.nextLine(), channel.nextLine());
+            assertEquals(scanner.nextInt(), channel.nextInt()); // longer than the buffer
+            assertEquals(scanner.nextLine(), channel.nextLine());
+        }
+    }
+
+    @Test
+    void send() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ChannelCommunicator channel = communicator("", 100, out);
+        channel.send("Key: \u00C5\u00C4\u00D6");
+        channel.send("\uD835\uDD08");
+        assertEquals(0, out.size() % 4); // only full buffers written before flush
+        channel.close();
+        assertEquals("Key: \u00C5\u00C4\u00D6\n\uD835\uDD08\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void files() throws IOException
+    {
+        Path script = Files.createTempFile("session", ".txt");
+        Path transcript = Files.createTempFile("transcript", ".txt");
+        try
+        {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 100_000; i++)
+                text.append(i).append(" ABCDEFGHIJKLMNOPQRSTUVWXYZ\n");
+            Files.write(script, text.toString().getBytes(StandardCharsets.UTF_8));
+
+            try (FileCommunicator file = new FileCommunicator(script, transcript))
+            {
+                for (int i = 0; i < 100_000; i++)
+                {
+                    assertEquals(i, file.nextInt());
+                    file.send(file.nextLine().trim());
+                }
+                assertThrows(NoSuchElementException.class, file::nextLine);
+            }
+            assertEquals(100_000, Files.readAllLines(transcript).size());
+            assertEquals("ABCDEFGHIJKLMNOPQRSTUVWXYZ", Files.readAllLines(transcript).get(99_999));
+
+            // transcript in a missing directory; the script is not left open
+            Path missing = transcript.resolveSibling("missing-" + System.nanoTime()).resolve("transcript.txt");
+            long open = openFiles();
+            assertThrows(IOException.class, () -> new FileCommunicator(script, missing));
+            assertEquals(open, openFiles());
+        }
+        finally
+        {
+            Files.delete(script);
+            Files.delete(transcript);
+        }
+    }
+
+    /**
+     * Number of files open by this process; 0 where it cannot be told.
+     */
+    private static long openFiles() throws IOException
+    {
+        Path descriptors = Paths.get("/proc/self/fd");
+        if (!Files.isDirectory(descriptors))
+            return 0;
+        try (Stream<Path> files = Files.list(descriptors))
+        {
+            return files.count() - 1; // less the one listing them
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package communicators;
+
+import engines.MachineCache;
+import engines.ScramblerTables;
+import engines.TableMachine;
+import machines.MachineKey;
+import monitoring.LatencyRecorder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.AlphabetConverter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test SessionServer, SocketCommunicator and OperatorHandler with many clients at once.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class SessionServerTest
+{
+    private static final String KEY = "ENIGMA_1 B II-IV-V 02-21-12 AV BS CG DL FU HZ IN KM OW RX";
+
+    @BeforeAll
+    static void createAlphabet()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    }
+
+    private static class Client implements AutoCloseable
+    {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final OutputStream out;
+
+        Client(int port) throws IOException
+        {
+            socket = new Socket("localhost", port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = socket.getOutputStream();
+        }
+
+        void write(String text) throws IOException
+        {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        String read() throws IOException
+        {
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            socket.close();
+        }
+    }
+
+    @Test
+    void manySessions() throws IOException
+    {
+        String expected = new TableMachine(ScramblerTables.of(MachineKey.parse(KEY))).type(
+                "EDPUDNRGYSZRCXNUYTPOMRMBOFKTBZREZKMLXLVEFG");
+        LatencyRecorder latency = new LatencyRecorder();
+        OperatorHandler handler = new OperatorHandler(new MachineCache(4));
+        handler.setLatencyRecorder(latency);
+
+        try (SessionServer server = new SessionServer(new InetSocketAddress("localhost", 0), handler).start())
+        {
+            List<Client> clients = new ArrayList<>();
+            for (int i = 0; i < 100; i++)
+            {
+                Client client = new Client(server.getPort());
+                clients.add(client);
+                assertTrue(client.read().startsWith("READY"));
+            }
+
+            for (Client client : clients) // all sessions open at once, served by one thread
+            {
+                client.write("KEY " + KEY + "\r\n");
+                client.write("TYPE EDPUD NRGYS ZRCXN");
+            }
+            for (Client client : clients)
+            {
+                assertEquals("OK", client.read());
+                client.write(" UYTPO MRMBO FKTBZ REZKM LXLVE FG\r\n"); // rest of line
+                assertEquals(expected, client.read());
+            }
+            assertEquals(100, server.getSessions());
+            assertEquals(100, latency.histogram("ENIGMA_1", 42).getCount());
+
+            for (Client client : clients)
+            {
+                client.write("SET BLA\nTYPE AAA\nBOGUS\nSET AB\nQUIT\n");
+                assertEquals("OK", client.read());
+                assertEquals(3, client.read().length());
+                assertTrue(client.read().startsWith("ERROR Unknown command"));
+                assertTrue(client.read().startsWith("ERROR"));
+                assertEquals("BYE", client.read());
+                assertNull(client.read()); // server ended session
+                client.close();
+            }
+        }
+    }
+
+    @Test
+    void errors() throws IOException
+    {
+        try (SessionServer server = new SessionServer(new InetSocketAddress("localhost", 0),
+                new OperatorHandler(new MachineCache(4))).start();
+             Client client = new Client(server.getPort()))
+        {
+            client.read();
+            client.write("TYPE ABC\nKEY ENIGMA_9 B I-II-III 01-01-01\nKEY ENIGMA_1 B I-I-III 01-01-01\n");
+            assertEquals("ERROR No KEY set.", client.read());
+            assertEquals("ERROR Unknown version ENIGMA_9.", client.read());
+            assertTrue(client.read().startsWith("ERROR Rotor I"));
+        }
+    }
+
+    @Test
+    void nextInt() throws IOException
+    {
+        List<Integer> numbers = new ArrayList<>();
+        SessionServer.Handler handler = new SessionServer.Handler()
+        {
+            @Override
+            public void opened(SocketCommunicator session)
+            {
+            }
+
+            @Override
+            public void received(SocketCommunicator session)
+            {
+                try
+                {
+                    while (true)
+                        numbers.add(session.nextInt());
+                }
+                catch (NoSuchElementException e)
+                {
+                    session.send(numbers.toString());
+                }
+            }
+        };
+
+        try (SessionServer server = new SessionServer(new InetSocketAddress("localhost", 0), handler).start();
+             Client client = new Client(server.getPort()))
+        {
+            client.write("12 -3");
+            assertEquals("[12]", client.read()); // -3 may go on
+            client.write("4\n");
+            assertEquals("[12, -34]", client.read());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package cryptanalysis;
+
+import engines.ScramblerTables;
+import engines.SharedKeystream;
+import exceptions.BadKeyException;
+import machines.MachineKey;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test AnnealingSearch on messages enciphered at a known key.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class AnnealingSearchTest
+{
+    private static final String[] WORDS = {"AN", "OBERKOMMANDO", "DER", "WEHRMACHT", "FEIND", "STEHT", "BEI", "NORD",
+            "OST", "SUED", "WEST", "ANGRIFF", "UM", "UHR", "EINS", "ZWO", "DREI", "VIER", "FUENF", "NULL", "KEINE",
+            "BESONDEREN", "VORKOMMNISSE", "WETTER", "BEWOELKT", "REGEN", "WIND", "STAERKE", "DIVISION", "REGIMENT"};
+
+    @BeforeAll
+    static void createAlphabet()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    }
+
+    private static String plaintext(Random random, int length)
+    {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < length)
+            text.append(WORDS[random.nextInt(WORDS.length)]).append('X');
+        return text.substring(0, length);
+    }
+
+    /**
+     * Log probabilities of letter pairs, learned from a text.
+     */
+    private static AnnealingSearch.Scorer bigrams(String sample)
+    {
+        double[] logs = new double[26 * 26];
+        int[] counts = new int[26 * 26];
+        for (int i = 1; i < sample.length(); i++)
+            counts[(sample.charAt(i - 1) - 'A') * 26 + sample.charAt(i) - 'A']++;
+        for (int i = 0; i < logs.length; i++)
+            logs[i] = Math.log((counts[i] + 0.01) / sample.length());
+        return (text, length) -> {
+            double score = 0;
+            for (int i = 1; i < length; i++)
+                score += logs[text[i - 1] * 26 + text[i]];
+            return score / length;
+        };
+    }
+
+    @Test
+    void recoversRingsAndPlugboard()
+    {
+        Random random = new Random(50);
+        MachineKey key = new MachineKey(WiringData.enimgaVersion.ENIGMA_1, new String[]{"II", "IV", "V"},
+                new int[]{1, 21, 12}, "B", "AV BS CG DL FU HZ");
+        String plaintext = plaintext(random, 400);
+        String ciphertext = new SharedKeystream(ScramblerTables.of(key), new int[]{1, 11, 0}).type(0, plaintext);
+
+        AnnealingSearch.Config config = new AnnealingSearch.Config(WiringData.enimgaVersion.ENIGMA_1,
+                new String[]{"II", "IV", "V"}, "B", "BLA", ciphertext)
+                .withRings(new int[]{1, 1, 1}, 1, 2)
+                .withScorer(bigrams(plaintext(random, 20_000)))
+                .withCooling(AnnealingSearch.Cooling.exponential(0.5, 0.005))
+                .withRestarts(16, 20_000)
+                .withThreads(4)
+                .withTopK(5)
+                .withSeed(1940);
+        List<AnnealingSearch.Candidate> best = new AnnealingSearch(config).run();
+        assertEquals(key, best.get(0).getKey(), best.toString());
+        assertEquals(plaintext, new AnnealingSearch(config).decipher(best.get(0)));
+        for (int i = 1; i < best.size(); i++)
+        {
+            assertTrue(best.get(i - 1).getScore() >= best.get(i).getScore());
+            assertNotEquals(best.get(i - 1).getKey(), best.get(i).getKey());
+        }
+
+        // each restart has its own random numbers, so the thread count does not change the result
+        AnnealingSearch.Config small = config.withRestarts(6, 2_000);
+        assertEquals(new AnnealingSearch(small.withThreads(1)).run().toString(),
+                new AnnealingSearch(small.withThreads(3)).run().toString());
+    }
+
+    @Test
+    void budgetAndBadConfig()
+    {
+        AnnealingSearch.Config config = new AnnealingSearch.Config(WiringData.enimgaVersion.ENIGMA_1,
+                new String[]{"I", "II", "III"}, "B", "AAA", "QWERTZUIOPASDFGHJKLYXCVBNM")
+                .withCooling(AnnealingSearch.Cooling.linear(0.1, 0))
+                .withRestarts(1000, 100_000_000)
+                .withBudget(200, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        List<AnnealingSearch.Candidate> best = new AnnealingSearch(config).run();
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+        assertFalse(best.isEmpty());
+        assertTrue(best.size() <= 10);
+
+        assertThrows(BadKeyException.class, () -> new AnnealingSearch(new AnnealingSearch.Config(
+                WiringData.enimgaVersion.ENIGMA_1, new String[]{"I", "I", "III"}, "B", "AAA", "QWERT")));
+        assertThrows(BadKeyException.class, () -> new AnnealingSearch(new AnnealingSearch.Config(
+                WiringData.enimgaVersion.ENIGMA_1, new String[]{"I", "II", "III"}, "B", "AA", "QWERT")));
+        assertThrows(IllegalArgumentException.class, () -> new AnnealingSearch(new AnnealingSearch.Config(
+                WiringData.enimgaVersion.ENIGMA_1, new String[]{"I", "II", "III"}, "B", "AAA", "QWE-RT")));
+        assertThrows(IllegalArgumentException.class, () -> new AnnealingSearch(config.withThreads(0)));
+    }
+}
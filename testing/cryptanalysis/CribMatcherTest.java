@@ -0,0 +1,134 @@
+package cryptanalysis;
+
+import engines.ScramblerTables;
+import engines.TableMachine;
+import machines.MachineKey;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test CribMatcher against searching for each word with String.indexOf.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class CribMatcherTest
+{
+    @BeforeAll
+    static void createAlphabet()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    }
+
+    private static String letters(Random random, int length, int alphabet)
+    {
+        char[] text = new char[length];
+        for (int i = 0; i < length; i++)
+            text[i] = (char) ('A' + random.nextInt(alphabet));
+        return new String(text);
+    }
+
+    private static int[] indexes(String text)
+    {
+        int[] letters = new int[text.length()];
+        for (int i = 0; i < letters.length; i++)
+            letters[i] = text.charAt(i) - 'A';
+        return letters;
+    }
+
+    /**
+     * Every match, as "word@end", by searching for each word.
+     */
+    private static List<String> naive(List<String> words, String text)
+    {
+        List<String> found = new ArrayList<>();
+        for (int w = 0; w < words.size(); w++)
+            for (int i = text.indexOf(words.get(w)); i != -1; i = text.indexOf(words.get(w), i + 1))
+                found.add(w + "@" + (i + words.get(w).length()));
+        found.sort(null);
+        return found;
+    }
+
+    @Test
+    void matchesNaive()
+    {
+        Random random = new Random(49);
+        for (int trial = 0; trial < 200; trial++)
+        {
+            // small alphabet, so words overlap and are suffixes of each other
+            List<String> words = new ArrayList<>();
+            for (int i = 0, n = 1 + random.nextInt(20); i < n; i++)
+                words.add(letters(random, 1 + random.nextInt(6), 3));
+            CribMatcher matcher = new CribMatcher(words);
+            String text = letters(random, random.nextInt(300), 3);
+            int[] letters = indexes(text);
+
+            List<String> expected = naive(words, text);
+            List<String> found = new ArrayList<>();
+            matcher.forEach(letters, 0, letters.length, (word, end) -> found.add(word + "@" + end));
+            found.sort(null);
+            assertEquals(expected, found, words + " " + text);
+            assertEquals(expected.size(), matcher.count(letters, 0, letters.length));
+            assertEquals(expected.size(), matcher.count(text));
+
+            int first = -1;
+            for (String match : expected)
+            {
+                int end = Integer.parseInt(match.substring(match.indexOf('@') + 1));
+                first = (first == -1) ? end : Math.min(first, end);
+            }
+            assertEquals(first, matcher.find(letters, 0, letters.length));
+        }
+    }
+
+    @Test
+    void states()
+    {
+        CribMatcher matcher = new CribMatcher(Arrays.asList("HE", "SHE", "HIS", "HERS", "HE"));
+        int state = CribMatcher.START;
+        for (char c : "USHE".toCharArray())
+            state = matcher.next(state, c - 'A');
+        assertTrue(matcher.isMatch(state));
+        assertEquals(3, matcher.getMatches(state)); // SHE, and HE twice
+        assertEquals(3, matcher.getDepth(state));
+        assertEquals(3, matcher.count("HIS-HE")); // HIS, and HE twice; the dash ends any word in progress
+        assertEquals(10, matcher.getStates());
+        assertEquals("HERS", matcher.getWord(3));
+
+        assertThrows(IllegalArgumentException.class, () -> new CribMatcher(Arrays.asList("HE", "")));
+        assertThrows(IllegalArgumentException.class, () -> new CribMatcher(Arrays.asList("H3")));
+        assertThrows(IllegalArgumentException.class, () -> new CribMatcher(new ArrayList<>()));
+    }
+
+    @Test
+    void inlineDuringDecryption()
+    {
+        ScramblerTables tables = ScramblerTables.of(new MachineKey(WiringData.enimgaVersion.ENIGMA_1,
+                new String[]{"II", "IV", "V"}, new int[]{2, 21, 12}, "B", "AV BS CG DL FU HZ IN KM OW RX").build());
+        String plaintext = "ANXOBERKOMMANDOXWETTERFUERDIENACHTXNEBEL";
+        TableMachine machine = new TableMachine(tables);
+        machine.setPositions(1, 11, 0);
+        int[] ciphertext = indexes(machine.type(plaintext));
+
+        CribMatcher matcher = new CribMatcher(Arrays.asList("WETTER", "OBERKOMMANDO", "FLIEGERKORPS"));
+        machine.setPositions(1, 11, 0);
+        int state = CribMatcher.START;
+        int typed = 0;
+        while (!matcher.isMatch(state))
+            state = matcher.next(state, machine.type(ciphertext[typed++]));
+        assertEquals(plaintext.indexOf("OBERKOMMANDO") + "OBERKOMMANDO".length(), typed); // accepted early
+        assertEquals(12, matcher.getDepth(state));
+    }
+}
@@ -0,0 +1,140 @@
+package cryptanalysis;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.AlphabetConverter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test CribScanner against comparing every crib at every offset.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class CribScannerTest
+{
+    @BeforeAll
+    static void createAlphabet()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    }
+
+    private static String letters(Random random, int length, int alphabet)
+    {
+        char[] text = new char[length];
+        for (int i = 0; i < length; i++)
+            text[i] = (char) ('A' + random.nextInt(alphabet));
+        return new String(text);
+    }
+
+    /**
+     * Every admissible placement, as "crib@offset", by comparing letter by letter.
+     */
+    private static List<String> naive(List<String> cribs, String ciphertext)
+    {
+        List<String> placements = new ArrayList<>();
+        for (int c = 0; c < cribs.size(); c++)
+        {
+            String crib = cribs.get(c);
+            for (int offset = 0; offset + crib.length() <= ciphertext.length(); offset++)
+            {
+                boolean admissible = true;
+                for (int j = 0; j < crib.length() && admissible; j++)
+                    admissible = crib.charAt(j) != ciphertext.charAt(offset + j);
+                if (admissible)
+                    placements.add(c + "@" + offset);
+            }
+        }
+        return placements;
+    }
+
+    private static List<String> scan(CribScanner scanner, Reader in, String ciphertext, List<String> cribs)
+            throws IOException
+    {
+        List<String> placements = new ArrayList<>();
+        long length = scanner.scan(in, (crib, offset, letters, from) -> {
+            // the letters handed over are those under the crib
+            for (int j = 0; j < cribs.get(crib).length(); j++)
+                assertEquals(ciphertext.charAt((int) offset + j), (char) ('A' + letters[from + j]));
+            placements.add(crib + "@" + offset);
+        });
+        assertEquals(ciphertext.length(), length);
+        placements.sort(null);
+        return placements;
+    }
+
+    @Test
+    void matchesNaive() throws IOException
+    {
+        Random random = new Random(48);
+        List<String> cribs = new ArrayList<>();
+        for (int i = 0; i < 12; i++)
+            cribs.add(letters(random, 1 + random.nextInt(12), 4)); // small alphabet, so many offsets are ruled out
+        cribs.add(letters(random, 70, 26)); // longer than a word of the bitsets
+        cribs.add(letters(random, 140, 26));
+        CribScanner scanner = new CribScanner(cribs);
+
+        for (int length : new int[]{0, 1, 13, 64, 1000, CribScanner.BLOCK - 1, CribScanner.BLOCK,
+                CribScanner.BLOCK + 139, 2 * CribScanner.BLOCK + 500})
+        {
+            String ciphertext = letters(random, length, 4);
+            List<String> expected = naive(cribs, ciphertext);
+            expected.sort(null);
+            assertEquals(expected, scan(scanner, new StringReader(ciphertext), ciphertext, cribs), "length " + length);
+        }
+    }
+
+    @Test
+    void streamed() throws IOException
+    {
+        // grouped in fives, and read a few characters at a time
+        Random random = new Random(1939);
+        String ciphertext = letters(random, CribScanner.BLOCK + 777, 26);
+        StringBuilder grouped = new StringBuilder();
+        for (int i = 0; i < ciphertext.length(); i++)
+            grouped.append(ciphertext.charAt(i)).append((i % 5 == 4) ? ((i % 50 == 49) ? "\n" : " ") : "");
+        Reader trickle = new Reader()
+        {
+            private final StringReader in = new StringReader(grouped.toString());
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException
+            {
+                return in.read(buffer, offset, Math.min(length, 1 + random.nextInt(7)));
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        };
+
+        List<String> cribs = Arrays.asList("OBERKOMMANDODERWEHRMACHT", "WETTERVORHERSAGE", "KEINEBESONDERENEREIGNISSE",
+                "X");
+        List<String> expected = naive(cribs, ciphertext);
+        expected.sort(null);
+        assertEquals(expected, scan(new CribScanner(cribs), trickle, ciphertext, cribs));
+    }
+
+    @Test
+    void badInput()
+    {
+        CribScanner scanner = new CribScanner(Arrays.asList("AB"));
+        assertThrows(IllegalArgumentException.class, () -> scanner.scan("ABC DE1", (c, o, l, f) -> { }));
+        assertThrows(IllegalArgumentException.class, () -> new CribScanner(Arrays.asList("A1")));
+        assertThrows(IllegalArgumentException.class, () -> new CribScanner(Arrays.asList("")));
+        assertThrows(IllegalArgumentException.class, () -> new CribScanner(new ArrayList<>()));
+    }
+}
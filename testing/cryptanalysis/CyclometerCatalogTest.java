@@ -0,0 +1,113 @@
+package cryptanalysis;
+
+import engines.ScramblerTables;
+import engines.TableMachine;
+import machine_pieces.*;
+import machines.ConstructedFullModel;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test CyclometerCatalog.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class CyclometerCatalogTest
+{
+    static CyclometerCatalog catalog;
+
+    @BeforeAll
+    static void generateCatalog()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+        catalog = CyclometerCatalog.generate(WiringData.enimgaVersion.ENIGMA_1, "B");
+    }
+
+    /**
+     * Encipher doubled message keys at a ground setting, as an operator would, until every letter has been seen.
+     */
+    static List<String> indicators(String[] wheelOrder, String ground, String plugs)
+    {
+        Map<String, Map<String, GearConstruction>> components = WiringData.Enigma1();
+        Plugboard plugboard = new Plugboard();
+        for (String pair : plugs.split(" "))
+            plugboard.insertWire(pair);
+        Rotor[] rotors = new Rotor[3];
+        for (int i = 0; i < 3; i++)
+            rotors[i] = new Rotor(wheelOrder[i], 1, ground.charAt(i), components);
+        ScramblerTables tables = ScramblerTables.of(new ConstructedFullModel(
+                new EntryWheel(EntryWheel.ETWsequence.ABCDE), plugboard, rotors, new Reflector("B", components)));
+
+        Random random = new Random(1938);
+        List<String> indicators = new ArrayList<>();
+        while (CycleStructure.signature(indicators, tables.getAlphabet()) == null)
+        {
+            TableMachine machine = new TableMachine(tables);
+            StringBuilder key = new StringBuilder();
+            for (int i = 0; i < 3; i++)
+                key.append((char) ('A' + random.nextInt(26)));
+            indicators.add(machine.type(key.toString() + key));
+        }
+        return indicators;
+    }
+
+    @Test
+    void generate()
+    {
+        assertEquals(60 * 26 * 26 * 26, catalog.numberOfSettings());
+        assertTrue(catalog.numberOfSignatures() > 1000);
+    }
+
+    @Test
+    void lookup()
+    {
+        List<String> indicators = indicators(new String[]{"III", "I", "IV"}, "KQP", "AV BS CG DL FU HZ IN KM OW RX");
+        List<CyclometerCatalog.Setting> settings = catalog.lookup(indicators);
+        assertNotNull(settings);
+        assertFalse(settings.isEmpty());
+        assertTrue(settings.stream().anyMatch(s -> s.toString().equals("III-I-IV KQP")));
+
+        // too few indicators
+        assertNull(catalog.lookup(indicators.subList(0, 3)));
+        // contradictory indicators
+        List<String> bad = new ArrayList<>(indicators);
+        String first = bad.get(0);
+        bad.add(first.substring(0, 3) + (char) ((first.charAt(3) - 'A' + 1) % 26 + 'A') + first.substring(4));
+        assertThrows(IllegalArgumentException.class, () -> catalog.lookup(bad));
+    }
+
+    @Test
+    void writeAndRead() throws IOException
+    {
+        Path file = Files.createTempFile("cyclometer", ".bin");
+        try {
+            catalog.write(file);
+            CyclometerCatalog read = CyclometerCatalog.read(file);
+            assertEquals(catalog.numberOfSignatures(), read.numberOfSignatures());
+            assertEquals(catalog.numberOfSettings(), read.numberOfSettings());
+            assertEquals("ENIGMA_1", read.getVersion());
+            assertEquals("B", read.getReflector());
+
+            List<String> indicators = indicators(new String[]{"V", "II", "I"}, "AZM", "AB");
+            assertEquals(catalog.lookup(indicators).toString(), read.lookup(indicators).toString());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package cryptanalysis;
+
+import engines.ScramblerTables;
+import engines.SharedKeystream;
+import machines.MachineKey;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test DepthDetector on a corpus with planted depths.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class DepthDetectorTest
+{
+    private static final String[] WORDS = {"AN", "OBERKOMMANDO", "DER", "WEHRMACHT", "FEIND", "STEHT", "BEI", "NORD",
+            "OST", "SUED", "WEST", "ANGRIFF", "UM", "UHR", "EINS", "ZWO", "DREI", "VIER", "FUENF", "NULL", "KEINE",
+            "BESONDEREN", "VORKOMMNISSE", "WETTER", "BEWOELKT", "REGEN", "WIND", "STAERKE", "DIVISION", "REGIMENT"};
+
+    @BeforeAll
+    static void createAlphabet()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    }
+
+    private static String plaintext(Random random, int length)
+    {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < length)
+            text.append(WORDS[random.nextInt(WORDS.length)]).append('X');
+        return text.substring(0, length);
+    }
+
+    /**
+     * Message keys with the same right rotor position and a different left and middle; any two are a multiple of 26
+     * key presses apart, so not in depth at the offsets tested.
+     */
+    private static int[] positions(Random random, List<Integer> used)
+    {
+        int leftMiddle;
+        do
+            leftMiddle = random.nextInt(26 * 26);
+        while (used.contains(leftMiddle));
+        used.add(leftMiddle);
+        return new int[]{leftMiddle / 26, leftMiddle % 26, 0};
+    }
+
+    @Test
+    void findsPlantedDepths()
+    {
+        Random random = new Random(47);
+        ScramblerTables day1 = ScramblerTables.of(new MachineKey(WiringData.enimgaVersion.ENIGMA_1,
+                new String[]{"II", "IV", "V"}, new int[]{2, 21, 12}, "B", "AV BS CG DL FU HZ IN KM OW RX").build());
+        ScramblerTables day2 = ScramblerTables.of(new MachineKey(WiringData.enimgaVersion.ENIGMA_1,
+                new String[]{"III", "I", "II"}, new int[]{5, 9, 14}, "B", "AQ BJ CW DT EL FY GN HS IO KZ").build());
+
+        List<Integer> used = new ArrayList<>();
+        List<DepthDetector.Intercept> corpus = new ArrayList<>();
+        for (int i = 0; i < 60; i++)
+        {
+            int[] key = positions(random, used);
+            corpus.add(new DepthDetector.Intercept("R" + i, "day1", "IND" + i,
+                    new SharedKeystream(day1, key).type(0, plaintext(random, 600))));
+        }
+
+        // same indicator, so same message key; short, but reported anyway
+        int[] key = positions(random, used);
+        corpus.add(new DepthDetector.Intercept("A1", "day1", "XYZ", new SharedKeystream(day1, key).type(0,
+                plaintext(random, 50))));
+        corpus.add(new DepthDetector.Intercept("A2", "day1", "XYZ", new SharedKeystream(day1, key).type(0,
+                plaintext(random, 40))));
+
+        // same message key, indicators garbled in transmission
+        key = positions(random, used);
+        corpus.add(new DepthDetector.Intercept("B1", "day1", "QQQ", new SharedKeystream(day1, key).type(0,
+                plaintext(random, 900))));
+        corpus.add(new DepthDetector.Intercept("B2", "day1", null, new SharedKeystream(day1, key).type(0,
+                plaintext(random, 850))));
+        // same message key on another day; not in depth with B1
+        corpus.add(new DepthDetector.Intercept("B3", "day2", null, new SharedKeystream(day2, key).type(0,
+                plaintext(random, 600))));
+
+        // second message starts seven key presses after the first
+        key = positions(random, used);
+        SharedKeystream stream = new SharedKeystream(day1, key);
+        corpus.add(new DepthDetector.Intercept("C1", "day1", "CCC", stream.type(0, plaintext(random, 600))));
+        corpus.add(new DepthDetector.Intercept("C2", "day1", "DDD", stream.type(7, plaintext(random, 600))));
+
+        List<DepthDetector.Depth> depths = new DepthDetector().find(corpus);
+        List<String> found = new ArrayList<>();
+        for (DepthDetector.Depth depth : depths)
+            found.add(depth.getFirst().getId() + "-" + depth.getSecond().getId() + "@" + depth.getOffset());
+        assertEquals(3, depths.size(), found.toString());
+        assertTrue(found.contains("A1-A2@0"), found.toString());
+        assertTrue(found.contains("B1-B2@0"), found.toString());
+        assertTrue(found.contains("C1-C2@7"), found.toString());
+
+        for (DepthDetector.Depth depth : depths)
+        {
+            assertEquals(depth.isSameIndicator(), depth.getFirst().getId().equals("A1"));
+            if (!depth.isSameIndicator())
+                assertTrue(depth.getKappa() > 0.06, depth.toString());
+        }
+        assertEquals(40, depths.get(depths.size() - 1).getOverlap()); // lowest z: short, found by indicator
+    }
+
+    @Test
+    void coincidences()
+    {
+        Random random = new Random(1947);
+        for (int trial = 0; trial < 500; trial++)
+        {
+            byte[] a = new byte[random.nextInt(70)];
+            byte[] b = new byte[random.nextInt(70)];
+            for (int i = 0; i < a.length; i++)
+                a[i] = (byte) (1 + random.nextInt(4));
+            for (int i = 0; i < b.length; i++)
+                b[i] = (byte) (1 + random.nextInt(4));
+            int offset = random.nextInt(41) - 20;
+
+            int expected = 0;
+            for (int i = 0; i < b.length; i++)
+                if (i + offset >= 0 && i + offset < a.length && a[i + offset] == b[i])
+                    expected++;
+            assertEquals(expected, DepthDetector.coincidences(ByteBuffer.wrap(a), ByteBuffer.wrap(b), offset, 0));
+
+            // stopping early never gives a count at or above what is needed unless the full count is
+            int needed = random.nextInt(30);
+            int count = DepthDetector.coincidences(ByteBuffer.wrap(a), ByteBuffer.wrap(b), offset, needed);
+            assertEquals(expected >= needed, count >= needed);
+            if (count >= needed)
+                assertEquals(expected, count);
+        }
+    }
+
+    @Test
+    void badInput()
+    {
+        List<DepthDetector.Intercept> corpus = new ArrayList<>();
+        corpus.add(new DepthDetector.Intercept("1", null, null, "ABC"));
+        corpus.add(new DepthDetector.Intercept("2", null, null, "AB1"));
+        assertThrows(IllegalArgumentException.class, () -> new DepthDetector().find(corpus));
+        assertThrows(IllegalArgumentException.class, () -> new DepthDetector(-1, 100, 5));
+    }
+}
@@ -0,0 +1,121 @@
+package engines;
+
+import machine_pieces.*;
+import machines.ConstructedFullModel;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test BitslicedScrambler lane by lane against TableMachine.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class BitslicedScramblerTest
+{
+    static ScramblerTables tables;
+
+    @BeforeAll
+    static void createTables()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+
+        Map<String, Map<String, GearConstruction>> components = WiringData.Enigma1();
+        Plugboard plugboard = new Plugboard();
+        plugboard.insertWire("AV");
+        plugboard.insertWire("BS");
+        plugboard.insertWire("CG");
+        Rotor[] rotors = {new Rotor("II", 2, 'A', components), new Rotor("IV", 21, 'A', components),
+                new Rotor("V", 12, 'A', components)};
+        tables = ScramblerTables.of(new ConstructedFullModel(new EntryWheel(EntryWheel.ETWsequence.ABCDE), plugboard,
+                rotors, new Reflector("B", components)));
+    }
+
+    @Test
+    void typeMatchesTableMachine()
+    {
+        Random random = new Random(64);
+        BitslicedScrambler scrambler = new BitslicedScrambler(tables);
+        TableMachine[] machines = new TableMachine[BitslicedScrambler.LANES];
+        for (int lane = 0; lane < machines.length; lane++)
+        {
+            int[] positions = {random.nextInt(26), random.nextInt(26), random.nextInt(26)};
+            scrambler.setLane(lane, positions);
+            machines[lane] = new TableMachine(tables);
+            machines[lane].setPositions(positions);
+        }
+
+        long[] input = new long[26];
+        long[] output = new long[26];
+        int[] letters = new int[machines.length];
+        for (int press = 0; press < 2000; press++) // long enough to turn over the middle rotors
+        {
+            Arrays.fill(input, 0L);
+            for (int lane = 0; lane < machines.length; lane++)
+            {
+                letters[lane] = random.nextInt(26);
+                input[letters[lane]] |= 1L << lane;
+            }
+            scrambler.type(input, output);
+            for (int lane = 0; lane < machines.length; lane++)
+                assertEquals(machines[lane].type(letters[lane]), BitslicedScrambler.laneContact(output, lane));
+        }
+        for (int lane = 0; lane < machines.length; lane++)
+            assertArrayEquals(machines[lane].getPositions(), scrambler.getLane(lane));
+    }
+
+    @Test
+    void loadSweep()
+    {
+        BitslicedScrambler scrambler = new BitslicedScrambler(tables);
+        assertEquals(64, scrambler.loadSweep(0));
+        assertArrayEquals(new int[]{0, 0, 0}, scrambler.getLane(0));
+        assertArrayEquals(new int[]{0, 2, 11}, scrambler.getLane(63));
+        assertEquals(8, scrambler.loadSweep(26 * 26 * 26 - 8));
+        assertNull(scrambler.getLane(8));
+        assertEquals(0xFFL, scrambler.getActiveLanes());
+    }
+
+    @Test
+    void testCrib()
+    {
+        // encrypt a crib at a known start position, then find that position in a full sweep
+        TableMachine machine = new TableMachine(tables);
+        int[] start = {1, 11, 0}; // BLA
+        machine.setPositions(start);
+        String crib = "AUFKLXABTEILUNG";
+        int[] plaintext = new int[crib.length()];
+        int[] ciphertext = new int[crib.length()];
+        for (int i = 0; i < crib.length(); i++)
+        {
+            plaintext[i] = crib.charAt(i) - 'A';
+            ciphertext[i] = machine.type(plaintext[i]);
+        }
+
+        BitslicedScrambler scrambler = new BitslicedScrambler(tables);
+        int found = 0;
+        for (long index = 0; index < 26 * 26 * 26; index += BitslicedScrambler.LANES)
+        {
+            scrambler.loadSweep(index);
+            long survivors = scrambler.testCrib(plaintext, ciphertext);
+            for (int lane = 0; lane < BitslicedScrambler.LANES; lane++)
+                if ((survivors & (1L << lane)) != 0)
+                {
+                    found++;
+                    assertEquals(1 * 26 * 26 + 11 * 26, index + lane);
+                }
+        }
+        assertEquals(1, found);
+    }
+}
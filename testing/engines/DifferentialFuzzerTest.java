@@ -0,0 +1,86 @@
+package engines;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test DifferentialFuzzer on the engines and on an engine with a planted fault.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class DifferentialFuzzerTest
+{
+    private static List<DifferentialFuzzer.Source> sources;
+
+    @BeforeAll
+    static void createAlphabet()
+    {
+        TableMachineTest.createAlphabet();
+        sources = DifferentialFuzzer.sources();
+    }
+
+    @Test
+    void sources()
+    {
+        boolean registered = false;
+        for (DifferentialFuzzer.Source source : sources)
+            registered |= source.getRegistered() != null;
+        assertTrue(registered); // MachineKey path is fuzzed too
+    }
+
+    @Test
+    void enginesAgree() throws InterruptedException
+    {
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer(sources, DifferentialFuzzer.defaultEngines());
+        DifferentialFuzzer.Report report = fuzzer.run(42, 300, 4, 60);
+        assertNull(report.getDivergence(), String.valueOf(report.getDivergence()));
+        assertEquals(300, report.getCases());
+    }
+
+    @Test
+    void reproducible()
+    {
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer(sources, DifferentialFuzzer.defaultEngines());
+        assertEquals(fuzzer.generate(7, 123, 100)[0].toString(), fuzzer.generate(7, 123, 100)[0].toString());
+        assertEquals(fuzzer.generate(7, 123, 100)[1], fuzzer.generate(7, 123, 100)[1]);
+        assertNotEquals(fuzzer.generate(7, 123, 100)[1], fuzzer.generate(7, 124, 100)[1]);
+    }
+
+    @Test
+    void faultIsShrunk() throws InterruptedException
+    {
+        // wrong wherever a Q is typed
+        Map<String, DifferentialFuzzer.Engine> engines = new LinkedHashMap<>();
+        engines.put("faulty", (config, text) -> {
+            char[] out = new TableMachine(ScramblerTables.of(config.build())).type(text).toCharArray();
+            for (int i = 0; i < out.length; i++)
+                if (text.charAt(i) == 'Q')
+                    out[i] = (out[i] == 'Z') ? 'Y' : 'Z';
+            return new String(out);
+        });
+
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer(sources, engines);
+        DifferentialFuzzer.Report first = fuzzer.run(3, 200, 1, 100);
+        DifferentialFuzzer.Report again = fuzzer.run(3, 200, 4, 100);
+        DifferentialFuzzer.Divergence divergence = first.getDivergence();
+        assertNotNull(divergence);
+        assertEquals(divergence.getCase(), again.getDivergence().getCase()); // whatever the number of threads
+
+        assertEquals("faulty", divergence.getEngine());
+        assertEquals("Q", divergence.getText());
+        assertTrue(divergence.getConfig().getPlugs().isEmpty());
+        for (int ring : divergence.getConfig().getRings())
+            assertEquals(1, ring);
+        for (int position : divergence.getConfig().getPositions())
+            assertEquals(0, position);
+        assertNotEquals(divergence.getExpected(), divergence.getActual());
+    }
+}
@@ -0,0 +1,203 @@
+package engines;
+
+import machine_pieces.*;
+import machines.ConstructedFullModel;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Benchmark of the engines.  Not a unit test; run <code>main</code> directly.  Each benchmark is run a few times to
+ * let the JIT compile it before the timed run.
+ * <br><br>
+ * <b>sweep</b>: test a 15-letter crib at every one of the 26<sup>3</sup> start positions of one wheel order, through
+ * the table-driven path (one <code>TableMachine</code> reset per position) and the bitsliced path (64 positions per
+ * pass).
+ * <br>
+ * <b>keystream</b>: type a long text through <code>ConstructedFullModel</code>, through one
+ * <code>TableMachine</code> stepping rotor by rotor and by <code>SteppingSchedule</code> lookup, and through the
+ * <code>SpecializedMachine</code> for three rotors.
+ * <br>
+ * <b>historic</b>: decrypt the messages of HistoricMessages.txt with each engine of <code>HistoricMessagesTest</code>,
+ * keys prepared once.  A table-driven engine should not fall behind <code>ConstructedFullModel</code>; the bitsliced
+ * scrambler is timed with a single lane, which does not use what it is built for.
+ *
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+public class EngineBenchmark
+{
+    private static final int WARMUP = 5;
+    private static final int RUNS = 5;
+
+    private static final String CRIB = "AUFKLXABTEILUNG";
+    private static final int HISTORIC_PASSES = 2_000; // passes over the corpus per run
+
+    public static void main(String[] args) throws IOException
+    {
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+
+        ScramblerTables tables = ScramblerTables.of(enigma1());
+
+        // ciphertext of crib at start position BLA
+        TableMachine machine = new TableMachine(tables);
+        machine.setPositions(1, 11, 0);
+        int[] plaintext = new int[CRIB.length()];
+        int[] ciphertext = new int[CRIB.length()];
+        for (int i = 0; i < plaintext.length; i++)
+        {
+            plaintext[i] = tables.indexOf(CRIB.charAt(i));
+            ciphertext[i] = machine.type(plaintext[i]);
+        }
+
+        report("sweep, table-driven", () -> sweepTable(tables, plaintext, ciphertext));
+        report("sweep, bitsliced", () -> sweepBitsliced(tables, plaintext, ciphertext));
+        report("keystream, stepped", () -> keystream(new TableMachine(tables)));
+        report("keystream, scheduled", () -> keystream(new TableMachine(tables, SteppingSchedule.of(tables))));
+        report("keystream, specialized", () -> keystream(SpecializedMachine.of(tables)));
+        report("keystream, model", EngineBenchmark::keystreamModel);
+
+        HistoricMessagesTest.loadCorpus();
+        for (Map.Entry<String, Function<HistoricMessagesTest.Message, UnaryOperator<String>>> engine :
+                HistoricMessagesTest.engines.entrySet())
+        {
+            List<UnaryOperator<String>> typists = new ArrayList<>();
+            for (HistoricMessagesTest.Message message : HistoricMessagesTest.messages)
+                typists.add(engine.getValue().apply(message));
+            report("historic, " + engine.getKey(), () -> HistoricMessagesTest.decryptCorpus(typists, HISTORIC_PASSES));
+        }
+    }
+
+    /**
+     * Enigma I, wheel order II IV V, rings 02 21 12, UKW B, with ten plugboard connections.
+     */
+    static ConstructedFullModel enigma1()
+    {
+        Map<String, Map<String, GearConstruction>> components = WiringData.Enigma1();
+        Plugboard plugboard = new Plugboard();
+        for (String pair : "AV BS CG DL FU HZ IN KM OW RX".split(" "))
+            plugboard.insertWire(pair);
+        Rotor[] rotors = {new Rotor("II", 2, 'A', components), new Rotor("IV", 21, 'A', components),
+                new Rotor("V", 12, 'A', components)};
+        return new ConstructedFullModel(new EntryWheel(EntryWheel.ETWsequence.ABCDE), plugboard, rotors,
+                new Reflector("B", components));
+    }
+
+    /**
+     * Time a benchmark and print its rate.
+     * @param name name of benchmark.
+     * @param benchmark returns the number of operations done.
+     */
+    static void report(String name, Benchmark benchmark)
+    {
+        long check = 0;
+        for (int i = 0; i < WARMUP; i++)
+            check += benchmark.run();
+
+        long operations = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++)
+            operations += benchmark.run();
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-32s %,14.0f ops/s   (%,d ops in %,.1f ms; check %d)%n", name,
+                operations * 1e9 / elapsed, operations, elapsed / 1e6, check);
+    }
+
+    /**
+     * A single timed run.
+     */
+    interface Benchmark
+    {
+        /**
+         * @return number of operations done, for the rate.
+         */
+        long run();
+    }
+
+    /**
+     * @return number of start positions tested.
+     */
+    static long sweepTable(ScramblerTables tables, int[] plaintext, int[] ciphertext)
+    {
+        TableMachine machine = new TableMachine(tables);
+        int n = tables.size();
+        long tested = 0;
+        for (int left = 0; left < n; left++)
+            for (int middle = 0; middle < n; middle++)
+                for (int right = 0; right < n; right++)
+                {
+                    machine.setPositions(left, middle, right);
+                    int i = 0;
+                    while (i < plaintext.length && machine.type(plaintext[i]) == ciphertext[i])
+                        i++;
+                    tested++;
+                }
+        return tested;
+    }
+
+    /**
+     * @return number of start positions tested.
+     */
+    static long sweepBitsliced(ScramblerTables tables, int[] plaintext, int[] ciphertext)
+    {
+        BitslicedScrambler scrambler = new BitslicedScrambler(tables);
+        int n = tables.size();
+        long total = (long) n * n * n;
+        long tested = 0;
+        for (long index = 0; index < total; index += BitslicedScrambler.LANES)
+        {
+            tested += scrambler.loadSweep(index);
+            scrambler.testCrib(plaintext, ciphertext);
+        }
+        return tested;
+    }
+
+    /**
+     * @return number of letters typed.
+     */
+    static long keystream(TableMachine machine)
+    {
+        int[] text = keystreamText();
+        machine.type(text, text, text.length);
+        return text.length;
+    }
+
+    /**
+     * @return number of letters typed.
+     */
+    static long keystream(SpecializedMachine machine)
+    {
+        int[] text = keystreamText();
+        machine.type(text, text, text.length);
+        return text.length;
+    }
+
+    /**
+     * @return number of letters typed; a shorter text, as the model is much slower.
+     */
+    static long keystreamModel()
+    {
+        ConstructedFullModel model = enigma1();
+        for (int i = 0; i < 1 << 14; i++)
+            model.type((char) ('A' + i % 26));
+        return 1 << 14;
+    }
+
+    static int[] keystreamText()
+    {
+        int[] text = new int[1 << 20];
+        for (int i = 0; i < text.length; i++)
+            text[i] = i % 26;
+        return text;
+    }
+}
@@ -0,0 +1,258 @@
+package engines;
+
+import machine_pieces.Rotor;
+import machines.ConstructedFullModel;
+import machines.MachineKey;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Decrypt the historic messages of HistoricMessages.txt with every engine.  The messages cover the double step
+ * (Scharnhorst, middle rotor VI starting on its notch), two-notch rotors, reflector A and full plugboards.  The
+ * table-driven engines are guarded against falling near the speed of the reference model; the rates of the engines
+ * on the corpus are reported by <code>EngineBenchmark</code>.
+ *
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+class HistoricMessagesTest
+{
+    static List<Message> messages;
+    // each engine prepares the key of a message, giving a function that types a text from the start of the message
+    static Map<String, Function<Message, UnaryOperator<String>>> engines = new LinkedHashMap<>();
+
+    /**
+     * A message of the corpus.
+     */
+    static class Message
+    {
+        String name;
+        MachineKey key;
+        String start;
+        StringBuilder cipher = new StringBuilder();
+        StringBuilder plain = new StringBuilder();
+
+        @Override
+        public String toString()
+        {
+            return name;
+        }
+    }
+
+    @BeforeAll
+    static void loadCorpus() throws IOException
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+        messages = read();
+
+        engines.put("ConstructedFullModel", message -> {
+            ConstructedFullModel model = message.key.build();
+            Rotor[] rotors = model.getRotorAssembly();
+            return text -> {
+                for (int i = 0; i < rotors.length; i++)
+                    rotors[i].setGroundPosition(message.start.charAt(i));
+                StringBuilder sb = new StringBuilder(text.length());
+                for (char c : text.toCharArray())
+                    sb.append(model.type(c));
+                return sb.toString();
+            };
+        });
+        engines.put("TableMachine", message -> {
+            TableMachine machine = new TableMachine(ScramblerTables.of(message.key));
+            return text -> {
+                machine.setPositions(positions(message.start));
+                return machine.type(text);
+            };
+        });
+        engines.put("TableMachine, scheduled", message -> {
+            ScramblerTables tables = ScramblerTables.of(message.key);
+            TableMachine machine = new TableMachine(tables, SteppingSchedule.of(tables));
+            return text -> {
+                machine.setPositions(positions(message.start));
+                return machine.type(text);
+            };
+        });
+        engines.put("SpecializedMachine", message -> {
+            SpecializedMachine machine = SpecializedMachine.of(ScramblerTables.of(message.key));
+            return text -> {
+                machine.setPositions(positions(message.start));
+                return machine.type(text);
+            };
+        });
+        engines.put("BitslicedScrambler", message -> {
+            ScramblerTables tables = ScramblerTables.of(message.key);
+            BitslicedScrambler scrambler = new BitslicedScrambler(tables);
+            long[] planes = new long[tables.size()];
+            return text -> {
+                scrambler.clearLanes();
+                scrambler.setLane(0, positions(message.start));
+                char[] out = new char[text.length()];
+                for (int i = 0; i < out.length; i++)
+                {
+                    scrambler.type(tables.indexOf(text.charAt(i)), planes);
+                    out[i] = tables.letterAt(BitslicedScrambler.laneContact(planes, 0));
+                }
+                return new String(out);
+            };
+        });
+    }
+
+    static int[] positions(String letters)
+    {
+        int[] positions = new int[letters.length()];
+        for (int i = 0; i < positions.length; i++)
+            positions[i] = AlphabetConverter.getAlphabetConverter().convert(letters.charAt(i));
+        return positions;
+    }
+
+    /**
+     * Read the corpus.
+     */
+    static List<Message> read() throws IOException
+    {
+        List<Message> corpus = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                HistoricMessagesTest.class.getResourceAsStream("HistoricMessages.txt"), StandardCharsets.UTF_8)))
+        {
+            Message message = null;
+            StringBuilder continued = null; // CIPHER or PLAIN being read
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                if (line.trim().isEmpty() || line.startsWith("#"))
+                {
+                    continued = null;
+                    continue;
+                }
+                if (Character.isWhitespace(line.charAt(0)) && continued != null)
+                {
+                    continued.append(line.replaceAll("\\s", ""));
+                    continue;
+                }
+
+                String[] fields = line.trim().split("\\s+", 2);
+                continued = null;
+                switch (fields[0])
+                {
+                    case "MESSAGE":
+                        message = new Message();
+                        message.name = fields[1];
+                        corpus.add(message);
+                        break;
+                    case "KEY":
+                        String[] key = fields[1].split("\\s+");
+                        int[] rings = Arrays.stream(key[3].split("-")).mapToInt(Integer::parseInt).toArray();
+                        message.key = new MachineKey(WiringData.enimgaVersion.valueOf(key[0]), key[2].split("-"),
+                                rings, key[1], String.join(" ", Arrays.copyOfRange(key, 4, key.length)));
+                        break;
+                    case "START":
+                        message.start = fields[1];
+                        break;
+                    case "CIPHER":
+                        continued = message.cipher;
+                        continued.append(fields[1].replaceAll("\\s", ""));
+                        break;
+                    case "PLAIN":
+                        continued = message.plain;
+                        continued.append(fields[1].replaceAll("\\s", ""));
+                        break;
+                    default:
+                        fail("Unknown item in corpus: " + line);
+                }
+            }
+        }
+        return corpus;
+    }
+
+    @Test
+    void corpus()
+    {
+        assertEquals(4, messages.size());
+        for (Message message : messages)
+            assertEquals(message.cipher.length(), message.plain.length(), message.name);
+    }
+
+    @Test
+    void decrypt()
+    {
+        for (Map.Entry<String, Function<Message, UnaryOperator<String>>> engine : engines.entrySet())
+            for (Message message : messages)
+            {
+                String name = engine.getKey() + ": " + message;
+                UnaryOperator<String> typist = engine.getValue().apply(message);
+                assertEquals(message.plain.toString(), typist.apply(message.cipher.toString()), name);
+                assertEquals(message.cipher.toString(), typist.apply(message.plain.toString()), name); // reciprocal
+            }
+    }
+
+    /**
+     * Regression guard: each table-driven engine decrypts the corpus at least twice as fast as the reference model
+     * (about 10 to 30 times as fast when measured), so the check does not depend on the load of the machine.  Each
+     * engine types a fixed amount and the best of a few runs is taken.  The bitsliced scrambler is not guarded, as a
+     * single lane does not use what it is built for; <code>EngineBenchmark</code> reports the rates.
+     */
+    @Test
+    void tableEnginesOutpaceModel()
+    {
+        Map<String, Long> nanos = new LinkedHashMap<>();
+        for (Map.Entry<String, Function<Message, UnaryOperator<String>>> engine : engines.entrySet())
+            if (!engine.getKey().equals("BitslicedScrambler"))
+            {
+                List<UnaryOperator<String>> typists = new ArrayList<>();
+                for (Message message : messages)
+                    typists.add(engine.getValue().apply(message));
+
+                long best = Long.MAX_VALUE;
+                for (int run = 0; run < 8; run++) // the first runs warm up
+                {
+                    long start = System.nanoTime();
+                    decryptCorpus(typists, 50);
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                nanos.put(engine.getKey(), best);
+            }
+
+        long reference = nanos.get("ConstructedFullModel");
+        for (Map.Entry<String, Long> time : nanos.entrySet())
+            if (!time.getKey().equals("ConstructedFullModel"))
+                assertTrue(2 * time.getValue() <= reference, time.getKey() + " is not twice as fast as " +
+                        "ConstructedFullModel: " + time.getValue() + " ns against " + reference + " ns");
+    }
+
+    /**
+     * Decrypt the corpus a number of times.
+     * @return number of letters decrypted.
+     */
+    static long decryptCorpus(List<UnaryOperator<String>> typists, int passes)
+    {
+        long letters = 0;
+        for (int pass = 0; pass < passes; pass++)
+            for (int i = 0; i < typists.size(); i++)
+            {
+                String cipher = messages.get(i).cipher.toString();
+                typists.get(i).apply(cipher);
+                letters += cipher.length();
+            }
+        return letters;
+    }
+}
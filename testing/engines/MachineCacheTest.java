@@ -0,0 +1,125 @@
+package engines;
+
+import exceptions.BadKeyException;
+import machines.ConstructedFullModel;
+import machines.MachineKey;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test MachineCache.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class MachineCacheTest
+{
+    @BeforeAll
+    static void createAlphabet()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    }
+
+    static MachineKey key(String... rotors)
+    {
+        return new MachineKey(WiringData.enimgaVersion.ENIGMA_1, rotors, new int[]{2, 21, 12}, "B",
+                "AV BS CG DL FU HZ IN KM OW RX");
+    }
+
+    @Test
+    void get()
+    {
+        MachineCache cache = new MachineCache(4);
+        ScramblerTables first = cache.get(key("II", "IV", "V"));
+        assertSame(first, cache.get(key("II", "IV", "V")));
+        assertSame(first, cache.get(new MachineKey(WiringData.enimgaVersion.ENIGMA_1, new String[]{"II", "IV", "V"},
+                new int[]{2, 21, 12}, "B", "XR WO MK NI ZH UF LD GC SB VA"))); // same connections, other order
+        assertEquals(2, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+
+        assertThrows(BadKeyException.class, () -> cache.get(key("II", "II", "V")));
+        assertThrows(BadKeyException.class, () -> cache.get(key("II", "IX", "V")));
+    }
+
+    @Test
+    void tablesFromRegistry()
+    {
+        // tables built from the shared wiring tables match tables taken from a constructed machine
+        String[][] orders = {{"II", "IV", "V"}, {"I", "II", "III"}, {"VIII", "VI", "III"}};
+        int[][] rings = {{2, 21, 12}, {1, 1, 1}, {26, 0, 13}};
+        for (int i = 0; i < orders.length; i++)
+        {
+            MachineKey key = new MachineKey(WiringData.enimgaVersion.ENIGMA_M3, orders[i], rings[i], "C",
+                    "AN EZ HK IJ LR MQ OT PV SW UX");
+            TableMachine direct = new TableMachine(ScramblerTables.of(key));
+            TableMachine built = new TableMachine(ScramblerTables.of(key.build()));
+            direct.setPositions(3, 25, 7);
+            built.setPositions(3, 25, 7);
+            String text = "THEQUICKBROWNFOXJUMPSOVERTHELAZYDOGTHEQUICKBROWNFOXJUMPSOVERTHELAZYDOG";
+            assertEquals(built.type(text), direct.type(text));
+        }
+    }
+
+    @Test
+    void eviction()
+    {
+        MachineCache cache = new MachineCache(2);
+        cache.get(key("I", "II", "III"));
+        cache.get(key("I", "II", "IV"));
+        cache.get(key("I", "II", "III")); // most recently used
+        cache.get(key("I", "II", "V")); // evicts I-II-IV
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().evictions());
+
+        cache.get(key("I", "II", "III"));
+        assertEquals(3, cache.stats().misses());
+        cache.get(key("I", "II", "IV"));
+        assertEquals(4, cache.stats().misses());
+    }
+
+    @Test
+    void cursor()
+    {
+        MachineCache cache = new MachineCache(4);
+        MachineKey key = key("II", "IV", "V");
+        TableMachine machine = cache.cursor(key, "BLA");
+
+        ConstructedFullModel reference = key.build();
+        reference.getRotorAssembly()[0].setGroundPosition('B');
+        reference.getRotorAssembly()[1].setGroundPosition('L');
+        reference.getRotorAssembly()[2].setGroundPosition('A');
+        for (char c : "EDPUDNRGYSZRCXNUYTPOMRMBOFKTBZREZKMLXLVEFGUEYSIOZVEQMIKUBPMMYLKLTTDEIS".toCharArray())
+            assertEquals(reference.type(c), machine.type(c));
+
+        assertThrows(BadKeyException.class, () -> cache.cursor(key, "BL"));
+        assertThrows(BadKeyException.class, () -> cache.cursor(key, "BL?"));
+    }
+
+    @Test
+    void concurrentAccess() throws InterruptedException
+    {
+        MachineCache cache = new MachineCache(3);
+        String[] right = {"III", "IV", "V"};
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 200; i++)
+        {
+            String r = right[i % right.length];
+            pool.execute(() -> cache.cursor(key("I", "II", r), "AAA").type("HELLO"));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(3, cache.size());
+        assertEquals(200, cache.stats().hits() + cache.stats().misses());
+    }
+}
@@ -0,0 +1,106 @@
+package engines;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test SharedKeystream against one machine typing the whole stream.
+ *
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+class SharedKeystreamTest
+{
+    @BeforeAll
+    static void createAlphabet()
+    {
+        TableMachineTest.createAlphabet(); // alphabet and components of TableMachineTest.model
+    }
+
+    private static String letters(Random random, int length)
+    {
+        char[] text = new char[length];
+        for (int i = 0; i < length; i++)
+            text[i] = (char) ('A' + random.nextInt(26));
+        return new String(text);
+    }
+
+    @Test
+    void concurrentWriters() throws Exception
+    {
+        // the middle rotor starts one before its turnover, so the stream begins with a double step
+        ScramblerTables tables = ScramblerTables.of(TableMachineTest.model("I", "II", "III", new int[]{1, 1, 1}, "ADU",
+                "AB CD EF"));
+        SharedKeystream stream = new SharedKeystream(tables);
+
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        List<Future<List<String[]>>> results = new ArrayList<>();
+        for (int w = 0; w < 8; w++)
+        {
+            int seed = w;
+            results.add(writers.submit(() -> {
+                Random random = new Random(seed);
+                List<String[]> segments = new ArrayList<>();
+                for (int i = 0; i < 200; i++)
+                {
+                    String text = letters(random, random.nextInt(40));
+                    SharedKeystream.Segment segment = stream.write(text);
+                    segments.add(new String[]{Long.toString(segment.getOffset()), text, segment.getText()});
+                }
+                return segments;
+            }));
+        }
+        List<String[]> segments = new ArrayList<>();
+        for (Future<List<String[]>> result : results)
+            segments.addAll(result.get());
+        writers.shutdown();
+
+        // in order of offset, the segments are one stream, longer than the period of the rotors; an empty segment
+        // shares its offset with the next, so goes first
+        Collections.sort(segments, Comparator.<String[]>comparingLong(s -> Long.parseLong(s[0]))
+                .thenComparingInt(s -> s[1].length()));
+        StringBuilder plain = new StringBuilder();
+        StringBuilder cipher = new StringBuilder();
+        for (String[] segment : segments)
+        {
+            assertEquals(plain.length(), Long.parseLong(segment[0]));
+            plain.append(segment[1]);
+            cipher.append(segment[2]);
+        }
+        assertEquals(stream.getReserved(), plain.length());
+        assertTrue(plain.length() > stream.getPeriod());
+        assertEquals(new TableMachine(tables).type(plain.toString()), cipher.toString());
+    }
+
+    @Test
+    void positionsAt()
+    {
+        ScramblerTables tables = ScramblerTables.of(TableMachineTest.model("I", "II", "III", new int[]{1, 1, 1}, "ADU",
+                ""));
+        SharedKeystream stream = new SharedKeystream(tables);
+        assertEquals(26 * 25 * 26, stream.getPeriod()); // double stepping skips a position of the middle rotor
+
+        int[] positions = tables.getStartPositions();
+        for (long offset = 0; offset < 3 * stream.getPeriod(); offset++)
+        {
+            assertArrayEquals(positions, stream.positionsAt(offset));
+            tables.step(positions);
+        }
+        assertArrayEquals(stream.positionsAt(5), stream.positionsAt(5 + 1_000_000L * stream.getPeriod()));
+        assertThrows(IllegalArgumentException.class, () -> stream.positionsAt(-1));
+        assertThrows(IllegalArgumentException.class, () -> stream.reserve(-1));
+    }
+}
@@ -0,0 +1,85 @@
+package engines;
+
+import machine_pieces.*;
+import machines.ConstructedFullModel;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.WiringData;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test SpecializedMachine against TableMachine.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class SpecializedMachineTest
+{
+    @BeforeAll
+    static void createAlphabet()
+    {
+        TableMachineTest.createAlphabet(); // alphabet and components of TableMachineTest.model
+    }
+
+    /**
+     * Build a machine of any number of Enigma I rotors.
+     */
+    static ScramblerTables tables(Random random, String... names)
+    {
+        Rotor[] rotors = new Rotor[names.length];
+        for (int i = 0; i < names.length; i++)
+            rotors[i] = new Rotor(names[i], random.nextInt(26) + 1, (char) ('A' + random.nextInt(26)),
+                    WiringData.Enigma1());
+        Plugboard plugboard = new Plugboard();
+        for (String pair : "AV BS CG DL FU HZ IN KM OW RX".split(" "))
+            plugboard.insertWire(pair);
+        return ScramblerTables.of(new ConstructedFullModel(new EntryWheel(EntryWheel.ETWsequence.ABCDE), plugboard,
+                rotors, new Reflector("B", WiringData.Enigma1())));
+    }
+
+    @Test
+    void matchesTableMachine()
+    {
+        Random random = new Random(40);
+        String[][] orders = {{"I", "II", "III"}, {"V", "IV", "II"}, {"I", "II", "III", "IV"},
+                {"II", "V", "III", "IV"}, {"I", "II", "III", "IV", "V"}, {"III", "V"}};
+        Class<?>[] expected = {SpecializedMachine.ThreeRotors.class, SpecializedMachine.ThreeRotors.class,
+                SpecializedMachine.FourRotors.class, SpecializedMachine.FourRotors.class,
+                SpecializedMachine.Interpreted.class, SpecializedMachine.Interpreted.class};
+
+        for (int o = 0; o < orders.length; o++)
+        {
+            ScramblerTables tables = tables(random, orders[o]);
+            SpecializedMachine machine = SpecializedMachine.of(tables);
+            TableMachine reference = new TableMachine(tables);
+            assertEquals(expected[o], machine.getClass());
+            assertArrayEquals(reference.getPositions(), machine.getPositions());
+
+            // long enough for the double step of every rotor in a four rotor machine
+            int[] input = new int[20000];
+            for (int i = 0; i < input.length; i++)
+                input[i] = random.nextInt(26);
+            int[] output = new int[input.length];
+            machine.type(input, output, input.length);
+            for (int i = 0; i < input.length; i++)
+                assertEquals(reference.type(input[i]), output[i]);
+            assertArrayEquals(reference.getPositions(), machine.getPositions());
+        }
+    }
+
+    @Test
+    void type()
+    {
+        SpecializedMachine machine = SpecializedMachine.of(ScramblerTables.of(TableMachineTest.model("I", "II", "III",
+                new int[]{1, 1, 1}, "AAA", "")));
+        assertEquals("BDZGO", machine.type("AAAAA"));
+        machine.setPositions(0, 0, 26);
+        assertEquals("BDZGO", machine.type("AAAAA"));
+        assertThrows(IllegalArgumentException.class, () -> machine.type('a'));
+        assertThrows(IllegalArgumentException.class, () -> machine.setPositions(0, 0));
+    }
+}
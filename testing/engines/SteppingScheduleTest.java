@@ -0,0 +1,96 @@
+package engines;
+
+import machines.ConstructedFullModel;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test SteppingSchedule against ScramblerTables.step.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class SteppingScheduleTest
+{
+    @BeforeAll
+    static void createAlphabet()
+    {
+        TableMachineTest.createAlphabet(); // alphabet and components of TableMachineTest.model
+    }
+
+    @Test
+    void matchesStep()
+    {
+        ScramblerTables tables = ScramblerTables.of(TableMachineTest.model("II", "IV", "V", new int[]{2, 21, 12}, "AAA",
+                ""));
+        SteppingSchedule schedule = SteppingSchedule.of(tables);
+        assertEquals(26 * 26 * 26, schedule.states());
+
+        int[] positions = new int[3];
+        int[] scheduled = new int[3];
+        for (int state = 0; state < schedule.states(); state++)
+        {
+            schedule.positions(state, positions);
+            assertEquals(state, schedule.pack(positions));
+            tables.step(positions);
+            schedule.positions(schedule.next(state), scheduled);
+            assertArrayEquals(positions, scheduled);
+        }
+    }
+
+    @Test
+    void shared()
+    {
+        // stepping does not depend on rings, plugboard or positions, only on the wheel order
+        ScramblerTables a = ScramblerTables.of(TableMachineTest.model("I", "II", "III", new int[]{1, 1, 1}, "AAA", ""));
+        ScramblerTables b = ScramblerTables.of(TableMachineTest.model("I", "II", "III", new int[]{5, 9, 20}, "QEV",
+                "AB CD"));
+        ScramblerTables c = ScramblerTables.of(TableMachineTest.model("I", "III", "II", new int[]{1, 1, 1}, "AAA", ""));
+        assertSame(SteppingSchedule.of(a), SteppingSchedule.of(b));
+        assertNotSame(SteppingSchedule.of(a), SteppingSchedule.of(c));
+    }
+
+    @Test
+    void period()
+    {
+        ScramblerTables tables = ScramblerTables.of(TableMachineTest.model("I", "II", "III", new int[]{1, 1, 1}, "AAA",
+                ""));
+        SteppingSchedule schedule = SteppingSchedule.of(tables);
+
+        assertEquals(26 * 25 * 26, schedule.period(schedule.pack(new int[]{0, 0, 0}))); // double step skips 26
+        assertEquals(0, schedule.period(schedule.pack(new int[]{0, 4, 0}))); // AEA; middle on notch, never reached
+    }
+
+    @Test
+    void scheduledMachine()
+    {
+        Random random = new Random(38);
+        ConstructedFullModel reference = TableMachineTest.model("III", "II", "I", new int[]{3, 7, 11}, "ADU",
+                "AV BS CG DL FU HZ IN KM OW RX");
+        ScramblerTables tables = ScramblerTables.of(reference);
+        TableMachine machine = new TableMachine(tables, SteppingSchedule.of(tables));
+
+        int[] input = new int[5000];
+        int[] output = new int[input.length];
+        for (int i = 0; i < input.length; i++)
+            input[i] = random.nextInt(26);
+        machine.type(input, output, 100);
+        for (int i = 100; i < input.length; i++)
+            output[i] = machine.type(input[i]);
+
+        for (int i = 0; i < input.length; i++)
+            assertEquals(reference.type(tables.letterAt(input[i])), tables.letterAt(output[i]));
+
+        TableMachine stepped = new TableMachine(tables);
+        machine.setPositions(0, 3, 4);
+        stepped.setPositions(0, 3, 4);
+        for (int i = 0; i < 1000; i++)
+            assertEquals(stepped.type(input[i]), machine.type(input[i]));
+        assertArrayEquals(stepped.getPositions(), machine.getPositions());
+    }
+}
@@ -0,0 +1,126 @@
+package engines;
+
+import machine_pieces.*;
+import machines.ConstructedFullModel;
+import monitoring.CounterMetrics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test TableMachine against ConstructedFullModel.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class TableMachineTest
+{
+    static Map<String, Map<String, GearConstruction>> components;
+
+    @BeforeAll
+    static void createAlphabet()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+        components = WiringData.Enigma1();
+    }
+
+    /**
+     * Build a reference machine.
+     */
+    static ConstructedFullModel model(String left, String middle, String right, int[] rings, String positions,
+                                      String plugs)
+    {
+        Plugboard plugboard = new Plugboard();
+        for (String pair : plugs.split(" "))
+            if (!pair.isEmpty())
+                plugboard.insertWire(pair);
+
+        Rotor[] rotors = new Rotor[3];
+        String[] names = {left, middle, right};
+        for (int i = 0; i < 3; i++)
+            rotors[i] = new Rotor(names[i], rings[i], positions.charAt(i), components);
+
+        return new ConstructedFullModel(new EntryWheel(EntryWheel.ETWsequence.ABCDE), plugboard, rotors,
+                new Reflector("B", components));
+    }
+
+    @Test
+    void type()
+    {
+        ConstructedFullModel reference = model("I", "II", "III", new int[]{1, 1, 1}, "AAA", "");
+        TableMachine machine = new TableMachine(ScramblerTables.of(reference));
+
+        assertEquals("BDZGO", machine.type("AAAAA"));
+        assertArrayEquals(new int[]{0, 0, 5}, machine.getPositions());
+        assertThrows(IllegalArgumentException.class, () -> machine.type('a'));
+    }
+
+    @Test
+    void typeMatchesConstructedFullModel()
+    {
+        Random random = new Random(26);
+        String[] rotorNames = {"I", "II", "III", "IV", "V"};
+        for (int trial = 0; trial < 20; trial++)
+        {
+            int[] rings = {random.nextInt(26) + 1, random.nextInt(26) + 1, random.nextInt(26) + 1};
+            String positions = "" + (char) ('A' + random.nextInt(26)) + (char) ('A' + random.nextInt(26)) +
+                    (char) ('A' + random.nextInt(26));
+            ConstructedFullModel reference = model(rotorNames[trial % 5], rotorNames[(trial + 1) % 5],
+                    rotorNames[(trial + 3) % 5], rings, positions, "AV BS CG DL FU HZ IN KM OW RX");
+            TableMachine machine = new TableMachine(ScramblerTables.of(reference));
+
+            for (int i = 0; i < 1000; i++)
+            {
+                char letter = (char) ('A' + random.nextInt(26));
+                assertEquals(reference.type(letter), machine.type(letter));
+            }
+        }
+    }
+
+    @Test
+    void setPositions()
+    {
+        TableMachine machine = new TableMachine(ScramblerTables.of(model("I", "II", "III", new int[]{1, 1, 1}, "AAA", "")));
+        machine.type("HELLO");
+        machine.setPositions(0, 0, 0);
+        assertEquals("BDZGO", machine.type("AAAAA"));
+        assertThrows(IllegalArgumentException.class, () -> machine.setPositions(0, 0));
+    }
+
+    @Test
+    void metricsMatchConstructedFullModel()
+    {
+        ConstructedFullModel reference = model("I", "II", "III", new int[]{1, 1, 1}, "ADU", "");
+        TableMachine machine = new TableMachine(ScramblerTables.of(reference));
+        CounterMetrics expected = new CounterMetrics("model", 3);
+        CounterMetrics actual = new CounterMetrics("tables", 3);
+        reference.setMetrics(expected);
+        machine.setMetrics(actual);
+
+        int[] letters = new int[2000];
+        for (int i = 0; i < letters.length; i++)
+            assertEquals(reference.type('A'), machine.getTables().letterAt(machine.type(0)));
+        machine.type(letters, letters, letters.length);
+        for (int i = 0; i < letters.length; i++)
+            reference.type('A');
+
+        assertEquals(expected.getKeyPresses(), actual.getKeyPresses());
+        for (int slot = 0; slot < 3; slot++)
+        {
+            assertEquals(expected.getRotorSteps(slot), actual.getRotorSteps(slot));
+            assertEquals(expected.getTurnovers(slot), actual.getTurnovers(slot));
+            assertEquals(expected.getDoubleSteps(slot), actual.getDoubleSteps(slot));
+        }
+        assertTrue(actual.getDoubleSteps(1) > 0);
+        assertEquals(letters.length, actual.getLetters());
+    }
+}
@@ -0,0 +1,57 @@
+package machine_pieces;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.AlphabetConverter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test NotchMask.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class NotchMaskTest
+{
+    @BeforeAll
+    static void createAlphabet()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    }
+
+    @Test
+    void of()
+    {
+        NotchMask mask = NotchMask.of("ZM".toCharArray());
+        assertEquals(26, mask.size());
+        assertEquals(2, mask.count());
+        assertArrayEquals(new int[]{12, 25}, mask.positions());
+        for (int p = 0; p < 26; p++)
+            assertEquals(p == 12 || p == 25, mask.isSet(p));
+
+        assertEquals(0, NotchMask.of(new char[]{'?'}).count()); // not in alphabet
+        assertEquals(mask, new NotchMask(26, 25, 12));
+    }
+
+    @Test
+    void manyNotches()
+    {
+        // cog-driven rotors: many notches, on a ring larger than one long
+        int[] notches = {0, 5, 63, 64, 65, 99, 127, 128, 149};
+        NotchMask mask = new NotchMask(150, notches);
+        assertEquals(notches.length, mask.count());
+        assertArrayEquals(notches, mask.positions());
+        int set = 0;
+        for (int p = 0; p < 150; p++)
+            set += mask.isSet(p) ? 1 : 0;
+        assertEquals(notches.length, set);
+        assertFalse(mask.isSet(62));
+
+        assertEquals(0, new NotchMask(10, -1, 10).count()); // out of range
+        assertThrows(IllegalArgumentException.class, () -> new NotchMask(0));
+    }
+}
@@ -10,9 +10,9 @@ import static org.junit.jupiter.api.Assertions.*;
 
 /***
  * @author Eliezer Meth
- * @version 1.1<br>
+ * @version 1.2<br>
  * Start Date: 2024-04-11<br>
- * Last Modified: 2024-05-08
+ * Last Modified: 2026-10-19
  */
 class RotorTest
 {
@@ -229,4 +229,26 @@ class RotorTest
         assertEquals('S', rotor1.getWindow());
         assertFalse(propagate);
     }
-}
\ No newline at end of file
+
+    @Test
+    void isAtTurnover()
+    {
+        // rotor VI has two notches, at Z and M
+        Rotor rotor = new Rotor("VI", 5, 'K', WiringData.EnigmaM3());
+        int turnovers = 0;
+        for (int i = 0; i < 26; i++)
+        {
+            boolean expected = rotor.getWindow() == 'Z' || rotor.getWindow() == 'M';
+            assertEquals(expected, rotor.isAtTurnover());
+            assertEquals(expected, rotor.step());
+            turnovers += expected ? 1 : 0;
+        }
+        assertEquals(2, turnovers);
+
+        rotor.setRingSetting(9); // ring setting restores A to the window
+        assertEquals('A', rotor.getWindow());
+        assertFalse(rotor.isAtTurnover());
+        rotor.setGroundPosition('M');
+        assertTrue(rotor.isAtTurnover());
+    }
+}
@@ -1,6 +1,7 @@
 package machines;
 
 import machine_pieces.*;
+import monitoring.CounterMetrics;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import resources.AlphabetConverter;
@@ -66,6 +67,42 @@ class ConstructedFullModelTest
         assertEquals('B', model.getRotorAssembly()[1].getWindow());
     }
 
+    @Test
+    void doubleStep()
+    {
+        Map<String, Map<String, GearConstruction>> components = WiringData.Enigma1();
+        Rotor[] rotors = {new Rotor("I", components), new Rotor("II", components), new Rotor("III", components)};
+        ConstructedFullModel machine = new ConstructedFullModel(new EntryWheel(EntryWheel.ETWsequence.ABCDE),
+                new Plugboard(), rotors, new Reflector("B", components));
+        CounterMetrics metrics = new CounterMetrics("I-II-III", 3);
+        machine.setMetrics(metrics);
+
+        rotors[0].setGroundPosition('A');
+        rotors[1].setGroundPosition('D');
+        rotors[2].setGroundPosition('U');
+
+        // ADU -> ADV -> AEW -> BFX; middle rotor steps on its own notch
+        String[] windows = {"ADV", "AEW", "BFX", "BFY"};
+        for (String expected : windows)
+        {
+            machine.type('A');
+            assertEquals(expected, "" + rotors[0].getWindow() + rotors[1].getWindow() + rotors[2].getWindow());
+        }
+
+        assertEquals(4, metrics.getKeyPresses());
+        assertEquals(1, metrics.getRotorSteps(0));
+        assertEquals(2, metrics.getRotorSteps(1));
+        assertEquals(4, metrics.getRotorSteps(2));
+        assertEquals(1, metrics.getTurnovers(1));
+        assertEquals(1, metrics.getTurnovers(2));
+        assertEquals(1, metrics.getDoubleSteps(1));
+        assertEquals(0, metrics.getDoubleSteps(0));
+
+        machine.getPlugboard().insertWire("AB");
+        machine.getPlugboard().removeWire('A');
+        assertEquals(2, metrics.getPlugboardChanges());
+    }
+
     @Test
     void getEntryWheel()
     {
@@ -0,0 +1,122 @@
+package machines;
+
+import exceptions.BadKeyException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test DoubledIndicatorProcedure.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class DoubledIndicatorProcedureTest
+{
+    static MachineKey manual1930;
+
+    @BeforeAll
+    static void createKey()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+
+        // example of the 1930 instruction manual
+        manual1930 = new MachineKey(WiringData.enimgaVersion.ENIGMA_1, new String[]{"II", "I", "III"},
+                new int[]{24, 13, 22}, "A", "AM FI NV PS TU WZ");
+    }
+
+    @Test
+    void historicBody()
+    {
+        DoubledIndicatorProcedure procedure = new DoubledIndicatorProcedure(manual1930, "FOL");
+        assertEquals("FEINDLIQEINFANTERIEKOLONNEBEOBAQTETXANFANGSUEDAUSGANGBAERWALDEXENDEDREIKMOSTWAERTSNEUSTADT",
+                procedure.type("ABL", "GCDSEAHUGWTQGRKVLFGXUCALXVYMIGMMNMFDXTGNVHVRMMEVOUYFZSLRHDRRXFJWCFHUHMUNZEF" +
+                        "RDISIKBGPMYVXUZ"));
+    }
+
+    @Test
+    void decipherAll()
+    {
+        DoubledIndicatorProcedure procedure = new DoubledIndicatorProcedure(manual1930, "FOL");
+        ConstructedFullModel reference = manual1930.build();
+        Random random = new Random(34);
+
+        List<String> indicators = new ArrayList<>();
+        List<String> bodies = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<String> plaintexts = new ArrayList<>();
+        for (int i = 0; i < 50; i++)
+        {
+            char[] key = new char[3];
+            char[] text = new char[1 + random.nextInt(80)];
+            for (int j = 0; j < key.length; j++)
+                key[j] = (char) ('A' + random.nextInt(26));
+            for (int j = 0; j < text.length; j++)
+                text[j] = (char) ('A' + random.nextInt(26));
+
+            // encipher with a separate machine, as the sending operator would
+            StringBuilder indicator = new StringBuilder();
+            setPositions(reference, "FOL");
+            for (char c : (new String(key) + new String(key)).toCharArray())
+                indicator.append(reference.type(c));
+            StringBuilder body = new StringBuilder();
+            setPositions(reference, new String(key));
+            for (char c : text)
+                body.append(reference.type(c));
+
+            assertEquals(indicator.toString(), procedure.encipherIndicator(new String(key)));
+            indicators.add(indicator.toString());
+            bodies.add(body.toString());
+            keys.add(new String(key));
+            plaintexts.add(new String(text));
+        }
+
+        String garbled = indicators.get(0).substring(0, 5) + (indicators.get(0).charAt(5) == 'A' ? 'B' : 'A');
+        indicators.add(garbled);
+        bodies.add("ABC");
+        indicators.add("ABC");
+        bodies.add("ABC");
+
+        List<DoubledIndicatorProcedure.Result> results = procedure.decipherAll(indicators, bodies);
+        for (int i = 0; i < keys.size(); i++)
+        {
+            assertEquals(DoubledIndicatorProcedure.Status.OK, results.get(i).getStatus());
+            assertEquals(keys.get(i), results.get(i).getMessageKey());
+            assertEquals(plaintexts.get(i), results.get(i).getPlaintext());
+        }
+        assertEquals(DoubledIndicatorProcedure.Status.INCONSISTENT, results.get(keys.size()).getStatus());
+        assertNull(results.get(keys.size()).getPlaintext());
+        assertEquals(DoubledIndicatorProcedure.Status.MALFORMED, results.get(keys.size() + 1).getStatus());
+        assertEquals(indicators.subList(0, keys.size()), DoubledIndicatorProcedure.consistentIndicators(results));
+    }
+
+    @Test
+    void badSettings()
+    {
+        assertThrows(BadKeyException.class, () -> new DoubledIndicatorProcedure(manual1930, "FO"));
+        assertThrows(BadKeyException.class, () -> new DoubledIndicatorProcedure(manual1930, "FO?"));
+
+        DoubledIndicatorProcedure procedure = new DoubledIndicatorProcedure(manual1930, "FOL");
+        assertThrows(BadKeyException.class, () -> procedure.encipherIndicator("AB"));
+        assertThrows(IllegalArgumentException.class, () -> procedure.type("ABC", "AB1"));
+        assertThrows(IllegalArgumentException.class,
+                () -> procedure.decipherAll(Arrays.asList("ABCABC"), new ArrayList<>()));
+    }
+
+    static void setPositions(ConstructedFullModel model, String letters)
+    {
+        for (int i = 0; i < letters.length(); i++)
+            model.getRotorAssembly()[i].setGroundPosition(letters.charAt(i));
+    }
+}
@@ -0,0 +1,154 @@
+package machines;
+
+import exceptions.BadKeyException;
+import machine_pieces.Rotor;
+import monitoring.CounterMetrics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test MachinePool against machines built fresh from each key.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class MachinePoolTest
+{
+    @BeforeAll
+    static void createAlphabet()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    }
+
+    private static String letters(Random random, int length)
+    {
+        char[] text = new char[length];
+        for (int i = 0; i < length; i++)
+            text[i] = (char) ('A' + random.nextInt(26));
+        return new String(text);
+    }
+
+    private static MachineKey randomKey(Random random)
+    {
+        List<String> names = new ArrayList<>();
+        for (String name : new String[]{"I", "II", "III", "IV", "V", "VI", "VII", "VIII"})
+            names.add(name);
+        Collections.shuffle(names, random);
+
+        List<Character> letters = new ArrayList<>();
+        for (char c = 'A'; c <= 'Z'; c++)
+            letters.add(c);
+        Collections.shuffle(letters, random);
+        StringBuilder plugboard = new StringBuilder();
+        for (int i = 0, pairs = random.nextInt(11); i < pairs; i++)
+            plugboard.append(letters.get(2 * i)).append(letters.get(2 * i + 1)).append(' ');
+
+        return new MachineKey(WiringData.enimgaVersion.ENIGMA_M3, names.subList(0, 3).toArray(new String[0]),
+                new int[]{1 + random.nextInt(26), 1 + random.nextInt(26), 1 + random.nextInt(26)},
+                random.nextBoolean() ? "B" : "C", plugboard.toString());
+    }
+
+    private static String type(ConstructedFullModel model, String text)
+    {
+        char[] out = text.toCharArray();
+        for (int i = 0; i < out.length; i++)
+            out[i] = model.type(out[i]);
+        return new String(out);
+    }
+
+    @Test
+    void matchesFreshMachines()
+    {
+        MachinePool pool = new MachinePool(WiringData.enimgaVersion.ENIGMA_M3, 2);
+        Random random = new Random(45);
+        for (int i = 0; i < 300; i++)
+        {
+            MachineKey key = randomKey(random);
+            String positions = letters(random, 3);
+            String text = letters(random, 1 + random.nextInt(80));
+
+            ConstructedFullModel fresh = key.build();
+            Rotor[] rotors = fresh.getRotorAssembly();
+            for (int slot = 0; slot < 3; slot++)
+                rotors[slot].setGroundPosition(positions.charAt(slot));
+
+            try (MachinePool.Lease lease = pool.acquire(key, positions))
+            {
+                assertEquals(type(fresh, text), type(lease.getModel(), text), key + " " + positions);
+                if (random.nextInt(10) == 0) // borrower rewires the plugboard; next loan must not see it
+                    lease.getModel().getPlugboard().resetPlugboard();
+            }
+        }
+
+        MachinePool.Stats stats = pool.stats();
+        assertEquals(1, stats.misses()); // one machine, restored each time
+        assertEquals(299, stats.hits());
+        assertEquals(1, stats.idle());
+    }
+
+    @Test
+    void boundedAndReset()
+    {
+        MachineKey key = new MachineKey(WiringData.enimgaVersion.ENIGMA_1, new String[]{"II", "IV", "V"},
+                new int[]{2, 21, 12}, "B", "AV BS CG DL FU HZ IN KM OW RX");
+        MachinePool pool = new MachinePool(WiringData.enimgaVersion.ENIGMA_1, 3);
+        pool.prebuild(key, 10);
+        assertEquals(3, pool.getIdle());
+
+        List<MachinePool.Lease> leases = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+            leases.add(pool.acquire(key, "BLA"));
+        assertEquals(0, pool.getIdle());
+        CounterMetrics metrics = new CounterMetrics("lent", 3);
+        leases.get(0).getModel().setMetrics(metrics);
+        for (MachinePool.Lease lease : leases)
+            lease.close();
+        leases.get(0).close(); // again; no effect
+
+        MachinePool.Stats stats = pool.stats();
+        assertEquals(3, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(2, stats.discards());
+        assertEquals(3, stats.idle());
+        assertThrows(IllegalStateException.class, () -> leases.get(0).getModel());
+
+        // metrics of a borrower are not kept by the pool
+        try (MachinePool.Lease lease = pool.acquire(key, "BLA"))
+        {
+            lease.getModel().type('A');
+        }
+        assertEquals(0, metrics.getKeyPresses());
+    }
+
+    @Test
+    void badKeys()
+    {
+        MachinePool pool = new MachinePool(WiringData.enimgaVersion.ENIGMA_1, 2);
+        MachineKey key = new MachineKey(WiringData.enimgaVersion.ENIGMA_1, new String[]{"I", "II", "III"},
+                new int[]{1, 1, 1}, "B", "");
+        assertThrows(BadKeyException.class, () -> pool.acquire(key, "AB"));
+        assertThrows(BadKeyException.class, () -> pool.acquire(key, "AB1"));
+        assertThrows(BadKeyException.class, () -> pool.acquire(new MachineKey(WiringData.enimgaVersion.ENIGMA_M3,
+                new String[]{"I", "II", "III"}, new int[]{1, 1, 1}, "B", ""), "AAA"));
+        assertThrows(BadKeyException.class, () -> pool.acquire(new MachineKey(WiringData.enimgaVersion.ENIGMA_1,
+                new String[]{"I", "I", "III"}, new int[]{1, 1, 1}, "B", ""), "AAA"));
+
+        // a machine whose restore failed is still restored fully next time
+        try (MachinePool.Lease lease = pool.acquire(key, "AAA"))
+        {
+            assertEquals(type(key.build(), "AAAAA"), type(lease.getModel(), "AAAAA"));
+        }
+    }
+}
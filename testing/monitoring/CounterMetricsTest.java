@@ -0,0 +1,85 @@
+package monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test CounterMetrics and MetricsReporter.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class CounterMetricsTest
+{
+    @Test
+    void counts() throws InterruptedException
+    {
+        CounterMetrics metrics = new CounterMetrics("shared", 3);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++)
+        {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++)
+                {
+                    metrics.keysPressed(1);
+                    metrics.rotorStepped(2);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(40000, metrics.getKeyPresses());
+        assertEquals(40000, metrics.getRotorSteps(2));
+        metrics.rotorStepped(5); // beyond counted slots; ignored
+
+        metrics.reset();
+        assertEquals(0, metrics.getKeyPresses());
+    }
+
+    @Test
+    void toPrometheus()
+    {
+        CounterMetrics metrics = new CounterMetrics("I-II-III", 2);
+        metrics.keysPressed(3);
+        metrics.doubleStep(1);
+        metrics.messageProcessed(3);
+
+        String text = metrics.toPrometheus();
+        assertTrue(text.contains("# TYPE enigma_keypresses_total counter\n"));
+        assertTrue(text.contains("enigma_keypresses_total{machine=\"I-II-III\"} 3\n"));
+        assertTrue(text.contains("enigma_double_steps_total{machine=\"I-II-III\",slot=\"0\"} 0\n"));
+        assertTrue(text.contains("enigma_double_steps_total{machine=\"I-II-III\",slot=\"1\"} 1\n"));
+        assertTrue(text.contains("enigma_letters_total{machine=\"I-II-III\"} 3\n"));
+        assertTrue(metrics.toText().contains("double steps:"));
+    }
+
+    @Test
+    void reporter() throws InterruptedException
+    {
+        CounterMetrics metrics = new CounterMetrics("reported", 3);
+        metrics.keysPressed(7);
+        List<String> dumps = Collections.synchronizedList(new ArrayList<>());
+
+        MetricsReporter reporter = new MetricsReporter(Collections.singletonList(metrics),
+                MetricsReporter.Format.PROMETHEUS, dumps::add, 10, TimeUnit.MILLISECONDS);
+        Thread.sleep(100);
+        reporter.close();
+        int count = dumps.size();
+        reporter.close();
+
+        assertTrue(count >= 2); // at least one periodic and the final dump
+        assertEquals(count, dumps.size()); // nothing after close
+        assertTrue(dumps.get(count - 1).contains("enigma_keypresses_total{machine=\"reported\"} 7"));
+        assertThrows(IllegalArgumentException.class, () -> new MetricsReporter(Collections.singletonList(metrics),
+                MetricsReporter.Format.TEXT, dumps::add, 0, TimeUnit.SECONDS));
+    }
+}
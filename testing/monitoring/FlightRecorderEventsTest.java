@@ -0,0 +1,90 @@
+package monitoring;
+
+import engines.MachineCache;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import machines.MachineKey;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test that the Flight Recorder events are recorded.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class FlightRecorderEventsTest
+{
+    @BeforeAll
+    static void createAlphabet()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    }
+
+    @Test
+    void recorded() throws IOException
+    {
+        MachineKey key = new MachineKey(WiringData.enimgaVersion.ENIGMA_1, new String[]{"I", "II", "III"},
+                new int[]{1, 1, 1}, "B", "");
+        MachineCache cache = new MachineCache(2);
+
+        List<RecordedEvent> events = new ArrayList<>();
+        Path file = Files.createTempFile("enigma", ".jfr");
+        try (Recording recording = new Recording())
+        {
+            for (String name : new String[]{"enigma.MachineBuild", "enigma.Encryption", "enigma.CacheLookup"})
+                recording.enable(name).withThreshold(java.time.Duration.ZERO);
+            recording.start();
+
+            key.build();
+            cache.cursor(key, "AAA").type("HELLOWORLD");
+            cache.cursor(key, "AAA");
+
+            recording.stop();
+            recording.dump(file);
+            events.addAll(RecordingFile.readAllEvents(file));
+        }
+        finally
+        {
+            Files.deleteIfExists(file);
+        }
+
+        int builds = 0, encryptions = 0, hits = 0, misses = 0;
+        for (RecordedEvent event : events)
+            switch (event.getEventType().getName())
+            {
+                case "enigma.MachineBuild":
+                    builds++;
+                    assertEquals("I-II-III", event.getString("wheelOrder"));
+                    break;
+                case "enigma.Encryption":
+                    encryptions++;
+                    assertEquals(10, event.getInt("length"));
+                    break;
+                case "enigma.CacheLookup":
+                    if (event.getBoolean("hit"))
+                        hits++;
+                    else
+                        misses++;
+                    break;
+            }
+        assertEquals(2, builds); // MachineBuilder, then ScramblerTables on the cache miss
+        assertEquals(1, encryptions);
+        assertEquals(1, hits);
+        assertEquals(1, misses);
+    }
+}
@@ -0,0 +1,104 @@
+package monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test LatencyHistogram and LatencyRecorder.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class LatencyHistogramTest
+{
+    @Test
+    void buckets()
+    {
+        int precision = LatencyHistogram.DEFAULT_PRECISION;
+        Random random = new Random(37);
+        for (int i = 0; i < 100000; i++)
+        {
+            long value = random.nextLong() >>> (1 + random.nextInt(63)); // non-negative
+            int bucket = LatencyHistogram.bucketOf(value, precision);
+            assertTrue(LatencyHistogram.lowestOf(bucket, precision) <= value);
+            assertTrue(LatencyHistogram.highestOf(bucket, precision) >= value);
+            assertTrue(LatencyHistogram.highestOf(bucket, precision) - value <= value >>> precision); // relative error
+        }
+
+        // buckets are contiguous
+        for (int bucket = 1; bucket < 5000; bucket++)
+            assertEquals(LatencyHistogram.highestOf(bucket - 1, precision) + 1,
+                    LatencyHistogram.lowestOf(bucket, precision));
+    }
+
+    @Test
+    void percentiles()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 10000; v++)
+            histogram.record(v * 1000); // 1 us to 10 ms
+        histogram.record(Long.MAX_VALUE); // clamped to highest trackable
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(10001, snapshot.getCount());
+        assertEquals(5_000_000, snapshot.valueAtPercentile(50), 5_000_000 / 100.0);
+        assertEquals(9_900_000, snapshot.valueAtPercentile(99), 9_900_000 / 100.0);
+        assertEquals(LatencyHistogram.DEFAULT_HIGHEST, snapshot.getMax(), LatencyHistogram.DEFAULT_HIGHEST / 100.0);
+        assertEquals(0, new LatencyHistogram().snapshot().valueAtPercentile(99));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.valueAtPercentile(101));
+    }
+
+    @Test
+    void intervalSnapshot() throws InterruptedException
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++)
+        {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 25000; i++)
+                    histogram.record(100);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(100000, histogram.intervalSnapshot().getCount());
+        histogram.record(1_000_000);
+        LatencyHistogram.Snapshot interval = histogram.intervalSnapshot();
+        assertEquals(1, interval.getCount());
+        assertEquals(1_000_000, interval.valueAtPercentile(50), 1_000_000 / 100.0);
+        assertEquals(100001, histogram.snapshot().getCount());
+    }
+
+    @Test
+    void recorder()
+    {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record("ENIGMA_1", 100, 2_000);
+        recorder.record("ENIGMA_1", 10, 100); // below 2^precision; exact
+        recorder.record("ENIGMA_1", 10000, 50_000);
+        recorder.record("ENIGMA_D", 10, 3_000);
+
+        List<LatencyRecorder.Percentiles> report = recorder.report(false);
+        assertEquals(4, report.size());
+        assertEquals("16", report.get(0).getSize());
+        assertEquals("256", report.get(1).getSize());
+        assertEquals("+Inf", report.get(2).getSize());
+        assertEquals("ENIGMA_D", report.get(3).getVersion());
+        assertEquals(1, report.get(0).getCount());
+
+        String text = recorder.toPrometheus(true);
+        assertTrue(text.contains("# TYPE enigma_request_latency_seconds summary\n"));
+        assertTrue(text.contains("enigma_request_latency_seconds{version=\"ENIGMA_1\",size=\"16\",quantile=\"0.99\"} " +
+                "0.000000100\n"));
+        assertTrue(text.contains("enigma_request_latency_seconds_count{version=\"ENIGMA_D\",size=\"16\"} 1\n"));
+        assertTrue(recorder.toText(true).contains(" 0 ")); // nothing since the last interval
+    }
+}
@@ -0,0 +1,237 @@
+package processing;
+
+import engines.MachineCache;
+import machines.MachineKey;
+import monitoring.LatencyRecorder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import resources.AlphabetConverter;
+import resources.WiringData;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test ArchiveProcessor, MessageArchive and ReorderBuffer.
+ *
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+class ArchiveProcessorTest
+{
+    static final String BARBAROSSA =
+            "KEY 1941-07-07 ENIGMA_1 B II-IV-V 02-21-12 AV BS CG DL FU HZ IN KM OW RX\n" +
+            "MSG 1tl 1941-07-07 WXC KCH\n" +
+            "EDPUD NRGYS ZRCXN UYTPO MRMBO FKTBZ REZKM LXLVE FGUEY SIOZV EQMIK UBPMM YLKLT TDEIS\n" +
+            "MDICA GYKUA CTCDO MOHWX MUUIA UBSTS LRNBZ SZWNR FXWFY SSXJZ VIJHI DISHP RKLKA YUPAD\n" +
+            "TXQSP INQMA TLPIF SVKDA SCTAC DPBOP VHJK\n";
+
+    @BeforeAll
+    static void createAlphabet()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    }
+
+    static String letters(Random random, int length)
+    {
+        char[] text = new char[length];
+        for (int i = 0; i < length; i++)
+            text[i] = (char) ('A' + random.nextInt(26));
+        return new String(text);
+    }
+
+    @Test
+    void historicMessage() throws IOException, InterruptedException
+    {
+        StringWriter out = new StringWriter();
+        ArchiveProcessor processor = new ArchiveProcessor(new MachineCache(4), 2, 4);
+        LatencyRecorder latency = new LatencyRecorder();
+        processor.setLatencyRecorder(latency);
+        ArchiveProcessor.Report report = processor.process(new MessageArchive(new StringReader(BARBAROSSA)), out);
+
+        assertEquals(1, report.getMessages());
+        assertEquals(1, latency.histogram("ENIGMA_1", 174).getCount());
+        assertEquals("1tl BLA AUFKLXABTEILUNGXVONXKURTINOWAXKURTINOWAXNORDWESTLXSEBEZXSEBEZXUAFFLIEGERSTRASZERIQTUNG" +
+                "XDUBROWKIXDUBROWKIXOPOTSCHKAXOPOTSCHKAXUMXEINSAQTDREINULLXUHRANGETRETENXANGRIFFXINFXRGTX\n",
+                out.toString());
+    }
+
+    @Test
+    void inOrderAcrossKeys() throws IOException, InterruptedException
+    {
+        Random random = new Random(33);
+        MachineCache cache = new MachineCache(8);
+        String[][] orders = {{"I", "II", "III"}, {"V", "III", "I"}, {"IV", "I", "II"}};
+        StringBuilder archive = new StringBuilder("# generated archive\n");
+        for (int k = 0; k < orders.length; k++)
+            archive.append("KEY day").append(k).append(" ENIGMA_1 B ").append(String.join("-", orders[k]))
+                    .append(" 01-").append(10 + k).append("-26 AB CD EF\n\n");
+
+        int count = 500;
+        String[] expected = new String[count];
+        for (int i = 0; i < count; i++)
+        {
+            int k = random.nextInt(orders.length);
+            MachineKey key = new MachineKey(WiringData.enimgaVersion.ENIGMA_1, orders[k],
+                    new int[]{1, 10 + k, 26}, "B", "AB CD EF");
+            String ground = letters(random, 3);
+            String messageKey = letters(random, 3);
+            String plaintext = letters(random, 1 + random.nextInt(300));
+            String indicator = cache.cursor(key, ground).type(messageKey);
+            String body = cache.cursor(key, messageKey).type(plaintext);
+
+            archive.append("MSG m").append(i).append(" day").append(k).append(' ').append(ground).append(' ')
+                    .append(indicator).append('\n');
+            for (int g = 0; g < body.length(); g += 5) // five-letter groups
+                archive.append(body, g, Math.min(g + 5, body.length())).append(g % 50 == 45 ? '\n' : ' ');
+            archive.append("\n\n");
+            expected[i] = "m" + i + " " + messageKey + " " + plaintext;
+        }
+        archive.append("MSG bad day0 AAA AAA\nAB?DE\n"); // letter not in alphabet
+
+        StringWriter out = new StringWriter();
+        ArchiveProcessor processor = new ArchiveProcessor(new MachineCache(2), 4, 16);
+        ArchiveProcessor.Report report = processor.process(new MessageArchive(new StringReader(archive.toString())),
+                out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(count + 1, lines.length);
+        for (int i = 0; i < count; i++)
+            assertEquals(expected[i], lines[i]);
+        assertTrue(lines[count].startsWith("bad ERROR "));
+        assertEquals(count + 1, report.getMessages());
+        assertEquals(1, report.getFailed());
+        assertTrue(report.messagesPerSecond() > 0);
+    }
+
+    @Test
+    void badArchive()
+    {
+        ArchiveProcessor processor = new ArchiveProcessor(new MachineCache(2), 2, 2);
+        assertThrows(exceptions.BadKeyException.class, () -> processor.process(
+                new MessageArchive(new StringReader("MSG 1 nokey AAA AAA\nABCDE\n")), new StringWriter()));
+        assertThrows(exceptions.BadKeyException.class, () -> processor.process(
+                new MessageArchive(new StringReader("KEY k ENIGMA_1 B I-I-II 01-01-01\n")), new StringWriter()));
+    }
+
+    @Test
+    void interruptedWhileWindowFull() throws InterruptedException
+    {
+        StringBuilder archive = new StringBuilder(BARBAROSSA);
+        for (int i = 0; i < 8; i++)
+            archive.append('\n').append(BARBAROSSA.substring(BARBAROSSA.indexOf("MSG")).replace("1tl", "m" + i));
+
+        // output that holds the writer on its first line, so the window fills behind it
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> writerThread = new AtomicReference<>();
+        Writer held = new StringWriter()
+        {
+            @Override
+            public void write(String str)
+            {
+                writerThread.set(Thread.currentThread());
+                writing.countDown();
+                try
+                {
+                    release.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                super.write(str);
+            }
+        };
+
+        ArchiveProcessor processor = new ArchiveProcessor(new MachineCache(2), 1, 1);
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try
+            {
+                processor.process(new MessageArchive(new StringReader(archive.toString())), held);
+            }
+            catch (Throwable t)
+            {
+                thrown.set(t);
+            }
+        });
+        reader.start();
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        reader.interrupt(); // waiting in reserve, or about to
+        reader.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(reader.isAlive());
+        assertTrue(thrown.get() instanceof InterruptedException, String.valueOf(thrown.get()));
+
+        // the writer is told to stop, and its thread ends
+        release.countDown();
+        writerThread.get().join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(writerThread.get().isAlive());
+    }
+
+    @Test
+    void writerFails()
+    {
+        StringBuilder archive = new StringBuilder(BARBAROSSA);
+        for (int i = 0; i < 8; i++)
+            archive.append('\n').append(BARBAROSSA.substring(BARBAROSSA.indexOf("MSG")).replace("1tl", "m" + i));
+        Writer full = new Writer()
+        {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException
+            {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void flush()
+            {
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        };
+
+        // the reader, stopped waiting for room, reports the failure of the writer
+        ArchiveProcessor processor = new ArchiveProcessor(new MachineCache(2), 1, 1);
+        IOException e = assertThrows(IOException.class, () -> processor.process(
+                new MessageArchive(new StringReader(archive.toString())), full));
+        assertEquals("disk full", e.getMessage());
+    }
+
+    @Test
+    void reorderBuffer() throws InterruptedException
+    {
+        ReorderBuffer<String> buffer = new ReorderBuffer<>(2);
+        buffer.reserve(0);
+        buffer.reserve(1);
+        buffer.put(1, "b");
+        buffer.put(0, "a");
+        assertThrows(IllegalArgumentException.class, () -> buffer.put(2, "c")); // not yet in flight
+        assertEquals("a", buffer.take());
+        buffer.reserve(2);
+        buffer.put(2, "c");
+        assertEquals("b", buffer.take());
+        assertEquals("c", buffer.take());
+        assertEquals(3, buffer.getTaken());
+
+        assertFalse(buffer.isAborted());
+        buffer.abort(new RuntimeException("stop"));
+        assertTrue(buffer.isAborted());
+        assertThrows(IllegalStateException.class, buffer::take);
+    }
+}
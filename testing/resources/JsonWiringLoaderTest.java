@@ -0,0 +1,107 @@
+package resources;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test JsonWiringLoader and JsonCatalogReader.
+ *
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+class JsonWiringLoaderTest
+{
+    static int[] table(String alphabet, String wiring)
+    {
+        int[] table = new int[wiring.length()];
+        for (int i = 0; i < table.length; i++)
+            table[i] = alphabet.indexOf(wiring.charAt(i));
+        return table;
+    }
+
+    @Test
+    void load() throws IOException
+    {
+        List<JsonWiringLoader.VersionTables> versions = JsonWiringLoader.load();
+        List<String> names = new ArrayList<>();
+        for (JsonWiringLoader.VersionTables v : versions)
+            names.add(v.getName());
+        assertTrue(names.containsAll(Arrays.asList("Enigma A-133", "Enigma D", "Enigma I: Service Enigma",
+                "Enigma I: Norway Enigma", "Enigma M3")));
+
+        // same wiring as the YAML catalog
+        VersionDefinition yaml = new VersionInformationCompiler().getVersion("I: Service Enigma");
+        JsonWiringLoader.VersionTables json = versions.get(names.indexOf("Enigma I: Service Enigma"));
+        assertEquals(yaml.getRotorSlots(), json.getRotorSlots());
+        for (VersionDefinition.RotorDefinition rotor : yaml.getRotors())
+        {
+            assertArrayEquals(table(yaml.getAlphabet(), rotor.getWiring()), json.getRotorWiring(rotor.getName()));
+            assertArrayEquals(table(yaml.getAlphabet(), rotor.getTurnover()), json.getTurnover(rotor.getName()));
+        }
+        for (VersionDefinition.ReflectorDefinition reflector : yaml.getReflectors())
+            assertArrayEquals(table(yaml.getAlphabet(), reflector.getWiring()),
+                    json.getReflectorWiring(reflector.getName()));
+
+        // each version uses its own alphabet
+        JsonWiringLoader.VersionTables a133 = versions.get(0);
+        assertEquals(27, a133.getRotorWiring("I")[4]); // O-umlaut, last of the alphabet
+        assertNull(a133.getETW());
+    }
+
+    @Test
+    void anyKeyOrder() throws IOException
+    {
+        String catalog = "{\"_comment\": [1, {\"a\": null}], \"versions\": [{\"rotorSlots\": 2, " +
+                "\"components\": {\"rotors\": [{\"wiringOrder\": \"CAB\", \"name\": \"X\", \"turnover\": \"B\", " +
+                "\"extra\": {\"deep\": [true, false]}}], \"reflectors\": [{\"name\": \"R\", \"wiringOrder\": " +
+                "\"B\\u0041C\"}], \"ETW\": \"ABC\"}, \"alphabet\": \"ABC\", \"name\": \"Tiny\"}]}";
+        List<JsonWiringLoader.VersionTables> versions = JsonWiringLoader.read(new StringReader(catalog));
+        assertEquals(1, versions.size());
+
+        JsonWiringLoader.VersionTables tiny = versions.get(0);
+        assertEquals("Tiny", tiny.getName());
+        assertEquals(2, tiny.getRotorSlots());
+        assertEquals(-1, tiny.getMaxConnections());
+        assertArrayEquals(new int[]{2, 0, 1}, tiny.getRotorWiring("X"));
+        assertArrayEquals(new int[]{1}, tiny.getTurnover("X"));
+        assertArrayEquals(new int[]{1, 0, 2}, tiny.getReflectorWiring("R"));
+        assertArrayEquals(new int[]{0, 1, 2}, tiny.getETW());
+    }
+
+    @Test
+    void malformed()
+    {
+        assertThrows(IOException.class, () -> JsonWiringLoader.read(new StringReader("[]")));
+        assertThrows(IOException.class,
+                () -> JsonWiringLoader.read(new StringReader("{\"versions\": [{\"name\": \"A\"")));
+        assertThrows(IOException.class, () -> JsonWiringLoader.read(new StringReader("{\"versions\": [}")));
+        assertThrows(IOException.class, () -> JsonWiringLoader.read(new StringReader("{\"versions\": tru}")));
+    }
+
+    @Test
+    void reader() throws IOException
+    {
+        JsonCatalogReader json = new JsonCatalogReader(new StringReader("{\"n\": -42, \"s\": \"a\\\"b\", \"e\": []}"));
+        assertEquals(JsonCatalogReader.Token.BEGIN_OBJECT, json.next());
+        assertEquals(JsonCatalogReader.Token.NAME, json.next());
+        assertTrue(json.textEquals("n"));
+        assertEquals(JsonCatalogReader.Token.NUMBER, json.next());
+        assertEquals(-42, json.intValue());
+        assertEquals(JsonCatalogReader.Token.NAME, json.next());
+        assertEquals(JsonCatalogReader.Token.STRING, json.next());
+        assertEquals("a\"b", json.text());
+        assertEquals(JsonCatalogReader.Token.NAME, json.next());
+        json.skipValue(json.next());
+        assertEquals(JsonCatalogReader.Token.END_OBJECT, json.next());
+        assertEquals(JsonCatalogReader.Token.END_DOCUMENT, json.next());
+    }
+}
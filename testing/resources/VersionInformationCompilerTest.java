@@ -0,0 +1,157 @@
+package resources;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test VersionInformationCompiler.
+ *
+ * @author Eliezer Meth
+ * @version 1.1<br>
+ * Start Date: 2026-10-19<br>
+ * Last Modified: 2026-10-19
+ */
+class VersionInformationCompilerTest
+{
+    @Test
+    void getVersionMenu()
+    {
+        VersionInformationCompiler compiler = new VersionInformationCompiler();
+        assertEquals(Arrays.asList("A-133", "D", "I: Service Enigma", "I: Norway Enigma"), compiler.getVersionMenu());
+    }
+
+    @Test
+    void getVersion()
+    {
+        VersionInformationCompiler compiler = new VersionInformationCompiler();
+        VersionDefinition service = compiler.getVersion("I: Service Enigma");
+        assertSame(service, compiler.getVersion("I: Service Enigma")); // memoized
+        assertEquals(5, service.getRotors().size());
+        assertEquals("EKMFLGDQVZNTOWYHXUSPAIBRCJ", service.getRotors().get(0).getWiring());
+        assertTrue(service.getPlugboardInstalled());
+        assertThrows(UnsupportedOperationException.class, () -> service.getRotors().clear());
+
+        // versions with other alphabets can be read side by side
+        VersionDefinition a133 = compiler.getVersion("A-133");
+        assertEquals("ABCDEFGHIJKLMNOPQRSTUVXYZ\u00C5\u00C4\u00D6", a133.getAlphabet());
+        assertTrue(a133.getReflectors().isEmpty());
+
+        assertNull(compiler.getVersion("Z"));
+    }
+
+    @Test
+    void sameAsFullRead()
+    {
+        VersionInformationCompiler compiler = new VersionInformationCompiler();
+        List<VersionDefinition> all = WiringCatalog.load();
+        for (VersionDefinition definition : all)
+            assertEquals(definition, compiler.getVersion(definition.getName()));
+    }
+
+    @Test
+    void untouchedVersionsNotParsed() throws IOException
+    {
+        // a version that cannot be composed, between two good ones; only its name may be read
+        String text;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(VersionInformationCompiler.YAML_RESOURCE))
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read; (read = in.read(buffer)) != -1; )
+                bytes.write(buffer, 0, read);
+            text = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+        String catalog = text.replace("  # Enigma D\n",
+                "  - name: \"Broken\"\n    rotor-slots: *undefined\n  # Enigma D\n");
+
+        VersionInformationCompiler compiler = new VersionInformationCompiler(
+                new ByteArrayInputStream(catalog.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(Arrays.asList("A-133", "Broken", "D", "I: Service Enigma", "I: Norway Enigma"),
+                compiler.getVersionMenu());
+        VersionInformationCompiler full = new VersionInformationCompiler();
+        for (String name : full.getVersionMenu())
+            assertEquals(full.getVersion(name), compiler.getVersion(name));
+
+        assertThrows(YAMLException.class, () -> compiler.getVersion("Broken"));
+        assertThrows(YAMLException.class, () -> VersionInformationCompiler.readDefinitions(
+                new ByteArrayInputStream(catalog.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Every version of a catalog, read lazily, the same as read at once.
+     */
+    private static void assertSameAsFullRead(String catalog, List<String> names)
+    {
+        VersionInformationCompiler compiler = new VersionInformationCompiler(
+                new ByteArrayInputStream(catalog.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(names, compiler.getVersionMenu());
+        List<VersionDefinition> all = VersionInformationCompiler.readDefinitions(
+                new ByteArrayInputStream(catalog.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(names.size(), all.size());
+        for (VersionDefinition definition : all)
+            assertEquals(definition, compiler.getVersion(definition.getName()));
+    }
+
+    @Test
+    void flowStyle()
+    {
+        String catalog = "versions:\n" +
+                "  - {name: \"X\", description: \"\", alphabet: \"ABC\",\n" +
+                "     components: {plugboard: {installed: false, max-connections: 0}, ETW: null,\n" +
+                "                  rotors: [{name: \"I\", wiring: \"BCA\", turnover: \"A\", notch: \"B\"," +
+                " rotatable: true,\n" +
+                "                            stepping: true}], reflectors: null},\n" +
+                "     rotor-slots: 1, comments: \"\"}\n" +
+                "  - {name: \"Y\", description: \"\", alphabet: \"ABC\"," +
+                " components: {plugboard: {installed: true, max-connections: 1}, ETW: null, rotors: null," +
+                " reflectors: null}, rotor-slots: 2, comments: \"\"}\n";
+        assertSameAsFullRead(catalog, Arrays.asList("X", "Y"));
+    }
+
+    @Test
+    void aliasOfEarlierVersion()
+    {
+        String catalog = "versions:\n" +
+                "  - name: \"X\"\n" +
+                "    description: \"\"\n" +
+                "    alphabet: \"ABC\"\n" +
+                "    components: &c\n" +
+                "      plugboard:\n" +
+                "        installed: false\n" +
+                "        max-connections: 0\n" +
+                "      ETW: null\n" +
+                "      rotors:\n" +
+                "        - &r {name: \"I\", wiring: \"BCA\", turnover: \"A\", notch: \"B\", rotatable: true," +
+                " stepping: true}\n" +
+                "      reflectors: null\n" +
+                "    rotor-slots: 1\n" +
+                "    comments: \"\"\n" +
+                "  - name: \"Y\"\n" +
+                "    description: \"\"\n" +
+                "    alphabet: \"ABC\"\n" +
+                "    components: *c\n" +
+                "    rotor-slots: 2\n" +
+                "    comments: \"\"\n" +
+                "  - name: \"Z\"\n" +
+                "    description: \"\"\n" +
+                "    alphabet: \"ABC\"\n" +
+                "    components:\n" +
+                "      plugboard: {installed: true, max-connections: 1}\n" +
+                "      ETW: null\n" +
+                "      rotors: [*r, &s {name: \"II\", wiring: \"CAB\"}, *s]\n" +
+                "      reflectors: null\n" +
+                "    rotor-slots: 3\n" +
+                "    comments: \"\"\n";
+        assertSameAsFullRead(catalog, Arrays.asList("X", "Y", "Z"));
+    }
+}
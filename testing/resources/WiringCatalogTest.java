@@ -0,0 +1,105 @@
+package resources;
+
+import machine_pieces.GearConstruction;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test WiringCatalog.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class WiringCatalogTest
+{
+    static List<VersionDefinition> yaml()
+    {
+        InputStream in = WiringCatalogTest.class.getClassLoader()
+                .getResourceAsStream(VersionInformationCompiler.YAML_RESOURCE);
+        return VersionInformationCompiler.readDefinitions(in);
+    }
+
+    @Test
+    void roundTrip() throws IOException
+    {
+        List<VersionDefinition> definitions = yaml();
+        byte[] binary = WiringCatalog.encode(definitions, 12345L);
+        assertEquals(12345L, WiringCatalog.sourceCrc(ByteBuffer.wrap(binary)));
+        assertEquals(definitions, WiringCatalog.read(ByteBuffer.wrap(binary)));
+    }
+
+    static byte[] resource(String name) throws IOException
+    {
+        try (InputStream in = WiringCatalogTest.class.getClassLoader().getResourceAsStream(name))
+        {
+            assertNotNull(in, name);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1)
+                bytes.write(b);
+            return bytes.toByteArray();
+        }
+    }
+
+    @Test
+    void committedBinaryMatchesYaml() throws IOException
+    {
+        // the compiled catalog must be recompiled (WiringCatalog.main) whenever the YAML changes
+        byte[] binary = resource(WiringCatalog.BINARY_RESOURCE);
+        assertEquals(WiringCatalog.crc(resource(VersionInformationCompiler.YAML_RESOURCE)),
+                WiringCatalog.sourceCrc(ByteBuffer.wrap(binary)));
+
+        List<VersionDefinition> definitions = yaml();
+        assertEquals(definitions, WiringCatalog.read(ByteBuffer.wrap(binary)));
+        assertEquals(definitions, WiringCatalog.load());
+        assertEquals(4, definitions.size());
+
+        VersionDefinition d = definitions.get(1);
+        assertEquals("D", d.getName());
+        assertEquals(1, d.getReflectors().size()); // reflectors of Enigma D belong to its components
+        assertEquals(3, d.getRotorSlots());
+        assertNull(definitions.get(0).getPlugboardInstalled());
+        assertNull(definitions.get(0).getETW());
+    }
+
+    @Test
+    void sameWiringAsWiringData()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+
+        VersionDefinition enigma1 = WiringCatalog.load().get(2);
+        Map<String, Map<String, GearConstruction>> components = WiringData.Enigma1();
+        for (VersionDefinition.RotorDefinition rotor : enigma1.getRotors())
+        {
+            GearConstruction gear = components.get("rotor").get(rotor.getName());
+            assertArrayEquals(new GearConstruction(rotor.getWiring(), rotor.getTurnover()).getWiringTable(),
+                    gear.getWiringTable());
+            assertEquals(rotor.getTurnover(), new String(gear.getTurnoverPositions()));
+        }
+        for (VersionDefinition.ReflectorDefinition reflector : enigma1.getReflectors())
+            assertTrue(Arrays.equals(new GearConstruction(reflector.getWiring(), false, false, false).getWiringTable(),
+                    components.get("reflector").get(reflector.getName()).getWiringTable()));
+    }
+
+    @Test
+    void rejectsOtherData()
+    {
+        assertThrows(IOException.class, () -> WiringCatalog.read(ByteBuffer.wrap(new byte[]{1, 2, 3})));
+
+        byte[] binary = WiringCatalog.encode(yaml(), 0L);
+        assertThrows(IOException.class,
+                () -> WiringCatalog.read(ByteBuffer.wrap(Arrays.copyOf(binary, binary.length - 10))));
+    }
+}
@@ -0,0 +1,62 @@
+package resources;
+
+import machine_pieces.GearConstruction;
+import machines.ConstructedFullModel;
+import machines.MachineBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test WiringData.
+ *
+ * @author Eliezer Meth
+ * @version 1<br>
+ * Start Date: 2026-10-19
+ */
+class WiringDataTest
+{
+    @BeforeAll
+    static void createAlphabet()
+    {
+        // ensure AlphabetConverter exists
+        if (!AlphabetConverter.exists())
+            AlphabetConverter.createAlphabetConverter("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    }
+
+    @Test
+    void loadedOnce()
+    {
+        assertSame(WiringData.Enigma1(), WiringData.Enigma1());
+        assertSame(WiringData.EnigmaM3(), WiringData.getComponents(WiringData.enimgaVersion.ENIGMA_M3));
+        assertNotSame(WiringData.Enigma1(), WiringData.EnigmaM3());
+    }
+
+    @Test
+    void unmodifiable()
+    {
+        Map<String, Map<String, GearConstruction>> components = WiringData.Enigma1();
+        assertThrows(UnsupportedOperationException.class, () -> components.remove("rotor"));
+        assertThrows(UnsupportedOperationException.class, () -> components.get("rotor").remove("I"));
+
+        int[] table = components.get("rotor").get("I").getWiringTable();
+        table[0] = -1;
+        assertEquals(4, components.get("rotor").get("I").getWiringTable()[0]); // E
+    }
+
+    @Test
+    void builderLeavesRegistryUnchanged()
+    {
+        // every slot, including the leftmost, can be filled, and used rotors stay in the shared registry
+        for (int i = 0; i < 2; i++)
+        {
+            ConstructedFullModel model = MachineBuilder.builder(WiringData.enimgaVersion.ENIGMA_1)
+                    .setRotor(3, "I").setRotor(2, "II").setRotor(1, "III").setReflector("B").build();
+            assertEquals("I", model.getRotorAssembly()[0].getRotorSelected());
+            assertEquals(5, WiringData.Enigma1().get("rotor").size());
+        }
+    }
+}